@@ -0,0 +1,102 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static java.lang.String.format;
+
+/**
+ * Generators of the data processed by the benchmarks. Generated data only depend on the seed, so that
+ * results can be compared between executions and between commits.
+ */
+public final class SyntheticData {
+
+  private static final String[] LINE_TEMPLATES = {
+    "  public void method%d(int count) {",
+    "    int value%d = compute(count, %d);",
+    "    if (value%d > %d) {",
+    "      LOGGER.debug(\"value is {}\", value%d);",
+    "    }",
+    "    return;",
+    "  }",
+    "",
+    "  // see SONAR-%d",
+    "    for (int i = 0; i < %d; i++) {",
+    "      list.add(new Item(i, \"item%d\"));",
+    "    throw new IllegalStateException(\"Fail to process item \" + %d);"
+  };
+
+  private SyntheticData() {
+    // only static methods
+  }
+
+  /**
+   * Lines of a Java-like source file. As in real projects, some lines are repeated in the file.
+   */
+  public static List<String> sourceLines(int count, long seed) {
+    Random random = new Random(seed);
+    List<String> lines = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      lines.add(randomLine(random));
+    }
+    return lines;
+  }
+
+  /**
+   * New version of the given lines, where blocks of lines are inserted, deleted or modified.
+   *
+   * @param changeRate the probability of each line to be changed, for example 0.05
+   */
+  public static List<String> modify(List<String> lines, double changeRate, long seed) {
+    Random random = new Random(seed);
+    List<String> result = new ArrayList<>(lines.size());
+    for (String line : lines) {
+      if (random.nextDouble() >= changeRate) {
+        result.add(line);
+        continue;
+      }
+      switch (random.nextInt(3)) {
+        case 0:
+          // insertion of a few lines
+          result.add(line);
+          for (int i = random.nextInt(5); i >= 0; i--) {
+            result.add(randomLine(random));
+          }
+          break;
+        case 1:
+          // deletion
+          break;
+        default:
+          result.add(randomLine(random));
+      }
+    }
+    return result;
+  }
+
+  private static String randomLine(Random random) {
+    String template = LINE_TEMPLATES[random.nextInt(LINE_TEMPLATES.length)];
+    // small bound, so that the same lines appear multiple times
+    int value = random.nextInt(50);
+    return format(template, value, value);
+  }
+}
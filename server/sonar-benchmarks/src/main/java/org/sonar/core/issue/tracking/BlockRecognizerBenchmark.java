@@ -0,0 +1,73 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.issue.tracking;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticData;
+import org.sonar.core.issue.DefaultIssue;
+
+/**
+ * Detection of code moves by {@link BlockRecognizer}, when none of the issues has already been matched.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class BlockRecognizerBenchmark {
+
+  @Param({"1000", "10000"})
+  public int lines;
+
+  @Param({"100", "1000"})
+  public int issues;
+
+  private SyntheticInput base;
+  private SyntheticInput raw;
+  private final BlockRecognizer<DefaultIssue, DefaultIssue> blockRecognizer = new BlockRecognizer<>();
+
+  @Setup
+  public void setUp() {
+    List<String> baseLines = SyntheticData.sourceLines(lines, 1L);
+    List<String> rawLines = SyntheticData.modify(baseLines, 0.05, 2L);
+    base = SyntheticInput.withRandomIssues(baseLines, issues, 3L);
+    raw = SyntheticInput.withIssuesOf(rawLines, base, 4L);
+  }
+
+  @Benchmark
+  public Tracking<DefaultIssue, DefaultIssue> match() {
+    Tracking<DefaultIssue, DefaultIssue> tracking = new Tracking<>(raw, base);
+    blockRecognizer.match(raw, base, tracking);
+    return tracking;
+  }
+}
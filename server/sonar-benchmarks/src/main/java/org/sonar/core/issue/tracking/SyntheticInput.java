@@ -0,0 +1,97 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.issue.tracking;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.core.issue.DefaultIssue;
+
+/**
+ * Raw or base input of the tracking of issues of a file, built from synthetic data.
+ */
+class SyntheticInput implements Input<DefaultIssue> {
+
+  private final LineHashSequence lineHashSequence;
+  private final BlockHashSequence blockHashSequence;
+  private final List<DefaultIssue> issues = new ArrayList<>();
+
+  SyntheticInput(List<String> lines) {
+    this.lineHashSequence = LineHashSequence.createForLines(lines);
+    this.blockHashSequence = BlockHashSequence.create(lineHashSequence);
+  }
+
+  /**
+   * Issues on random lines
+   */
+  static SyntheticInput withRandomIssues(List<String> lines, int issueCount, long seed) {
+    SyntheticInput input = new SyntheticInput(lines);
+    Random random = new Random(seed);
+    for (int i = 0; i < issueCount; i++) {
+      int line = 1 + random.nextInt(lines.size());
+      input.addIssue(line, "S" + random.nextInt(20), "Message " + random.nextInt(100));
+    }
+    return input;
+  }
+
+  /**
+   * Issues of the other input, on the lines which have the same hash in this input. Issues
+   * of the lines which do not exist anymore are dropped. Some messages are changed.
+   */
+  static SyntheticInput withIssuesOf(List<String> lines, SyntheticInput other, long seed) {
+    SyntheticInput input = new SyntheticInput(lines);
+    Random random = new Random(seed);
+    for (DefaultIssue otherIssue : other.issues) {
+      Set<Integer> candidateLines = input.lineHashSequence.getLinesForHash(otherIssue.getLineHash());
+      if (!candidateLines.isEmpty()) {
+        String message = random.nextInt(10) == 0 ? (otherIssue.getMessage() + " (changed)") : otherIssue.getMessage();
+        input.addIssue(candidateLines.iterator().next(), otherIssue.ruleKey().rule(), message);
+      }
+    }
+    return input;
+  }
+
+  private void addIssue(int line, String rule, String message) {
+    issues.add(new DefaultIssue()
+      .setKey("issue" + issues.size())
+      .setRuleKey(RuleKey.of("java", rule))
+      .setLine(line)
+      .setMessage(message)
+      .setChecksum(lineHashSequence.getHashForLine(line)));
+  }
+
+  @Override
+  public LineHashSequence getLineHashSequence() {
+    return lineHashSequence;
+  }
+
+  @Override
+  public BlockHashSequence getBlockHashSequence() {
+    return blockHashSequence;
+  }
+
+  @Override
+  public Collection<DefaultIssue> getIssues() {
+    return issues;
+  }
+}
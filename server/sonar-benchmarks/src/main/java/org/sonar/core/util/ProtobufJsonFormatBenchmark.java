@@ -0,0 +1,126 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.core.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonarqube.ws.Common;
+import org.sonarqube.ws.Issues;
+import org.sonarqube.ws.WsMeasures;
+
+/**
+ * JSON responses of the web services api/issues/search and api/measures/component_tree, written
+ * by several threads as with concurrent HTTP requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Threads(4)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ProtobufJsonFormatBenchmark {
+
+  private static final String[] METRICS = {"ncloc", "coverage", "bugs", "vulnerabilities", "code_smells", "duplicated_lines_density",
+    "sqale_rating", "reliability_rating", "security_rating", "complexity"};
+
+  @Param({"500", "10000"})
+  public int size;
+
+  private Issues.SearchWsResponse issues;
+  private WsMeasures.ComponentTreeWsResponse componentTree;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1L);
+    Issues.SearchWsResponse.Builder issuesBuilder = Issues.SearchWsResponse.newBuilder()
+      .setTotal(size)
+      .setP(1)
+      .setPs(size)
+      .setPaging(Common.Paging.newBuilder().setPageIndex(1).setPageSize(size).setTotal(size));
+    for (int i = 0; i < size; i++) {
+      int line = 1 + random.nextInt(1000);
+      issuesBuilder.addIssuesBuilder()
+        .setOrganization("default-organization")
+        .setKey("AV" + i)
+        .setRule("squid:S" + random.nextInt(2000))
+        .setSeverity(Common.Severity.values()[random.nextInt(Common.Severity.values().length)])
+        .setComponent("project:src/main/java/File" + (i % 500) + ".java")
+        .setProject("project")
+        .setLine(line)
+        .setTextRange(Common.TextRange.newBuilder().setStartLine(line).setEndLine(line).setStartOffset(4).setEndOffset(20))
+        .setStatus("OPEN")
+        .setMessage("Remove this unused private \"field" + i + "\" field.")
+        .setEffort("5min")
+        .setDebt("5min")
+        .setAuthor("author" + random.nextInt(20) + "@example.com")
+        .addTags("unused").addTags("pitfall")
+        .setTransitions(Issues.Transitions.newBuilder().addTransitions("confirm").addTransitions("resolve"))
+        .setActions(Issues.Actions.newBuilder().addActions("comment").addActions("assign"))
+        .setCreationDate("2017-06-01T10:00:00+0200")
+        .setUpdateDate("2017-06-02T10:00:00+0200")
+        .setType(Common.RuleType.CODE_SMELL);
+    }
+    issues = issuesBuilder.build();
+
+    WsMeasures.ComponentTreeWsResponse.Builder treeBuilder = WsMeasures.ComponentTreeWsResponse.newBuilder()
+      .setPaging(Common.Paging.newBuilder().setPageIndex(1).setPageSize(size).setTotal(size))
+      .setBaseComponent(WsMeasures.Component.newBuilder().setId("root").setKey("project").setName("Project").setQualifier("TRK"));
+    for (int i = 0; i < size; i++) {
+      WsMeasures.Component.Builder component = treeBuilder.addComponentsBuilder()
+        .setId("uuid" + i)
+        .setKey("project:src/main/java/File" + i + ".java")
+        .setName("File" + i + ".java")
+        .setQualifier("FIL")
+        .setPath("src/main/java/File" + i + ".java")
+        .setLanguage("java");
+      for (String metric : METRICS) {
+        component.addMeasuresBuilder()
+          .setMetric(metric)
+          .setValue(Integer.toString(random.nextInt(10_000)))
+          .setPeriods(WsMeasures.PeriodsValue.newBuilder()
+            .addPeriodsValue(WsMeasures.PeriodValue.newBuilder().setIndex(1).setValue(Integer.toString(random.nextInt(100)))));
+      }
+    }
+    componentTree = treeBuilder.build();
+  }
+
+  @Benchmark
+  public String issuesSearch() {
+    return ProtobufJsonFormat.toJson(issues);
+  }
+
+  @Benchmark
+  public String measuresComponentTree() {
+    return ProtobufJsonFormat.toJson(componentTree);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.db.dialect.Dialect;
+import org.sonar.db.dialect.H2;
+import org.sonar.db.dialect.Oracle;
+
+/**
+ * Throughput of the insertion of measures into an in-memory H2 database: single-row statements,
+ * JDBC batches (as on Oracle) and multi-row statements of {@link BulkInsert}. Rows are rolled back
+ * after each invocation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BulkInsertBenchmark {
+
+  private static final String[] COLUMNS = {"value", "metric_id", "component_uuid", "analysis_uuid", "measure_data"};
+
+  @Param({"10000"})
+  public int rows;
+
+  /**
+   * Size of the measure data of each row. Large values exercise the limit of the size of statements.
+   */
+  @Param({"0", "10000"})
+  public int dataBytes;
+
+  private Connection connection;
+  private byte[] data;
+
+  @Setup
+  public void setUp() throws SQLException {
+    connection = DriverManager.getConnection("jdbc:h2:mem:bulk-insert-benchmark");
+    connection.setAutoCommit(false);
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("create table project_measures (value double, metric_id integer, component_uuid varchar(50), "
+        + "analysis_uuid varchar(50), measure_data binary)");
+    }
+    data = new byte[dataBytes];
+    new Random(1L).nextBytes(data);
+  }
+
+  @TearDown
+  public void tearDown() throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      statement.execute("drop table project_measures");
+    }
+    connection.close();
+  }
+
+  @Benchmark
+  public int singleRowStatements() throws SQLException {
+    try (PreparedStatement statement = connection.prepareStatement("insert into project_measures (" + String.join(",", COLUMNS) + ") values (?,?,?,?,?)")) {
+      for (int i = 0; i < rows; i++) {
+        statement.setDouble(1, i);
+        statement.setInt(2, i % 100);
+        statement.setString(3, "component" + (i / 100));
+        statement.setString(4, "analysis");
+        statement.setBytes(5, dataBytes == 0 ? null : data);
+        statement.executeUpdate();
+      }
+    }
+    connection.rollback();
+    return rows;
+  }
+
+  @Benchmark
+  public long jdbcBatches() {
+    return bulkInsert(new Oracle());
+  }
+
+  @Benchmark
+  public long multiRowStatements() {
+    return bulkInsert(new H2());
+  }
+
+  private long bulkInsert(Dialect dialect) {
+    long inserted;
+    try (BulkInsert insert = new BulkInsert(connection, dialect, "project_measures", COLUMNS)) {
+      for (int i = 0; i < rows; i++) {
+        insert.setDouble((double) i)
+          .setInt(i % 100)
+          .setString("component" + (i / 100))
+          .setString("analysis")
+          .setBytes(dataBytes == 0 ? null : data)
+          .addRow();
+      }
+      insert.flush();
+      inserted = insert.getInsertedRows();
+    }
+    try {
+      connection.rollback();
+    } catch (SQLException e) {
+      throw new IllegalStateException(e);
+    }
+    return inserted;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.db.source;
+
+import com.google.common.base.Splitter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticData;
+import org.sonar.db.protobuf.DbFileSources;
+
+/**
+ * Compression and serialization of the data of table FILE_SOURCES. Partial reads (SCM fields only,
+ * line hashes column) are compared with the full decode of column BINARY_DATA.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FileSourceDtoBenchmark {
+
+  private static final Splitter LINE_HASHES_SPLITTER = Splitter.on('\n');
+
+  @Param({"1000", "10000"})
+  public int lines;
+
+  private DbFileSources.Data data;
+  private byte[] binaryData;
+  private FileSourceDto dto;
+  private String lineHashes;
+
+  @Setup
+  public void setUp() {
+    List<String> sourceLines = SyntheticData.sourceLines(lines, 1L);
+    DbFileSources.Data.Builder builder = DbFileSources.Data.newBuilder();
+    StringBuilder lineHashesBuilder = new StringBuilder();
+    for (int i = 0; i < sourceLines.size(); i++) {
+      int line = i + 1;
+      builder.addLinesBuilder()
+        .setLine(line)
+        .setSource(sourceLines.get(i))
+        .setScmRevision("rev" + (line / 50))
+        .setScmAuthor("author" + (line % 7))
+        .setScmDate(1_500_000_000_000L + (line / 50) * 86_400_000L)
+        .setLineHits(line % 3)
+        .setHighlighting("0,6,k;7,11,k");
+      if (i > 0) {
+        lineHashesBuilder.append('\n');
+      }
+      lineHashesBuilder.append(DigestUtils.md5Hex(sourceLines.get(i)));
+    }
+    data = builder.build();
+    binaryData = FileSourceDto.encodeSourceData(data);
+    dto = new FileSourceDto().setBinaryData(binaryData);
+    lineHashes = lineHashesBuilder.toString();
+  }
+
+  @Benchmark
+  public byte[] encodeSourceData() {
+    return FileSourceDto.encodeSourceData(data);
+  }
+
+  @Benchmark
+  public DbFileSources.Data decodeSourceData() {
+    return new FileSourceDto().decodeSourceData(binaryData);
+  }
+
+  @Benchmark
+  public DbFileSources.Data decodeScmFields() {
+    return dto.getSourceData(FileSourceDto.SCM_LINE_FIELDS);
+  }
+
+  /**
+   * Line hashes as read by file move detection from column LINE_HASHES, without decoding BINARY_DATA
+   */
+  @Benchmark
+  public List<String> splitLineHashes() {
+    return LINE_HASHES_SPLITTER.splitToList(lineHashes);
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.duplications.detector.suffixtree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.duplications.block.Block;
+import org.sonar.duplications.block.ByteArray;
+import org.sonar.duplications.index.CloneGroup;
+import org.sonar.duplications.index.CloneIndex;
+import org.sonar.duplications.index.PackedMemoryCloneIndex;
+
+/**
+ * Detection of the duplications of a file against an index of other files, as done by the Compute Engine
+ * for cross-project duplications. About 30% of the blocks of each file are copied from a shared
+ * library of blocks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class SuffixTreeCloneDetectionAlgorithmBenchmark {
+
+  private static final int BLOCKS_PER_FILE = 200;
+  private static final int LIBRARY_SIZE = 2_000;
+
+  @Param({"100", "1000"})
+  public int indexedFiles;
+
+  private CloneIndex index;
+  private List<Block> fileBlocks;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(1L);
+    long[] library = new long[LIBRARY_SIZE];
+    for (int i = 0; i < library.length; i++) {
+      library[i] = random.nextLong();
+    }
+
+    index = new PackedMemoryCloneIndex();
+    for (int file = 0; file < indexedFiles; file++) {
+      for (Block block : generateBlocks("file" + file, library, random)) {
+        index.insert(block);
+      }
+    }
+    fileBlocks = generateBlocks("analyzedFile", library, random);
+    fileBlocks.forEach(index::insert);
+  }
+
+  private static List<Block> generateBlocks(String resourceId, long[] library, Random random) {
+    List<Block> blocks = new ArrayList<>(BLOCKS_PER_FILE);
+    while (blocks.size() < BLOCKS_PER_FILE) {
+      int segmentLength = 10 + random.nextInt(20);
+      boolean copied = random.nextInt(10) < 3;
+      int libraryOffset = random.nextInt(LIBRARY_SIZE - segmentLength);
+      for (int i = 0; i < segmentLength && blocks.size() < BLOCKS_PER_FILE; i++) {
+        long hash = copied ? library[libraryOffset + i] : random.nextLong();
+        int position = blocks.size();
+        blocks.add(Block.builder()
+          .setResourceId(resourceId)
+          .setBlockHash(new ByteArray(hash))
+          .setIndexInFile(position)
+          .setLines(position + 1, position + 10)
+          .setUnit(position, position + 10)
+          .build());
+      }
+    }
+    return blocks;
+  }
+
+  @Benchmark
+  public List<CloneGroup> detect() {
+    return SuffixTreeCloneDetectionAlgorithm.detect(index, fileBlocks);
+  }
+}
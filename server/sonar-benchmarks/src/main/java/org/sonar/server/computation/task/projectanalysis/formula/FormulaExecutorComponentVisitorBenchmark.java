@@ -0,0 +1,165 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.formula;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.api.measures.CoreMetrics;
+import org.sonar.server.computation.task.projectanalysis.component.Component;
+import org.sonar.server.computation.task.projectanalysis.component.PathAwareCrawler;
+import org.sonar.server.computation.task.projectanalysis.component.ReportComponent;
+import org.sonar.server.computation.task.projectanalysis.measure.Measure;
+import org.sonar.server.computation.task.projectanalysis.measure.MeasureRepository;
+import org.sonar.server.computation.task.projectanalysis.metric.Metric;
+import org.sonar.server.computation.task.projectanalysis.metric.MetricRepositoryRule;
+
+import static org.sonar.api.measures.CoreMetrics.COMMENT_LINES_KEY;
+import static org.sonar.api.measures.CoreMetrics.LINES_KEY;
+import static org.sonar.api.measures.CoreMetrics.NCLOC_KEY;
+import static org.sonar.server.computation.task.projectanalysis.formula.SumFormula.createIntSumFormula;
+import static org.sonar.server.computation.task.projectanalysis.measure.Measure.newMeasureBuilder;
+
+/**
+ * Aggregation of file measures to directories, modules and project by {@link FormulaExecutorComponentVisitor},
+ * on a project with 20 files per directory and 50 directories per module.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+public class FormulaExecutorComponentVisitorBenchmark {
+
+  private static final int FILES_PER_DIRECTORY = 20;
+  private static final int DIRECTORIES_PER_MODULE = 50;
+  private static final List<String> METRIC_KEYS = ImmutableList.of(LINES_KEY, NCLOC_KEY, COMMENT_LINES_KEY);
+
+  @Param({"10000", "100000"})
+  public int files;
+
+  private final MetricRepositoryRule metricRepository = new MetricRepositoryRule()
+    .add(CoreMetrics.LINES)
+    .add(CoreMetrics.NCLOC)
+    .add(CoreMetrics.COMMENT_LINES);
+  private final InMemoryMeasureRepository measureRepository = new InMemoryMeasureRepository();
+  private Component project;
+  private FormulaExecutorComponentVisitor visitor;
+
+  @Setup
+  public void setUp() {
+    int ref = 1;
+    ReportComponent.Builder projectBuilder = ReportComponent.builder(Component.Type.PROJECT, ref++);
+    ReportComponent.Builder moduleBuilder = null;
+    ReportComponent.Builder directoryBuilder = null;
+    for (int i = 0; i < files; i++) {
+      if (i % (FILES_PER_DIRECTORY * DIRECTORIES_PER_MODULE) == 0) {
+        moduleBuilder = ReportComponent.builder(Component.Type.MODULE, ref++);
+      }
+      if (i % FILES_PER_DIRECTORY == 0) {
+        directoryBuilder = ReportComponent.builder(Component.Type.DIRECTORY, ref++);
+      }
+      Component file = ReportComponent.builder(Component.Type.FILE, ref++).build();
+      directoryBuilder.addChildren(file);
+      for (String metricKey : METRIC_KEYS) {
+        measureRepository.add(file, metricRepository.getByKey(metricKey), newMeasureBuilder().create(i % 500));
+      }
+      if ((i + 1) % FILES_PER_DIRECTORY == 0 || i == files - 1) {
+        moduleBuilder.addChildren(directoryBuilder.build());
+      }
+      if ((i + 1) % (FILES_PER_DIRECTORY * DIRECTORIES_PER_MODULE) == 0 || i == files - 1) {
+        projectBuilder.addChildren(moduleBuilder.build());
+      }
+    }
+    project = projectBuilder.build();
+
+    ImmutableList.Builder<Formula> formulas = ImmutableList.builder();
+    METRIC_KEYS.forEach(metricKey -> formulas.add(createIntSumFormula(metricKey)));
+    visitor = FormulaExecutorComponentVisitor.newBuilder(metricRepository, measureRepository).buildFor(formulas.build());
+  }
+
+  @Benchmark
+  public void visit() {
+    new PathAwareCrawler<>(visitor).visit(project);
+  }
+
+  /**
+   * Minimal repository, so that the benchmark does not measure the implementation used by unit tests.
+   * Measures are overridden when added multiple times, as each invocation of the benchmark adds the
+   * same measures.
+   */
+  private static class InMemoryMeasureRepository implements MeasureRepository {
+    private final Map<Component, Map<String, Measure>> measuresByComponent = new HashMap<>();
+
+    @Override
+    public Optional<Measure> getBaseMeasure(Component component, Metric metric) {
+      return Optional.absent();
+    }
+
+    @Override
+    public Optional<Measure> getRawMeasure(Component component, Metric metric) {
+      Map<String, Measure> measures = measuresByComponent.get(component);
+      return Optional.fromNullable(measures == null ? null : measures.get(metric.getKey()));
+    }
+
+    @Override
+    public Set<Measure> getRawMeasures(Component component, Metric metric) {
+      return getRawMeasure(component, metric).asSet();
+    }
+
+    @Override
+    public SetMultimap<String, Measure> getRawMeasures(Component component) {
+      ImmutableSetMultimap.Builder<String, Measure> builder = ImmutableSetMultimap.builder();
+      Map<String, Measure> measures = measuresByComponent.get(component);
+      if (measures != null) {
+        measures.forEach(builder::put);
+      }
+      return builder.build();
+    }
+
+    @Override
+    public void add(Component component, Metric metric, Measure measure) {
+      measuresByComponent.computeIfAbsent(component, c -> new HashMap<>()).put(metric.getKey(), measure);
+    }
+
+    @Override
+    public void update(Component component, Metric metric, Measure measure) {
+      add(component, metric, measure);
+    }
+  }
+}
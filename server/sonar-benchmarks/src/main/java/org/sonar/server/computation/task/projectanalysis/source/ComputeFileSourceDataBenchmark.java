@@ -0,0 +1,82 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.source;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sonar.benchmarks.SyntheticData;
+import org.sonar.db.protobuf.DbFileSources;
+import org.sonar.scanner.protocol.output.ScannerReport;
+
+import static java.util.Collections.singletonList;
+
+/**
+ * Computation of the data of table FILE_SOURCES for a file with coverage.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ComputeFileSourceDataBenchmark {
+
+  @Param({"1000", "10000"})
+  public int lines;
+
+  private List<String> sourceLines;
+  private List<ScannerReport.LineCoverage> coverage;
+
+  @Setup
+  public void setUp() {
+    sourceLines = SyntheticData.sourceLines(lines, 1L);
+    coverage = new ArrayList<>();
+    for (int line = 1; line <= lines; line += 2) {
+      coverage.add(ScannerReport.LineCoverage.newBuilder()
+        .setLine(line)
+        .setHits(line % 3 != 0)
+        .setConditions(2)
+        .setCoveredConditions(1)
+        .build());
+    }
+  }
+
+  @Benchmark
+  public DbFileSources.Data compute() {
+    ComputeFileSourceData.Data data = new ComputeFileSourceData(sourceLines.iterator(),
+      singletonList(new CoverageLineReader(coverage.iterator())), lines).compute();
+    // hashes are computed lazily
+    data.getSrcHash();
+    data.getLineHashes();
+    return data.getFileSourceData();
+  }
+}
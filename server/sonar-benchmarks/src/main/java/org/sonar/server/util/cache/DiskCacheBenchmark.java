@@ -0,0 +1,100 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.util.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.rule.Severity;
+import org.sonar.api.utils.System2;
+import org.sonar.core.issue.DefaultIssue;
+import org.sonar.core.util.CloseableIterator;
+
+/**
+ * Traversal of a {@link DiskCache} of issues, as done multiple times by the Compute Engine for the
+ * issues of a project.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Warmup(iterations = 5)
+@Measurement(iterations = 5)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DiskCacheBenchmark {
+
+  @Param({"10000", "100000"})
+  public int issues;
+
+  private File file;
+  private DiskCache<DefaultIssue> cache;
+
+  @Setup
+  public void setUp() throws IOException {
+    file = File.createTempFile("diskcache", ".bin");
+    cache = new DiskCache<>(file, System2.INSTANCE);
+    try (DiskCache<DefaultIssue>.DiskAppender appender = cache.newAppender()) {
+      for (int i = 0; i < issues; i++) {
+        appender.append(new DefaultIssue()
+          .setKey("AVs4" + i)
+          .setRuleKey(RuleKey.of("java", "S" + (i % 200)))
+          .setComponentUuid("FILE_UUID_" + (i / 20))
+          .setComponentKey("project:src/main/java/File" + (i / 20) + ".java")
+          .setProjectUuid("PROJECT_UUID")
+          .setProjectKey("project")
+          .setSeverity(Severity.MAJOR)
+          .setLine(1 + i % 500)
+          .setMessage("Remove this unused private field " + i)
+          .setChecksum("a227e508d6646b55a086ee11d63b21e9")
+          .setCreationDate(new Date(1_500_000_000_000L))
+          .setUpdateDate(new Date(1_500_000_000_000L)));
+      }
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    FileUtils.deleteQuietly(file);
+  }
+
+  @Benchmark
+  public void traverse(Blackhole blackhole) {
+    try (CloseableIterator<DefaultIssue> iterator = cache.traverse()) {
+      while (iterator.hasNext()) {
+        blackhole.consume(iterator.next());
+      }
+    }
+  }
+}
@@ -24,6 +24,7 @@ import org.sonar.ce.monitoring.CeTasksMBeanImpl;
 import org.sonar.ce.queue.CeQueueInitializer;
 import org.sonar.ce.queue.InternalCeQueueImpl;
 import org.sonar.core.platform.Module;
+import org.sonar.server.computation.task.step.ComputationStepStatistics;
 
 public class CeQueueModule extends Module {
   @Override
@@ -35,7 +36,8 @@ public class CeQueueModule extends Module {
       // queue monitoring
       CEQueueStatusImpl.class,
       CeTasksMBeanImpl.class,
-      
+      ComputationStepStatistics.class,
+
       // init queue state and queue processing
       CeQueueInitializer.class);
   }
@@ -19,10 +19,14 @@
  */
 package org.sonar.ce;
 
+import org.sonar.ce.monitoring.CeCacheMBeanImpl;
+import org.sonar.ce.monitoring.CePurgeMBeanImpl;
 import org.sonar.core.platform.Module;
 import org.sonar.db.purge.period.DefaultPeriodCleaner;
 import org.sonar.server.computation.dbcleaner.IndexPurgeListener;
 import org.sonar.server.computation.dbcleaner.ProjectCleaner;
+import org.sonar.server.computation.task.projectanalysis.issue.RuleCache;
+import org.sonar.server.computation.task.projectanalysis.metric.MetricCache;
 
 /**
  * Globally available components in CE for tasks to use.
@@ -33,6 +37,12 @@ public class CeTaskCommonsModule extends Module {
     add(
       DefaultPeriodCleaner.class,
       ProjectCleaner.class,
-      IndexPurgeListener.class);
+      IndexPurgeListener.class,
+      CePurgeMBeanImpl.class,
+
+      // rules and metrics shared by tasks
+      RuleCache.class,
+      MetricCache.class,
+      CeCacheMBeanImpl.class);
   }
 }
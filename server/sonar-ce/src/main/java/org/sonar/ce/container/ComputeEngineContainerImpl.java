@@ -135,6 +135,7 @@ import org.sonar.server.rule.DeprecatedRulesDefinitionLoader;
 import org.sonar.server.rule.RuleDefinitionsLoader;
 import org.sonar.server.rule.index.RuleIndex;
 import org.sonar.server.search.EsSearchModule;
+import org.sonar.server.setting.CachedSettingLoader;
 import org.sonar.server.setting.DatabaseSettingLoader;
 import org.sonar.server.setting.DatabaseSettingsEnabler;
 import org.sonar.server.setting.ThreadLocalSettings;
@@ -271,6 +272,7 @@ public class ComputeEngineContainerImpl implements ComputeEngineContainer {
       DatabaseServerCompatibility.class,
 
       DatabaseSettingLoader.class,
+      CachedSettingLoader.class,
       DatabaseSettingsEnabler.class,
       UrlSettings.class,
 
@@ -0,0 +1,84 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.monitoring;
+
+import org.picocontainer.Startable;
+import org.sonar.process.Jmx;
+import org.sonar.process.systeminfo.SystemInfoSection;
+import org.sonar.process.systeminfo.protobuf.ProtobufSystemInfo;
+import org.sonar.server.computation.task.projectanalysis.issue.RuleCache;
+import org.sonar.server.computation.task.projectanalysis.metric.MetricCache;
+
+/**
+ * Exports the size of the rules and metrics shared by the tasks of the Compute Engine.
+ */
+public class CeCacheMBeanImpl implements CeCacheMBean, Startable, SystemInfoSection {
+  private final RuleCache ruleCache;
+  private final MetricCache metricCache;
+
+  public CeCacheMBeanImpl(RuleCache ruleCache, MetricCache metricCache) {
+    this.ruleCache = ruleCache;
+    this.metricCache = metricCache;
+  }
+
+  @Override
+  public void start() {
+    Jmx.register(OBJECT_NAME, this);
+  }
+
+  /**
+   * Unregister, if needed
+   */
+  @Override
+  public void stop() {
+    Jmx.unregister(OBJECT_NAME);
+  }
+
+  @Override
+  public int getCachedOrganizations() {
+    return ruleCache.getOrganizationCount();
+  }
+
+  @Override
+  public long getCachedRules() {
+    return ruleCache.getRuleCount();
+  }
+
+  @Override
+  public int getCachedMetrics() {
+    return metricCache.getMetricCount();
+  }
+
+  @Override
+  public long getEstimatedSize() {
+    return ruleCache.getEstimatedSize() + metricCache.getEstimatedSize();
+  }
+
+  @Override
+  public ProtobufSystemInfo.Section toProtobuf() {
+    ProtobufSystemInfo.Section.Builder builder = ProtobufSystemInfo.Section.newBuilder();
+    builder.setName("Compute Engine Cache");
+    builder.addAttributesBuilder().setKey("Cached Organizations").setLongValue(getCachedOrganizations()).build();
+    builder.addAttributesBuilder().setKey("Cached Rules").setLongValue(getCachedRules()).build();
+    builder.addAttributesBuilder().setKey("Cached Metrics").setLongValue(getCachedMetrics()).build();
+    builder.addAttributesBuilder().setKey("Estimated Size (bytes)").setLongValue(getEstimatedSize()).build();
+    return builder.build();
+  }
+}
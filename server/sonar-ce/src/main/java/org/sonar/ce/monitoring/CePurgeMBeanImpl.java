@@ -0,0 +1,69 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.monitoring;
+
+import java.util.Map;
+import org.picocontainer.Startable;
+import org.sonar.db.purge.PurgeProfiler;
+import org.sonar.process.Jmx;
+import org.sonar.process.systeminfo.SystemInfoSection;
+import org.sonar.process.systeminfo.protobuf.ProtobufSystemInfo;
+
+/**
+ * Exports the durations of purge commands recorded by {@link PurgeProfiler}, which otherwise are only
+ * logged when profiling is enabled.
+ */
+public class CePurgeMBeanImpl implements CePurgeMBean, Startable, SystemInfoSection {
+  private final PurgeProfiler profiler;
+
+  public CePurgeMBeanImpl(PurgeProfiler profiler) {
+    this.profiler = profiler;
+  }
+
+  @Override
+  public void start() {
+    Jmx.register(OBJECT_NAME, this);
+  }
+
+  /**
+   * Unregister, if needed
+   */
+  @Override
+  public void stop() {
+    Jmx.unregister(OBJECT_NAME);
+  }
+
+  @Override
+  public long getPurgeTime() {
+    return profiler.getCumulatedDurations().values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  @Override
+  public ProtobufSystemInfo.Section toProtobuf() {
+    Map<String, Long> durations = profiler.getCumulatedDurations();
+    ProtobufSystemInfo.Section.Builder builder = ProtobufSystemInfo.Section.newBuilder();
+    builder.setName("Compute Engine Purge");
+    builder.addAttributesBuilder().setKey("Purge Time (ms)").setLongValue(durations.values().stream().mapToLong(Long::longValue).sum()).build();
+    durations.entrySet().stream()
+      .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+      .forEach(entry -> builder.addAttributesBuilder().setKey(entry.getKey() + " (ms)").setLongValue(entry.getValue()).build());
+    return builder.build();
+  }
+}
@@ -19,6 +19,8 @@
  */
 package org.sonar.ce.monitoring;
 
+import java.util.Map;
+
 public interface CeTasksMBean {
 
   String OBJECT_NAME = "SonarQube:name=ComputeEngineTasks";
@@ -52,4 +54,10 @@ public interface CeTasksMBean {
    * Configured number of Workers.
    */
   int getWorkerCount();
+
+  /**
+   * Statistics of the executions of each computation step since startup (count, wall and CPU times, allocated memory
+   * and histogram of wall times), by step description.
+   */
+  Map<String, String> getStepStatistics();
 }
@@ -19,19 +19,24 @@
  */
 package org.sonar.ce.monitoring;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import org.picocontainer.Startable;
 import org.sonar.process.Jmx;
 import org.sonar.process.systeminfo.SystemInfoSection;
 import org.sonar.process.systeminfo.protobuf.ProtobufSystemInfo;
 import org.sonar.ce.configuration.CeConfiguration;
+import org.sonar.server.computation.task.step.ComputationStepStatistics;
 
 public class CeTasksMBeanImpl implements CeTasksMBean, Startable, SystemInfoSection {
   private final CEQueueStatus queueStatus;
   private final CeConfiguration ceConfiguration;
+  private final ComputationStepStatistics stepStatistics;
 
-  public CeTasksMBeanImpl(CEQueueStatus queueStatus, CeConfiguration ceConfiguration) {
+  public CeTasksMBeanImpl(CEQueueStatus queueStatus, CeConfiguration ceConfiguration, ComputationStepStatistics stepStatistics) {
     this.queueStatus = queueStatus;
     this.ceConfiguration = ceConfiguration;
+    this.stepStatistics = stepStatistics;
   }
 
   @Override
@@ -77,6 +82,13 @@ public class CeTasksMBeanImpl implements CeTasksMBean, Startable, SystemInfoSect
     return ceConfiguration.getWorkerCount();
   }
 
+  @Override
+  public Map<String, String> getStepStatistics() {
+    Map<String, String> result = new LinkedHashMap<>();
+    stepStatistics.getAll().forEach((step, statistics) -> result.put(step, statistics.toString()));
+    return result;
+  }
+
   @Override
   public ProtobufSystemInfo.Section toProtobuf() {
     ProtobufSystemInfo.Section.Builder builder = ProtobufSystemInfo.Section.newBuilder();
@@ -87,6 +99,7 @@ public class CeTasksMBeanImpl implements CeTasksMBean, Startable, SystemInfoSect
     builder.addAttributesBuilder().setKey("Processed With Success").setLongValue(getSuccessCount()).build();
     builder.addAttributesBuilder().setKey("Processing Time (ms)").setLongValue(getProcessingTime()).build();
     builder.addAttributesBuilder().setKey("Worker Count").setLongValue(getWorkerCount()).build();
+    getStepStatistics().forEach((step, statistics) -> builder.addAttributesBuilder().setKey("Step " + step).setStringValue(statistics).build());
     return builder.build();
   }
 }
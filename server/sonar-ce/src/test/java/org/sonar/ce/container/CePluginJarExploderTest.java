@@ -40,18 +40,18 @@ public class CePluginJarExploderTest {
   CePluginJarExploder underTest = new CePluginJarExploder(fs);
 
   @Test
-  public void explode_jar_to_temp_directory() throws Exception {
+  public void explode_jar_to_data_directory() throws Exception {
     PluginInfo info = PluginInfo.create(plugin1Jar());
 
     ExplodedPlugin exploded = underTest.explode(info);
 
-    // all the files loaded by classloaders (JAR + META-INF/libs/*.jar) are copied to a dedicated temp directory
+    // all the files loaded by classloaders (JAR + META-INF/libs/*.jar) are copied to a dedicated directory
     File copiedJar = exploded.getMain();
 
     assertThat(exploded.getKey()).isEqualTo("test");
     assertThat(copiedJar).isFile().exists();
     assertThat(copiedJar.getParentFile()).isDirectory().hasName("test");
-    assertThat(copiedJar.getParentFile().getParentFile()).isDirectory().hasName("ce-exploded-plugins");
+    assertThat(copiedJar.getParentFile().getParentFile()).isDirectory().hasName("exploded-plugins");
   }
 
   @Test
@@ -81,6 +81,19 @@ public class CePluginJarExploderTest {
     assertThat(dirSize1).isEqualTo(dirSize2);
   }
 
+  @Test
+  public void do_not_explode_again_unchanged_jar() throws Exception {
+    PluginInfo info = PluginInfo.create(plugin1Jar());
+
+    ExplodedPlugin exploded1 = underTest.explode(info);
+    File marker = new File(exploded1.getMain().getParentFile(), "marker");
+    assertThat(marker.createNewFile()).isTrue();
+
+    ExplodedPlugin exploded2 = underTest.explode(info);
+    assertThat(exploded2.getMain()).isEqualTo(exploded1.getMain());
+    assertThat(marker).exists();
+  }
+
   private File plugin1Jar() {
     return new File("src/test/plugins/sonar-test-plugin/target/sonar-test-plugin-0.1-SNAPSHOT.jar");
   }
@@ -92,6 +105,7 @@ public class CePluginJarExploderTest {
   private class DumbFileSystem implements ServerFileSystem {
     private final TemporaryFolder temp;
     private File tempDir;
+    private File dataDir;
 
     public DumbFileSystem(TemporaryFolder temp) {
       this.temp = temp;
@@ -99,7 +113,14 @@ public class CePluginJarExploderTest {
 
     @Override
     public File getDataDir() {
-      throw new UnsupportedOperationException();
+      if (dataDir == null) {
+        try {
+          this.dataDir = temp.newFolder();
+        } catch (IOException e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      return dataDir;
     }
 
     @Override
@@ -115,9 +115,9 @@ public class ComputeEngineContainerImplTest {
         CONTAINER_ITSELF
           + 73 // level 4
           + 4 // content of CeConfigurationModule
-          + 4 // content of CeQueueModule
+          + 5 // content of CeQueueModule
           + 3 // content of CeHttpModule
-          + 3 // content of CeTaskCommonsModule
+          + 7 // content of CeTaskCommonsModule
           + 4 // content of ProjectAnalysisTaskModule
           + 4 // content of CeTaskProcessorModule
           + 3 // CeCleaningModule + its content
@@ -130,13 +130,13 @@ public class ComputeEngineContainerImplTest {
     assertThat(picoContainer.getParent().getParent().getComponentAdapters()).hasSize(
       CONTAINER_ITSELF
         + 11 // MigrationConfigurationModule
-        + 17 // level 2
+        + 18 // level 2
     );
     assertThat(picoContainer.getParent().getParent().getParent().getComponentAdapters()).hasSize(
       COMPONENTS_IN_LEVEL_1_AT_CONSTRUCTION
         + 25 // level 1
         + 47 // content of DaoModule
-        + 3 // content of EsSearchModule
+        + 4 // content of EsSearchModule
         + 58 // content of CorePropertyDefinitions
     );
     assertThat(
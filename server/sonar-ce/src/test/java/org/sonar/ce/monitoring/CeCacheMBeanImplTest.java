@@ -0,0 +1,86 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.ce.monitoring;
+
+import java.lang.management.ManagementFactory;
+import javax.annotation.CheckForNull;
+import javax.management.InstanceNotFoundException;
+import javax.management.ObjectInstance;
+import javax.management.ObjectName;
+import org.junit.Test;
+import org.sonar.process.systeminfo.protobuf.ProtobufSystemInfo;
+import org.sonar.server.computation.task.projectanalysis.issue.RuleCache;
+import org.sonar.server.computation.task.projectanalysis.metric.MetricCache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CeCacheMBeanImplTest {
+
+  private RuleCache ruleCache = mock(RuleCache.class);
+  private MetricCache metricCache = mock(MetricCache.class);
+  private CeCacheMBeanImpl underTest = new CeCacheMBeanImpl(ruleCache, metricCache);
+
+  @Test
+  public void register_and_unregister() throws Exception {
+    assertThat(getMBean()).isNull();
+
+    underTest.start();
+    assertThat(getMBean()).isNotNull();
+
+    underTest.stop();
+    assertThat(getMBean()).isNull();
+  }
+
+  @Test
+  public void export_size_of_caches() {
+    when(ruleCache.getOrganizationCount()).thenReturn(2);
+    when(ruleCache.getRuleCount()).thenReturn(1_000L);
+    when(ruleCache.getEstimatedSize()).thenReturn(500_000L);
+    when(metricCache.getMetricCount()).thenReturn(200);
+    when(metricCache.getEstimatedSize()).thenReturn(60_000L);
+
+    assertThat(underTest.getCachedOrganizations()).isEqualTo(2);
+    assertThat(underTest.getCachedRules()).isEqualTo(1_000L);
+    assertThat(underTest.getCachedMetrics()).isEqualTo(200);
+    assertThat(underTest.getEstimatedSize()).isEqualTo(560_000L);
+
+    ProtobufSystemInfo.Section section = underTest.toProtobuf();
+    assertThat(section.getName()).isEqualTo("Compute Engine Cache");
+    assertThat(section.getAttributesList())
+      .extracting(ProtobufSystemInfo.Attribute::getKey, ProtobufSystemInfo.Attribute::getLongValue)
+      .containsExactly(
+        tuple("Cached Organizations", 2L),
+        tuple("Cached Rules", 1_000L),
+        tuple("Cached Metrics", 200L),
+        tuple("Estimated Size (bytes)", 560_000L));
+  }
+
+  @CheckForNull
+  private ObjectInstance getMBean() throws Exception {
+    try {
+      return ManagementFactory.getPlatformMBeanServer().getObjectInstance(new ObjectName(CeCacheMBean.OBJECT_NAME));
+    } catch (InstanceNotFoundException e) {
+      return null;
+    }
+  }
+}
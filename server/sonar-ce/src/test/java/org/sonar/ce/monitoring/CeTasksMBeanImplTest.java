@@ -27,6 +27,7 @@ import javax.management.ObjectName;
 import org.junit.Test;
 import org.sonar.ce.configuration.CeConfiguration;
 import org.sonar.process.systeminfo.protobuf.ProtobufSystemInfo;
+import org.sonar.server.computation.task.step.ComputationStepStatistics;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -38,7 +39,8 @@ public class CeTasksMBeanImplTest {
   private static final long PROCESSING_TIME = 987;
   private static final int WORKER_COUNT = 56;
 
-  private CeTasksMBeanImpl underTest = new CeTasksMBeanImpl(new DumbCEQueueStatus(), new DumbCeConfiguration());
+  private ComputationStepStatistics stepStatistics = new ComputationStepStatistics();
+  private CeTasksMBeanImpl underTest = new CeTasksMBeanImpl(new DumbCEQueueStatus(), new DumbCeConfiguration(), stepStatistics);
 
   @Test
   public void register_and_unregister() throws Exception {
@@ -72,6 +74,25 @@ public class CeTasksMBeanImplTest {
     assertThat(section.getAttributesCount()).isEqualTo(6);
   }
 
+  @Test
+  public void getStepStatistics_delegates_to_the_ComputationStepStatistics_instance() {
+    stepStatistics.add("step2", 10L, 5L, 1_024L);
+    stepStatistics.add("step1", 20L, 15L, 2_048L);
+
+    assertThat(underTest.getStepStatistics()).containsOnlyKeys("step1", "step2");
+    assertThat(underTest.getStepStatistics().get("step1")).startsWith("count=1 | time=20ms");
+  }
+
+  @Test
+  public void export_step_statistics_in_system_info() {
+    stepStatistics.add("step1", 20L, 15L, 2_048L);
+
+    ProtobufSystemInfo.Section section = underTest.toProtobuf();
+    assertThat(section.getAttributesCount()).isEqualTo(7);
+    assertThat(section.getAttributes(6).getKey()).isEqualTo("Step step1");
+    assertThat(section.getAttributes(6).getStringValue()).startsWith("count=1 | time=20ms");
+  }
+
   /**
    * Dumb implementation of CEQueueStatus which returns constant values for get methods and throws UnsupportedOperationException
    * for other methods.
@@ -0,0 +1,252 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.db;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.db.dialect.Dialect;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Inserts rows into a table with as few round-trips to the database as possible:
+ * <ul>
+ *   <li>statements "INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ..." of {@link Dialect#getMaxRowsPerInsert()} rows
+ *   on H2, MySQL, PostgreSQL and SQLServer</li>
+ *   <li>JDBC batches of single-row statements on Oracle, which are sent as array binds</li>
+ * </ul>
+ * Values of a row are set in the order of the columns, then the row is added with {@link #addRow()}:
+ * <pre>
+ *   try (BulkInsert insert = new BulkInsert(connection, dialect, "users", "login", "age")) {
+ *     insert.setString("john").setInt(30).addRow();
+ *     insert.setString("jane").setInt(null).addRow();
+ *   }
+ * </pre>
+ * A statement or a batch is also executed as soon as the size of its values reaches {@link #MAX_BUFFERED_BYTES},
+ * so that the rows with large values, for example measure data, do not exceed the packet size of MySQL (max_allowed_packet).
+ * Remaining rows are inserted by {@link #flush()} and {@link #close()}. The transaction is not committed.
+ * Unlike {@code BatchSession}, selects executed on the same connection do not flush the rows.
+ */
+public class BulkInsert implements AutoCloseable {
+
+  /**
+   * SQLServer does not support more than 2100 parameters per statement
+   */
+  @VisibleForTesting
+  static final int MAX_PARAMETERS = 2_000;
+
+  @VisibleForTesting
+  static final int MAX_BATCH_SIZE = 1_000;
+
+  /**
+   * Approximate size of the values of a statement, below the default max_allowed_packet of MySQL (4MB)
+   */
+  @VisibleForTesting
+  static final long MAX_BUFFERED_BYTES = 1_000_000L;
+
+  /**
+   * Size of a null value and of the values which are not strings or bytes
+   */
+  private static final int FIXED_VALUE_BYTES = 8;
+
+  private final Connection connection;
+  private final String table;
+  private final String[] columns;
+  private final int rowsPerStatement;
+  private final Object[] values;
+  private final int[] types;
+  private int bufferedRows = 0;
+  private long bufferedBytes = 0L;
+  private int currentColumn = 0;
+  private long insertedRows = 0L;
+  @CheckForNull
+  private PreparedStatement statement;
+
+  public BulkInsert(Connection connection, Dialect dialect, String table, String... columns) {
+    checkArgument(columns.length > 0, "At least one column is required");
+    this.connection = connection;
+    this.table = table;
+    this.columns = columns;
+    this.rowsPerStatement = Math.max(1, Math.min(dialect.getMaxRowsPerInsert(), MAX_PARAMETERS / columns.length));
+    int bufferSize = isBatch() ? MAX_BATCH_SIZE : rowsPerStatement;
+    this.values = new Object[bufferSize * columns.length];
+    this.types = new int[bufferSize * columns.length];
+  }
+
+  public BulkInsert setString(@Nullable String s) {
+    return set(s, Types.VARCHAR);
+  }
+
+  public BulkInsert setInt(@Nullable Integer i) {
+    return set(i, Types.INTEGER);
+  }
+
+  public BulkInsert setLong(@Nullable Long l) {
+    return set(l, Types.BIGINT);
+  }
+
+  public BulkInsert setDouble(@Nullable Double d) {
+    return set(d, Types.DOUBLE);
+  }
+
+  public BulkInsert setBoolean(@Nullable Boolean b) {
+    return set(b, Types.BOOLEAN);
+  }
+
+  public BulkInsert setBytes(@Nullable byte[] bytes) {
+    return set(bytes, Types.BINARY);
+  }
+
+  private BulkInsert set(@Nullable Object value, int type) {
+    checkState(currentColumn < columns.length, "All the %s columns of the row are already set", columns.length);
+    int index = bufferedRows * columns.length + currentColumn;
+    values[index] = value;
+    types[index] = type;
+    bufferedBytes += sizeOf(value);
+    currentColumn++;
+    return this;
+  }
+
+  /**
+   * Adds the row whose values have been set. Rows are inserted as soon as a statement or a batch is full,
+   * either by its number of rows or by the size of its values.
+   */
+  public BulkInsert addRow() {
+    checkState(currentColumn == columns.length, "Only %s values are set on the %s columns of the row", currentColumn, columns.length);
+    currentColumn = 0;
+    bufferedRows++;
+    if (bufferedRows * columns.length == values.length || bufferedBytes >= MAX_BUFFERED_BYTES) {
+      flush();
+    }
+    return this;
+  }
+
+  /**
+   * Inserts the rows that have been added but not inserted yet.
+   */
+  public void flush() {
+    checkState(currentColumn == 0, "Row is not complete");
+    if (bufferedRows == 0) {
+      return;
+    }
+    try {
+      if (isBatch()) {
+        executeBatch();
+      } else if (bufferedRows == rowsPerStatement) {
+        executeFullStatement();
+      } else {
+        executeLastStatement();
+      }
+      insertedRows += bufferedRows;
+    } catch (SQLException e) {
+      throw new IllegalStateException("Fail to insert rows into table " + table, e);
+    } finally {
+      Arrays.fill(values, 0, bufferedRows * columns.length, null);
+      bufferedRows = 0;
+      bufferedBytes = 0L;
+    }
+  }
+
+  /**
+   * Number of rows inserted so far, excluding the rows that are not flushed yet
+   */
+  public long getInsertedRows() {
+    return insertedRows;
+  }
+
+  @Override
+  public void close() {
+    try {
+      flush();
+    } finally {
+      DatabaseUtils.closeQuietly(statement);
+      statement = null;
+    }
+  }
+
+  private static int sizeOf(@Nullable Object value) {
+    if (value instanceof String) {
+      // UTF-8 encoding of most characters
+      return ((String) value).length();
+    }
+    if (value instanceof byte[]) {
+      return ((byte[]) value).length;
+    }
+    return FIXED_VALUE_BYTES;
+  }
+
+  private boolean isBatch() {
+    return rowsPerStatement == 1;
+  }
+
+  private void executeBatch() throws SQLException {
+    if (statement == null) {
+      statement = connection.prepareStatement(sql(1));
+    }
+    for (int row = 0; row < bufferedRows; row++) {
+      bind(statement, row * columns.length, columns.length);
+      statement.addBatch();
+    }
+    statement.executeBatch();
+  }
+
+  private void executeFullStatement() throws SQLException {
+    if (statement == null) {
+      statement = connection.prepareStatement(sql(rowsPerStatement));
+    }
+    bind(statement, 0, bufferedRows * columns.length);
+    statement.executeUpdate();
+  }
+
+  private void executeLastStatement() throws SQLException {
+    try (PreparedStatement lastStatement = connection.prepareStatement(sql(bufferedRows))) {
+      bind(lastStatement, 0, bufferedRows * columns.length);
+      lastStatement.executeUpdate();
+    }
+  }
+
+  private void bind(PreparedStatement stmt, int offset, int count) throws SQLException {
+    for (int i = 0; i < count; i++) {
+      Object value = values[offset + i];
+      int parameterIndex = i + 1;
+      if (value == null) {
+        stmt.setNull(parameterIndex, types[offset + i]);
+      } else if (value instanceof byte[]) {
+        stmt.setBytes(parameterIndex, (byte[]) value);
+      } else {
+        stmt.setObject(parameterIndex, value, types[offset + i]);
+      }
+    }
+  }
+
+  @VisibleForTesting
+  String sql(int rows) {
+    String row = "(" + String.join(",", Collections.nCopies(columns.length, "?")) + ")";
+    return "insert into " + table + " (" + String.join(",", columns) + ") values " + String.join(",", Collections.nCopies(rows, row));
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.db;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Inserts objects with a {@link BulkInsert}. The values of each object are set in the order
+ * of the columns by a row writer.
+ *
+ * @param <T> type of the inserted objects, for example a DTO
+ */
+public class BulkWriter<T> implements AutoCloseable {
+
+  private final BulkInsert insert;
+  private final BiConsumer<BulkInsert, T> rowWriter;
+
+  public BulkWriter(BulkInsert insert, BiConsumer<BulkInsert, T> rowWriter) {
+    this.insert = insert;
+    this.rowWriter = rowWriter;
+  }
+
+  public BulkWriter<T> write(T object) {
+    rowWriter.accept(insert, object);
+    insert.addRow();
+    return this;
+  }
+
+  public void flush() {
+    insert.flush();
+  }
+
+  public long getInsertedRows() {
+    return insert.getInsertedRows();
+  }
+
+  /**
+   * Inserts the remaining rows. The transaction is not committed.
+   */
+  @Override
+  public void close() {
+    insert.close();
+  }
+}
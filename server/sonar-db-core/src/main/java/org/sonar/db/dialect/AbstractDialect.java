@@ -80,4 +80,13 @@ abstract class AbstractDialect implements Dialect {
   public int getScrollSingleRowFetchSize() {
     return 1;
   }
+
+  /**
+   * Bounds the size of statements, which can contain binary data. For example the default max_allowed_packet
+   * of MySQL is 4Mb.
+   */
+  @Override
+  public int getMaxRowsPerInsert() {
+    return 100;
+  }
 }
@@ -84,4 +84,13 @@ public interface Dialect {
    * @return a boolean
    */
   boolean supportsMigration();
+
+  /**
+   * Maximum number of rows inserted by a single statement "INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...",
+   * or 1 if such multi-row inserts are not supported. In this case rows are sent by JDBC batches.
+   *
+   * @see org.sonar.db.BulkInsert
+   * @since 6.5
+   */
+  int getMaxRowsPerInsert();
 }
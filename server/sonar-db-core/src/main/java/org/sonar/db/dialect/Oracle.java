@@ -49,4 +49,12 @@ public class Oracle extends AbstractDialect {
   public List<String> getConnectionInitStatements() {
     return INIT_STATEMENTS;
   }
+
+  /**
+   * Oracle does not support multi-row "INSERT ... VALUES". Its driver sends JDBC batches as array binds.
+   */
+  @Override
+  public int getMaxRowsPerInsert() {
+    return 1;
+  }
 }
@@ -0,0 +1,193 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.db;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.sonar.db.dialect.Dialect;
+import org.sonar.db.dialect.H2;
+import org.sonar.db.dialect.Oracle;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class BulkInsertTest {
+
+  @Rule
+  public CoreDbTester dbTester = CoreDbTester.createForSchema(BulkInsertTest.class, "schema.sql");
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void insert_rows_with_multi_row_statements() throws Exception {
+    insertRows(new H2(), 250);
+
+    assertThat(dbTester.countRowsOfTable("rows")).isEqualTo(250);
+    verifyRow(0);
+    verifyRow(249);
+  }
+
+  @Test
+  public void insert_rows_with_jdbc_batches_when_multi_row_statements_are_not_supported() throws Exception {
+    insertRows(new Oracle(), BulkInsert.MAX_BATCH_SIZE + 10);
+
+    assertThat(dbTester.countRowsOfTable("rows")).isEqualTo(BulkInsert.MAX_BATCH_SIZE + 10);
+    verifyRow(0);
+    verifyRow(BulkInsert.MAX_BATCH_SIZE + 9);
+  }
+
+  @Test
+  public void insert_null_values() throws Exception {
+    try (Connection connection = dbTester.openConnection();
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", "kee", "int_value", "long_value", "double_value", "boolean_value", "bytes_value")) {
+      underTest.setString("k").setInt(null).setLong(null).setDouble(null).setBoolean(null).setBytes(null).addRow();
+      underTest.flush();
+    }
+
+    Map<String, Object> row = dbTester.selectFirst("select int_value as \"intValue\", bytes_value as \"bytesValue\" from rows");
+    assertThat(row.get("intValue")).isNull();
+    assertThat(row.get("bytesValue")).isNull();
+  }
+
+  @Test
+  public void rows_are_not_inserted_before_statement_is_full_or_flushed() throws Exception {
+    try (Connection connection = dbTester.openConnection();
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", "kee")) {
+      underTest.setString("a").addRow();
+      assertThat(underTest.getInsertedRows()).isEqualTo(0);
+
+      underTest.flush();
+      assertThat(underTest.getInsertedRows()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void number_of_rows_per_statement_is_limited_by_number_of_parameters() throws Exception {
+    String[] columns = new String[BulkInsert.MAX_PARAMETERS / 10];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = "col" + i;
+    }
+    try (Connection connection = dbTester.openConnection();
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", columns)) {
+      for (int i = 0; i < 9; i++) {
+        for (String column : columns) {
+          underTest.setString(column);
+        }
+        underTest.addRow();
+      }
+      // not flushed yet
+      assertThat(underTest.getInsertedRows()).isEqualTo(0);
+      // 10th row fills the statement, which fails because table does not have these columns
+      for (String column : columns) {
+        underTest.setString(column);
+      }
+      expectedException.expect(IllegalStateException.class);
+      expectedException.expectMessage("Fail to insert rows into table rows");
+      underTest.addRow();
+    }
+  }
+
+  @Test
+  public void statement_is_executed_when_size_of_values_reaches_limit() throws Exception {
+    byte[] largeValue = new byte[(int) (BulkInsert.MAX_BUFFERED_BYTES / 3) + 1];
+    try (Connection connection = dbTester.openConnection();
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", "kee", "bytes_value")) {
+      underTest.setString("a").setBytes(largeValue).addRow();
+      underTest.setString("b").setBytes(largeValue).addRow();
+      assertThat(underTest.getInsertedRows()).isEqualTo(0);
+
+      underTest.setString("c").setBytes(largeValue).addRow();
+      assertThat(underTest.getInsertedRows()).isEqualTo(3);
+
+      // size is reset after the statement is executed
+      underTest.setString("d").setBytes(largeValue).addRow();
+      assertThat(underTest.getInsertedRows()).isEqualTo(3);
+    }
+
+    assertThat(dbTester.countRowsOfTable("rows")).isEqualTo(4);
+  }
+
+  @Test
+  public void generate_multi_row_statement() throws Exception {
+    try (Connection connection = dbTester.openConnection()) {
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", "kee", "int_value");
+
+      assertThat(underTest.sql(2)).isEqualTo("insert into rows (kee,int_value) values (?,?),(?,?)");
+    }
+  }
+
+  @Test
+  public void fail_to_add_incomplete_row() throws Exception {
+    try (Connection connection = dbTester.openConnection()) {
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", "kee", "int_value");
+      underTest.setString("a");
+
+      expectedException.expect(IllegalStateException.class);
+      expectedException.expectMessage("Only 1 values are set on the 2 columns of the row");
+
+      underTest.addRow();
+    }
+  }
+
+  @Test
+  public void fail_to_set_more_values_than_columns() throws Exception {
+    try (Connection connection = dbTester.openConnection()) {
+      BulkInsert underTest = new BulkInsert(connection, new H2(), "rows", "kee");
+      underTest.setString("a");
+
+      expectedException.expect(IllegalStateException.class);
+      expectedException.expectMessage("All the 1 columns of the row are already set");
+
+      underTest.setString("b");
+    }
+  }
+
+  private void insertRows(Dialect dialect, int count) throws Exception {
+    try (Connection connection = dbTester.openConnection();
+      BulkInsert underTest = new BulkInsert(connection, dialect, "rows", "kee", "int_value", "long_value", "double_value", "boolean_value", "bytes_value")) {
+      for (int i = 0; i < count; i++) {
+        underTest.setString("row" + i)
+          .setInt(i)
+          .setLong(i * 1_000_000_000L)
+          .setDouble(i / 2d)
+          .setBoolean(i % 2 == 0)
+          .setBytes(new byte[] {(byte) i, 1})
+          .addRow();
+      }
+      underTest.close();
+      assertThat(underTest.getInsertedRows()).isEqualTo(count);
+    }
+  }
+
+  private void verifyRow(int i) {
+    List<Map<String, Object>> rows = dbTester.select("select int_value as \"intValue\", long_value as \"longValue\", double_value as \"doubleValue\", " +
+      "boolean_value as \"booleanValue\", bytes_value as \"bytesValue\" from rows where kee='row" + i + "'");
+    assertThat(rows).hasSize(1);
+    Map<String, Object> row = rows.get(0);
+    assertThat(((Number) row.get("intValue")).intValue()).isEqualTo(i);
+    assertThat(((Number) row.get("longValue")).longValue()).isEqualTo(i * 1_000_000_000L);
+    assertThat(((Number) row.get("doubleValue")).doubleValue()).isEqualTo(i / 2d);
+    assertThat(row.get("booleanValue")).isEqualTo(i % 2 == 0);
+    assertThat((byte[]) row.get("bytesValue")).containsExactly((byte) i, (byte) 1);
+  }
+}
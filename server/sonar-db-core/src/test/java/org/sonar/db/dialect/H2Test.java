@@ -55,4 +55,9 @@ public class H2Test {
   public void h2_does_not_supportMigration() {
     assertThat(dialect.supportsMigration()).isFalse();
   }
+
+  @Test
+  public void h2_supports_multi_row_inserts() {
+    assertThat(dialect.getMaxRowsPerInsert()).isEqualTo(100);
+  }
 }
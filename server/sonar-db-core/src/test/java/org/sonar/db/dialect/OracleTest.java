@@ -56,4 +56,9 @@ public class OracleTest {
   public void oracle_does_supportMigration() {
     assertThat(underTest.supportsMigration()).isTrue();
   }
+
+  @Test
+  public void oracle_does_not_support_multi_row_inserts() {
+    assertThat(underTest.getMaxRowsPerInsert()).isEqualTo(1);
+  }
 }
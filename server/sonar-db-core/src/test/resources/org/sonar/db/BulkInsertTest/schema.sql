@@ -0,0 +1,8 @@
+CREATE TABLE "ROWS" (
+  "KEE" VARCHAR(200) NOT NULL,
+  "INT_VALUE" INTEGER,
+  "LONG_VALUE" BIGINT,
+  "DOUBLE_VALUE" DOUBLE,
+  "BOOLEAN_VALUE" BOOLEAN,
+  "BYTES_VALUE" BINARY
+);
@@ -22,8 +22,11 @@ package org.sonar.db.duplication;
 import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nullable;
+import org.sonar.db.BulkInsert;
+import org.sonar.db.BulkWriter;
 import org.sonar.db.Dao;
 import org.sonar.db.DbSession;
+import org.sonar.db.dialect.Dialect;
 
 import static org.sonar.db.DatabaseUtils.executeLargeInputs;
 
@@ -46,4 +49,20 @@ public class DuplicationDao implements Dao {
     session.getMapper(DuplicationMapper.class).batchInsert(dto);
   }
 
+  /**
+   * Inserts rows in the table DUPLICATIONS_INDEX with multi-row statements. Remaining rows are inserted when
+   * the writer is closed, then they must be committed with {@link DbSession#commit(boolean)}.
+   */
+  public BulkWriter<DuplicationUnitDto> newBulkWriter(DbSession session, Dialect dialect) {
+    BulkInsert insert = new BulkInsert(session.getConnection(), dialect, "duplications_index",
+      "analysis_uuid", "component_uuid", "hash", "index_in_file", "start_line", "end_line");
+    return new BulkWriter<>(insert, (row, dto) -> row
+      .setString(dto.getAnalysisUuid())
+      .setString(dto.getComponentUuid())
+      .setString(dto.getHash())
+      .setInt(dto.getIndexInFile())
+      .setInt(dto.getStartLine())
+      .setInt(dto.getEndLine()));
+  }
+
 }
@@ -25,9 +25,12 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.apache.ibatis.session.ResultHandler;
+import org.sonar.db.BulkInsert;
+import org.sonar.db.BulkWriter;
 import org.sonar.db.Dao;
 import org.sonar.db.DbSession;
 import org.sonar.db.component.ComponentDto;
+import org.sonar.db.dialect.Dialect;
 
 import static java.util.Collections.emptyList;
 import static org.sonar.db.DatabaseUtils.executeLargeInputs;
@@ -94,6 +97,19 @@ public class MeasureDao implements Dao {
       ids -> mapper(dbSession).selectPastMeasuresOnSingleAnalysis(componentUuid, analysisUuid, ids));
   }
 
+  /**
+   * Select the measures of an analysis on several components, for example all the components of a project tree.
+   * Measures on developers are excluded.
+   */
+  public List<PastMeasureDto> selectPastMeasures(DbSession dbSession, Collection<String> componentUuids, String analysisUuid, Collection<Integer> metricIds) {
+    if (componentUuids.isEmpty() || metricIds.isEmpty()) {
+      return emptyList();
+    }
+    return executeLargeInputs(
+      componentUuids,
+      uuids -> mapper(dbSession).selectPastMeasuresOnComponents(uuids, analysisUuid, metricIds));
+  }
+
   /**
    * Select measures of:
    * - one component
@@ -134,6 +150,27 @@ public class MeasureDao implements Dao {
     insert(session, Lists.asList(item, others));
   }
 
+  /**
+   * Inserts measures with multi-row statements, which is much faster than {@link #insert(DbSession, MeasureDto)}
+   * on a batch session when inserting thousands of rows. Remaining rows are inserted when the writer is closed,
+   * then they must be committed with {@link DbSession#commit(boolean)}, as MyBatis is not aware of them.
+   */
+  public BulkWriter<MeasureDto> newBulkWriter(DbSession session, Dialect dialect) {
+    BulkInsert insert = new BulkInsert(session.getConnection(), dialect, "project_measures",
+      "value", "metric_id", "component_uuid", "analysis_uuid", "text_value", "alert_status", "alert_text", "person_id", "variation_value_1", "measure_data");
+    return new BulkWriter<>(insert, (row, dto) -> row
+      .setDouble(dto.getValue())
+      .setInt(dto.getMetricId())
+      .setString(dto.getComponentUuid())
+      .setString(dto.getAnalysisUuid())
+      .setString(dto.getTextValue())
+      .setString(dto.getAlertStatus())
+      .setString(dto.getAlertText())
+      .setLong(dto.getDeveloperId())
+      .setDouble(dto.getVariation())
+      .setBytes(dto.getDataValue()));
+  }
+
   private static MeasureMapper mapper(DbSession session) {
     return session.getMapper(MeasureMapper.class);
   }
@@ -65,6 +65,22 @@ public class MeasureDto {
     return textValue;
   }
 
+  /**
+   * Data shorter than 4000 characters, stored in column TEXT_VALUE
+   */
+  @CheckForNull
+  String getTextValue() {
+    return textValue;
+  }
+
+  /**
+   * Data longer than 4000 characters, stored in column MEASURE_DATA
+   */
+  @CheckForNull
+  byte[] getDataValue() {
+    return dataValue;
+  }
+
   public MeasureDto setData(@Nullable String data) {
     if (data == null) {
       this.textValue = null;
@@ -51,6 +51,8 @@ public interface MetricMapper {
 
   int countEnabled(@Param("isCustom") @Nullable Boolean isCustom);
 
+  List<Integer> selectEnabledIds();
+
   void update(MetricDto metric);
 
   List<MetricDto> selectAvailableCustomMetricsByComponentUuid(String projectUuid);
@@ -65,7 +65,10 @@ class PurgeCommands {
     List<List<String>> analysisUuidsPartitions = Lists.partition(IdUuidPairs.uuids(purgeMapper.selectAnalysisIdsAndUuids(new PurgeSnapshotQuery().setComponentUuid(rootUuid))),
         MAX_SNAPSHOTS_PER_QUERY);
 
-    deleteAnalysisDuplications(analysisUuidsPartitions);
+    profiler.start("deleteAnalysisDuplications (duplications_index)");
+    analysisUuidsPartitions.forEach(purgeMapper::deleteAnalysisDuplications);
+    session.commit();
+    profiler.stop();
 
     profiler.start("deleteAnalyses (project_measures)");
     analysisUuidsPartitions.forEach(purgeMapper::deleteAnalysisMeasures);
@@ -85,50 +88,58 @@ class PurgeCommands {
     deleteAnalyses(snapshotIds);
   }
 
+  /**
+   * Analyses are deleted by chunks of {@link #MAX_SNAPSHOTS_PER_QUERY}, each chunk being committed before the next
+   * one is processed. Transactions are kept short and the rows of the table "snapshots" are deleted last, so
+   * that an interrupted deletion is resumed by the next purge.
+   */
   @VisibleForTesting
   void deleteAnalyses(List<IdUuidPair> analysisIdUuids) {
-    List<List<String>> analysisUuidsPartitions = Lists.partition(IdUuidPairs.uuids(analysisIdUuids), MAX_SNAPSHOTS_PER_QUERY);
-
-    deleteAnalysisDuplications(analysisUuidsPartitions);
+    for (List<String> analysisUuids : Lists.partition(IdUuidPairs.uuids(analysisIdUuids), MAX_SNAPSHOTS_PER_QUERY)) {
+      deleteAnalysisDuplications(analysisUuids);
 
-    profiler.start("deleteAnalyses (events)");
-    analysisUuidsPartitions.forEach(purgeMapper::deleteAnalysisEvents);
-    session.commit();
-    profiler.stop();
+      profiler.start("deleteAnalyses (events)");
+      purgeMapper.deleteAnalysisEvents(analysisUuids);
+      profiler.stop();
 
-    profiler.start("deleteAnalyses (project_measures)");
-    analysisUuidsPartitions.forEach(purgeMapper::deleteAnalysisMeasures);
-    session.commit();
-    profiler.stop();
+      profiler.start("deleteAnalyses (project_measures)");
+      purgeMapper.deleteAnalysisMeasures(analysisUuids);
+      profiler.stop();
 
-    profiler.start("deleteAnalyses (snapshots)");
-    analysisUuidsPartitions.forEach(purgeMapper::deleteAnalyses);
-    session.commit();
-    profiler.stop();
+      profiler.start("deleteAnalyses (snapshots)");
+      purgeMapper.deleteAnalyses(analysisUuids);
+      session.commit();
+      profiler.stop();
+    }
   }
 
+  /**
+   * Analyses are purged by chunks of {@link #MAX_SNAPSHOTS_PER_QUERY}, each chunk being committed before the next
+   * one is processed. The purge status of an analysis is updated in the same transaction as the deletion of
+   * its data, so that an interrupted purge is resumed by the next one.
+   */
   void purgeAnalyses(List<IdUuidPair> analysisUuids) {
-    List<List<String>> analysisUuidsPartitions = Lists.partition(IdUuidPairs.uuids(analysisUuids), MAX_SNAPSHOTS_PER_QUERY);
-
-    deleteAnalysisDuplications(analysisUuidsPartitions);
-
-    profiler.start("deleteSnapshotWastedMeasures (project_measures)");
+    if (analysisUuids.isEmpty()) {
+      return;
+    }
     List<Long> metricIdsWithoutHistoricalData = purgeMapper.selectMetricIdsWithoutHistoricalData();
-    analysisUuidsPartitions
-        .forEach(analysisUuidsPartition -> purgeMapper.deleteAnalysisWastedMeasures(analysisUuidsPartition, metricIdsWithoutHistoricalData));
-    session.commit();
-    profiler.stop();
+    for (List<String> analysisUuidsPartition : Lists.partition(IdUuidPairs.uuids(analysisUuids), MAX_SNAPSHOTS_PER_QUERY)) {
+      deleteAnalysisDuplications(analysisUuidsPartition);
 
-    profiler.start("updatePurgeStatusToOne (snapshots)");
-    analysisUuidsPartitions.forEach(purgeMapper::updatePurgeStatusToOne);
-    session.commit();
-    profiler.stop();
+      profiler.start("deleteSnapshotWastedMeasures (project_measures)");
+      purgeMapper.deleteAnalysisWastedMeasures(analysisUuidsPartition, metricIdsWithoutHistoricalData);
+      profiler.stop();
+
+      profiler.start("updatePurgeStatusToOne (snapshots)");
+      purgeMapper.updatePurgeStatusToOne(analysisUuidsPartition);
+      session.commit();
+      profiler.stop();
+    }
   }
 
-  private void deleteAnalysisDuplications(List<List<String>> snapshotUuidsPartitions) {
+  private void deleteAnalysisDuplications(List<String> analysisUuids) {
     profiler.start("deleteAnalysisDuplications (duplications_index)");
-    snapshotUuidsPartitions.forEach(purgeMapper::deleteAnalysisDuplications);
-    session.commit();
+    purgeMapper.deleteAnalysisDuplications(analysisUuids);
     profiler.stop();
   }
 
@@ -20,20 +20,31 @@
 package org.sonar.db.purge;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import org.sonar.api.utils.TimeUtils;
 import org.sonar.api.utils.log.Logger;
 
+/**
+ * Durations of the purge commands, by table.
+ * <p>
+ * A single instance is shared by the workers of the Compute Engine. The durations of the purge in progress
+ * are kept per thread, so that {@link #reset()} and {@link #dump(long, Logger)} only deal with the purge
+ * executed by the calling thread. The durations cumulated since startup by all threads are available
+ * through {@link #getCumulatedDurations()}.
+ * </p>
+ */
 public class PurgeProfiler {
 
-  private Map<String, Long> durations = new HashMap<>();
-  private long startTime;
-  private String currentTable;
+  private final ThreadLocal<Run> currentRun = ThreadLocal.withInitial(Run::new);
+  private final ConcurrentHashMap<String, AtomicLong> cumulatedDurations = new ConcurrentHashMap<>();
   private final Clock clock;
 
   public PurgeProfiler() {
@@ -46,26 +57,33 @@ public class PurgeProfiler {
   }
 
   public void reset() {
-    durations.clear();
+    currentRun.get().durations.clear();
   }
 
   void start(String table) {
-    this.startTime = clock.now();
-    this.currentTable = table;
+    Run run = currentRun.get();
+    run.startTime = clock.now();
+    run.currentTable = table;
   }
 
   void stop() {
-    final Long cumulatedDuration;
-    if (durations.containsKey(currentTable)) {
-      cumulatedDuration = durations.get(currentTable);
-    } else {
-      cumulatedDuration = 0L;
-    }
-    durations.put(currentTable, cumulatedDuration + (clock.now() - startTime));
+    Run run = currentRun.get();
+    long duration = clock.now() - run.startTime;
+    run.durations.merge(run.currentTable, duration, Long::sum);
+    cumulatedDurations.computeIfAbsent(run.currentTable, k -> new AtomicLong()).addAndGet(duration);
+  }
+
+  /**
+   * Durations in milliseconds of the purge commands executed by all threads since startup, by table.
+   */
+  public Map<String, Long> getCumulatedDurations() {
+    ImmutableMap.Builder<String, Long> builder = ImmutableMap.builder();
+    cumulatedDurations.forEach((table, duration) -> builder.put(table, duration.get()));
+    return builder.build();
   }
 
   public void dump(long totalTime, Logger logger) {
-    List<Entry<String, Long>> data = new ArrayList<>(durations.entrySet());
+    List<Entry<String, Long>> data = new ArrayList<>(currentRun.get().durations.entrySet());
     Collections.sort(data, (o1, o2) -> o2.getValue().compareTo(o1.getValue()));
     double percent = totalTime / 100.0;
     for (Entry<String, Long> entry : truncateList(data)) {
@@ -89,6 +107,12 @@ public class PurgeProfiler {
     return result;
   }
 
+  private static class Run {
+    private final Map<String, Long> durations = new HashMap<>();
+    private long startTime;
+    private String currentTable;
+  }
+
   static class Clock {
     public long now() {
       return System.currentTimeMillis();
@@ -113,6 +113,14 @@ public class RuleDao implements Dao {
     return ensureOrganizationIsSet(organizationUuid, mapper(session).selectAll(organizationUuid));
   }
 
+  /**
+   * Cheap fingerprint of the result of {@link #selectAll(DbSession, String)}, used to know whether
+   * rules loaded previously are still up-to-date.
+   */
+  public RuleVersionDto selectVersion(DbSession session, String organizationUuid) {
+    return mapper(session).selectVersion(organizationUuid);
+  }
+
   public List<RuleDefinitionDto> selectAllDefinitions(DbSession session) {
     return mapper(session).selectAllDefinitions();
   }
@@ -30,6 +30,8 @@ public interface RuleMapper {
 
   List<RuleDto> selectAll(@Param("organizationUuid") String organizationUuid);
 
+  RuleVersionDto selectVersion(@Param("organizationUuid") String organizationUuid);
+
   List<RuleDefinitionDto> selectAllDefinitions();
 
   void selectEnabled(ResultHandler<RuleDefinitionDto> resultHandler);
@@ -0,0 +1,106 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.db.rule;
+
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * Cheap fingerprint of the rules of an organization, as seen by {@link RuleDao#selectAll(org.sonar.db.DbSession, String)}.
+ * It changes when a rule or a metadata of the organization is created, updated or removed.
+ */
+public class RuleVersionDto {
+
+  private long ruleCount;
+  @CheckForNull
+  private Long ruleMaxUpdatedAt;
+  private long metadataCount;
+  @CheckForNull
+  private Long metadataMaxUpdatedAt;
+
+  public long getRuleCount() {
+    return ruleCount;
+  }
+
+  public RuleVersionDto setRuleCount(long ruleCount) {
+    this.ruleCount = ruleCount;
+    return this;
+  }
+
+  @CheckForNull
+  public Long getRuleMaxUpdatedAt() {
+    return ruleMaxUpdatedAt;
+  }
+
+  public RuleVersionDto setRuleMaxUpdatedAt(@Nullable Long ruleMaxUpdatedAt) {
+    this.ruleMaxUpdatedAt = ruleMaxUpdatedAt;
+    return this;
+  }
+
+  public long getMetadataCount() {
+    return metadataCount;
+  }
+
+  public RuleVersionDto setMetadataCount(long metadataCount) {
+    this.metadataCount = metadataCount;
+    return this;
+  }
+
+  @CheckForNull
+  public Long getMetadataMaxUpdatedAt() {
+    return metadataMaxUpdatedAt;
+  }
+
+  public RuleVersionDto setMetadataMaxUpdatedAt(@Nullable Long metadataMaxUpdatedAt) {
+    this.metadataMaxUpdatedAt = metadataMaxUpdatedAt;
+    return this;
+  }
+
+  @Override
+  public boolean equals(@Nullable Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    RuleVersionDto that = (RuleVersionDto) o;
+    return ruleCount == that.ruleCount
+      && metadataCount == that.metadataCount
+      && Objects.equals(ruleMaxUpdatedAt, that.ruleMaxUpdatedAt)
+      && Objects.equals(metadataMaxUpdatedAt, that.metadataMaxUpdatedAt);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(ruleCount, ruleMaxUpdatedAt, metadataCount, metadataMaxUpdatedAt);
+  }
+
+  @Override
+  public String toString() {
+    return "RuleVersionDto{" +
+      "ruleCount=" + ruleCount +
+      ", ruleMaxUpdatedAt=" + ruleMaxUpdatedAt +
+      ", metadataCount=" + metadataCount +
+      ", metadataMaxUpdatedAt=" + metadataMaxUpdatedAt +
+      '}';
+  }
+}
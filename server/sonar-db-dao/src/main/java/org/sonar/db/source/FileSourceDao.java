@@ -70,7 +70,9 @@ public class FileSourceDao implements Dao {
     } catch (SQLException e) {
       throw new IllegalStateException("Fail to read FILE_SOURCES.LINE_HASHES of file " + fileUuid, e);
     } finally {
-      DbUtils.closeQuietly(connection, pstmt, rs);
+      // the connection belongs to the session, it must not be closed here
+      DbUtils.closeQuietly(rs);
+      DbUtils.closeQuietly(pstmt);
     }
   }
 
@@ -94,7 +96,9 @@ public class FileSourceDao implements Dao {
       throw new IllegalStateException("Fail to read FILE_SOURCES.LINE_HASHES of file " + fileUuid, e);
     } finally {
       IOUtils.closeQuietly(reader);
-      DbUtils.closeQuietly(connection, pstmt, rs);
+      // the connection belongs to the session, it must not be closed here
+      DbUtils.closeQuietly(rs);
+      DbUtils.closeQuietly(pstmt);
     }
   }
 
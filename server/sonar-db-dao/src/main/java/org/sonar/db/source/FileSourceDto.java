@@ -19,6 +19,7 @@
  */
 package org.sonar.db.source;
 
+import com.google.common.collect.ImmutableSet;
 import com.google.protobuf.CodedInputStream;
 import com.google.protobuf.InvalidProtocolBufferException;
 import java.io.ByteArrayInputStream;
@@ -27,6 +28,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import net.jpountz.lz4.LZ4BlockInputStream;
@@ -41,6 +43,19 @@ public class FileSourceDto {
   private static final String SIZE_LIMIT_EXCEEDED_EXCEPTION_MESSAGE = "Protocol message was too large.  May be malicious.  " +
     "Use CodedInputStream.setSizeLimit() to increase the size limit.";
 
+  /**
+   * Fields of {@link DbFileSources.Line} required to read SCM information, to be used with
+   * {@link #getSourceData(Set)} or {@link #getSourceLines(int, int, Set)}
+   */
+  public static final Set<Integer> SCM_LINE_FIELDS = ImmutableSet.of(
+    DbFileSources.Line.LINE_FIELD_NUMBER,
+    DbFileSources.Line.SCM_REVISION_FIELD_NUMBER,
+    DbFileSources.Line.SCM_AUTHOR_FIELD_NUMBER,
+    DbFileSources.Line.SCM_DATE_FIELD_NUMBER);
+
+  private static final int WIRE_TYPE_LENGTH_DELIMITED = 2;
+  private static final int LINES_TAG = (DbFileSources.Data.LINES_FIELD_NUMBER << 3) | WIRE_TYPE_LENGTH_DELIMITED;
+
   private Long id;
   private String projectUuid;
   private String fileUuid;
@@ -122,6 +137,63 @@ public class FileSourceDto {
     }
   }
 
+  /**
+   * Decompress and deserialize a subset of the content of column BINARY_DATA. Only the lines
+   * numbered from {@code from} to {@code toInclusive} are returned (lines without number are considered
+   * as line 0), and only the fields of {@link DbFileSources.Line} listed in {@code lineFields} are
+   * deserialized. All fields are deserialized if {@code lineFields} is {@code null}.
+   * <p>
+   * Decoding stops after the last requested line. The other fields are skipped without being decoded, which
+   * avoids allocating the strings of source code, highlighting and symbols when only SCM data is required.
+   * </p>
+   */
+  public List<DbFileSources.Line> decodeSourceLines(byte[] binaryData, int from, int toInclusive, @Nullable Set<Integer> lineFields) {
+    try (LZ4BlockInputStream lz4Input = new LZ4BlockInputStream(new ByteArrayInputStream(binaryData))) {
+      CodedInputStream input = CodedInputStream.newInstance(lz4Input);
+      input.setSizeLimit(Integer.MAX_VALUE);
+      List<DbFileSources.Line> lines = new ArrayList<>();
+      int tag;
+      while ((tag = input.readTag()) != 0) {
+        if (tag != LINES_TAG) {
+          input.skipField(tag);
+          continue;
+        }
+        DbFileSources.Line line = parseLine(input.readByteArray(), lineFields);
+        if (line.getLine() > toInclusive) {
+          break;
+        }
+        if (line.getLine() >= from) {
+          lines.add(line);
+        }
+      }
+      return lines;
+    } catch (IOException e) {
+      throw new IllegalStateException(
+        format("Fail to decompress and deserialize source data [id=%s,fileUuid=%s,projectUuid=%s]", id, fileUuid, projectUuid),
+        e);
+    }
+  }
+
+  private static DbFileSources.Line parseLine(byte[] lineBytes, @Nullable Set<Integer> lineFields) throws IOException {
+    if (lineFields == null) {
+      return DbFileSources.Line.parseFrom(lineBytes);
+    }
+    // copy the raw bytes of the requested fields only, then parse them
+    CodedInputStream input = CodedInputStream.newInstance(lineBytes);
+    ByteArrayOutputStream projection = new ByteArrayOutputStream();
+    int start = 0;
+    int tag;
+    while ((tag = input.readTag()) != 0) {
+      input.skipField(tag);
+      int end = input.getTotalBytesRead();
+      if (lineFields.contains(tag >>> 3)) {
+        projection.write(lineBytes, start, end - start);
+      }
+      start = end;
+    }
+    return DbFileSources.Line.parseFrom(projection.toByteArray());
+  }
+
   /**
    * Serialize and compress protobuf message {@link org.sonar.db.protobuf.DbFileSources.Data}
    * in the column BINARY_DATA.
@@ -212,6 +284,24 @@ public class FileSourceDto {
     return decodeSourceData(binaryData);
   }
 
+  /**
+   * Same as {@link #getSourceData()} but only the specified fields of lines are deserialized.
+   * @see #decodeSourceLines(byte[], int, int, Set)
+   */
+  public DbFileSources.Data getSourceData(Set<Integer> lineFields) {
+    return DbFileSources.Data.newBuilder()
+      .addAllLines(decodeSourceLines(binaryData, Integer.MIN_VALUE, Integer.MAX_VALUE, lineFields))
+      .build();
+  }
+
+  /**
+   * Lines numbered from {@code from} to {@code toInclusive}, starting from 1.
+   * @see #decodeSourceLines(byte[], int, int, Set)
+   */
+  public List<DbFileSources.Line> getSourceLines(int from, int toInclusive, @Nullable Set<Integer> lineFields) {
+    return decodeSourceLines(binaryData, from, toInclusive, lineFields);
+  }
+
   public FileSourceDto setSourceData(DbFileSources.Data data) {
     this.dataType = Type.SOURCE;
     this.binaryData = encodeSourceData(data);
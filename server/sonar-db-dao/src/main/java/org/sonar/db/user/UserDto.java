@@ -234,6 +234,29 @@ public class UserDto {
     return DigestUtils.sha1Hex("--" + salt + "--" + password + "--");
   }
 
+  /**
+   * Copy of all the fields, including the ones that can only be set by MyBatis
+   */
+  public UserDto copy() {
+    UserDto copy = new UserDto();
+    copy.id = id;
+    copy.login = login;
+    copy.name = name;
+    copy.email = email;
+    copy.active = active;
+    copy.scmAccounts = scmAccounts;
+    copy.externalIdentity = externalIdentity;
+    copy.externalIdentityProvider = externalIdentityProvider;
+    copy.cryptedPassword = cryptedPassword;
+    copy.salt = salt;
+    copy.createdAt = createdAt;
+    copy.updatedAt = updatedAt;
+    copy.local = local;
+    copy.root = root;
+    copy.onboarded = onboarded;
+    return copy;
+  }
+
   public DefaultUser toUser() {
     return new DefaultUser()
       .setLogin(login)
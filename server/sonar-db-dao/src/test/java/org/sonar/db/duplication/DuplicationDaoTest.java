@@ -23,6 +23,7 @@ import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
 import org.sonar.api.utils.System2;
+import org.sonar.db.BulkWriter;
 import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
 
@@ -77,4 +78,23 @@ public class DuplicationDaoTest {
     db.assertDbUnit(getClass(), "insert-result.xml", "duplications_index");
   }
 
+  @Test
+  public void insert_with_bulk_writer() {
+    db.prepareDbUnit(getClass(), "insert.xml");
+    dbSession.commit();
+
+    try (BulkWriter<DuplicationUnitDto> writer = dao.newBulkWriter(dbSession, db.getDbClient().getDatabase().getDialect())) {
+      writer.write(new DuplicationUnitDto()
+        .setAnalysisUuid("u1")
+        .setComponentUuid("uuid_1")
+        .setHash("bb")
+        .setIndexInFile(0)
+        .setStartLine(1)
+        .setEndLine(2));
+    }
+    dbSession.commit(true);
+
+    db.assertDbUnit(getClass(), "insert-result.xml", "duplications_index");
+  }
+
 }
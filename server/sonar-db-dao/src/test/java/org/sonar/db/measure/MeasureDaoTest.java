@@ -24,11 +24,13 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import javax.annotation.Nullable;
+import org.apache.commons.lang.StringUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.sonar.api.utils.System2;
 import org.sonar.core.util.UuidFactoryImpl;
+import org.sonar.db.BulkWriter;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
@@ -40,6 +42,7 @@ import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.sonar.api.resources.Qualifiers.FILE;
 import static org.sonar.api.resources.Qualifiers.UNIT_TEST_FILE;
 import static org.sonar.api.utils.DateUtils.parseDate;
@@ -103,6 +106,47 @@ public class MeasureDaoTest {
     assertThat(selected.getAlertText()).isEqualTo(inserted.getAlertText());
   }
 
+  @Test
+  public void insert_with_bulk_writer() {
+    ComponentDto project = db.components().insertPrivateProject();
+    insertAnalysis(LAST_ANALYSIS_UUID, project.uuid(), true);
+    db.components().insertComponent(newFileDto(project).setUuid("C4"));
+    MeasureDto inserted = new MeasureDto()
+      .setAnalysisUuid(LAST_ANALYSIS_UUID)
+      .setMetricId(2)
+      .setComponentUuid("C4")
+      .setValue(5.0d)
+      .setData(StringUtils.repeat("a", 5_000))
+      .setVariation(1d)
+      .setAlertStatus("alert")
+      .setAlertText("alert-text");
+    MeasureDto insertedWithoutValue = new MeasureDto()
+      .setAnalysisUuid(LAST_ANALYSIS_UUID)
+      .setMetricId(3)
+      .setComponentUuid("C4")
+      .setData("short data");
+
+    try (BulkWriter<MeasureDto> writer = underTest.newBulkWriter(db.getSession(), db.getDbClient().getDatabase().getDialect())) {
+      writer.write(inserted).write(insertedWithoutValue);
+    }
+    db.getSession().commit(true);
+
+    List<MeasureDto> selected = underTest.selectByQuery(db.getSession(), MeasureQuery.builder().setComponentUuid("C4").build());
+    assertThat(selected).hasSize(2);
+    MeasureDto selected2 = selected.stream().filter(m -> m.getMetricId() == 2).findFirst().get();
+    assertThat(selected2.getAnalysisUuid()).isEqualTo(LAST_ANALYSIS_UUID);
+    assertThat(selected2.getDeveloperId()).isNull();
+    assertThat(selected2.getValue()).isEqualTo(5.0d);
+    assertThat(selected2.getData()).isEqualTo(inserted.getData());
+    assertThat(selected2.getVariation()).isEqualTo(1d);
+    assertThat(selected2.getAlertStatus()).isEqualTo("alert");
+    assertThat(selected2.getAlertText()).isEqualTo("alert-text");
+    MeasureDto selected3 = selected.stream().filter(m -> m.getMetricId() == 3).findFirst().get();
+    assertThat(selected3.getValue()).isNull();
+    assertThat(selected3.getData()).isEqualTo("short data");
+    assertThat(selected3.getVariation()).isNull();
+  }
+
   @Test
   public void selectByQuery() {
     ComponentDto project1 = db.components().insertPrivateProject();
@@ -375,6 +419,33 @@ public class MeasureDaoTest {
       .containsOnly("P1_M1", "P1_M2", "P2_M1", "P2_M2");
   }
 
+  @Test
+  public void select_past_measures_of_several_components_on_single_analysis() {
+    ComponentDto project = db.components().insertPrivateProject();
+    insertAnalysis(LAST_ANALYSIS_UUID, project.uuid(), true);
+    insertAnalysis(OTHER_ANALYSIS_UUID, project.uuid(), false);
+    insertMeasure("P_M1", OTHER_ANALYSIS_UUID, project.uuid(), NCLOC_METRIC_ID);
+    insertMeasure("P_M2", OTHER_ANALYSIS_UUID, project.uuid(), COVERAGE_METRIC_ID);
+    insertMeasure("P_M3", LAST_ANALYSIS_UUID, project.uuid(), NCLOC_METRIC_ID);
+    insertMeasure("C1_M1", OTHER_ANALYSIS_UUID, "C1", NCLOC_METRIC_ID);
+    insertMeasureOnPerson("C1_M2", OTHER_ANALYSIS_UUID, "C1", NCLOC_METRIC_ID, A_PERSON_ID);
+    insertMeasure("C2_M1", OTHER_ANALYSIS_UUID, "C2", NCLOC_METRIC_ID);
+    db.commit();
+
+    assertThat(underTest.selectPastMeasures(db.getSession(), emptyList(), OTHER_ANALYSIS_UUID, singletonList(NCLOC_METRIC_ID))).isEmpty();
+    assertThat(underTest.selectPastMeasures(db.getSession(), singletonList("C1"), OTHER_ANALYSIS_UUID, emptyList())).isEmpty();
+
+    assertThat(underTest.selectPastMeasures(db.getSession(), asList(project.uuid(), "C1"), OTHER_ANALYSIS_UUID, asList(NCLOC_METRIC_ID, COVERAGE_METRIC_ID)))
+      .extracting(PastMeasureDto::getComponentUuid, PastMeasureDto::getMetricId, PastMeasureDto::getPersonId)
+      .containsOnly(
+        tuple(project.uuid(), NCLOC_METRIC_ID, null),
+        tuple(project.uuid(), COVERAGE_METRIC_ID, null),
+        tuple("C1", NCLOC_METRIC_ID, null));
+    assertThat(underTest.selectPastMeasures(db.getSession(), asList(project.uuid(), "C2"), LAST_ANALYSIS_UUID, singletonList(NCLOC_METRIC_ID)))
+      .extracting(PastMeasureDto::getComponentUuid)
+      .containsOnly(project.uuid());
+  }
+
   private Optional<MeasureDto> selectSingle(MeasureQuery.Builder query) {
     return underTest.selectSingle(db.getSession(), query.build());
   }
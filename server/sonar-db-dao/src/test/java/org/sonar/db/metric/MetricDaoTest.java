@@ -200,6 +200,16 @@ public class MetricDaoTest {
     assertThat(dbTester.countRowsOfTable("metrics")).isEqualTo(2);
   }
 
+  @Test
+  public void selectEnabledIds() {
+    MetricDto metric1 = underTest.insert(session, newMetricDto().setEnabled(true));
+    underTest.insert(session, newMetricDto().setEnabled(false));
+    MetricDto metric3 = underTest.insert(session, newMetricDto().setEnabled(true));
+    session.commit();
+
+    assertThat(underTest.selectEnabledIds(session)).containsExactly(metric1.getId(), metric3.getId());
+  }
+
   @Test
   public void selectById() {
     MetricDto metric = underTest.insert(session, newMetricDto());
@@ -23,8 +23,12 @@ import org.junit.Before;
 import org.junit.Test;
 import org.sonar.api.utils.log.Logger;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.MapEntry.entry;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.contains;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 public class PurgeProfilerTest {
@@ -80,6 +84,49 @@ public class PurgeProfilerTest {
     verify(logger).info(contains("bar: 5ms"));
   }
 
+  @Test
+  public void durations_of_other_threads_are_not_dumped_nor_reset() throws InterruptedException {
+    profiler.start("foo");
+    clock.sleep(10);
+    profiler.stop();
+
+    Thread otherThread = new Thread(() -> {
+      profiler.reset();
+      profiler.start("bar");
+      clock.sleep(5);
+      profiler.stop();
+    });
+    otherThread.start();
+    otherThread.join();
+
+    profiler.dump(50, logger);
+    verify(logger).info(contains("foo: 10ms"));
+    verify(logger, never()).info(contains("bar"));
+  }
+
+  @Test
+  public void cumulated_durations_include_all_threads_and_are_not_reset() throws InterruptedException {
+    profiler.start("foo");
+    clock.sleep(10);
+    profiler.stop();
+    profiler.reset();
+
+    Thread otherThread = new Thread(() -> {
+      profiler.start("foo");
+      clock.sleep(5);
+      profiler.stop();
+      profiler.start("bar");
+      clock.sleep(3);
+      profiler.stop();
+    });
+    otherThread.start();
+    otherThread.join();
+
+    assertThat(profiler.getCumulatedDurations()).containsOnly(entry("foo", 15L), entry("bar", 3L));
+    profiler.dump(50, logger);
+    verify(logger, never()).info(anyString());
+  }
+
   private class MockedClock extends PurgeProfiler.Clock {
     private long now = 0;
 
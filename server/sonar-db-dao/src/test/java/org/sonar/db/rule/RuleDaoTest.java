@@ -255,6 +255,32 @@ public class RuleDaoTest {
       .containsExactly(organizationUuid, organizationUuid, organizationUuid);
   }
 
+  @Test
+  public void selectVersion_changes_when_rules_or_metadata_of_organization_change() {
+    OrganizationDto organization = db.organizations().insert();
+    OrganizationDto otherOrganization = db.organizations().insert();
+    RuleDefinitionDto rule = db.rules().insert(r -> r.setUpdatedAt(1_000L));
+    db.rules().insert(r -> r.setUpdatedAt(2_000L));
+
+    RuleVersionDto version = underTest.selectVersion(db.getSession(), organization.getUuid());
+    assertThat(version.getRuleCount()).isEqualTo(2);
+    assertThat(version.getRuleMaxUpdatedAt()).isEqualTo(2_000L);
+    assertThat(version.getMetadataCount()).isEqualTo(0);
+    assertThat(version.getMetadataMaxUpdatedAt()).isNull();
+
+    db.rules().insertOrUpdateMetadata(rule, otherOrganization, m -> m.setUpdatedAt(3_000L));
+    assertThat(underTest.selectVersion(db.getSession(), organization.getUuid())).isEqualTo(version);
+
+    db.rules().insertOrUpdateMetadata(rule, organization, m -> m.setUpdatedAt(4_000L));
+    RuleVersionDto versionWithMetadata = underTest.selectVersion(db.getSession(), organization.getUuid());
+    assertThat(versionWithMetadata).isNotEqualTo(version);
+    assertThat(versionWithMetadata.getMetadataCount()).isEqualTo(1);
+    assertThat(versionWithMetadata.getMetadataMaxUpdatedAt()).isEqualTo(4_000L);
+
+    db.rules().update(rule.setUpdatedAt(5_000L));
+    assertThat(underTest.selectVersion(db.getSession(), organization.getUuid()).getRuleMaxUpdatedAt()).isEqualTo(5_000L);
+  }
+
   @Test
   public void selectAllDefinitions() {
     db.prepareDbUnit(getClass(), "shared.xml");
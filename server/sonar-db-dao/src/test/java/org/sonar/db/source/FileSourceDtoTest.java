@@ -80,6 +80,56 @@ public class FileSourceDtoTest {
     assertThat(data.getLinesCount()).isEqualTo(build.getLinesCount());
   }
 
+  @Test
+  public void decodeSourceLines_returns_only_lines_of_range() {
+    byte[] bytes = FileSourceDto.encodeSourceData(createData(10));
+
+    List<DbFileSources.Line> lines = new FileSourceDto().decodeSourceLines(bytes, 3, 5, null);
+
+    assertThat(lines).extracting(DbFileSources.Line::getLine).containsExactly(3, 4, 5);
+    assertThat(lines.get(0).getSource()).isEqualTo("source 3");
+    assertThat(lines.get(0).getScmAuthor()).isEqualTo("author 3");
+  }
+
+  @Test
+  public void decodeSourceLines_returns_only_requested_fields() {
+    byte[] bytes = FileSourceDto.encodeSourceData(createData(3));
+
+    List<DbFileSources.Line> lines = new FileSourceDto().decodeSourceLines(bytes, 1, 3, FileSourceDto.SCM_LINE_FIELDS);
+
+    assertThat(lines).hasSize(3);
+    DbFileSources.Line line = lines.get(1);
+    assertThat(line.getLine()).isEqualTo(2);
+    assertThat(line.getScmAuthor()).isEqualTo("author 2");
+    assertThat(line.getScmRevision()).isEqualTo("rev 2");
+    assertThat(line.getScmDate()).isEqualTo(2L);
+    assertThat(line.hasSource()).isFalse();
+    assertThat(line.hasHighlighting()).isFalse();
+  }
+
+  @Test
+  public void getSourceData_with_fields_returns_all_lines() {
+    FileSourceDto underTest = new FileSourceDto().setSourceData(createData(4));
+
+    DbFileSources.Data data = underTest.getSourceData(FileSourceDto.SCM_LINE_FIELDS);
+
+    assertThat(data.getLinesList()).extracting(DbFileSources.Line::getLine).containsExactly(1, 2, 3, 4);
+  }
+
+  private static DbFileSources.Data createData(int linesCount) {
+    DbFileSources.Data.Builder dataBuilder = DbFileSources.Data.newBuilder();
+    for (int i = 1; i <= linesCount; i++) {
+      dataBuilder.addLinesBuilder()
+        .setLine(i)
+        .setSource("source " + i)
+        .setScmRevision("rev " + i)
+        .setScmAuthor("author " + i)
+        .setScmDate(i)
+        .setHighlighting("0,5,k");
+    }
+    return dataBuilder.build();
+  }
+
   private static DbFileSources.Data createOver64MBDataStructure() {
     DbFileSources.Data.Builder dataBuilder = DbFileSources.Data.newBuilder();
     DbFileSources.Line.Builder lineBuilder = DbFileSources.Line.newBuilder();
@@ -47,6 +47,17 @@ public class UserDtoTest {
     assertThat(UserDto.decodeScmAccounts("\nfoo\nbar\n")).containsOnly("foo", "bar");
   }
 
+  @Test
+  public void copy_has_all_fields_of_user() {
+    UserDto user = UserTesting.newUserDto();
+    user.setRoot(true);
+
+    UserDto copy = user.copy();
+
+    assertThat(copy).isNotSameAs(user);
+    assertThat(copy).isEqualToComparingFieldByField(user);
+  }
+
   @Test
   public void encrypt_password() throws Exception {
     assertThat(UserDto.encryptPassword("PASSWORD", "0242b0b4c0a93ddfe09dd886de50bc25ba000b51")).isEqualTo("540e4fc4be4e047db995bc76d18374a5b5db08cc");
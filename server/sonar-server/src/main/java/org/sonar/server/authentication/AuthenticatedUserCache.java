@@ -0,0 +1,99 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.authentication;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.sonar.api.server.ServerSide;
+import org.sonar.db.user.UserDto;
+
+/**
+ * Short-lived cache of the data read from db on each authenticated request:
+ * <ul>
+ *   <li>the active users by login, used by {@link JwtHttpHandler} and {@link BasicAuthenticator}</li>
+ *   <li>the logins by hash of user token, used by {@link org.sonar.server.usertoken.UserTokenAuthenticator}</li>
+ * </ul>
+ * Unknown logins and tokens are never cached. Entries of a user are removed by {@link #invalidate(String)}
+ * when the user is updated or deactivated, or when one of its tokens is revoked. The expiration of
+ * {@link #EXPIRE_AFTER_WRITE_SECONDS} seconds bounds the delay for the changes done on the other nodes of the cluster.
+ * As {@link UserDto} is mutable, each request gets its own copy of the cached user.
+ */
+@ServerSide
+public class AuthenticatedUserCache {
+
+  static final long MAX_SIZE = 10_000L;
+  static final long EXPIRE_AFTER_WRITE_SECONDS = 10L;
+
+  private final Cache<String, UserDto> activeUsersByLogin;
+  private final Cache<String, String> loginsByTokenHash;
+
+  public AuthenticatedUserCache() {
+    this(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  AuthenticatedUserCache(Ticker ticker) {
+    this.activeUsersByLogin = newCache(ticker);
+    this.loginsByTokenHash = newCache(ticker);
+  }
+
+  private static <V> Cache<String, V> newCache(Ticker ticker) {
+    return CacheBuilder.newBuilder()
+      .ticker(ticker)
+      .maximumSize(MAX_SIZE)
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+      .build();
+  }
+
+  public Optional<UserDto> getActiveUser(String login, Function<String, UserDto> loader) {
+    return get(activeUsersByLogin, login, l -> {
+      UserDto user = loader.apply(l);
+      return user == null ? null : user.copy();
+    }).map(UserDto::copy);
+  }
+
+  public Optional<String> getLoginByTokenHash(String tokenHash, Function<String, String> loader) {
+    return get(loginsByTokenHash, tokenHash, loader);
+  }
+
+  /**
+   * Removes the user and all its tokens
+   */
+  public void invalidate(String login) {
+    activeUsersByLogin.invalidate(login);
+    loginsByTokenHash.asMap().values().removeIf(login::equals);
+  }
+
+  private static <V> Optional<V> get(Cache<String, V> cache, String key, Function<String, V> loader) {
+    V value = cache.getIfPresent(key);
+    if (value == null) {
+      value = loader.apply(key);
+      if (value != null) {
+        cache.put(key, value);
+      }
+    }
+    return Optional.ofNullable(value);
+  }
+}
@@ -69,13 +69,16 @@ public class JwtHttpHandler {
   // This timeout is used to disconnect the user we he has not browse any page for a while
   private final int sessionTimeoutInSeconds;
   private final JwtCsrfVerifier jwtCsrfVerifier;
+  private final AuthenticatedUserCache authenticatedUserCache;
 
-  public JwtHttpHandler(System2 system2, DbClient dbClient, Configuration config, JwtSerializer jwtSerializer, JwtCsrfVerifier jwtCsrfVerifier) {
+  public JwtHttpHandler(System2 system2, DbClient dbClient, Configuration config, JwtSerializer jwtSerializer, JwtCsrfVerifier jwtCsrfVerifier,
+    AuthenticatedUserCache authenticatedUserCache) {
     this.jwtSerializer = jwtSerializer;
     this.dbClient = dbClient;
     this.system2 = system2;
     this.sessionTimeoutInSeconds = getSessionTimeoutInSeconds(config);
     this.jwtCsrfVerifier = jwtCsrfVerifier;
+    this.authenticatedUserCache = authenticatedUserCache;
   }
 
   public void generateToken(UserDto user, Map<String, Object> properties, HttpServletRequest request, HttpServletResponse response) {
@@ -171,9 +174,11 @@ public class JwtHttpHandler {
   }
 
   private Optional<UserDto> selectUserFromDb(String userLogin) {
-    try (DbSession dbSession = dbClient.openSession(false)) {
-      return Optional.ofNullable(dbClient.userDao().selectActiveUserByLogin(dbSession, userLogin));
-    }
+    return authenticatedUserCache.getActiveUser(userLogin, login -> {
+      try (DbSession dbSession = dbClient.openSession(false)) {
+        return dbClient.userDao().selectActiveUserByLogin(dbSession, login);
+      }
+    });
   }
 
   private static int getSessionTimeoutInSeconds(Configuration config) {
@@ -194,7 +194,8 @@ public class ComponentRootBuilder {
     return new FileAttributes(
       component.getIsTest(),
       trimToNull(component.getLanguage()),
-      component.getLines());
+      component.getLines(),
+      component.getCopySourceFromPrevious() ? trimToNull(component.getSourceHash()) : null);
   }
 
   @VisibleForTesting
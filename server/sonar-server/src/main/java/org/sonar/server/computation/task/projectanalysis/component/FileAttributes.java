@@ -34,12 +34,19 @@ public class FileAttributes {
   @CheckForNull
   private final String languageKey;
   private final int lines;
+  @CheckForNull
+  private final String unchangedSourceHash;
 
   public FileAttributes(boolean unitTest, @Nullable String languageKey, int lines) {
+    this(unitTest, languageKey, lines, null);
+  }
+
+  public FileAttributes(boolean unitTest, @Nullable String languageKey, int lines, @Nullable String unchangedSourceHash) {
     this.unitTest = unitTest;
     this.languageKey = languageKey;
     checkArgument(lines > 0, "Number of lines must be greater than zero");
     this.lines = lines;
+    this.unchangedSourceHash = unchangedSourceHash;
   }
 
   public boolean isUnitTest() {
@@ -58,12 +65,27 @@ public class FileAttributes {
     return lines;
   }
 
+  /**
+   * Hash of the source, when the scanner did not send the source, the syntax highlighting and the symbols
+   * of the file because they did not change since the previous analysis. These data must then be copied
+   * from the db table "file_sources".
+   */
+  @CheckForNull
+  public String getUnchangedSourceHash() {
+    return unchangedSourceHash;
+  }
+
+  public boolean isSourceUnchanged() {
+    return unchangedSourceHash != null;
+  }
+
   @Override
   public String toString() {
     return "FileAttributes{" +
       "languageKey='" + languageKey + '\'' +
       ", unitTest=" + unitTest +
       ", lines=" + lines +
+      ", unchangedSourceHash=" + unchangedSourceHash +
       '}';
   }
 }
@@ -22,6 +22,7 @@ package org.sonar.server.computation.task.projectanalysis.component;
 import com.google.common.collect.ImmutableMap;
 import java.util.Map;
 import javax.annotation.CheckForNull;
+import org.sonar.server.computation.task.projectanalysis.memory.MemoryConsumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -31,7 +32,10 @@ import static org.sonar.server.computation.task.projectanalysis.component.Compon
 /**
  * Holds the reference to the root of the {@link Component} tree for the current CE run.
  */
-public class TreeRootHolderImpl implements MutableTreeRootHolder {
+public class TreeRootHolderImpl implements MutableTreeRootHolder, MemoryConsumer {
+  // rough size of a component, including its key, name, path and attributes
+  private static final long COMPONENT_BYTES = 600L;
+
   @CheckForNull
   private Map<Integer, Component> componentsByRef;
   @CheckForNull
@@ -119,4 +123,20 @@ public class TreeRootHolderImpl implements MutableTreeRootHolder {
       }).visit(this.root);
     this.componentsByKey = builder.build();
   }
+
+  @Override
+  public long getEstimatedHeapBytes() {
+    if (root == null) {
+      return 0L;
+    }
+    long[] count = {0L};
+    new DepthTraversalTypeAwareCrawler(
+      new TypeAwareVisitorAdapter(CrawlerDepthLimit.LEAVES, POST_ORDER) {
+        @Override
+        public void visitAny(Component component) {
+          count[0]++;
+        }
+      }).visit(this.root);
+    return count[0] * COMPONENT_BYTES;
+  }
 }
@@ -85,6 +85,7 @@ import org.sonar.server.computation.task.projectanalysis.measure.MeasureComputer
 import org.sonar.server.computation.task.projectanalysis.measure.MeasureComputersVisitor;
 import org.sonar.server.computation.task.projectanalysis.measure.MeasureRepositoryImpl;
 import org.sonar.server.computation.task.projectanalysis.measure.MeasureToMeasureDto;
+import org.sonar.server.computation.task.projectanalysis.memory.HeapEstimatesLogger;
 import org.sonar.server.computation.task.projectanalysis.metric.MetricModule;
 import org.sonar.server.computation.task.projectanalysis.period.PeriodHolderImpl;
 import org.sonar.server.computation.task.projectanalysis.qualitygate.EvaluationResultTextConverterImpl;
@@ -97,10 +98,12 @@ import org.sonar.server.computation.task.projectanalysis.qualitymodel.NewReliabi
 import org.sonar.server.computation.task.projectanalysis.qualitymodel.RatingSettings;
 import org.sonar.server.computation.task.projectanalysis.qualitymodel.ReliabilityAndSecurityRatingMeasuresVisitor;
 import org.sonar.server.computation.task.projectanalysis.qualityprofile.ActiveRulesHolderImpl;
+import org.sonar.server.computation.task.projectanalysis.scm.ScmInfoCacheLimit;
 import org.sonar.server.computation.task.projectanalysis.scm.ScmInfoRepositoryImpl;
 import org.sonar.server.computation.task.projectanalysis.source.LastCommitVisitor;
 import org.sonar.server.computation.task.projectanalysis.source.SourceHashRepositoryImpl;
 import org.sonar.server.computation.task.projectanalysis.source.SourceLinesRepositoryImpl;
+import org.sonar.server.computation.task.projectanalysis.source.UnchangedSourceLoader;
 import org.sonar.server.computation.task.projectanalysis.step.ReportComputationSteps;
 import org.sonar.server.computation.task.projectanalysis.webhook.WebhookModule;
 import org.sonar.server.computation.task.step.ComputationStepExecutor;
@@ -145,6 +148,9 @@ public final class ProjectAnalysisTaskContainerPopulator implements ContainerPop
       // File System
       new ComputationTempFolderProvider(),
 
+      // Memory
+      HeapEstimatesLogger.class,
+
       MetricModule.class,
 
       // holders
@@ -173,6 +179,8 @@ public final class ProjectAnalysisTaskContainerPopulator implements ContainerPop
       EvaluationResultTextConverterImpl.class,
       SourceLinesRepositoryImpl.class,
       SourceHashRepositoryImpl.class,
+      UnchangedSourceLoader.class,
+      ScmInfoCacheLimit.class,
       ScmInfoRepositoryImpl.class,
       DuplicationRepositoryImpl.class,
 
@@ -24,6 +24,7 @@ import com.google.common.collect.Multimap;
 import java.util.Collection;
 import java.util.Collections;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
+import org.sonar.server.computation.task.projectanalysis.memory.MemoryConsumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -32,7 +33,12 @@ import static java.util.Objects.requireNonNull;
 /**
  * In-memory implementation of {@link DuplicationRepository}.
  */
-public class DuplicationRepositoryImpl implements DuplicationRepository {
+public class DuplicationRepositoryImpl implements DuplicationRepository, MemoryConsumer {
+  // rough size of a duplication, of its original block and of an entry of the multimap
+  private static final long DUPLICATION_BYTES = 200L;
+  // rough size of a duplicated block
+  private static final long DUPLICATE_BYTES = 80L;
+
   private Multimap<String, Duplication> duplications = HashMultimap.create();
 
   @Override
@@ -59,4 +65,13 @@ public class DuplicationRepositoryImpl implements DuplicationRepository {
     checkArgument(file.getType() == Component.Type.FILE, "type of file must be FILE");
   }
 
+  @Override
+  public long getEstimatedHeapBytes() {
+    long bytes = 0L;
+    for (Duplication duplication : duplications.values()) {
+      bytes += DUPLICATION_BYTES + duplication.getDuplicates().size() * DUPLICATE_BYTES;
+    }
+    return bytes;
+  }
+
 }
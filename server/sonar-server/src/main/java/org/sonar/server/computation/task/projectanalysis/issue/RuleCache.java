@@ -0,0 +1,157 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.issue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.utils.System2;
+import org.sonar.db.DbClient;
+import org.sonar.db.DbSession;
+import org.sonar.db.rule.RuleDto;
+import org.sonar.db.rule.RuleVersionDto;
+
+/**
+ * Rules of the organizations, shared by all the tasks processed by this Compute Engine.
+ * <p>
+ * The rules of an organization are loaded by {@link org.sonar.db.rule.RuleDao#selectAll(DbSession, String)} and kept
+ * as long as {@link org.sonar.db.rule.RuleDao#selectVersion(DbSession, String)} does not change, so that each task
+ * only runs this cheap query. They are reloaded anyway when older than {@link #MAX_AGE_MS} ms. Only the
+ * {@link #MAX_ORGANIZATIONS} most recently used organizations are kept in memory.
+ * </p>
+ */
+@ComputeEngineSide
+public class RuleCache {
+
+  static final long MAX_AGE_MS = 10 * 60 * 1_000L;
+  static final int MAX_ORGANIZATIONS = 20;
+
+  /**
+   * Rough size of a {@link RuleImpl} and of its entries in the maps, excluding the strings
+   */
+  private static final long RULE_OVERHEAD_BYTES = 300L;
+
+  private final DbClient dbClient;
+  private final System2 system2;
+  private final Map<String, Snapshot> snapshotsByOrganizationUuid = new LinkedHashMap<String, Snapshot>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, Snapshot> eldest) {
+      return size() > MAX_ORGANIZATIONS;
+    }
+  };
+
+  public RuleCache(DbClient dbClient, System2 system2) {
+    this.dbClient = dbClient;
+    this.system2 = system2;
+  }
+
+  public Snapshot get(DbSession dbSession, String organizationUuid) {
+    RuleVersionDto version = dbClient.ruleDao().selectVersion(dbSession, organizationUuid);
+    long now = system2.now();
+    synchronized (snapshotsByOrganizationUuid) {
+      Snapshot snapshot = snapshotsByOrganizationUuid.get(organizationUuid);
+      if (snapshot == null || !snapshot.isUpToDate(version, now)) {
+        snapshot = load(dbSession, organizationUuid, version, now);
+        snapshotsByOrganizationUuid.put(organizationUuid, snapshot);
+      }
+      return snapshot;
+    }
+  }
+
+  private Snapshot load(DbSession dbSession, String organizationUuid, @Nullable RuleVersionDto version, long now) {
+    ImmutableMap.Builder<RuleKey, Rule> rulesByKeyBuilder = ImmutableMap.builder();
+    ImmutableMap.Builder<Integer, Rule> rulesByIdBuilder = ImmutableMap.builder();
+    long estimatedBytes = 0L;
+    for (RuleDto ruleDto : dbClient.ruleDao().selectAll(dbSession, organizationUuid)) {
+      Rule rule = new RuleImpl(ruleDto);
+      rulesByKeyBuilder.put(ruleDto.getKey(), rule);
+      rulesByIdBuilder.put(ruleDto.getId(), rule);
+      estimatedBytes += estimateBytes(rule);
+    }
+    return new Snapshot(version, rulesByKeyBuilder.build(), rulesByIdBuilder.build(), estimatedBytes, now);
+  }
+
+  private static long estimateBytes(Rule rule) {
+    long chars = rule.getKey().repository().length() + rule.getKey().rule().length();
+    chars += rule.getName() == null ? 0 : rule.getName().length();
+    for (String tag : rule.getTags()) {
+      chars += tag.length();
+    }
+    return RULE_OVERHEAD_BYTES + 2 * chars;
+  }
+
+  public int getOrganizationCount() {
+    synchronized (snapshotsByOrganizationUuid) {
+      return snapshotsByOrganizationUuid.size();
+    }
+  }
+
+  public long getRuleCount() {
+    synchronized (snapshotsByOrganizationUuid) {
+      return snapshotsByOrganizationUuid.values().stream().mapToLong(s -> s.rulesById.size()).sum();
+    }
+  }
+
+  /**
+   * Estimated memory used by the cached rules, in bytes
+   */
+  public long getEstimatedSize() {
+    synchronized (snapshotsByOrganizationUuid) {
+      return snapshotsByOrganizationUuid.values().stream().mapToLong(s -> s.estimatedBytes).sum();
+    }
+  }
+
+  /**
+   * Immutable rules of an organization
+   */
+  public static final class Snapshot {
+    @CheckForNull
+    private final RuleVersionDto version;
+    private final Map<RuleKey, Rule> rulesByKey;
+    private final Map<Integer, Rule> rulesById;
+    private final long estimatedBytes;
+    private final long loadedAt;
+
+    private Snapshot(@Nullable RuleVersionDto version, Map<RuleKey, Rule> rulesByKey, Map<Integer, Rule> rulesById, long estimatedBytes, long loadedAt) {
+      this.version = version;
+      this.rulesByKey = rulesByKey;
+      this.rulesById = rulesById;
+      this.estimatedBytes = estimatedBytes;
+      this.loadedAt = loadedAt;
+    }
+
+    public Map<RuleKey, Rule> getRulesByKey() {
+      return rulesByKey;
+    }
+
+    public Map<Integer, Rule> getRulesById() {
+      return rulesById;
+    }
+
+    private boolean isUpToDate(@Nullable RuleVersionDto currentVersion, long now) {
+      return Objects.equals(version, currentVersion) && now - loadedAt < MAX_AGE_MS;
+    }
+  }
+}
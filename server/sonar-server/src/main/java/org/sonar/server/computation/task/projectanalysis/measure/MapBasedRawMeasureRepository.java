@@ -44,6 +44,8 @@ import static java.util.Objects.requireNonNull;
  * Intended to be used as a delegate of other MeasureRepository implementations (hence the final keyword).
  */
 public final class MapBasedRawMeasureRepository<T> implements MeasureRepository {
+  private static final long MEASURE_BYTES = 200L;
+
   private final Function<Component, T> componentToKey;
   private final Map<T, Map<MeasureKey, Measure>> measures = new HashMap<>();
 
@@ -188,6 +190,31 @@ public final class MapBasedRawMeasureRepository<T> implements MeasureRepository
     }
   }
 
+  /**
+   * Rough estimate of the heap retained by the measures of this repository
+   */
+  long estimateHeapBytes() {
+    long bytes = 0L;
+    for (Map<MeasureKey, Measure> measuresByKey : measures.values()) {
+      for (Measure measure : measuresByKey.values()) {
+        bytes += estimateHeapBytes(measure);
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Rough size of a measure, of its key and of its entry in a map
+   */
+  static long estimateHeapBytes(Measure measure) {
+    long bytes = MEASURE_BYTES;
+    String data = measure.getData();
+    if (data != null) {
+      bytes += 2L * data.length();
+    }
+    return bytes;
+  }
+
   private enum ToMeasure implements Function<Map.Entry<MeasureKey, Measure>, Measure> {
     INSTANCE;
 
@@ -32,6 +32,7 @@ import org.sonar.scanner.protocol.output.ScannerReport;
 import org.sonar.server.computation.task.projectanalysis.batch.BatchReportReader;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
 import org.sonar.server.computation.task.projectanalysis.measure.MapBasedRawMeasureRepository.OverridePolicy;
+import org.sonar.server.computation.task.projectanalysis.memory.MemoryConsumer;
 import org.sonar.server.computation.task.projectanalysis.metric.Metric;
 import org.sonar.server.computation.task.projectanalysis.metric.MetricRepository;
 import org.sonar.server.computation.task.projectanalysis.metric.ReportMetricValidator;
@@ -39,7 +40,7 @@ import org.sonar.server.computation.task.projectanalysis.metric.ReportMetricVali
 import static java.util.Objects.requireNonNull;
 import static org.sonar.server.computation.task.projectanalysis.component.ComponentFunctions.toReportRef;
 
-public class MeasureRepositoryImpl implements MeasureRepository {
+public class MeasureRepositoryImpl implements MeasureRepository, MemoryConsumer {
   private final MapBasedRawMeasureRepository<Integer> delegate = new MapBasedRawMeasureRepository<>(toReportRef());
   private final DbClient dbClient;
   private final BatchReportReader reportReader;
@@ -126,4 +127,9 @@ public class MeasureRepositoryImpl implements MeasureRepository {
     loadedComponents.add(component.getReportAttributes().getRef());
   }
 
+  @Override
+  public long getEstimatedHeapBytes() {
+    return delegate.estimateHeapBytes();
+  }
+
 }
@@ -0,0 +1,65 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.memory;
+
+import org.picocontainer.Startable;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.server.computation.task.container.EagerStart;
+
+/**
+ * Logs the estimated heap usage of each {@link MemoryConsumer} of the task when the container of the task is stopped,
+ * which makes it possible to identify the repositories to be optimized and to size the heap of the Compute Engine.
+ */
+@EagerStart
+public class HeapEstimatesLogger implements Startable {
+  private static final Logger LOGGER = Loggers.get(HeapEstimatesLogger.class);
+
+  private final MemoryConsumer[] memoryConsumers;
+
+  public HeapEstimatesLogger(MemoryConsumer[] memoryConsumers) {
+    this.memoryConsumers = memoryConsumers;
+  }
+
+  /**
+   * Used when no {@link MemoryConsumer} is available in pico container.
+   */
+  public HeapEstimatesLogger() {
+    this(new MemoryConsumer[0]);
+  }
+
+  @Override
+  public void start() {
+    // nothing to do
+  }
+
+  @Override
+  public void stop() {
+    StringBuilder sb = new StringBuilder("Estimated heap usage");
+    for (MemoryConsumer memoryConsumer : memoryConsumers) {
+      sb.append(" | ").append(memoryConsumer.getClass().getSimpleName()).append('=').append(toKb(memoryConsumer.getEstimatedHeapBytes())).append("KB");
+    }
+    LOGGER.info(sb.toString());
+  }
+
+  private static long toKb(long bytes) {
+    return bytes / 1024L;
+  }
+}
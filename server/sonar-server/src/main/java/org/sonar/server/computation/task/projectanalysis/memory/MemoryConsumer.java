@@ -0,0 +1,33 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.memory;
+
+/**
+ * Holder or repository of the task which keeps data in heap. Its usage is logged at the end of the task
+ * by {@link HeapEstimatesLogger}.
+ */
+public interface MemoryConsumer {
+
+  /**
+   * Rough estimate, in bytes, of the heap retained by the data of the task. It is not intended to be precise
+   * but to compare the repositories and to size the heap of the Compute Engine.
+   */
+  long getEstimatedHeapBytes();
+}
@@ -0,0 +1,130 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.metric;
+
+import java.util.List;
+import java.util.Map;
+import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.utils.System2;
+import org.sonar.db.DbClient;
+import org.sonar.db.DbSession;
+import org.sonar.db.metric.MetricDto;
+
+import static com.google.common.collect.FluentIterable.from;
+
+/**
+ * Enabled metrics, shared by all the tasks processed by this Compute Engine.
+ * <p>
+ * Metrics are kept as long as the ids of the enabled metrics do not change, ie as long as no metric is
+ * created, disabled or enabled. They are reloaded anyway when older than {@link #MAX_AGE_MS} ms, which
+ * covers the updates of custom metrics.
+ * </p>
+ */
+@ComputeEngineSide
+public class MetricCache {
+
+  static final long MAX_AGE_MS = 10 * 60 * 1_000L;
+
+  /**
+   * Rough size of a {@link MetricImpl} and of its entries in the maps, excluding the strings
+   */
+  private static final long METRIC_OVERHEAD_BYTES = 250L;
+
+  private final DbClient dbClient;
+  private final System2 system2;
+  private volatile Snapshot snapshot;
+
+  public MetricCache(DbClient dbClient, System2 system2) {
+    this.dbClient = dbClient;
+    this.system2 = system2;
+  }
+
+  public Snapshot get(DbSession dbSession) {
+    List<Integer> enabledIds = dbClient.metricDao().selectEnabledIds(dbSession);
+    long now = system2.now();
+    synchronized (this) {
+      Snapshot current = snapshot;
+      if (current == null || !current.isUpToDate(enabledIds, now)) {
+        current = load(dbSession, enabledIds, now);
+        snapshot = current;
+      }
+      return current;
+    }
+  }
+
+  private Snapshot load(DbSession dbSession, List<Integer> enabledIds, long now) {
+    List<MetricDto> metricDtos = dbClient.metricDao().selectEnabled(dbSession);
+    List<Metric> metrics = from(metricDtos).transform(MetricDtoToMetric.INSTANCE).toList();
+    long estimatedBytes = 0L;
+    for (Metric metric : metrics) {
+      estimatedBytes += METRIC_OVERHEAD_BYTES + 2L * (metric.getKey().length() + metric.getName().length());
+    }
+    return new Snapshot(
+      enabledIds,
+      from(metrics).uniqueIndex(Metric::getKey),
+      from(metrics).uniqueIndex(metric -> (long) metric.getId()),
+      estimatedBytes,
+      now);
+  }
+
+  public int getMetricCount() {
+    Snapshot current = snapshot;
+    return current == null ? 0 : current.metricsByKey.size();
+  }
+
+  /**
+   * Estimated memory used by the cached metrics, in bytes
+   */
+  public long getEstimatedSize() {
+    Snapshot current = snapshot;
+    return current == null ? 0L : current.estimatedBytes;
+  }
+
+  /**
+   * Immutable enabled metrics
+   */
+  public static final class Snapshot {
+    private final List<Integer> enabledIds;
+    private final Map<String, Metric> metricsByKey;
+    private final Map<Long, Metric> metricsById;
+    private final long estimatedBytes;
+    private final long loadedAt;
+
+    private Snapshot(List<Integer> enabledIds, Map<String, Metric> metricsByKey, Map<Long, Metric> metricsById, long estimatedBytes, long loadedAt) {
+      this.enabledIds = enabledIds;
+      this.metricsByKey = metricsByKey;
+      this.metricsById = metricsById;
+      this.estimatedBytes = estimatedBytes;
+      this.loadedAt = loadedAt;
+    }
+
+    public Map<String, Metric> getMetricsByKey() {
+      return metricsByKey;
+    }
+
+    public Map<Long, Metric> getMetricsById() {
+      return metricsById;
+    }
+
+    private boolean isUpToDate(List<Integer> currentEnabledIds, long now) {
+      return enabledIds.equals(currentEnabledIds) && now - loadedAt < MAX_AGE_MS;
+    }
+  }
+}
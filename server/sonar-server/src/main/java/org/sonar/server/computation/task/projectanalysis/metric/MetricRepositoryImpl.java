@@ -19,41 +19,35 @@
  */
 package org.sonar.server.computation.task.projectanalysis.metric;
 
-import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
-import java.util.List;
 import java.util.Map;
 import javax.annotation.CheckForNull;
-import javax.annotation.Nonnull;
 import org.picocontainer.Startable;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
-import org.sonar.db.metric.MetricDto;
 
-import static com.google.common.collect.FluentIterable.from;
 import static java.util.Objects.requireNonNull;
 
 public class MetricRepositoryImpl implements MetricRepository, Startable {
 
   private final DbClient dbClient;
+  private final MetricCache metricCache;
   @CheckForNull
   private Map<String, Metric> metricsByKey;
   @CheckForNull
   private Map<Long, Metric> metricsById;
 
-  public MetricRepositoryImpl(DbClient dbClient) {
+  public MetricRepositoryImpl(DbClient dbClient, MetricCache metricCache) {
     this.dbClient = dbClient;
+    this.metricCache = metricCache;
   }
 
   @Override
   public void start() {
-    DbSession dbSession = dbClient.openSession(false);
-    try {
-      List<MetricDto> metricList = dbClient.metricDao().selectEnabled(dbSession);
-      this.metricsByKey = from(metricList).transform(MetricDtoToMetric.INSTANCE).uniqueIndex(MetricToKey.INSTANCE);
-      this.metricsById = from(metricList).transform(MetricDtoToMetric.INSTANCE).uniqueIndex(MetricToId.INSTANCE);
-    } finally {
-      dbSession.close();
+    try (DbSession dbSession = dbClient.openSession(false)) {
+      MetricCache.Snapshot snapshot = metricCache.get(dbSession);
+      this.metricsByKey = snapshot.getMetricsByKey();
+      this.metricsById = snapshot.getMetricsById();
     }
   }
 
@@ -96,24 +90,4 @@ public class MetricRepositoryImpl implements MetricRepository, Startable {
     }
   }
 
-  private enum MetricToKey implements Function<Metric, String> {
-    INSTANCE;
-
-    @Override
-    @Nonnull
-    public String apply(@Nonnull Metric metric) {
-      return metric.getKey();
-    }
-  }
-
-  private enum MetricToId implements Function<Metric, Long> {
-    INSTANCE;
-
-    @Override
-    @Nonnull
-    public Long apply(@Nonnull Metric metric) {
-      return (long) metric.getId();
-    }
-  }
-
 }
@@ -0,0 +1,94 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.scm;
+
+import com.google.common.annotations.VisibleForTesting;
+import org.sonar.api.config.Configuration;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.ce.configuration.CeConfiguration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Limit of the heap used by the cache of {@link ScmInfoRepositoryImpl}. Once the limit is reached, SCM info is
+ * not cached anymore but read again from the report or from the db each time it is requested.
+ * <p>
+ * The limit is defined in MB by the property {@link #LIMIT_PROPERTY} of the Compute Engine. It defaults to a quarter
+ * of the max heap of the JVM divided by the number of workers, as each worker processes its own task.
+ * </p>
+ * <p>
+ * Only SCM info is bounded. The other repositories of the task, measures and duplications in particular, are
+ * kept on heap without limit.
+ * </p>
+ */
+public class ScmInfoCacheLimit {
+
+  @VisibleForTesting
+  static final String LIMIT_PROPERTY = "sonar.ce.scmInfoCacheMaxMb";
+  private static final Logger LOGGER = Loggers.get(ScmInfoCacheLimit.class);
+
+  private final long maxBytes;
+  private long reservedBytes = 0L;
+  private boolean reached = false;
+
+  public ScmInfoCacheLimit(Configuration config, CeConfiguration ceConfiguration) {
+    this(config, Runtime.getRuntime().maxMemory(), ceConfiguration.getWorkerCount());
+  }
+
+  @VisibleForTesting
+  ScmInfoCacheLimit(Configuration config, long maxHeapBytes, int workerCount) {
+    this.maxBytes = config.getLong(LIMIT_PROPERTY)
+      .map(mb -> {
+        checkArgument(mb >= 0, "Property %s must be positive or zero. Got %s", LIMIT_PROPERTY, mb);
+        return mb * 1024L * 1024L;
+      })
+      .orElse(maxHeapBytes / 4 / Math.max(1, workerCount));
+  }
+
+  /**
+   * Reserves the specified number of bytes if the limit is not reached.
+   *
+   * @return {@code false} if the limit is reached, in which case the caller must not cache the SCM info
+   */
+  public boolean tryReserve(long bytes) {
+    if (reservedBytes + bytes <= maxBytes) {
+      reservedBytes += bytes;
+      return true;
+    }
+    if (!reached) {
+      reached = true;
+      LOGGER.info("Limit of {}MB of the SCM info cache is reached. SCM info is loaded on demand from now on.", maxBytes / 1024L / 1024L);
+    }
+    return false;
+  }
+
+  public long getReservedBytes() {
+    return reservedBytes;
+  }
+
+  public long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public boolean isReached() {
+    return reached;
+  }
+}
@@ -20,6 +20,7 @@
 package org.sonar.server.computation.task.projectanalysis.scm;
 
 import com.google.common.base.Optional;
+import com.google.common.collect.Iterables;
 import java.util.HashMap;
 import java.util.Map;
 import org.sonar.api.utils.log.Logger;
@@ -31,26 +32,43 @@ import org.sonar.scanner.protocol.output.ScannerReport;
 import org.sonar.server.computation.task.projectanalysis.analysis.AnalysisMetadataHolder;
 import org.sonar.server.computation.task.projectanalysis.batch.BatchReportReader;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
+import org.sonar.server.computation.task.projectanalysis.memory.MemoryConsumer;
 import org.sonar.server.computation.task.projectanalysis.source.SourceHashRepository;
 
 import static java.util.Objects.requireNonNull;
 
-public class ScmInfoRepositoryImpl implements ScmInfoRepository {
+/**
+ * SCM info are kept in memory as long as the {@link ScmInfoCacheLimit} is not reached. Then only the SCM info
+ * of the last requested file is kept, as the visitors usually request the same file several times in a row.
+ * The other files are read from the report or from the db each time they are requested.
+ */
+public class ScmInfoRepositoryImpl implements ScmInfoRepository, MemoryConsumer {
 
   private static final Logger LOGGER = Loggers.get(ScmInfoRepositoryImpl.class);
+  // rough size of an entry of the cache and of a line of a file
+  private static final long ENTRY_BYTES = 64L;
+  private static final long LINE_BYTES = 48L;
 
   private final BatchReportReader batchReportReader;
   private final AnalysisMetadataHolder analysisMetadataHolder;
   private final DbClient dbClient;
   private final SourceHashRepository sourceHashRepository;
+  private final ScmInfoCacheLimit cacheLimit;
 
   private final Map<Component, ScmInfo> scmInfoCache = new HashMap<>();
-
-  public ScmInfoRepositoryImpl(BatchReportReader batchReportReader, AnalysisMetadataHolder analysisMetadataHolder, DbClient dbClient, SourceHashRepository sourceHashRepository) {
+  private long cachedBytes = 0L;
+  // not reserved in the cache limit, used once the limit is reached
+  private Component lastComponent;
+  private ScmInfo lastScmInfo;
+  private long lastBytes = 0L;
+
+  public ScmInfoRepositoryImpl(BatchReportReader batchReportReader, AnalysisMetadataHolder analysisMetadataHolder, DbClient dbClient, SourceHashRepository sourceHashRepository,
+    ScmInfoCacheLimit cacheLimit) {
     this.batchReportReader = batchReportReader;
     this.analysisMetadataHolder = analysisMetadataHolder;
     this.dbClient = dbClient;
     this.sourceHashRepository = sourceHashRepository;
+    this.cacheLimit = cacheLimit;
   }
 
   @Override
@@ -67,12 +85,35 @@ public class ScmInfoRepositoryImpl implements ScmInfoRepository {
     if (scmInfo != null) {
       return optionalOf(scmInfo);
     }
+    if (component.equals(lastComponent)) {
+      return optionalOf(lastScmInfo);
+    }
 
     scmInfo = getScmInfoForComponent(component);
-    scmInfoCache.put(component, scmInfo);
+    long bytes = estimateHeapBytes(scmInfo);
+    if (cacheLimit.tryReserve(bytes)) {
+      scmInfoCache.put(component, scmInfo);
+      cachedBytes += bytes;
+    } else {
+      lastComponent = component;
+      lastScmInfo = scmInfo;
+      lastBytes = bytes;
+    }
     return optionalOf(scmInfo);
   }
 
+  private static long estimateHeapBytes(ScmInfo scmInfo) {
+    if (scmInfo == NoScmInfo.INSTANCE) {
+      return ENTRY_BYTES;
+    }
+    return ENTRY_BYTES + Iterables.size(scmInfo.getAllChangesets()) * LINE_BYTES;
+  }
+
+  @Override
+  public long getEstimatedHeapBytes() {
+    return cachedBytes + lastBytes;
+  }
+
   private static Optional<ScmInfo> optionalOf(ScmInfo scmInfo) {
     if (scmInfo == NoScmInfo.INSTANCE) {
       return Optional.absent();
@@ -103,7 +144,7 @@ public class ScmInfoRepositoryImpl implements ScmInfoRepository {
       if (dto == null || !sourceHashRepository.getRawSourceHash(file).equals(dto.getSrcHash())) {
         return NoScmInfo.INSTANCE;
       }
-      return DbScmInfo.create(file, dto.getSourceData().getLinesList()).or(NoScmInfo.INSTANCE);
+      return DbScmInfo.create(file, dto.getSourceData(FileSourceDto.SCM_LINE_FIELDS).getLinesList()).or(NoScmInfo.INSTANCE);
     }
   }
 
@@ -25,13 +25,16 @@ import javax.annotation.Nullable;
 import org.sonar.core.hash.SourceHashComputer;
 import org.sonar.core.util.CloseableIterator;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
+import org.sonar.server.computation.task.projectanalysis.memory.MemoryConsumer;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
 
-public class SourceHashRepositoryImpl implements SourceHashRepository {
+public class SourceHashRepositoryImpl implements SourceHashRepository, MemoryConsumer {
   private static final String SOURCE_OR_HASH_FAILURE_ERROR_MSG = "Failed to read source and compute hashes for component %s";
+  // rough size of an entry of the map, excluding the characters of the key and of the hash
+  private static final long ENTRY_BYTES = 120L;
 
   private final SourceLinesRepository sourceLinesRepository;
   private final Map<String, String> rawSourceHashesByKey = new HashMap<>();
@@ -58,6 +61,11 @@ public class SourceHashRepositoryImpl implements SourceHashRepository {
   }
 
   private String computeRawSourceHash(Component file) {
+    String unchangedSourceHash = file.getFileAttributes().getUnchangedSourceHash();
+    if (unchangedSourceHash != null) {
+      // source has not been sent by the scanner, its hash is checked when source is read from db
+      return unchangedSourceHash;
+    }
     SourceHashComputer sourceHashComputer = new SourceHashComputer();
     CloseableIterator<String> linesIterator = sourceLinesRepository.readLines(file);
     try {
@@ -75,4 +83,12 @@ public class SourceHashRepositoryImpl implements SourceHashRepository {
     return newSourceHash;
   }
 
+  @Override
+  public long getEstimatedHeapBytes() {
+    long bytes = 0L;
+    for (Map.Entry<String, String> entry : rawSourceHashesByKey.entrySet()) {
+      bytes += ENTRY_BYTES + 2L * (entry.getKey().length() + entry.getValue().length());
+    }
+    return bytes;
+  }
 }
@@ -21,6 +21,7 @@ package org.sonar.server.computation.task.projectanalysis.source;
 
 import com.google.common.base.Optional;
 import org.sonar.core.util.CloseableIterator;
+import org.sonar.db.protobuf.DbFileSources;
 import org.sonar.server.computation.task.projectanalysis.batch.BatchReportReader;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
 
@@ -32,9 +33,11 @@ import static org.sonar.server.computation.task.projectanalysis.component.Compon
 public class SourceLinesRepositoryImpl implements SourceLinesRepository {
 
   private final BatchReportReader reportReader;
+  private final UnchangedSourceLoader unchangedSourceLoader;
 
-  public SourceLinesRepositoryImpl(BatchReportReader reportReader) {
+  public SourceLinesRepositoryImpl(BatchReportReader reportReader, UnchangedSourceLoader unchangedSourceLoader) {
     this.reportReader = reportReader;
+    this.unchangedSourceLoader = unchangedSourceLoader;
   }
 
   @Override
@@ -42,6 +45,11 @@ public class SourceLinesRepositoryImpl implements SourceLinesRepository {
     requireNonNull(file, "Component should not be bull");
     checkArgument(file.getType() == FILE, "Component '%s' is not a file", file);
 
+    if (file.getFileAttributes().isSourceUnchanged()) {
+      CloseableIterator<String> lineIterator = CloseableIterator.from(unchangedSourceLoader.loadLines(file).stream().map(DbFileSources.Line::getSource).iterator());
+      return new ComponentLinesCloseableIterator(file, lineIterator, file.getFileAttributes().getLines());
+    }
+
     Optional<CloseableIterator<String>> linesIteratorOptional = reportReader.readFileSource(file.getReportAttributes().getRef());
 
     checkState(linesIteratorOptional.isPresent(), "File '%s' has no source code", file);
@@ -0,0 +1,53 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.source;
+
+import java.util.List;
+import org.sonar.db.protobuf.DbFileSources;
+
+/**
+ * Copies the syntax highlighting and the symbols of the previous analysis, for the files that the
+ * scanner did not send because they did not change.
+ *
+ * @see UnchangedSourceLoader
+ */
+public class UnchangedSourceLineReader implements LineReader {
+
+  private final List<DbFileSources.Line> previousLines;
+
+  public UnchangedSourceLineReader(List<DbFileSources.Line> previousLines) {
+    this.previousLines = previousLines;
+  }
+
+  @Override
+  public void read(DbFileSources.Line.Builder lineBuilder) {
+    int index = lineBuilder.getLine() - 1;
+    if (index >= previousLines.size()) {
+      return;
+    }
+    DbFileSources.Line previousLine = previousLines.get(index);
+    if (previousLine.hasHighlighting()) {
+      lineBuilder.setHighlighting(previousLine.getHighlighting());
+    }
+    if (previousLine.hasSymbols()) {
+      lineBuilder.setSymbols(previousLine.getSymbols());
+    }
+  }
+}
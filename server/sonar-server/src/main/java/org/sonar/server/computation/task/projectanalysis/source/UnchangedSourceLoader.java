@@ -0,0 +1,75 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.source;
+
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
+import java.util.Set;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.db.DbClient;
+import org.sonar.db.DbSession;
+import org.sonar.db.protobuf.DbFileSources;
+import org.sonar.db.source.FileSourceDto;
+import org.sonar.server.computation.task.projectanalysis.component.Component;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Loads from the db table "file_sources" the source, the syntax highlighting and the symbols of the files
+ * that the scanner did not send because they did not change since the previous analysis
+ * (see {@link org.sonar.server.computation.task.projectanalysis.component.FileAttributes#isSourceUnchanged()}).
+ */
+public class UnchangedSourceLoader {
+
+  private static final Logger LOGGER = Loggers.get(UnchangedSourceLoader.class);
+
+  /**
+   * Fields of {@link DbFileSources.Line} that are not sent by the scanner for unchanged files
+   */
+  public static final Set<Integer> UNCHANGED_LINE_FIELDS = ImmutableSet.of(
+    DbFileSources.Line.LINE_FIELD_NUMBER,
+    DbFileSources.Line.SOURCE_FIELD_NUMBER,
+    DbFileSources.Line.HIGHLIGHTING_FIELD_NUMBER,
+    DbFileSources.Line.SYMBOLS_FIELD_NUMBER);
+
+  private final DbClient dbClient;
+
+  public UnchangedSourceLoader(DbClient dbClient) {
+    this.dbClient = dbClient;
+  }
+
+  public List<DbFileSources.Line> loadLines(Component file) {
+    checkArgument(file.getType() == Component.Type.FILE && file.getFileAttributes().isSourceUnchanged(), "Source of '%s' is not unchanged", file);
+
+    LOGGER.trace("Reading unchanged source from db for file '{}'", file.getKey());
+    try (DbSession dbSession = dbClient.openSession(false)) {
+      FileSourceDto dto = dbClient.fileSourceDao().selectSourceByFileUuid(dbSession, file.getUuid());
+      checkState(dto != null && file.getFileAttributes().getUnchangedSourceHash().equals(dto.getSrcHash()),
+        "Source of file '%s' has not been sent by the scanner and does not match the source of the previous analysis. " +
+          "Run the analysis again with property '%s' set to true.", file.getKey(), "sonar.scanner.forceReloadSources");
+      List<DbFileSources.Line> lines = dto.getSourceData(UNCHANGED_LINE_FIELDS).getLinesList();
+      checkState(lines.size() == file.getFileAttributes().getLines(),
+        "Source of file '%s' in db has %s lines instead of the expected number (%s)", file.getKey(), lines.size(), file.getFileAttributes().getLines());
+      return lines;
+    }
+  }
+}
@@ -20,15 +20,13 @@
 package org.sonar.server.computation.task.projectanalysis.step;
 
 import com.google.common.base.Optional;
-import java.util.Collection;
+import com.google.common.collect.Lists;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.function.Predicate;
 import java.util.stream.StreamSupport;
-import javax.annotation.CheckForNull;
-import javax.annotation.Nullable;
 import org.sonar.core.util.stream.MoreCollectors;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
@@ -39,18 +37,14 @@ import org.sonar.server.computation.task.projectanalysis.component.DepthTraversa
 import org.sonar.server.computation.task.projectanalysis.component.TreeRootHolder;
 import org.sonar.server.computation.task.projectanalysis.component.TypeAwareVisitorAdapter;
 import org.sonar.server.computation.task.projectanalysis.measure.Measure;
-import org.sonar.server.computation.task.projectanalysis.measure.MeasureKey;
 import org.sonar.server.computation.task.projectanalysis.measure.MeasureRepository;
 import org.sonar.server.computation.task.projectanalysis.metric.Metric;
 import org.sonar.server.computation.task.projectanalysis.metric.MetricRepository;
-import org.sonar.server.computation.task.projectanalysis.period.Period;
 import org.sonar.server.computation.task.projectanalysis.period.PeriodHolder;
 import org.sonar.server.computation.task.step.ComputationStep;
 
-import static com.google.common.base.Preconditions.checkArgument;
 import static java.lang.String.format;
-import static java.util.function.Function.identity;
-import static org.sonar.core.util.stream.MoreCollectors.uniqueIndex;
+import static org.sonar.db.DatabaseUtils.PARTITION_SIZE_FOR_ORACLE;
 import static org.sonar.server.computation.task.projectanalysis.component.Component.Type.DIRECTORY;
 import static org.sonar.server.computation.task.projectanalysis.component.Component.Type.SUBVIEW;
 import static org.sonar.server.computation.task.projectanalysis.component.ComponentVisitor.Order.PRE_ORDER;
@@ -59,6 +53,8 @@ import static org.sonar.server.computation.task.projectanalysis.component.Compon
  * Set variations on all numeric measures found in the repository.
  * This step MUST be executed after all steps that create some measures
  * <p/>
+ * Past measures are loaded by pages of components, instead of one query per component.
+ * <p/>
  * Note that measures on developer are not handle yet.
  */
 public class ComputeMeasureVariationsStep implements ComputationStep {
@@ -80,125 +76,100 @@ public class ComputeMeasureVariationsStep implements ComputationStep {
 
   @Override
   public void execute() {
-    try (DbSession dbSession = dbClient.openSession(false)) {
-      List<Metric> metrics = StreamSupport.stream(metricRepository.getAll().spliterator(), false).filter(isNumeric()).collect(MoreCollectors.toList());
-      new DepthTraversalTypeAwareCrawler(new VariationMeasuresVisitor(dbSession, metrics))
-        .visit(treeRootHolder.getRoot());
-    }
-  }
-
-  private class VariationMeasuresVisitor extends TypeAwareVisitorAdapter {
-
-    private final DbSession session;
-    private final Set<Integer> metricIds;
-    private final List<Metric> metrics;
-
-    VariationMeasuresVisitor(DbSession session, List<Metric> metrics) {
-      // measures on files are currently purged, so past measures are not available on files
-      super(CrawlerDepthLimit.reportMaxDepth(DIRECTORY).withViewsMaxDepth(SUBVIEW), PRE_ORDER);
-      this.session = session;
-      this.metricIds = metrics.stream().map(Metric::getId).collect(MoreCollectors.toSet());
-      this.metrics = metrics;
+    if (!periodHolder.hasPeriod()) {
+      return;
     }
-
-    @Override
-    public void visitAny(Component component) {
-      MeasuresWithVariationRepository measuresWithVariationRepository = computeMeasuresWithVariations(component);
-      processMeasuresWithVariation(component, measuresWithVariationRepository);
+    List<Metric> metrics = StreamSupport.stream(metricRepository.getAll().spliterator(), false).filter(isNumeric()).collect(MoreCollectors.toList());
+    if (metrics.isEmpty()) {
+      return;
     }
-
-    private MeasuresWithVariationRepository computeMeasuresWithVariations(Component component) {
-      MeasuresWithVariationRepository measuresWithVariationRepository = new MeasuresWithVariationRepository();
-      if (periodHolder.hasPeriod()) {
-        Period period = periodHolder.getPeriod();
-        List<PastMeasureDto> pastMeasures = dbClient.measureDao()
-          .selectPastMeasures(session, component.getUuid(), period.getAnalysisUuid(), metricIds);
-        setVariationMeasures(component, pastMeasures, measuresWithVariationRepository);
-      }
-      return measuresWithVariationRepository;
-    }
-
-    private void setVariationMeasures(Component component, List<PastMeasureDto> pastMeasures, MeasuresWithVariationRepository measuresWithVariationRepository) {
-      Map<MeasureKey, PastMeasureDto> pastMeasuresByMeasureKey = pastMeasures
-        .stream()
-        .collect(uniqueIndex(m -> new MeasureKey(metricRepository.getById((long) m.getMetricId()).getKey(), null), identity()));
-      for (Metric metric : metrics) {
-        Optional<Measure> measure = measureRepository.getRawMeasure(component, metric);
-        if (measure.isPresent() && !measure.get().hasVariation()) {
-          PastMeasureDto pastMeasure = pastMeasuresByMeasureKey.get(new MeasureKey(metric.getKey(), null));
-          double pastValue = (pastMeasure != null && pastMeasure.hasValue()) ? pastMeasure.getValue() : 0d;
-          measuresWithVariationRepository.add(metric, measure.get(), computeVariation(measure.get(), pastValue));
+    PastValues pastValues = new PastValues(metrics);
+    String analysisUuid = periodHolder.getPeriod().getAnalysisUuid();
+    try (DbSession dbSession = dbClient.openSession(false)) {
+      for (List<Component> page : Lists.partition(collectComponents(), PARTITION_SIZE_FOR_ORACLE)) {
+        Map<String, double[]> pastValuesByComponentUuid = pastValues.load(dbSession, page, analysisUuid);
+        for (Component component : page) {
+          double[] componentPastValues = pastValuesByComponentUuid.get(component.getUuid());
+          setVariations(component, metrics, componentPastValues == null ? pastValues.none() : componentPastValues);
         }
       }
     }
+  }
 
-    private double computeVariation(Measure measure, double pastValue) {
-      switch (measure.getValueType()) {
-        case INT:
-          return measure.getIntValue() - pastValue;
-        case LONG:
-          return measure.getLongValue() - pastValue;
-        case DOUBLE:
-          return measure.getDoubleValue() - pastValue;
-        case BOOLEAN:
-          return (measure.getBooleanValue() ? 1d : 0d) - pastValue;
-        default:
-          throw new IllegalArgumentException(format("Unsupported Measure.ValueType on measure '%s'", measure));
-      }
-    }
+  private List<Component> collectComponents() {
+    List<Component> components = new ArrayList<>();
+    // measures on files are currently purged, so past measures are not available on files
+    new DepthTraversalTypeAwareCrawler(
+      new TypeAwareVisitorAdapter(CrawlerDepthLimit.reportMaxDepth(DIRECTORY).withViewsMaxDepth(SUBVIEW), PRE_ORDER) {
+        @Override
+        public void visitAny(Component component) {
+          components.add(component);
+        }
+      }).visit(treeRootHolder.getRoot());
+    return components;
+  }
 
-    private void processMeasuresWithVariation(Component component, MeasuresWithVariationRepository measuresWithVariationRepository) {
-      for (MeasureWithVariation measureWithVariation : measuresWithVariationRepository.measures()) {
-        Metric metric = measureWithVariation.getMetric();
-        Measure measure = Measure.updatedMeasureBuilder(measureWithVariation.getMeasure())
-          .setVariation(measureWithVariation.getVariation())
+  /**
+   * @param pastValues the past values of the component, indexed like {@code metrics}. Missing past measures are 0.
+   */
+  private void setVariations(Component component, List<Metric> metrics, double[] pastValues) {
+    for (int i = 0; i < metrics.size(); i++) {
+      Metric metric = metrics.get(i);
+      Optional<Measure> measure = measureRepository.getRawMeasure(component, metric);
+      if (measure.isPresent() && !measure.get().hasVariation()) {
+        Measure updatedMeasure = Measure.updatedMeasureBuilder(measure.get())
+          .setVariation(computeVariation(measure.get(), pastValues[i]))
           .create();
-        measureRepository.update(component, metric, measure);
+        measureRepository.update(component, metric, updatedMeasure);
       }
     }
   }
 
-  private static final class MeasuresWithVariationRepository {
-
-    private final Map<MeasureKey, MeasureWithVariation> measuresWithVariations = new HashMap<>();
-
-    public void add(Metric metric, final Measure measure, double variationValue) {
-      checkArgument(measure.getDeveloper() == null, "%s does not support computing variations of Measures for Developer", getClass().getSimpleName());
-      MeasureKey measureKey = new MeasureKey(metric.getKey(), null);
-      MeasureWithVariation measureWithVariation = measuresWithVariations.computeIfAbsent(measureKey, k -> new MeasureWithVariation(metric, measure));
-      measureWithVariation.setVariation(variationValue);
-    }
-
-    public Collection<MeasureWithVariation> measures() {
-      return measuresWithVariations.values();
+  private static double computeVariation(Measure measure, double pastValue) {
+    switch (measure.getValueType()) {
+      case INT:
+        return measure.getIntValue() - pastValue;
+      case LONG:
+        return measure.getLongValue() - pastValue;
+      case DOUBLE:
+        return measure.getDoubleValue() - pastValue;
+      case BOOLEAN:
+        return (measure.getBooleanValue() ? 1d : 0d) - pastValue;
+      default:
+        throw new IllegalArgumentException(format("Unsupported Measure.ValueType on measure '%s'", measure));
     }
   }
 
-  private static final class MeasureWithVariation {
-    private final Metric metric;
-    private final Measure measure;
-    private Double variation;
-
-    MeasureWithVariation(Metric metric, Measure measure) {
-      this.metric = metric;
-      this.measure = measure;
-    }
-
-    public Measure getMeasure() {
-      return measure;
-    }
-
-    public Metric getMetric() {
-      return metric;
+  /**
+   * Past values of a page of components. The values of a component are stored in an array of doubles indexed
+   * like the list of metrics, so that each row is converted once and looked up without boxing.
+   */
+  private final class PastValues {
+    private final Map<Integer, Integer> metricIndexById;
+    private final double[] none;
+
+    PastValues(List<Metric> metrics) {
+      this.metricIndexById = new HashMap<>(metrics.size());
+      for (int i = 0; i < metrics.size(); i++) {
+        metricIndexById.put(metrics.get(i).getId(), i);
+      }
+      this.none = new double[metrics.size()];
     }
 
-    public void setVariation(@Nullable Double value) {
-      this.variation = value;
+    Map<String, double[]> load(DbSession dbSession, List<Component> components, String analysisUuid) {
+      List<String> componentUuids = components.stream().map(Component::getUuid).collect(MoreCollectors.toList(components.size()));
+      Map<String, double[]> valuesByComponentUuid = new HashMap<>();
+      for (PastMeasureDto pastMeasure : dbClient.measureDao().selectPastMeasures(dbSession, componentUuids, analysisUuid, metricIndexById.keySet())) {
+        Integer metricIndex = metricIndexById.get(pastMeasure.getMetricId());
+        if (metricIndex != null && pastMeasure.hasValue()) {
+          valuesByComponentUuid.computeIfAbsent(pastMeasure.getComponentUuid(), uuid -> new double[none.length])[metricIndex] = pastMeasure.getValue();
+        }
+      }
+      return valuesByComponentUuid;
     }
 
-    @CheckForNull
-    public Double getVariation() {
-      return variation;
+    double[] none() {
+      return none;
     }
   }
 
@@ -19,7 +19,10 @@
  */
 package org.sonar.server.computation.task.projectanalysis.step;
 
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
 import org.sonar.core.util.CloseableIterator;
+import org.sonar.db.BulkWriter;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.duplication.DuplicationUnitDto;
@@ -33,13 +36,14 @@ import org.sonar.server.computation.task.projectanalysis.component.TreeRootHolde
 import org.sonar.server.computation.task.projectanalysis.component.TypeAwareVisitorAdapter;
 import org.sonar.server.computation.task.projectanalysis.duplication.CrossProjectDuplicationStatusHolder;
 import org.sonar.server.computation.task.step.ComputationStep;
+import org.sonar.server.computation.task.step.ConcurrentComputationStep;
 
 import static org.sonar.server.computation.task.projectanalysis.component.ComponentVisitor.Order.PRE_ORDER;
 
 /**
  * Persist cross project duplications text blocks into DUPLICATIONS_INDEX table
  */
-public class PersistCrossProjectDuplicationIndexStep implements ComputationStep {
+public class PersistCrossProjectDuplicationIndexStep implements ConcurrentComputationStep {
 
   private final DbClient dbClient;
   private final TreeRootHolder treeRootHolder;
@@ -63,21 +67,24 @@ public class PersistCrossProjectDuplicationIndexStep implements ComputationStep
       return;
     }
 
-    try (DbSession dbSession = dbClient.openSession(true)) {
+    try (DbSession dbSession = dbClient.openSession(false);
+      BulkWriter<DuplicationUnitDto> writer = dbClient.duplicationDao().newBulkWriter(dbSession, dbClient.getDatabase().getDialect())) {
       Component project = treeRootHolder.getRoot();
-      new DepthTraversalTypeAwareCrawler(new DuplicationVisitor(dbSession, analysisMetadataHolder.getUuid())).visit(project);
-      dbSession.commit();
+      new DepthTraversalTypeAwareCrawler(new DuplicationVisitor(writer, analysisMetadataHolder.getUuid())).visit(project);
+      writer.flush();
+      // rows are inserted with JDBC, commit is forced because MyBatis is not aware of them
+      dbSession.commit(true);
     }
   }
 
   private class DuplicationVisitor extends TypeAwareVisitorAdapter {
 
-    private final DbSession session;
+    private final BulkWriter<DuplicationUnitDto> writer;
     private final String analysisUuid;
 
-    private DuplicationVisitor(DbSession session, String analysisUuid) {
+    private DuplicationVisitor(BulkWriter<DuplicationUnitDto> writer, String analysisUuid) {
       super(CrawlerDepthLimit.FILE, PRE_ORDER);
-      this.session = session;
+      this.writer = writer;
       this.analysisUuid = analysisUuid;
     }
 
@@ -92,8 +99,7 @@ public class PersistCrossProjectDuplicationIndexStep implements ComputationStep
       try {
         while (blocks.hasNext()) {
           ScannerReport.CpdTextBlock block = blocks.next();
-          dbClient.duplicationDao().insert(
-            session,
+          writer.write(
             new DuplicationUnitDto()
               .setHash(block.getHash())
               .setStartLine(block.getStartLine())
@@ -109,6 +115,11 @@ public class PersistCrossProjectDuplicationIndexStep implements ComputationStep
     }
   }
 
+  @Override
+  public Set<Class<? extends ComputationStep>> getDependencies() {
+    return ImmutableSet.of(PersistComponentsStep.class, PersistAnalysisStep.class);
+  }
+
   @Override
   public String getDescription() {
     return "Persist cross project duplications index";
@@ -21,10 +21,12 @@ package org.sonar.server.computation.task.projectanalysis.step;
 
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 import org.apache.commons.codec.digest.DigestUtils;
@@ -56,11 +58,14 @@ import org.sonar.server.computation.task.projectanalysis.source.RangeOffsetConve
 import org.sonar.server.computation.task.projectanalysis.source.ScmLineReader;
 import org.sonar.server.computation.task.projectanalysis.source.SourceLinesRepository;
 import org.sonar.server.computation.task.projectanalysis.source.SymbolsLineReader;
+import org.sonar.server.computation.task.projectanalysis.source.UnchangedSourceLineReader;
+import org.sonar.server.computation.task.projectanalysis.source.UnchangedSourceLoader;
 import org.sonar.server.computation.task.step.ComputationStep;
+import org.sonar.server.computation.task.step.ConcurrentComputationStep;
 
 import static org.sonar.server.computation.task.projectanalysis.component.ComponentVisitor.Order.PRE_ORDER;
 
-public class PersistFileSourcesStep implements ComputationStep {
+public class PersistFileSourcesStep implements ConcurrentComputationStep {
 
   private final DbClient dbClient;
   private final System2 system2;
@@ -69,9 +74,10 @@ public class PersistFileSourcesStep implements ComputationStep {
   private final SourceLinesRepository sourceLinesRepository;
   private final ScmInfoRepository scmInfoRepository;
   private final DuplicationRepository duplicationRepository;
+  private final UnchangedSourceLoader unchangedSourceLoader;
 
   public PersistFileSourcesStep(DbClient dbClient, System2 system2, TreeRootHolder treeRootHolder, BatchReportReader reportReader, SourceLinesRepository sourceLinesRepository,
-    ScmInfoRepository scmInfoRepository, DuplicationRepository duplicationRepository) {
+    ScmInfoRepository scmInfoRepository, DuplicationRepository duplicationRepository, UnchangedSourceLoader unchangedSourceLoader) {
     this.dbClient = dbClient;
     this.system2 = system2;
     this.treeRootHolder = treeRootHolder;
@@ -79,6 +85,7 @@ public class PersistFileSourcesStep implements ComputationStep {
     this.sourceLinesRepository = sourceLinesRepository;
     this.scmInfoRepository = scmInfoRepository;
     this.duplicationRepository = duplicationRepository;
+    this.unchangedSourceLoader = unchangedSourceLoader;
   }
 
   @Override
@@ -114,8 +121,16 @@ public class PersistFileSourcesStep implements ComputationStep {
 
     @Override
     public void visitFile(Component file) {
-      CloseableIterator<String> linesIterator = sourceLinesRepository.readLines(file);
-      LineReaders lineReaders = new LineReaders(reportReader, scmInfoRepository, duplicationRepository, file);
+      CloseableIterator<String> linesIterator;
+      List<DbFileSources.Line> previousLines = null;
+      if (file.getFileAttributes().isSourceUnchanged()) {
+        // source, highlighting and symbols have not been sent by the scanner, they are read only once from db
+        previousLines = unchangedSourceLoader.loadLines(file);
+        linesIterator = CloseableIterator.from(previousLines.stream().map(DbFileSources.Line::getSource).iterator());
+      } else {
+        linesIterator = sourceLinesRepository.readLines(file);
+      }
+      LineReaders lineReaders = new LineReaders(reportReader, scmInfoRepository, duplicationRepository, file, previousLines);
       try {
         ComputeFileSourceData computeFileSourceData = new ComputeFileSourceData(linesIterator, lineReaders.readers(), file.getFileAttributes().getLines());
         ComputeFileSourceData.Data fileSourceData = computeFileSourceData.compute();
@@ -186,7 +201,8 @@ public class PersistFileSourcesStep implements ComputationStep {
     @CheckForNull
     private final ScmLineReader scmLineReader;
 
-    LineReaders(BatchReportReader reportReader, ScmInfoRepository scmInfoRepository, DuplicationRepository duplicationRepository, Component component) {
+    LineReaders(BatchReportReader reportReader, ScmInfoRepository scmInfoRepository, DuplicationRepository duplicationRepository, Component component,
+      @Nullable List<DbFileSources.Line> previousLines) {
       int componentRef = component.getReportAttributes().getRef();
       CloseableIterator<ScannerReport.LineCoverage> coverageIt = reportReader.readComponentCoverage(componentRef);
       closeables.add(coverageIt);
@@ -200,14 +216,18 @@ public class PersistFileSourcesStep implements ComputationStep {
         this.scmLineReader = null;
       }
 
-      RangeOffsetConverter rangeOffsetConverter = new RangeOffsetConverter();
-      CloseableIterator<ScannerReport.SyntaxHighlightingRule> highlightingIt = reportReader.readComponentSyntaxHighlighting(componentRef);
-      closeables.add(highlightingIt);
-      readers.add(new HighlightingLineReader(component, highlightingIt, rangeOffsetConverter));
+      if (previousLines != null) {
+        readers.add(new UnchangedSourceLineReader(previousLines));
+      } else {
+        RangeOffsetConverter rangeOffsetConverter = new RangeOffsetConverter();
+        CloseableIterator<ScannerReport.SyntaxHighlightingRule> highlightingIt = reportReader.readComponentSyntaxHighlighting(componentRef);
+        closeables.add(highlightingIt);
+        readers.add(new HighlightingLineReader(component, highlightingIt, rangeOffsetConverter));
 
-      CloseableIterator<ScannerReport.Symbol> symbolsIt = reportReader.readComponentSymbols(componentRef);
-      closeables.add(symbolsIt);
-      readers.add(new SymbolsLineReader(component, symbolsIt, rangeOffsetConverter));
+        CloseableIterator<ScannerReport.Symbol> symbolsIt = reportReader.readComponentSymbols(componentRef);
+        closeables.add(symbolsIt);
+        readers.add(new SymbolsLineReader(component, symbolsIt, rangeOffsetConverter));
+      }
 
       readers.add(new DuplicationLineReader(duplicationRepository.getDuplications(component)));
     }
@@ -231,6 +251,11 @@ public class PersistFileSourcesStep implements ComputationStep {
     }
   }
 
+  @Override
+  public Set<Class<? extends ComputationStep>> getDependencies() {
+    return ImmutableSet.of(PersistComponentsStep.class);
+  }
+
   @Override
   public String getDescription() {
     return "Persist sources";
@@ -22,14 +22,16 @@ package org.sonar.server.computation.task.projectanalysis.step;
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import javax.annotation.Nonnull;
+import org.sonar.db.BulkWriter;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
-import org.sonar.db.measure.MeasureDao;
 import org.sonar.db.measure.MeasureDto;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
 import org.sonar.server.computation.task.projectanalysis.component.CrawlerDepthLimit;
@@ -43,6 +45,7 @@ import org.sonar.server.computation.task.projectanalysis.measure.MeasureToMeasur
 import org.sonar.server.computation.task.projectanalysis.metric.Metric;
 import org.sonar.server.computation.task.projectanalysis.metric.MetricRepository;
 import org.sonar.server.computation.task.step.ComputationStep;
+import org.sonar.server.computation.task.step.ConcurrentComputationStep;
 
 import static com.google.common.collect.FluentIterable.from;
 import static org.sonar.api.measures.CoreMetrics.CLASS_COMPLEXITY_DISTRIBUTION_KEY;
@@ -50,7 +53,7 @@ import static org.sonar.api.measures.CoreMetrics.FILE_COMPLEXITY_DISTRIBUTION_KE
 import static org.sonar.api.measures.CoreMetrics.FUNCTION_COMPLEXITY_DISTRIBUTION_KEY;
 import static org.sonar.server.computation.task.projectanalysis.component.ComponentVisitor.Order.PRE_ORDER;
 
-public class PersistMeasuresStep implements ComputationStep {
+public class PersistMeasuresStep implements ConcurrentComputationStep {
 
   /**
    * List of metrics that should not be persisted on file measure (Waiting for SONAR-6688 to be implemented)
@@ -75,6 +78,11 @@ public class PersistMeasuresStep implements ComputationStep {
     this.measureRepository = measureRepository;
   }
 
+  @Override
+  public Set<Class<? extends ComputationStep>> getDependencies() {
+    return ImmutableSet.of(PersistComponentsStep.class, PersistAnalysisStep.class, PersistDevelopersStep.class);
+  }
+
   @Override
   public String getDescription() {
     return "Persist measures";
@@ -82,21 +90,21 @@ public class PersistMeasuresStep implements ComputationStep {
 
   @Override
   public void execute() {
-    DbSession dbSession = dbClient.openSession(true);
-    try {
-      new DepthTraversalTypeAwareCrawler(new MeasureVisitor(dbSession)).visit(treeRootHolder.getRoot());
-      dbSession.commit();
-    } finally {
-      dbSession.close();
+    try (DbSession dbSession = dbClient.openSession(false);
+      BulkWriter<MeasureDto> writer = dbClient.measureDao().newBulkWriter(dbSession, dbClient.getDatabase().getDialect())) {
+      new DepthTraversalTypeAwareCrawler(new MeasureVisitor(writer)).visit(treeRootHolder.getRoot());
+      writer.flush();
+      // rows are inserted with JDBC, commit is forced because MyBatis is not aware of them
+      dbSession.commit(true);
     }
   }
 
   private class MeasureVisitor extends TypeAwareVisitorAdapter {
-    private final DbSession session;
+    private final BulkWriter<MeasureDto> writer;
 
-    private MeasureVisitor(DbSession session) {
+    private MeasureVisitor(BulkWriter<MeasureDto> writer) {
       super(CrawlerDepthLimit.LEAVES, PRE_ORDER);
-      this.session = session;
+      this.writer = writer;
     }
 
     @Override
@@ -114,10 +122,8 @@ public class PersistMeasuresStep implements ComputationStep {
 
         Metric metric = metricRepository.getByKey(metricKey);
         Predicate<Measure> notBestValueOptimized = Predicates.not(BestValueOptimization.from(metric, component));
-        MeasureDao measureDao = dbClient.measureDao();
         for (Measure measure : from(measures.getValue()).filter(NonEmptyMeasure.INSTANCE).filter(notBestValueOptimized)) {
-          MeasureDto measureDto = measureToMeasureDto.toMeasureDto(measure, metric, component);
-          measureDao.insert(session, measureDto);
+          writer.write(measureToMeasureDto.toMeasureDto(measure, metric, component));
         }
       }
     }
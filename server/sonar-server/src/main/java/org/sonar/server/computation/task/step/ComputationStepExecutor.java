@@ -19,16 +19,41 @@
  */
 package org.sonar.server.computation.task.step;
 
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
+import org.slf4j.MDC;
 import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.core.util.logs.Profiler;
 
+import static com.google.common.collect.Lists.newArrayList;
+import static java.lang.String.format;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Executes the steps in order. Wall time, CPU time and memory allocated by each step are logged
+ * in DEBUG level and added to the {@link ComputationStepStatistics}.
+ * <p>
+ * Consecutive {@link ConcurrentComputationStep}s are executed concurrently, each of them as soon as its
+ * dependencies are completed. In this case the critical path of the task, i.e. the longest chain of
+ * dependent steps, is logged in INFO level once all the steps are executed.
+ * </p>
+ */
 public final class ComputationStepExecutor {
   private static final Logger LOGGER = Loggers.get(ComputationStepExecutor.class);
 
   private final ComputationSteps steps;
+  private final ComputationStepStatistics statistics;
   @CheckForNull
   private final Listener listener;
 
@@ -36,20 +61,20 @@ public final class ComputationStepExecutor {
    * Used when no {@link ComputationStepExecutor.Listener} is available in pico
    * container.
    */
-  public ComputationStepExecutor(ComputationSteps steps) {
-    this(steps, null);
+  public ComputationStepExecutor(ComputationSteps steps, ComputationStepStatistics statistics) {
+    this(steps, statistics, null);
   }
 
-  public ComputationStepExecutor(ComputationSteps steps, @Nullable Listener listener) {
+  public ComputationStepExecutor(ComputationSteps steps, ComputationStepStatistics statistics, @Nullable Listener listener) {
     this.steps = steps;
+    this.statistics = statistics;
     this.listener = listener;
   }
 
   public void execute() {
-    Profiler stepProfiler = Profiler.create(LOGGER);
     boolean allStepsExecuted = false;
     try {
-      executeSteps(stepProfiler);
+      executeSteps();
       allStepsExecuted = true;
     } finally {
       if (listener != null) {
@@ -58,14 +83,38 @@ public final class ComputationStepExecutor {
     }
   }
 
-  private void executeSteps(Profiler stepProfiler) {
-    for (ComputationStep step : steps.instances()) {
-      stepProfiler.start();
-      step.execute();
-      stepProfiler.stopDebug(step.getDescription());
+  private void executeSteps() {
+    List<ComputationStep> orderedSteps = newArrayList(steps.instances());
+    checkDependencies(orderedSteps);
+    Execution execution = new Execution();
+    try {
+      for (ComputationStep step : orderedSteps) {
+        execution.execute(step);
+      }
+      execution.awaitConcurrentSteps();
+    } finally {
+      execution.close();
+    }
+    execution.logCriticalPath();
+  }
+
+  private static void checkDependencies(List<ComputationStep> orderedSteps) {
+    for (int i = 0; i < orderedSteps.size(); i++) {
+      ComputationStep step = orderedSteps.get(i);
+      if (step instanceof ConcurrentComputationStep) {
+        for (ComputationStep nextStep : orderedSteps.subList(i + 1, orderedSteps.size())) {
+          if (dependsOn((ConcurrentComputationStep) step, nextStep)) {
+            throw new IllegalStateException(format("Step '%s' depends on step '%s' which is executed after it", step.getDescription(), nextStep.getDescription()));
+          }
+        }
+      }
     }
   }
 
+  private static boolean dependsOn(ConcurrentComputationStep step, ComputationStep other) {
+    return step.getDependencies().stream().anyMatch(dependency -> dependency.isInstance(other));
+  }
+
   private void executeListener(boolean allStepsExecuted) {
     try {
       listener.finished(allStepsExecuted);
@@ -76,6 +125,160 @@ public final class ComputationStepExecutor {
     }
   }
 
+  /**
+   * State of a single execution of the steps
+   */
+  private final class Execution {
+    private final Map<ConcurrentComputationStep, CompletableFuture<PathNode>> concurrentSteps = new LinkedHashMap<>();
+    @CheckForNull
+    private ExecutorService executorService;
+    /**
+     * Longest path of the steps which are completed, {@code null} if no step is completed yet
+     */
+    @CheckForNull
+    private PathNode longestPath;
+    private boolean concurrentStepsExecuted = false;
+
+    private void execute(ComputationStep step) {
+      if (step instanceof ConcurrentComputationStep) {
+        submit((ConcurrentComputationStep) step);
+      } else {
+        awaitConcurrentSteps();
+        longestPath = executeStep(step, longestPath);
+      }
+    }
+
+    private void submit(ConcurrentComputationStep step) {
+      List<CompletableFuture<PathNode>> dependencies = concurrentSteps.entrySet().stream()
+        .filter(entry -> dependsOn(step, entry.getKey()))
+        .map(Map.Entry::getValue)
+        .collect(toList());
+      PathNode pathBeforeGroup = longestPath;
+      // the MDC holds the uuid of the task, which must be logged by the steps executed by the other threads
+      Map<String, String> mdc = MDC.getCopyOfContextMap();
+      CompletableFuture<PathNode> future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture[dependencies.size()]))
+        .thenApplyAsync(v -> {
+          PathNode previous = pathBeforeGroup;
+          for (CompletableFuture<PathNode> dependency : dependencies) {
+            previous = longest(previous, dependency.join());
+          }
+          return executeStepWithMdc(step, previous, mdc);
+        }, getExecutorService());
+      concurrentSteps.put(step, future);
+      concurrentStepsExecuted = true;
+    }
+
+    private ExecutorService getExecutorService() {
+      if (executorService == null) {
+        executorService = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+          .setDaemon(true)
+          .setNameFormat("CE_step-%d")
+          .build());
+      }
+      return executorService;
+    }
+
+    /**
+     * Waits for the completion of all the submitted concurrent steps and re-throws the failure of the
+     * first failed step, if any.
+     */
+    private void awaitConcurrentSteps() {
+      Throwable failure = null;
+      for (CompletableFuture<PathNode> future : concurrentSteps.values()) {
+        try {
+          longestPath = longest(longestPath, future.join());
+        } catch (CompletionException e) {
+          if (failure == null) {
+            failure = e.getCause();
+          }
+        }
+      }
+      concurrentSteps.clear();
+      if (failure != null) {
+        throw Throwables.propagate(failure);
+      }
+    }
+
+    private void close() {
+      // do not leave steps running in background when the execution fails
+      for (CompletableFuture<PathNode> future : concurrentSteps.values()) {
+        try {
+          future.join();
+        } catch (CompletionException e) {
+          // failure of the execution is already being propagated
+        }
+      }
+      concurrentSteps.clear();
+      if (executorService != null) {
+        executorService.shutdown();
+      }
+    }
+
+    private void logCriticalPath() {
+      if (!concurrentStepsExecuted || longestPath == null) {
+        return;
+      }
+      LinkedList<String> descriptions = new LinkedList<>();
+      for (PathNode node = longestPath; node != null; node = node.previous) {
+        descriptions.addFirst(node.description);
+      }
+      LOGGER.info("Critical path of steps | time={}ms | steps={}", longestPath.totalWallTimeMs, String.join(" > ", descriptions));
+    }
+  }
+
+  private PathNode executeStepWithMdc(ComputationStep step, @Nullable PathNode previous, @Nullable Map<String, String> mdc) {
+    if (mdc != null) {
+      MDC.setContextMap(mdc);
+    }
+    try {
+      return executeStep(step, previous);
+    } finally {
+      MDC.clear();
+    }
+  }
+
+  private PathNode executeStep(ComputationStep step, @Nullable PathNode previous) {
+    Profiler stepProfiler = Profiler.create(LOGGER).start();
+    ThreadResourceUsage start = ThreadResourceUsage.current();
+    step.execute();
+    ThreadResourceUsage end = ThreadResourceUsage.current();
+    long cpuTimeMs = end.cpuTimeMsSince(start);
+    long allocatedBytes = end.allocatedBytesSince(start);
+    String description = step.getDescription();
+    stepProfiler.addContext("cpu", cpuTimeMs < 0 ? null : (cpuTimeMs + "ms"));
+    stepProfiler.addContext("allocated", allocatedBytes < 0 ? null : ((allocatedBytes / 1024L) + "KB"));
+    long wallTimeMs = stepProfiler.stopDebug(description);
+    statistics.add(description, wallTimeMs, cpuTimeMs, allocatedBytes);
+    return new PathNode(description, wallTimeMs, previous);
+  }
+
+  @CheckForNull
+  private static PathNode longest(@Nullable PathNode a, @Nullable PathNode b) {
+    if (a == null) {
+      return b;
+    }
+    if (b == null) {
+      return a;
+    }
+    return a.totalWallTimeMs >= b.totalWallTimeMs ? a : b;
+  }
+
+  /**
+   * Last step of a chain of dependent steps
+   */
+  private static final class PathNode {
+    private final String description;
+    private final long totalWallTimeMs;
+    @CheckForNull
+    private final PathNode previous;
+
+    private PathNode(String description, long wallTimeMs, @Nullable PathNode previous) {
+      this.description = description;
+      this.totalWallTimeMs = wallTimeMs + (previous == null ? 0L : previous.totalWallTimeMs);
+      this.previous = previous;
+    }
+  }
+
   @FunctionalInterface
   public interface Listener {
     void finished(boolean allStepsExecuted);
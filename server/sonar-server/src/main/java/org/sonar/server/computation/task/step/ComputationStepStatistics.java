@@ -0,0 +1,125 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.step;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import org.sonar.api.ce.ComputeEngineSide;
+
+import static java.lang.String.format;
+
+/**
+ * Statistics of the executions of each {@link ComputationStep} since startup of the Compute Engine,
+ * shared by all the workers. Steps are identified by their {@link ComputationStep#getDescription() description}.
+ */
+@ComputeEngineSide
+public class ComputationStepStatistics {
+
+  /**
+   * Upper bounds (exclusive) of the buckets of the histogram of wall times. The last bucket has no upper bound.
+   */
+  static final long[] WALL_TIME_BUCKETS_MS = {100L, 1_000L, 10_000L, 60_000L};
+
+  private final Map<String, StepStatistics> statisticsByStep = new ConcurrentHashMap<>();
+
+  /**
+   * @param cpuTimeMs CPU time of the step, -1 if not measured
+   * @param allocatedBytes memory allocated by the step, -1 if not measured
+   */
+  public void add(String step, long wallTimeMs, long cpuTimeMs, long allocatedBytes) {
+    statisticsByStep.computeIfAbsent(step, s -> new StepStatistics()).add(wallTimeMs, cpuTimeMs, allocatedBytes);
+  }
+
+  /**
+   * Statistics sorted by step description
+   */
+  public Map<String, StepStatistics> getAll() {
+    return new TreeMap<>(statisticsByStep);
+  }
+
+  public static final class StepStatistics {
+    private long count = 0L;
+    private long totalWallTimeMs = 0L;
+    private long maxWallTimeMs = 0L;
+    private long totalCpuTimeMs = 0L;
+    private long totalAllocatedBytes = 0L;
+    private final long[] wallTimeHistogram = new long[WALL_TIME_BUCKETS_MS.length + 1];
+
+    private synchronized void add(long wallTimeMs, long cpuTimeMs, long allocatedBytes) {
+      count++;
+      totalWallTimeMs += wallTimeMs;
+      maxWallTimeMs = Math.max(maxWallTimeMs, wallTimeMs);
+      totalCpuTimeMs += Math.max(0L, cpuTimeMs);
+      totalAllocatedBytes += Math.max(0L, allocatedBytes);
+      wallTimeHistogram[bucketOf(wallTimeMs)]++;
+    }
+
+    private static int bucketOf(long wallTimeMs) {
+      int bucket = 0;
+      while (bucket < WALL_TIME_BUCKETS_MS.length && wallTimeMs >= WALL_TIME_BUCKETS_MS[bucket]) {
+        bucket++;
+      }
+      return bucket;
+    }
+
+    public synchronized long getCount() {
+      return count;
+    }
+
+    public synchronized long getTotalWallTimeMs() {
+      return totalWallTimeMs;
+    }
+
+    public synchronized long getMaxWallTimeMs() {
+      return maxWallTimeMs;
+    }
+
+    public synchronized long getTotalCpuTimeMs() {
+      return totalCpuTimeMs;
+    }
+
+    public synchronized long getTotalAllocatedBytes() {
+      return totalAllocatedBytes;
+    }
+
+    /**
+     * Count of executions per bucket of wall time, see {@link #WALL_TIME_BUCKETS_MS}
+     */
+    public synchronized long[] getWallTimeHistogram() {
+      return wallTimeHistogram.clone();
+    }
+
+    @Override
+    public synchronized String toString() {
+      StringBuilder sb = new StringBuilder();
+      sb.append(format("count=%d | time=%dms | maxTime=%dms | cpu=%dms | allocated=%dMB | histogram=",
+        count, totalWallTimeMs, maxWallTimeMs, totalCpuTimeMs, totalAllocatedBytes / 1024L / 1024L));
+      for (int i = 0; i < wallTimeHistogram.length; i++) {
+        if (i > 0) {
+          sb.append(',');
+        }
+        sb.append(i < WALL_TIME_BUCKETS_MS.length ? ("<" + WALL_TIME_BUCKETS_MS[i] + "ms") : (">=" + WALL_TIME_BUCKETS_MS[i - 1] + "ms"));
+        sb.append(':').append(wallTimeHistogram[i]);
+      }
+      return sb.toString();
+    }
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.step;
+
+import java.util.Set;
+
+/**
+ * A {@link ComputationStep} which explicitly declares the steps it depends on.
+ * <p>
+ * A plain {@link ComputationStep} implicitly depends on all the steps which precede it in
+ * {@link ComputationSteps#instances()}. Consecutive {@link ConcurrentComputationStep}s are instead executed
+ * concurrently by {@link ComputationStepExecutor}, each of them as soon as its dependencies are completed. The steps
+ * executed before the first step of such a group are always completed, and the step following the group is
+ * executed only when all the steps of the group are completed.
+ * </p>
+ * <p>
+ * Implementations must be thread-safe regarding the other steps of the group: they must not write
+ * to the holders and repositories read by the other steps of the group, and must use their own {@link org.sonar.db.DbSession}.
+ * </p>
+ */
+public interface ConcurrentComputationStep extends ComputationStep {
+
+  /**
+   * The steps which must be completed before this step is started. Dependencies must precede this step
+   * in {@link ComputationSteps#instances()}. Dependencies which are not part of the executed steps are ignored.
+   */
+  Set<Class<? extends ComputationStep>> getDependencies();
+}
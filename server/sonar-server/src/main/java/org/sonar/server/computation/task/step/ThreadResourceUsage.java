@@ -0,0 +1,74 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.step;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * CPU time and memory allocated by the current thread, as reported by the JVM. Values are
+ * {@code -1} when the JVM does not support or has disabled the measure.
+ */
+final class ThreadResourceUsage {
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private final long cpuTimeNs;
+  private final long allocatedBytes;
+
+  private ThreadResourceUsage(long cpuTimeNs, long allocatedBytes) {
+    this.cpuTimeNs = cpuTimeNs;
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  static ThreadResourceUsage current() {
+    return new ThreadResourceUsage(currentCpuTimeNs(), currentAllocatedBytes());
+  }
+
+  private static long currentCpuTimeNs() {
+    if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+      return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+    return -1L;
+  }
+
+  private static long currentAllocatedBytes() {
+    if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+      if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+        return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1L;
+  }
+
+  long cpuTimeMsSince(ThreadResourceUsage start) {
+    if (cpuTimeNs < 0 || start.cpuTimeNs < 0) {
+      return -1L;
+    }
+    return (cpuTimeNs - start.cpuTimeNs) / 1_000_000L;
+  }
+
+  long allocatedBytesSince(ThreadResourceUsage start) {
+    if (allocatedBytes < 0 || start.allocatedBytes < 0) {
+      return -1L;
+    }
+    return allocatedBytes - start.allocatedBytes;
+  }
+}
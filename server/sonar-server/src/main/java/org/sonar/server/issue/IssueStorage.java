@@ -86,8 +86,6 @@ public abstract class IssueStorage {
   }
 
   private Collection<IssueDto> doSave(DbSession session, Iterable<DefaultIssue> issues) {
-    // Batch session can not be used for updates. It does not return the number of updated rows,
-    // required for detecting conflicts.
     long now = system2.now();
 
     Map<Boolean, List<DefaultIssue>> issuesNewOrUpdated = StreamSupport.stream(issues.spliterator(), true).collect(Collectors.groupingBy(DefaultIssue::isNew));
@@ -137,7 +135,8 @@ public abstract class IssueStorage {
   private Collection<IssueDto> update(List<DefaultIssue> issuesToUpdate, long now) {
     Collection<IssueDto> updated = new ArrayList<>();
     if (!issuesToUpdate.isEmpty()) {
-      try (DbSession dbSession = dbClient.openSession(false)) {
+      // updates do not check the number of updated rows, so they can be executed in JDBC batches
+      try (DbSession dbSession = dbClient.openSession(true)) {
         IssueChangeMapper issueChangeMapper = dbSession.getMapper(IssueChangeMapper.class);
         for (DefaultIssue issue : issuesToUpdate) {
           IssueDto issueDto = doUpdate(dbSession, now, issue);
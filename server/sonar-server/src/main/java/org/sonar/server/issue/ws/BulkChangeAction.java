@@ -197,7 +197,7 @@ public class BulkChangeAction implements IssuesWsAction {
         .filter(bulkChange(issueChangeContext, bulkChangeData, result))
         .collect(MoreCollectors.toList());
       issueStorage.save(items);
-      items.forEach(sendNotification(issueChangeContext, bulkChangeData));
+      sendNotifications(items, issueChangeContext, bulkChangeData);
       return result;
     };
   }
@@ -230,17 +230,22 @@ public class BulkChangeAction implements IssuesWsAction {
     bulkChangeData.getCommentAction().ifPresent(action -> action.execute(bulkChangeData.getProperties(action.key()), actionContext));
   }
 
-  private Consumer<DefaultIssue> sendNotification(IssueChangeContext issueChangeContext, BulkChangeData bulkChangeData) {
-    return issue -> {
-      if (bulkChangeData.sendNotification) {
-        notificationService.scheduleForSending(new IssueChangeNotification()
-          .setIssue(issue)
-          .setChangeAuthorLogin(issueChangeContext.login())
-          .setRuleName(bulkChangeData.rulesByKey.get(issue.ruleKey()).getName())
-          .setProject(bulkChangeData.projectsByUuid.get(issue.projectUuid()))
-          .setComponent(bulkChangeData.componentsByUuid.get(issue.componentUuid())));
-      }
-    };
+  /**
+   * Notifications are stored in the queue with a single batch of inserts instead of one transaction per issue
+   */
+  private void sendNotifications(List<DefaultIssue> issues, IssueChangeContext issueChangeContext, BulkChangeData bulkChangeData) {
+    if (!bulkChangeData.sendNotification || issues.isEmpty()) {
+      return;
+    }
+    List<IssueChangeNotification> notifications = issues.stream()
+      .map(issue -> new IssueChangeNotification()
+        .setIssue(issue)
+        .setChangeAuthorLogin(issueChangeContext.login())
+        .setRuleName(bulkChangeData.rulesByKey.get(issue.ruleKey()).getName())
+        .setProject(bulkChangeData.projectsByUuid.get(issue.projectUuid()))
+        .setComponent(bulkChangeData.componentsByUuid.get(issue.componentUuid())))
+      .collect(MoreCollectors.toList(issues.size()));
+    notificationService.scheduleForSending(notifications);
   }
 
   private static Function<BulkChangeResult, Issues.BulkChangeWsResponse> toWsResponse() {
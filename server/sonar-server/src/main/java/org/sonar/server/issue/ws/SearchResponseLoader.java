@@ -49,6 +49,7 @@ import static com.google.common.base.MoreObjects.firstNonNull;
 import static com.google.common.collect.ImmutableSet.copyOf;
 import static com.google.common.collect.Lists.newArrayList;
 import static com.google.common.collect.Sets.difference;
+import static com.google.common.collect.Sets.union;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Stream.concat;
 import static org.sonar.core.util.stream.MoreCollectors.toList;
@@ -60,6 +61,11 @@ import static org.sonar.server.issue.ws.SearchAdditionalField.USERS;
 
 /**
  * Loads all the information required for the response of api/issues/search.
+ * <p>
+ * Issues are read from db, not from the Elasticsearch documents: the index does not store the text range
+ * and the flows of issues, which are part of the default response, and actions and transitions are computed
+ * from {@link IssueDto}.
+ * </p>
  */
 public class SearchResponseLoader {
 
@@ -154,7 +160,7 @@ public class SearchResponseLoader {
   private void loadComponents(SearchResponseData preloadedResponseData, Collector collector, DbSession dbSession, SearchResponseData result) {
     Collection<ComponentDto> preloadedComponents = preloadedResponseData.getComponents();
     Set<String> preloadedComponentUuids = preloadedComponents.stream().map(ComponentDto::uuid).collect(MoreCollectors.toSet(preloadedComponents.size()));
-    Set<String> componentUuidsToLoad = copyOf(difference(collector.getComponentUuids(), preloadedComponentUuids));
+    Set<String> componentUuidsToLoad = copyOf(difference(componentAndProjectUuids(collector), preloadedComponentUuids));
 
     result.addComponents(preloadedComponents);
     if (!componentUuidsToLoad.isEmpty()) {
@@ -175,7 +181,7 @@ public class SearchResponseLoader {
     Set<String> loadedProjectUuids = loadedComponents.stream().filter(cpt -> cpt.uuid().equals(cpt.projectUuid())).map(ComponentDto::uuid).collect(MoreCollectors.toSet());
     Set<String> projectUuidsToLoad = copyOf(difference(collector.getProjectUuids(), loadedProjectUuids));
     if (!projectUuidsToLoad.isEmpty()) {
-      List<ComponentDto> projects = dbClient.componentDao().selectByUuids(dbSession, collector.getProjectUuids());
+      List<ComponentDto> projects = dbClient.componentDao().selectByUuids(dbSession, projectUuidsToLoad);
       result.addComponents(projects);
     }
   }
@@ -226,11 +232,19 @@ public class SearchResponseLoader {
   private void loadComponents(Collector collector, DbSession dbSession, SearchResponseData result) {
     // always load components and projects, because some issue fields still relate to component ids/keys.
     // They should be dropped but are kept for backward-compatibility (see SearchResponseFormat)
-    result.addComponents(dbClient.componentDao().selectByUuids(dbSession, collector.getComponentUuids()));
+    result.addComponents(dbClient.componentDao().selectByUuids(dbSession, componentAndProjectUuids(collector)));
     result.addComponents(dbClient.componentDao().selectSubProjectsByComponentUuids(dbSession, collector.getComponentUuids()));
     addProjectUuids(collector, dbSession, result);
   }
 
+  /**
+   * Projects of issues are already known, so they are loaded by the same query as the components
+   * instead of an additional round trip.
+   */
+  private static Set<String> componentAndProjectUuids(Collector collector) {
+    return copyOf(union(collector.getComponentUuids(), collector.getProjectUuids()));
+  }
+
   private void loadOrganizations(DbSession dbSession, SearchResponseData result) {
     Collection<ComponentDto> components = result.getComponents();
     dbClient.organizationDao().selectByUuids(
@@ -27,6 +27,7 @@ import com.google.common.collect.SetMultimap;
 import java.io.IOException;
 import java.io.InvalidClassException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.sonar.api.notifications.Notification;
@@ -39,6 +40,7 @@ import org.sonar.db.notification.NotificationQueueDto;
 import org.sonar.db.property.PropertiesDao;
 
 import static java.util.Collections.singletonList;
+import static org.sonar.core.util.stream.MoreCollectors.toList;
 
 public class DefaultNotificationManager implements NotificationManager {
 
@@ -76,6 +78,19 @@ public class DefaultNotificationManager implements NotificationManager {
     NotificationQueueDto dto = NotificationQueueDto.toNotificationQueueDto(notification);
     notificationQueueDao.insert(singletonList(dto));
   }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void scheduleForSending(Collection<? extends Notification> notifications) {
+    if (!notifications.isEmpty()) {
+      notificationQueueDao.insert(notifications.stream()
+        .map(NotificationQueueDto::toNotificationQueueDto)
+        .collect(toList(notifications.size())));
+    }
+  }
+
   /**
    * Give the notification queue so that it can be processed
    */
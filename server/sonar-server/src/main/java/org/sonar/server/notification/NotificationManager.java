@@ -20,6 +20,7 @@
 package org.sonar.server.notification;
 
 import com.google.common.collect.Multimap;
+import java.util.Collection;
 import javax.annotation.Nullable;
 import org.sonar.api.notifications.Notification;
 import org.sonar.api.notifications.NotificationChannel;
@@ -40,6 +41,13 @@ public interface NotificationManager {
    */
   void scheduleForSending(Notification notification);
 
+  /**
+   * Same as {@link #scheduleForSending(Notification)} but stores all the notifications at once.
+   *
+   * @param notifications the notifications.
+   */
+  void scheduleForSending(Collection<? extends Notification> notifications);
+
   /**
    * <p>
    * Returns the list of users who subscribed to the given dispatcher, along with the notification channels (email, twitter, ...) that they choose
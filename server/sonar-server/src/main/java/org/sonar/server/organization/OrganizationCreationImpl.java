@@ -48,6 +48,7 @@ import org.sonar.db.user.UserGroupDto;
 import org.sonar.server.qualityprofile.BuiltInQProfile;
 import org.sonar.server.qualityprofile.BuiltInQProfileRepository;
 import org.sonar.server.qualityprofile.QProfileName;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.index.UserIndexer;
 import org.sonar.server.usergroups.DefaultGroupCreator;
 
@@ -72,11 +73,12 @@ public class OrganizationCreationImpl implements OrganizationCreation {
   private final BuiltInQProfileRepository builtInQProfileRepository;
   private final DefaultGroupCreator defaultGroupCreator;
   private final UserIndexer userIndexer;
+  private final UserPermissionCache permissionCache;
 
   public OrganizationCreationImpl(DbClient dbClient, System2 system2, UuidFactory uuidFactory,
     OrganizationValidation organizationValidation, Configuration config, UserIndexer userIndexer,
     BuiltInQProfileRepository builtInQProfileRepository,
-    DefaultGroupCreator defaultGroupCreator) {
+    DefaultGroupCreator defaultGroupCreator, UserPermissionCache permissionCache) {
     this.dbClient = dbClient;
     this.system2 = system2;
     this.uuidFactory = uuidFactory;
@@ -85,6 +87,7 @@ public class OrganizationCreationImpl implements OrganizationCreation {
     this.userIndexer = userIndexer;
     this.builtInQProfileRepository = builtInQProfileRepository;
     this.defaultGroupCreator = defaultGroupCreator;
+    this.permissionCache = permissionCache;
   }
 
   @Override
@@ -110,6 +113,7 @@ public class OrganizationCreationImpl implements OrganizationCreation {
 
       // Elasticsearch is updated when DB session is committed
       userIndexer.commitAndIndex(dbSession, userCreator);
+      permissionCache.invalidateAll();
 
       return organization;
     }
@@ -147,6 +151,7 @@ public class OrganizationCreationImpl implements OrganizationCreation {
 
       // Elasticsearch is updated when DB session is committed
       userIndexer.commitAndIndex(dbSession, newUser);
+      permissionCache.invalidateAll();
 
       return Optional.of(organization);
     }
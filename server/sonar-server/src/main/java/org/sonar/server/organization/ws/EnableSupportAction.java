@@ -34,9 +34,11 @@ import org.sonar.db.permission.template.PermissionTemplateGroupDto;
 import org.sonar.db.rule.RuleDefinitionDto;
 import org.sonar.db.user.GroupDto;
 import org.sonar.db.user.UserGroupDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.organization.DefaultOrganizationProvider;
 import org.sonar.server.organization.OrganizationFlags;
 import org.sonar.server.rule.index.RuleIndexer;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.UserSession;
 import org.sonar.server.usergroups.DefaultGroupCreator;
 import org.sonar.server.usergroups.DefaultGroupFinder;
@@ -54,9 +56,12 @@ public class EnableSupportAction implements OrganizationsWsAction {
   private final DefaultGroupCreator defaultGroupCreator;
   private final DefaultGroupFinder defaultGroupFinder;
   private final RuleIndexer ruleIndexer;
+  private final UserPermissionCache permissionCache;
+  private final AuthenticatedUserCache authenticatedUserCache;
 
   public EnableSupportAction(UserSession userSession, DbClient dbClient, DefaultOrganizationProvider defaultOrganizationProvider,
-    OrganizationFlags organizationFlags, DefaultGroupCreator defaultGroupCreator, DefaultGroupFinder defaultGroupFinder, RuleIndexer ruleIndexer) {
+    OrganizationFlags organizationFlags, DefaultGroupCreator defaultGroupCreator, DefaultGroupFinder defaultGroupFinder, RuleIndexer ruleIndexer,
+    UserPermissionCache permissionCache, AuthenticatedUserCache authenticatedUserCache) {
     this.userSession = userSession;
     this.dbClient = dbClient;
     this.defaultOrganizationProvider = defaultOrganizationProvider;
@@ -64,6 +69,8 @@ public class EnableSupportAction implements OrganizationsWsAction {
     this.defaultGroupCreator = defaultGroupCreator;
     this.defaultGroupFinder = defaultGroupFinder;
     this.ruleIndexer = ruleIndexer;
+    this.permissionCache = permissionCache;
+    this.authenticatedUserCache = authenticatedUserCache;
   }
 
   @Override
@@ -90,6 +97,8 @@ public class EnableSupportAction implements OrganizationsWsAction {
         List<RuleKey> disabledTemplateAndCustomRuleKeys = disableTemplateRulesAndCustomRules(dbSession);
         enableFeature(dbSession);
         ruleIndexer.commitAndIndex(dbSession, disabledTemplateAndCustomRuleKeys);
+        authenticatedUserCache.invalidate(requireNonNull(userSession.getLogin()));
+        permissionCache.invalidateAll();
       }
     }
     response.noContent();
@@ -20,13 +20,24 @@
 package org.sonar.server.permission.index;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.elasticsearch.action.search.SearchRequestBuilder;
+import org.elasticsearch.action.search.SearchType;
+import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.BoolQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryBuilders;
 import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.config.Configuration;
 import org.sonar.api.server.ServerSide;
+import org.sonar.core.util.stream.MoreCollectors;
 import org.sonar.db.user.GroupDto;
+import org.sonar.server.es.EsClient;
+import org.sonar.server.es.EsUtils;
 import org.sonar.server.es.IndexType;
 import org.sonar.server.es.NewIndex;
 import org.sonar.server.user.UserSession;
@@ -35,6 +46,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 import static org.elasticsearch.index.query.QueryBuilders.boolQuery;
 import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+import static org.elasticsearch.index.query.QueryBuilders.termsQuery;
 
 @ServerSide
 @ComputeEngineSide
@@ -52,10 +64,34 @@ public class AuthorizationTypeSupport {
    */
   public static final String FIELD_ALLOW_ANYONE = "allowAnyone";
 
+  /**
+   * When true, {@link #createQueryFilter(IndexType)} filters documents on the uuids of the projects
+   * that user can browse instead of joining them with their "authorization" parent.
+   */
+  public static final String TERMS_FILTER_PROPERTY = "sonar.search.authorizationTermsFilter";
+
+  private static final String FIELD_ROUTING = "_routing";
+  private static final int SCROLL_SIZE = 500;
+
   private final UserSession userSession;
+  @Nullable
+  private final EsClient esClient;
+  @Nullable
+  private final AuthorizedProjectsCache authorizedProjectsCache;
+  private final boolean termsFilterEnabled;
 
   public AuthorizationTypeSupport(UserSession userSession) {
     this.userSession = userSession;
+    this.esClient = null;
+    this.authorizedProjectsCache = null;
+    this.termsFilterEnabled = false;
+  }
+
+  public AuthorizationTypeSupport(UserSession userSession, EsClient esClient, AuthorizedProjectsCache authorizedProjectsCache, Configuration config) {
+    this.userSession = userSession;
+    this.esClient = esClient;
+    this.authorizedProjectsCache = authorizedProjectsCache;
+    this.termsFilterEnabled = config.getBoolean(TERMS_FILTER_PROPERTY).orElse(false);
   }
 
   /**
@@ -103,6 +139,53 @@ public class AuthorizationTypeSupport {
     }
 
     Integer userId = userSession.getUserId();
+    List<Integer> groupIds = getGroupIds();
+    return QueryBuilders.hasParentQuery(TYPE_AUTHORIZATION,
+      QueryBuilders.boolQuery().filter(createPermissionFilter(userId, groupIds)));
+  }
+
+  /**
+   * Same as {@link #createQueryFilter()} for the documents of type {@code indexType}.
+   * <p>
+   * When property {@link #TERMS_FILTER_PROPERTY} is enabled, the uuids of the projects that user can
+   * browse are loaded once from the "authorization" type, cached in {@link AuthorizedProjectsCache} and
+   * applied as a terms filter on the routing of documents, which is the project uuid. This avoids the
+   * cost of a parent/child join on each search.
+   * </p>
+   */
+  public QueryBuilder createQueryFilter(IndexType indexType) {
+    if (!termsFilterEnabled || userSession.isRoot()) {
+      return createQueryFilter();
+    }
+
+    Integer userId = userSession.getUserId();
+    List<Integer> groupIds = getGroupIds();
+    String cacheKey = indexType.getIndex() + '|' + (userId == null ? "" : userId) + '|' + groupIds;
+    Set<String> projectUuids = authorizedProjectsCache.get(cacheKey, () -> loadAuthorizedProjectUuids(indexType, userId, groupIds));
+    return termsQuery(FIELD_ROUTING, projectUuids);
+  }
+
+  private List<Integer> getGroupIds() {
+    return userSession.getGroups()
+      .stream()
+      .map(GroupDto::getId)
+      .sorted()
+      .collect(MoreCollectors.toList());
+  }
+
+  private Set<String> loadAuthorizedProjectUuids(IndexType indexType, @Nullable Integer userId, List<Integer> groupIds) {
+    SearchRequestBuilder request = esClient.prepareSearch(getAuthorizationIndexType(indexType))
+      .setSearchType(SearchType.SCAN)
+      .setScroll(TimeValue.timeValueMinutes(EsUtils.SCROLL_TIME_IN_MINUTES))
+      .setSize(SCROLL_SIZE)
+      .setFetchSource(false)
+      .setQuery(boolQuery().filter(createPermissionFilter(userId, groupIds)));
+    ImmutableSet.Builder<String> projectUuids = ImmutableSet.builder();
+    EsUtils.scrollIds(esClient, request.get().getScrollId(), id -> id).forEachRemaining(projectUuids::add);
+    return projectUuids.build();
+  }
+
+  private static BoolQueryBuilder createPermissionFilter(@Nullable Integer userId, List<Integer> groupIds) {
     BoolQueryBuilder filter = boolQuery();
 
     // anyone
@@ -114,12 +197,8 @@ public class AuthorizationTypeSupport {
       .ifPresent(id -> filter.should(termQuery(FIELD_USER_IDS, id)));
 
     // groups
-    userSession.getGroups()
-      .stream()
-      .map(GroupDto::getId)
-      .forEach(groupId -> filter.should(termQuery(FIELD_GROUP_IDS, groupId)));
+    groupIds.forEach(groupId -> filter.should(termQuery(FIELD_GROUP_IDS, groupId)));
 
-    return QueryBuilders.hasParentQuery(TYPE_AUTHORIZATION,
-      QueryBuilders.boolQuery().filter(filter));
+    return filter;
   }
 }
@@ -0,0 +1,79 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.permission.index;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.server.ServerSide;
+
+/**
+ * Cache of the uuids of the projects that can be browsed with a given set of permission criteria (user id and
+ * group ids), used by {@link AuthorizationTypeSupport} when the "terms" filter is enabled.
+ * <p>
+ * All the entries are dropped by {@link #invalidateAll()} when {@link PermissionIndexer} updates the
+ * authorization documents on this node. Entries expire {@link #EXPIRE_AFTER_WRITE_SECONDS} seconds after
+ * being loaded, which bounds the delay for the changes indexed by the other nodes of the cluster.
+ * </p>
+ */
+@ServerSide
+@ComputeEngineSide
+public class AuthorizedProjectsCache {
+
+  /**
+   * Maximum number of project uuids kept in memory, all entries included
+   */
+  static final long MAX_WEIGHT = 1_000_000L;
+  static final long EXPIRE_AFTER_WRITE_SECONDS = 30L;
+
+  private final Cache<String, Set<String>> projectUuidsByKey;
+
+  public AuthorizedProjectsCache() {
+    this(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  AuthorizedProjectsCache(Ticker ticker) {
+    this.projectUuidsByKey = CacheBuilder.newBuilder()
+      .ticker(ticker)
+      .maximumWeight(MAX_WEIGHT)
+      .weigher((String key, Set<String> uuids) -> Math.max(1, uuids.size()))
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+      .build();
+  }
+
+  public Set<String> get(String key, Supplier<Set<String>> loader) {
+    Set<String> uuids = projectUuidsByKey.getIfPresent(key);
+    if (uuids == null) {
+      uuids = loader.get();
+      projectUuidsByKey.put(key, uuids);
+    }
+    return uuids;
+  }
+
+  public void invalidateAll() {
+    projectUuidsByKey.invalidateAll();
+  }
+}
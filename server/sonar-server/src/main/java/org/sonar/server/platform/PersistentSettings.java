@@ -25,17 +25,20 @@ import org.sonar.api.config.Settings;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.property.PropertyDto;
+import org.sonar.server.setting.CachedSettingLoader;
 
 public class PersistentSettings {
 
   private final Settings delegate;
   private final DbClient dbClient;
   private final SettingsChangeNotifier changeNotifier;
+  private final CachedSettingLoader cachedSettingLoader;
 
-  public PersistentSettings(Settings delegate, DbClient dbClient, SettingsChangeNotifier changeNotifier) {
+  public PersistentSettings(Settings delegate, DbClient dbClient, SettingsChangeNotifier changeNotifier, CachedSettingLoader cachedSettingLoader) {
     this.delegate = delegate;
     this.dbClient = dbClient;
     this.changeNotifier = changeNotifier;
+    this.cachedSettingLoader = cachedSettingLoader;
   }
 
   @CheckForNull
@@ -73,6 +76,7 @@ public class PersistentSettings {
     } else {
       dbClient.propertiesDao().saveProperty(dbSession, new PropertyDto().setKey(key).setValue(value));
     }
+    cachedSettingLoader.invalidate(dbSession);
     // refresh the cache of settings
     delegate.setProperty(key, value);
   }
@@ -29,6 +29,7 @@ import org.sonar.server.platform.ServerIdManager;
 import org.sonar.server.platform.ServerImpl;
 import org.sonar.server.platform.StartupMetadataPersister;
 import org.sonar.server.platform.db.migration.NoopDatabaseMigrationImpl;
+import org.sonar.server.setting.CachedSettingLoader;
 import org.sonar.server.setting.DatabaseSettingLoader;
 import org.sonar.server.setting.DatabaseSettingsEnabler;
 import org.sonar.server.startup.LogServerId;
@@ -46,6 +47,7 @@ public class PlatformLevel3 extends PlatformLevel {
       ServerIdManager.class,
       ServerImpl.class,
       DatabaseSettingLoader.class,
+      CachedSettingLoader.class,
       DatabaseSettingsEnabler.class,
       UriReader.class,
       ServerIdLoader.class,
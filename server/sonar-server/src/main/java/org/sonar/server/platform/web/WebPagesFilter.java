@@ -20,15 +20,19 @@
 package org.sonar.server.platform.web;
 
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.regex.Pattern;
 import javax.servlet.Filter;
 import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 import org.apache.commons.io.IOUtils;
 import org.sonar.api.web.ServletFilter;
 
@@ -42,11 +46,18 @@ import static org.sonarqube.ws.MediaTypes.HTML;
 /**
  * This filter provide the HTML file that will be used to display every web pages.
  * The same file should be provided for any URLs except WS and static resources.
+ * <p>
+ * The JS and CSS files generated by the production build of the web app contain a hash of their content
+ * in their name, so they can be cached by browsers forever. Errors, for example a 404 on a removed asset,
+ * must not be cached.
+ * </p>
  */
 public class WebPagesFilter implements Filter {
 
   private static final String CACHE_CONTROL_HEADER = "Cache-Control";
   private static final String CACHE_CONTROL_VALUE = "no-cache, no-store, must-revalidate";
+  private static final String HASHED_ASSET_CACHE_CONTROL_VALUE = "public, max-age=31536000, immutable";
+  private static final Pattern HASHED_ASSET_PATH = Pattern.compile("/(js|css)/[^/]+\\.[0-9a-f]{8}(\\.chunk)?\\.(js|css)");
 
   private static final String CONTEXT_PLACEHOLDER = "%WEB_CONTEXT%";
 
@@ -63,7 +74,11 @@ public class WebPagesFilter implements Filter {
     HttpServletResponse httpServletResponse = (HttpServletResponse) response;
     String path = httpServletRequest.getRequestURI().replaceFirst(httpServletRequest.getContextPath(), "");
     if (!URL_PATTERN.matches(path)) {
-      chain.doFilter(request, response);
+      if (HASHED_ASSET_PATH.matcher(path).matches()) {
+        chain.doFilter(request, new CacheForeverOnSuccessResponse(httpServletResponse));
+      } else {
+        chain.doFilter(request, response);
+      }
       return;
     }
     httpServletResponse.setContentType(HTML);
@@ -91,4 +106,57 @@ public class WebPagesFilter implements Filter {
   public void destroy() {
     // Nothing to do
   }
+
+  /**
+   * Sets the Cache-Control header just before the content is written, unless an error has been sent
+   */
+  private static class CacheForeverOnSuccessResponse extends HttpServletResponseWrapper {
+    private boolean error = false;
+
+    CacheForeverOnSuccessResponse(HttpServletResponse response) {
+      super(response);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      error = true;
+      super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      error = true;
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+      error = sc >= HttpServletResponse.SC_BAD_REQUEST;
+      super.setStatus(sc);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      cacheIfSuccessful();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      cacheIfSuccessful();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      cacheIfSuccessful();
+      super.flushBuffer();
+    }
+
+    private void cacheIfSuccessful() {
+      if (!error && !isCommitted()) {
+        setHeader(CACHE_CONTROL_HEADER, HASHED_ASSET_CACHE_CONTROL_VALUE);
+      }
+    }
+  }
 }
@@ -23,11 +23,15 @@ import com.google.common.annotations.VisibleForTesting;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.catalina.connector.ClientAbortException;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
 import org.sonar.api.utils.log.Logger;
@@ -40,12 +44,29 @@ import org.sonarqube.ws.MediaTypes;
 import static java.lang.String.format;
 import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
 import static javax.servlet.http.HttpServletResponse.SC_NOT_FOUND;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
 
+/**
+ * Serves the static resources embedded in plugins.
+ * <p>
+ * URLs of these resources do not contain any version, so browsers are required to revalidate them. The ETag
+ * of a resource is the MD5 of its content. It is computed at first request and then kept in memory, as plugins
+ * can not be changed without restarting the server. Requests with a matching "If-None-Match" header are answered
+ * with 304 without reading the resource from the plugin classloader.
+ * </p>
+ */
 public class StaticResourcesServlet extends HttpServlet {
 
   private static final Logger LOG = Loggers.get(StaticResourcesServlet.class);
   private static final long serialVersionUID = -2577454614650178426L;
 
+  static final String CACHE_CONTROL_HEADER = "Cache-Control";
+  static final String CACHE_CONTROL_VALUE = "no-cache";
+  static final String ETAG_HEADER = "ETag";
+  static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+
+  private final transient Map<String, String> etagsByResource = new ConcurrentHashMap<>();
+
   @Override
   public void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
     String pluginKey = getPluginKey(request);
@@ -59,12 +80,24 @@ public class StaticResourcesServlet extends HttpServlet {
         return;
       }
 
+      String etagKey = pluginKey + "/" + resource;
+      if (isNotModified(request, response, etagsByResource.get(etagKey))) {
+        return;
+      }
+
       in = pluginRepository.getPluginInstance(pluginKey).getClass().getClassLoader().getResourceAsStream(resource);
       if (in != null) {
-        // mime type must be set before writing response body
+        byte[] content = IOUtils.toByteArray(in);
+        String etag = '"' + DigestUtils.md5Hex(content) + '"';
+        etagsByResource.put(etagKey, etag);
+        if (isNotModified(request, response, etag)) {
+          return;
+        }
+        // mime type and headers must be set before writing response body
         completeContentType(response, resource);
+        setCacheHeaders(response, etag);
         out = response.getOutputStream();
-        IOUtils.copy(in, out);
+        out.write(content);
       } else {
         silentlySendError(response, SC_NOT_FOUND);
       }
@@ -79,6 +112,20 @@ public class StaticResourcesServlet extends HttpServlet {
     }
   }
 
+  private static boolean isNotModified(HttpServletRequest request, HttpServletResponse response, @CheckForNull String etag) {
+    if (etag == null || !etag.equals(request.getHeader(IF_NONE_MATCH_HEADER))) {
+      return false;
+    }
+    setCacheHeaders(response, etag);
+    response.setStatus(SC_NOT_MODIFIED);
+    return true;
+  }
+
+  private static void setCacheHeaders(HttpServletResponse response, String etag) {
+    response.setHeader(ETAG_HEADER, etag);
+    response.setHeader(CACHE_CONTROL_HEADER, CACHE_CONTROL_VALUE);
+  }
+
   @VisibleForTesting
   protected ComponentContainer getContainer() {
     return Platform.getInstance().getContainer();
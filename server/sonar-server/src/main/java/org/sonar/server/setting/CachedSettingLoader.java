@@ -0,0 +1,148 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.setting;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+import org.sonar.api.ce.ComputeEngineSide;
+import org.sonar.api.server.ServerSide;
+import org.sonar.api.utils.System2;
+import org.sonar.db.DbClient;
+import org.sonar.db.DbSession;
+
+/**
+ * Process-wide, immutable snapshot of the global properties stored in the db table "properties".
+ *
+ * <p>
+ * The snapshot is loaded with a single query and shared by all threads, so that reading a setting does not
+ * hit the db. It is refreshed when:
+ * <ul>
+ *   <li>{@link #invalidate(DbSession)} is called on this node, when global properties are changed</li>
+ *   <li>the version stored in the db table "internal_properties" has been changed by another node of the
+ *   cluster. This version is checked at most every {@link #VERSION_CHECK_INTERVAL_MS} ms.</li>
+ *   <li>the snapshot is older than {@link #MAX_AGE_MS} ms, which covers properties written without
+ *   going through {@link #invalidate(DbSession)}</li>
+ * </ul>
+ * </p>
+ */
+@ComputeEngineSide
+@ServerSide
+public class CachedSettingLoader implements SettingLoader {
+
+  @VisibleForTesting
+  static final String VERSION_PROPERTY_KEY = "settings.version";
+  @VisibleForTesting
+  static final long VERSION_CHECK_INTERVAL_MS = 5_000L;
+  @VisibleForTesting
+  static final long MAX_AGE_MS = 60_000L;
+
+  private final DbClient dbClient;
+  private final DatabaseSettingLoader delegate;
+  private final System2 system2;
+  private volatile Snapshot snapshot;
+
+  public CachedSettingLoader(DbClient dbClient, DatabaseSettingLoader delegate, System2 system2) {
+    this.dbClient = dbClient;
+    this.delegate = delegate;
+    this.system2 = system2;
+  }
+
+  @Override
+  @CheckForNull
+  public String load(String key) {
+    return getSnapshot().properties.get(key);
+  }
+
+  @Override
+  public void loadAll(ImmutableMap.Builder<String, String> appendTo) {
+    appendTo.putAll(getSnapshot().properties);
+  }
+
+  /**
+   * Publishes a new version in the session of the caller, which must be the session that changes the
+   * global properties, and drops the snapshot of this node. The other nodes of the cluster see the new
+   * version, and reload their snapshot, only once the caller has committed its changes.
+   */
+  public void invalidate(DbSession dbSession) {
+    dbClient.internalPropertiesDao().save(dbSession, VERSION_PROPERTY_KEY, UUID.randomUUID().toString());
+    synchronized (this) {
+      snapshot = null;
+    }
+  }
+
+  private Snapshot getSnapshot() {
+    Snapshot current = snapshot;
+    long now = system2.now();
+    if (current != null && now < current.nextVersionCheckAt) {
+      return current;
+    }
+    synchronized (this) {
+      current = snapshot;
+      if (current != null && now < current.nextVersionCheckAt) {
+        return current;
+      }
+      String version = loadVersion();
+      if (current != null && current.isUpToDate(version, now)) {
+        current = current.checkedAt(now);
+      } else {
+        ImmutableMap.Builder<String, String> builder = ImmutableMap.builder();
+        delegate.loadAll(builder);
+        current = new Snapshot(version, builder.build(), now, now);
+      }
+      snapshot = current;
+      return current;
+    }
+  }
+
+  @CheckForNull
+  private String loadVersion() {
+    try (DbSession dbSession = dbClient.openSession(false)) {
+      return dbClient.internalPropertiesDao().selectByKey(dbSession, VERSION_PROPERTY_KEY).orElse(null);
+    }
+  }
+
+  private static final class Snapshot {
+    @Nullable
+    private final String version;
+    private final Map<String, String> properties;
+    private final long loadedAt;
+    private final long nextVersionCheckAt;
+
+    private Snapshot(@Nullable String version, Map<String, String> properties, long loadedAt, long checkedAt) {
+      this.version = version;
+      this.properties = properties;
+      this.loadedAt = loadedAt;
+      this.nextVersionCheckAt = checkedAt + VERSION_CHECK_INTERVAL_MS;
+    }
+
+    private boolean isUpToDate(@Nullable String currentVersion, long now) {
+      return Objects.equals(version, currentVersion) && now - loadedAt < MAX_AGE_MS;
+    }
+
+    private Snapshot checkedAt(long now) {
+      return new Snapshot(version, properties, loadedAt, now);
+    }
+  }
+}
@@ -28,9 +28,9 @@ import org.sonar.api.server.ServerSide;
 public class DatabaseSettingsEnabler implements Startable {
 
   private final ThreadLocalSettings settings;
-  private final DatabaseSettingLoader loader;
+  private final CachedSettingLoader loader;
 
-  public DatabaseSettingsEnabler(ThreadLocalSettings settings, DatabaseSettingLoader loader) {
+  public DatabaseSettingsEnabler(ThreadLocalSettings settings, CachedSettingLoader loader) {
     this.settings = settings;
     this.loader = loader;
   }
@@ -52,6 +52,7 @@ import org.sonar.scanner.protocol.GsonHelper;
 import org.sonar.server.component.ComponentFinder;
 import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.platform.SettingsChangeNotifier;
+import org.sonar.server.setting.CachedSettingLoader;
 import org.sonar.server.setting.ws.SettingValidations.SettingData;
 import org.sonar.server.user.UserSession;
 import org.sonarqube.ws.client.setting.SetRequest;
@@ -76,9 +77,10 @@ public class SetAction implements SettingsWsAction {
   private final SettingsUpdater settingsUpdater;
   private final SettingsChangeNotifier settingsChangeNotifier;
   private final SettingValidations validations;
+  private final CachedSettingLoader cachedSettingLoader;
 
   public SetAction(PropertyDefinitions propertyDefinitions, DbClient dbClient, ComponentFinder componentFinder, UserSession userSession,
-    SettingsUpdater settingsUpdater, SettingsChangeNotifier settingsChangeNotifier, SettingValidations validations) {
+    SettingsUpdater settingsUpdater, SettingsChangeNotifier settingsChangeNotifier, SettingValidations validations, CachedSettingLoader cachedSettingLoader) {
     this.propertyDefinitions = propertyDefinitions;
     this.dbClient = dbClient;
     this.componentFinder = componentFinder;
@@ -86,6 +88,7 @@ public class SetAction implements SettingsWsAction {
     this.settingsUpdater = settingsUpdater;
     this.settingsChangeNotifier = settingsChangeNotifier;
     this.validations = validations;
+    this.cachedSettingLoader = cachedSettingLoader;
   }
 
   @Override
@@ -153,6 +156,9 @@ public class SetAction implements SettingsWsAction {
       dbClient.propertiesDao().saveProperty(dbSession, property);
     }
 
+    if (!component.isPresent()) {
+      cachedSettingLoader.invalidate(dbSession);
+    }
     dbSession.commit();
 
     if (!component.isPresent()) {
@@ -19,8 +19,11 @@
  */
 package org.sonar.server.source;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import javax.annotation.Nullable;
 import org.sonar.core.util.stream.MoreCollectors;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
@@ -31,6 +34,15 @@ import static com.google.common.base.Preconditions.checkArgument;
 
 public class SourceService {
 
+  private static final Set<Integer> RAW_TEXT_LINE_FIELDS = ImmutableSet.of(
+    DbFileSources.Line.LINE_FIELD_NUMBER,
+    DbFileSources.Line.SOURCE_FIELD_NUMBER);
+  private static final Set<Integer> HTML_LINE_FIELDS = ImmutableSet.of(
+    DbFileSources.Line.LINE_FIELD_NUMBER,
+    DbFileSources.Line.SOURCE_FIELD_NUMBER,
+    DbFileSources.Line.HIGHLIGHTING_FIELD_NUMBER,
+    DbFileSources.Line.SYMBOLS_FIELD_NUMBER);
+
   private final DbClient dbClient;
   private final HtmlSourceDecorator htmlDecorator;
 
@@ -45,7 +57,15 @@ public class SourceService {
    * @param toInclusive starts from 1, must be greater than or equal param {@code from}
    */
   public Optional<Iterable<DbFileSources.Line>> getLines(DbSession dbSession, String fileUuid, int from, int toInclusive) {
-    return getLines(dbSession, fileUuid, from, toInclusive, Function.identity());
+    return getLines(dbSession, fileUuid, from, toInclusive, null, Function.identity());
+  }
+
+  /**
+   * Same as {@link #getLines(DbSession, String, int, int)} but only the line numbers and the SCM fields
+   * of lines are loaded.
+   */
+  public Optional<Iterable<DbFileSources.Line>> getScmLines(DbSession dbSession, String fileUuid, int from, int toInclusive) {
+    return getLines(dbSession, fileUuid, from, toInclusive, FileSourceDto.SCM_LINE_FIELDS, Function.identity());
   }
 
   /**
@@ -53,23 +73,23 @@ public class SourceService {
    * @see #getLines(DbSession, String, int, int)
    */
   public Optional<Iterable<String>> getLinesAsRawText(DbSession dbSession, String fileUuid, int from, int toInclusive) {
-    return getLines(dbSession, fileUuid, from, toInclusive, DbFileSources.Line::getSource);
+    return getLines(dbSession, fileUuid, from, toInclusive, RAW_TEXT_LINE_FIELDS, DbFileSources.Line::getSource);
   }
 
   public Optional<Iterable<String>> getLinesAsHtml(DbSession dbSession, String fileUuid, int from, int toInclusive) {
-    return getLines(dbSession, fileUuid, from, toInclusive, lineToHtml());
+    return getLines(dbSession, fileUuid, from, toInclusive, HTML_LINE_FIELDS, lineToHtml());
   }
 
-  private <E> Optional<Iterable<E>> getLines(DbSession dbSession, String fileUuid, int from, int toInclusive, Function<DbFileSources.Line, E> function) {
+  private <E> Optional<Iterable<E>> getLines(DbSession dbSession, String fileUuid, int from, int toInclusive, @Nullable Set<Integer> lineFields,
+    Function<DbFileSources.Line, E> function) {
     verifyLine(from);
     checkArgument(toInclusive >= from, String.format("Line number must greater than or equal to %d, got %d", from, toInclusive));
     FileSourceDto dto = dbClient.fileSourceDao().selectSourceByFileUuid(dbSession, fileUuid);
     if (dto == null) {
       return Optional.empty();
     }
-    return Optional.of(dto.getSourceData().getLinesList().stream()
-      .filter(line -> line.hasLine() && line.getLine() >= from)
-      .limit((toInclusive - from) + 1L)
+    return Optional.of(dto.getSourceLines(from, toInclusive, lineFields).stream()
+      .filter(DbFileSources.Line::hasLine)
       .map(function)
       .collect(MoreCollectors.toList()));
   }
@@ -24,9 +24,7 @@ import com.google.common.base.Suppliers;
 import com.google.common.collect.ImmutableSet;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import javax.annotation.CheckForNull;
@@ -42,8 +40,6 @@ import org.sonar.db.user.UserDto;
 import org.sonar.server.organization.DefaultOrganizationProvider;
 import org.sonar.server.organization.OrganizationFlags;
 
-import static com.google.common.collect.Maps.newHashMap;
-
 /**
  * Implementation of {@link UserSession} used in web server
  */
@@ -53,17 +49,16 @@ public class ServerUserSession extends AbstractUserSession {
   private final DbClient dbClient;
   private final OrganizationFlags organizationFlags;
   private final DefaultOrganizationProvider defaultOrganizationProvider;
+  private final UserPermissionCache permissionCache;
   private final Supplier<Collection<GroupDto>> groups = Suppliers.memoize(this::loadGroups);
   private final Supplier<Boolean> isSystemAdministratorSupplier = Suppliers.memoize(this::loadIsSystemAdministrator);
-  private final Map<String, String> projectUuidByComponentUuid = newHashMap();
-  private Map<String, Set<OrganizationPermission>> permissionsByOrganizationUuid;
-  private Map<String, Set<String>> permissionsByProjectUuid;
 
   ServerUserSession(DbClient dbClient, OrganizationFlags organizationFlags,
-    DefaultOrganizationProvider defaultOrganizationProvider, @Nullable UserDto userDto) {
+    DefaultOrganizationProvider defaultOrganizationProvider, UserPermissionCache permissionCache, @Nullable UserDto userDto) {
     this.dbClient = dbClient;
     this.organizationFlags = organizationFlags;
     this.defaultOrganizationProvider = defaultOrganizationProvider;
+    this.permissionCache = permissionCache;
     this.userDto = userDto;
   }
 
@@ -71,9 +66,12 @@ public class ServerUserSession extends AbstractUserSession {
     if (this.userDto == null) {
       return Collections.emptyList();
     }
-    try (DbSession dbSession = dbClient.openSession(false)) {
-      return dbClient.groupDao().selectByUserLogin(dbSession, userDto.getLogin());
-    }
+    String login = userDto.getLogin();
+    return permissionCache.getGroups(login, () -> {
+      try (DbSession dbSession = dbClient.openSession(false)) {
+        return dbClient.groupDao().selectByUserLogin(dbSession, login);
+      }
+    });
   }
 
   @Override
@@ -111,10 +109,8 @@ public class ServerUserSession extends AbstractUserSession {
 
   @Override
   protected boolean hasPermissionImpl(OrganizationPermission permission, String organizationUuid) {
-    if (permissionsByOrganizationUuid == null) {
-      permissionsByOrganizationUuid = new HashMap<>();
-    }
-    Set<OrganizationPermission> permissions = permissionsByOrganizationUuid.computeIfAbsent(organizationUuid, this::loadOrganizationPermissions);
+    Set<OrganizationPermission> permissions = permissionCache.getOrganizationPermissions(getUserId(), organizationUuid,
+      () -> loadOrganizationPermissions(organizationUuid));
     return permissions.contains(permission);
   }
 
@@ -134,27 +130,22 @@ public class ServerUserSession extends AbstractUserSession {
 
   @Override
   protected Optional<String> componentUuidToProjectUuid(String componentUuid) {
-    String projectUuid = projectUuidByComponentUuid.get(componentUuid);
-    if (projectUuid != null) {
-      return Optional.of(projectUuid);
-    }
+    return permissionCache.getProjectUuid(componentUuid, this::loadProjectUuid);
+  }
+
+  private Optional<String> loadProjectUuid(String componentUuid) {
     try (DbSession dbSession = dbClient.openSession(false)) {
       com.google.common.base.Optional<ComponentDto> component = dbClient.componentDao().selectByUuid(dbSession, componentUuid);
       if (!component.isPresent()) {
         return Optional.empty();
       }
-      projectUuid = component.get().projectUuid();
-      projectUuidByComponentUuid.put(componentUuid, projectUuid);
-      return Optional.of(projectUuid);
+      return Optional.of(component.get().projectUuid());
     }
   }
 
   @Override
   protected boolean hasProjectUuidPermission(String permission, String projectUuid) {
-    if (permissionsByProjectUuid == null) {
-      permissionsByProjectUuid = new HashMap<>();
-    }
-    Set<String> permissions = permissionsByProjectUuid.computeIfAbsent(projectUuid, this::loadProjectPermissions);
+    Set<String> permissions = permissionCache.getProjectPermissions(getUserId(), projectUuid, () -> loadProjectPermissions(projectUuid));
     return permissions.contains(permission);
   }
 
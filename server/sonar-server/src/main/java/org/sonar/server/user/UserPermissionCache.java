@@ -0,0 +1,147 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.user;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.sonar.api.server.ServerSide;
+import org.sonar.db.permission.OrganizationPermission;
+import org.sonar.db.user.GroupDto;
+
+/**
+ * Cache of the groups and permissions loaded by {@link ServerUserSession}, shared by all the requests
+ * of the web server.
+ * <p>
+ * Entries expire {@link #EXPIRE_AFTER_WRITE_SECONDS} seconds after being loaded. All the entries are dropped
+ * by {@link #invalidateAll()} when permissions, permission templates, groups or group memberships are changed
+ * on this node. The expiration bounds the delay for the changes done on the other nodes of the cluster.
+ * </p>
+ */
+@ServerSide
+public class UserPermissionCache {
+
+  static final long MAX_SIZE = 100_000L;
+  static final long EXPIRE_AFTER_WRITE_SECONDS = 30L;
+  private static final String ANONYMOUS = "";
+
+  private final Cache<String, Collection<GroupDto>> groupsByLogin;
+  private final Cache<String, Set<OrganizationPermission>> organizationPermissions;
+  private final Cache<String, Set<String>> projectPermissions;
+  private final Cache<String, String> projectUuidByComponentUuid;
+
+  public UserPermissionCache() {
+    this(Ticker.systemTicker());
+  }
+
+  @VisibleForTesting
+  UserPermissionCache(Ticker ticker) {
+    this.groupsByLogin = newCache(ticker);
+    this.organizationPermissions = newCache(ticker);
+    this.projectPermissions = newCache(ticker);
+    this.projectUuidByComponentUuid = newCache(ticker);
+  }
+
+  private static <V> Cache<String, V> newCache(Ticker ticker) {
+    return CacheBuilder.newBuilder()
+      .ticker(ticker)
+      .maximumSize(MAX_SIZE)
+      .expireAfterWrite(EXPIRE_AFTER_WRITE_SECONDS, TimeUnit.SECONDS)
+      .recordStats()
+      .build();
+  }
+
+  public Collection<GroupDto> getGroups(String login, Supplier<Collection<GroupDto>> loader) {
+    return get(groupsByLogin, login, loader);
+  }
+
+  public Set<OrganizationPermission> getOrganizationPermissions(@Nullable Integer userId, String organizationUuid,
+    Supplier<Set<OrganizationPermission>> loader) {
+    return get(organizationPermissions, key(userId, organizationUuid), loader);
+  }
+
+  public Set<String> getProjectPermissions(@Nullable Integer userId, String projectUuid, Supplier<Set<String>> loader) {
+    return get(projectPermissions, key(userId, projectUuid), loader);
+  }
+
+  /**
+   * The project of a component never changes. Unknown components are not cached.
+   */
+  public Optional<String> getProjectUuid(String componentUuid, Function<String, Optional<String>> loader) {
+    String projectUuid = projectUuidByComponentUuid.getIfPresent(componentUuid);
+    if (projectUuid != null) {
+      return Optional.of(projectUuid);
+    }
+    Optional<String> loaded = loader.apply(componentUuid);
+    loaded.ifPresent(uuid -> projectUuidByComponentUuid.put(componentUuid, uuid));
+    return loaded;
+  }
+
+  public void invalidateAll() {
+    groupsByLogin.invalidateAll();
+    organizationPermissions.invalidateAll();
+    projectPermissions.invalidateAll();
+  }
+
+  /**
+   * Statistics of each cache, exported by {@link org.sonar.server.platform.monitoring.UserPermissionCacheMonitor}
+   */
+  public Map<String, Object> statistics() {
+    Map<String, Object> statistics = new LinkedHashMap<>();
+    completeStatistics(statistics, "Groups", groupsByLogin);
+    completeStatistics(statistics, "Organization Permissions", organizationPermissions);
+    completeStatistics(statistics, "Project Permissions", projectPermissions);
+    completeStatistics(statistics, "Component Projects", projectUuidByComponentUuid);
+    return statistics;
+  }
+
+  private static void completeStatistics(Map<String, Object> statistics, String name, Cache<String, ?> cache) {
+    CacheStats stats = cache.stats();
+    statistics.put(name + " Size", cache.size());
+    statistics.put(name + " Hit Count", stats.hitCount());
+    statistics.put(name + " Miss Count", stats.missCount());
+    statistics.put(name + " Hit Rate", stats.hitRate());
+    statistics.put(name + " Eviction Count", stats.evictionCount());
+  }
+
+  private static <V> V get(Cache<String, V> cache, String key, Supplier<V> loader) {
+    V value = cache.getIfPresent(key);
+    if (value == null) {
+      value = loader.get();
+      cache.put(key, value);
+    }
+    return value;
+  }
+
+  private static String key(@Nullable Integer userId, String uuid) {
+    return (userId == null ? ANONYMOUS : userId.toString()) + '|' + uuid;
+  }
+}
@@ -40,6 +40,7 @@ import org.sonar.db.organization.OrganizationMemberDto;
 import org.sonar.db.user.GroupDto;
 import org.sonar.db.user.UserDto;
 import org.sonar.db.user.UserGroupDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.organization.DefaultOrganizationProvider;
 import org.sonar.server.organization.OrganizationCreation;
 import org.sonar.server.organization.OrganizationFlags;
@@ -79,9 +80,12 @@ public class UserUpdater {
   private final OrganizationCreation organizationCreation;
   private final DefaultGroupFinder defaultGroupFinder;
   private final Configuration config;
+  private final AuthenticatedUserCache authenticatedUserCache;
+  private final UserPermissionCache permissionCache;
 
   public UserUpdater(NewUserNotifier newUserNotifier, DbClient dbClient, UserIndexer userIndexer, OrganizationFlags organizationFlags,
-    DefaultOrganizationProvider defaultOrganizationProvider, OrganizationCreation organizationCreation, DefaultGroupFinder defaultGroupFinder, Configuration config) {
+    DefaultOrganizationProvider defaultOrganizationProvider, OrganizationCreation organizationCreation, DefaultGroupFinder defaultGroupFinder, Configuration config,
+    AuthenticatedUserCache authenticatedUserCache, UserPermissionCache permissionCache) {
     this.newUserNotifier = newUserNotifier;
     this.dbClient = dbClient;
     this.userIndexer = userIndexer;
@@ -90,6 +94,8 @@ public class UserUpdater {
     this.organizationCreation = organizationCreation;
     this.defaultGroupFinder = defaultGroupFinder;
     this.config = config;
+    this.authenticatedUserCache = authenticatedUserCache;
+    this.permissionCache = permissionCache;
   }
 
   public UserDto createAndCommit(DbSession dbSession, NewUser newUser, Consumer<UserDto> beforeCommit) {
@@ -102,6 +108,9 @@ public class UserUpdater {
     }
     beforeCommit.accept(userDto);
     userIndexer.commitAndIndex(dbSession, userDto);
+    // a reactivated user may have been cached before its deactivation
+    authenticatedUserCache.invalidate(userDto.getLogin());
+    permissionCache.invalidateAll();
 
     notifyNewUser(userDto.getLogin(), userDto.getName(), newUser.email());
     return userDto;
@@ -136,11 +145,14 @@ public class UserUpdater {
       updateUser(dbSession, dto);
       beforeCommit.accept(dto);
       userIndexer.commitAndIndex(dbSession, dto);
+      authenticatedUserCache.invalidate(dto.getLogin());
+      permissionCache.invalidateAll();
       notifyNewUser(dto.getLogin(), dto.getName(), dto.getEmail());
     } else {
       // no changes but still execute the consumer
       beforeCommit.accept(dto);
       dbSession.commit();
+      permissionCache.invalidateAll();
     }
   }
 
@@ -25,6 +25,7 @@ import org.sonar.api.server.ws.WebService;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.user.UserDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.user.UserSession;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -34,10 +35,12 @@ public class SkipOnboardingTutorialAction implements UsersWsAction {
 
   private final UserSession userSession;
   private final DbClient dbClient;
+  private final AuthenticatedUserCache authenticatedUserCache;
 
-  public SkipOnboardingTutorialAction(UserSession userSession, DbClient dbClient) {
+  public SkipOnboardingTutorialAction(UserSession userSession, DbClient dbClient, AuthenticatedUserCache authenticatedUserCache) {
     this.userSession = userSession;
     this.dbClient = dbClient;
+    this.authenticatedUserCache = authenticatedUserCache;
   }
 
   @Override
@@ -64,6 +67,7 @@ public class SkipOnboardingTutorialAction implements UsersWsAction {
         // is not indexed
         dbClient.userDao().update(dbSession, userDto);
         dbSession.commit();
+        authenticatedUserCache.invalidate(userLogin);
       }
     }
     response.noContent();
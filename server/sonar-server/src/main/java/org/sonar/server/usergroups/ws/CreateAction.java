@@ -28,6 +28,7 @@ import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.organization.OrganizationDto;
 import org.sonar.db.user.GroupDto;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.UserSession;
 import org.sonarqube.ws.WsUserGroups;
 
@@ -45,11 +46,13 @@ public class CreateAction implements UserGroupsWsAction {
   private final DbClient dbClient;
   private final UserSession userSession;
   private final GroupWsSupport support;
+  private final UserPermissionCache permissionCache;
 
-  public CreateAction(DbClient dbClient, UserSession userSession, GroupWsSupport support) {
+  public CreateAction(DbClient dbClient, UserSession userSession, GroupWsSupport support, UserPermissionCache permissionCache) {
     this.dbClient = dbClient;
     this.userSession = userSession;
     this.support = support;
+    this.permissionCache = permissionCache;
   }
 
   @Override
@@ -97,6 +100,7 @@ public class CreateAction implements UserGroupsWsAction {
 
       dbClient.groupDao().insert(dbSession, group);
       dbSession.commit();
+      permissionCache.invalidateAll();
 
       writeResponse(request, response, organization, group);
     }
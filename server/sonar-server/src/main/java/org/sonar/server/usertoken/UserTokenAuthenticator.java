@@ -20,17 +20,21 @@
 package org.sonar.server.usertoken;
 
 import com.google.common.base.Optional;
+import javax.annotation.CheckForNull;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.user.UserTokenDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 
 public class UserTokenAuthenticator {
   private final TokenGenerator tokenGenerator;
   private final DbClient dbClient;
+  private final AuthenticatedUserCache authenticatedUserCache;
 
-  public UserTokenAuthenticator(TokenGenerator tokenGenerator, DbClient dbClient) {
+  public UserTokenAuthenticator(TokenGenerator tokenGenerator, DbClient dbClient, AuthenticatedUserCache authenticatedUserCache) {
     this.tokenGenerator = tokenGenerator;
     this.dbClient = dbClient;
+    this.authenticatedUserCache = authenticatedUserCache;
   }
 
   /**
@@ -40,12 +44,14 @@ public class UserTokenAuthenticator {
    */
   public java.util.Optional<String> authenticate(String token) {
     String tokenHash = tokenGenerator.hash(token);
+    return authenticatedUserCache.getLoginByTokenHash(tokenHash, this::selectLoginByTokenHash);
+  }
+
+  @CheckForNull
+  private String selectLoginByTokenHash(String tokenHash) {
     try (DbSession dbSession = dbClient.openSession(false)) {
       Optional<UserTokenDto> userToken = dbClient.userTokenDao().selectByTokenHash(dbSession, tokenHash);
-      if (userToken.isPresent()) {
-        return java.util.Optional.of(userToken.get().getLogin());
-      }
-      return java.util.Optional.empty();
+      return userToken.isPresent() ? userToken.get().getLogin() : null;
     }
   }
 }
@@ -0,0 +1,109 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.authentication;
+
+import com.google.common.base.Ticker;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+import org.sonar.db.user.UserDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.db.user.UserTesting.newUserDto;
+import static org.sonar.server.authentication.AuthenticatedUserCache.EXPIRE_AFTER_WRITE_SECONDS;
+
+public class AuthenticatedUserCacheTest {
+
+  private FakeTicker ticker = new FakeTicker();
+  private AtomicInteger loads = new AtomicInteger();
+  private UserDto user = newUserDto().setLogin("john");
+  private AuthenticatedUserCache underTest = new AuthenticatedUserCache(ticker);
+
+  @Test
+  public void active_user_is_loaded_once() {
+    assertThat(underTest.getActiveUser("john", this::loadUser).get().getId()).isEqualTo(user.getId());
+    assertThat(underTest.getActiveUser("john", this::loadUser).get().getId()).isEqualTo(user.getId());
+
+    assertThat(loads.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void each_call_gets_its_own_copy_of_active_user() {
+    UserDto first = underTest.getActiveUser("john", this::loadUser).get();
+    first.setName("changed by first request");
+    user.setName("changed by loader");
+
+    UserDto second = underTest.getActiveUser("john", this::loadUser).get();
+
+    assertThat(second).isNotSameAs(first).isNotSameAs(user);
+    assertThat(second.getName()).isNotEqualTo(first.getName()).isNotEqualTo(user.getName());
+    assertThat(second.getLogin()).isEqualTo("john");
+  }
+
+  @Test
+  public void unknown_user_is_not_cached() {
+    assertThat(underTest.getActiveUser("unknown", this::loadUser)).isEmpty();
+    assertThat(underTest.getActiveUser("unknown", this::loadUser)).isEmpty();
+
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void entries_expire() {
+    underTest.getActiveUser("john", this::loadUser);
+
+    ticker.advance(TimeUnit.SECONDS.toNanos(EXPIRE_AFTER_WRITE_SECONDS));
+    underTest.getActiveUser("john", this::loadUser);
+
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void invalidate_removes_user_and_its_tokens() {
+    underTest.getActiveUser("john", this::loadUser);
+    underTest.getLoginByTokenHash("hash1", hash -> "john");
+    underTest.getLoginByTokenHash("hash2", hash -> "jane");
+
+    underTest.invalidate("john");
+
+    assertThat(underTest.getLoginByTokenHash("hash1", hash -> null)).isEmpty();
+    assertThat(underTest.getLoginByTokenHash("hash2", hash -> null)).contains("jane");
+    underTest.getActiveUser("john", this::loadUser);
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  private UserDto loadUser(String login) {
+    loads.incrementAndGet();
+    return login.equals(user.getLogin()) ? user : null;
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos = 0L;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long duration) {
+      nanos += duration;
+    }
+  }
+}
@@ -75,7 +75,8 @@ public class BasicAuthenticatorTest {
 
   private AuthenticationEvent authenticationEvent = mock(AuthenticationEvent.class);
 
-  private BasicAuthenticator underTest = new BasicAuthenticator(dbClient, credentialsAuthenticator, userTokenAuthenticator, authenticationEvent);
+  private BasicAuthenticator underTest = new BasicAuthenticator(dbClient, credentialsAuthenticator, userTokenAuthenticator, authenticationEvent,
+    new AuthenticatedUserCache());
 
   @Test
   public void authenticate_from_basic_http_header() throws Exception {
@@ -84,7 +84,8 @@ public class JwtHttpHandlerTest {
   private JwtCsrfVerifier jwtCsrfVerifier = mock(JwtCsrfVerifier.class);
   private UserDto userDto = newUserDto().setLogin(USER_LOGIN);
 
-  private JwtHttpHandler underTest = new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier);
+  private JwtHttpHandler underTest = new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier,
+    new AuthenticatedUserCache());
 
   @Before
   public void setUp() throws Exception {
@@ -124,7 +125,7 @@ public class JwtHttpHandlerTest {
     int sessionTimeoutInMinutes = 10;
     settings.setProperty("sonar.web.sessionTimeoutInMinutes", sessionTimeoutInMinutes);
 
-    underTest = new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier);
+    underTest = new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier, new AuthenticatedUserCache());
     underTest.generateToken(userDto, request, response);
 
     verify(jwtSerializer).encode(jwtArgumentCaptor.capture());
@@ -136,7 +137,7 @@ public class JwtHttpHandlerTest {
     int firstSessionTimeoutInMinutes = 10;
     settings.setProperty("sonar.web.sessionTimeoutInMinutes", firstSessionTimeoutInMinutes);
 
-    underTest = new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier);
+    underTest = new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier, new AuthenticatedUserCache());
     underTest.generateToken(userDto, request, response);
 
     // The property is updated, but it won't be taking into account
@@ -154,7 +155,7 @@ public class JwtHttpHandlerTest {
     expectedException.expect(IllegalArgumentException.class);
     expectedException.expectMessage("Property sonar.web.sessionTimeoutInMinutes must be strictly positive. Got 0");
 
-    new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier);
+    new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier, new AuthenticatedUserCache());
   }
 
   @Test
@@ -164,7 +165,7 @@ public class JwtHttpHandlerTest {
     expectedException.expect(IllegalArgumentException.class);
     expectedException.expectMessage("Property sonar.web.sessionTimeoutInMinutes must be strictly positive. Got -10");
 
-    new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier);
+    new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier, new AuthenticatedUserCache());
   }
 
   @Test
@@ -174,7 +175,7 @@ public class JwtHttpHandlerTest {
     expectedException.expect(IllegalArgumentException.class);
     expectedException.expectMessage("Property sonar.web.sessionTimeoutInMinutes must not be greater than 3 months (129600 minutes). Got 172800 minutes");
 
-    new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier);
+    new JwtHttpHandler(system2, dbClient, settings.asConfig(), jwtSerializer, jwtCsrfVerifier, new AuthenticatedUserCache());
   }
 
   @Test
@@ -489,6 +489,13 @@ public class ComponentRootBuilderTest {
     assertThat(createFileAttributes(newBuilder().setType(FILE).setLines(10).build()).getLines()).isEqualTo(10);
   }
 
+  @Test
+  public void createFileAttributes_sets_unchangedSourceHash_only_when_source_is_copied_from_previous_analysis() {
+    assertThat(createFileAttributes(newBuilder().setType(FILE).setLines(1).setSourceHash("abc").build()).getUnchangedSourceHash()).isNull();
+    assertThat(createFileAttributes(newBuilder().setType(FILE).setLines(1).setCopySourceFromPrevious(true).setSourceHash("abc").build()).getUnchangedSourceHash())
+      .isEqualTo("abc");
+  }
+
   @Test
   public void fail_with_IAE_when_createFileAttributes_lines_is_not_set() throws Exception {
     expectedException.expect(IllegalArgumentException.class);
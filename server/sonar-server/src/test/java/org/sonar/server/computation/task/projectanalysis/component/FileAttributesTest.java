@@ -57,6 +57,15 @@ public class FileAttributesTest {
     assertThat(underTest.getLines()).isEqualTo(10);
   }
 
+  @Test
+  public void create_file_with_unchanged_source() throws Exception {
+    FileAttributes underTest = new FileAttributes(false, "java", 10, "abc");
+
+    assertThat(underTest.isSourceUnchanged()).isTrue();
+    assertThat(underTest.getUnchangedSourceHash()).isEqualTo("abc");
+    assertThat(new FileAttributes(false, "java", 10).isSourceUnchanged()).isFalse();
+  }
+
   @Test
   public void fail_with_IAE_when_lines_is_0() throws Exception {
     expectedException.expect(IllegalArgumentException.class);
@@ -73,7 +82,9 @@ public class FileAttributesTest {
 
   @Test
   public void test_toString() throws Exception {
-    assertThat(new FileAttributes(true, "java", 10).toString()).isEqualTo("FileAttributes{languageKey='java', unitTest=true, lines=10}");
-    assertThat(new FileAttributes(false, null, 1).toString()).isEqualTo("FileAttributes{languageKey='null', unitTest=false, lines=1}");
+    assertThat(new FileAttributes(true, "java", 10).toString()).isEqualTo("FileAttributes{languageKey='java', unitTest=true, lines=10, unchangedSourceHash=null}");
+    assertThat(new FileAttributes(false, null, 1).toString()).isEqualTo("FileAttributes{languageKey='null', unitTest=false, lines=1, unchangedSourceHash=null}");
+    assertThat(new FileAttributes(false, "java", 1, "abc").toString())
+      .isEqualTo("FileAttributes{languageKey='java', unitTest=false, lines=1, unchangedSourceHash=abc}");
   }
 }
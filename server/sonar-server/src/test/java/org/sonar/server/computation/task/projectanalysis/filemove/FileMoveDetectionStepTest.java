@@ -41,7 +41,6 @@ import org.sonar.db.component.ComponentDao;
 import org.sonar.db.component.ComponentDto;
 import org.sonar.db.component.ComponentTreeQuery;
 import org.sonar.db.source.FileSourceDao;
-import org.sonar.db.source.FileSourceDto;
 import org.sonar.server.computation.task.projectanalysis.analysis.Analysis;
 import org.sonar.server.computation.task.projectanalysis.analysis.AnalysisMetadataHolderRule;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
@@ -49,7 +48,6 @@ import org.sonar.server.computation.task.projectanalysis.component.ReportCompone
 import org.sonar.server.computation.task.projectanalysis.component.TreeRootHolderRule;
 import org.sonar.server.computation.task.projectanalysis.source.SourceLinesRepositoryRule;
 
-import static com.google.common.base.Joiner.on;
 import static java.util.Arrays.stream;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -508,14 +506,14 @@ public class FileMoveDetectionStepTest {
   }
 
   private void mockContentOfFileInDb(String key, @Nullable String[] content) {
-    FileSourceDto dto = new FileSourceDto();
+    List<String> lineHashes = Collections.emptyList();
     if (content != null) {
       SourceLinesHashesComputer linesHashesComputer = new SourceLinesHashesComputer();
       stream(content).forEach(linesHashesComputer::addLine);
-      dto.setLineHashes(on('\n').join(linesHashesComputer.getLineHashes()));
+      lineHashes = linesHashesComputer.getLineHashes();
     }
 
-    when(fileSourceDao.selectSourceByFileUuid(dbSession, componentUuidOf(key))).thenReturn(dto);
+    when(fileSourceDao.selectLineHashes(dbSession, componentUuidOf(key))).thenReturn(lineHashes);
   }
 
   private void setFilesInReport(Component... files) {
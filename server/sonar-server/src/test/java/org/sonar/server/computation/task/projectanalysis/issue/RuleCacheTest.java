@@ -0,0 +1,129 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.issue;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Before;
+import org.junit.Test;
+import org.sonar.api.rule.RuleKey;
+import org.sonar.api.rule.RuleStatus;
+import org.sonar.api.rules.RuleType;
+import org.sonar.api.utils.internal.TestSystem2;
+import org.sonar.db.DbClient;
+import org.sonar.db.DbSession;
+import org.sonar.db.rule.RuleDao;
+import org.sonar.db.rule.RuleDto;
+import org.sonar.db.rule.RuleVersionDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.sonar.server.computation.task.projectanalysis.issue.RuleCache.MAX_AGE_MS;
+import static org.sonar.server.computation.task.projectanalysis.issue.RuleCache.MAX_ORGANIZATIONS;
+
+public class RuleCacheTest {
+
+  private static final long NOW = 1_000_000_000L;
+  private static final String ORGANIZATION_UUID = "org-1";
+  private static final RuleDto RULE = new RuleDto()
+    .setId(10)
+    .setRepositoryKey("java")
+    .setRuleKey("S001")
+    .setName("Rule one")
+    .setStatus(RuleStatus.READY)
+    .setType(RuleType.BUG);
+
+  private DbClient dbClient = mock(DbClient.class);
+  private DbSession dbSession = mock(DbSession.class);
+  private RuleDao ruleDao = mock(RuleDao.class);
+  private TestSystem2 system2 = new TestSystem2().setNow(NOW);
+
+  private RuleCache underTest = new RuleCache(dbClient, system2);
+
+  @Before
+  public void setUp() {
+    when(dbClient.ruleDao()).thenReturn(ruleDao);
+    when(ruleDao.selectVersion(any(DbSession.class), any(String.class))).thenReturn(new RuleVersionDto().setRuleCount(1L));
+    when(ruleDao.selectAll(any(DbSession.class), any(String.class))).thenReturn(ImmutableList.of(RULE));
+  }
+
+  @Test
+  public void load_rules_of_organization() {
+    RuleCache.Snapshot snapshot = underTest.get(dbSession, ORGANIZATION_UUID);
+
+    assertThat(snapshot.getRulesByKey()).containsOnlyKeys(RuleKey.of("java", "S001"));
+    assertThat(snapshot.getRulesById()).containsOnlyKeys(10);
+    assertThat(underTest.getOrganizationCount()).isEqualTo(1);
+    assertThat(underTest.getRuleCount()).isEqualTo(1);
+    assertThat(underTest.getEstimatedSize()).isPositive();
+  }
+
+  @Test
+  public void keep_rules_while_version_is_unchanged() {
+    RuleCache.Snapshot snapshot = underTest.get(dbSession, ORGANIZATION_UUID);
+    system2.setNow(NOW + MAX_AGE_MS - 1);
+
+    assertThat(underTest.get(dbSession, ORGANIZATION_UUID)).isSameAs(snapshot);
+    verify(ruleDao, times(1)).selectAll(dbSession, ORGANIZATION_UUID);
+    verify(ruleDao, times(2)).selectVersion(dbSession, ORGANIZATION_UUID);
+  }
+
+  @Test
+  public void reload_rules_when_version_changes() {
+    RuleCache.Snapshot snapshot = underTest.get(dbSession, ORGANIZATION_UUID);
+    when(ruleDao.selectVersion(dbSession, ORGANIZATION_UUID)).thenReturn(new RuleVersionDto().setRuleCount(1L).setRuleMaxUpdatedAt(NOW));
+
+    assertThat(underTest.get(dbSession, ORGANIZATION_UUID)).isNotSameAs(snapshot);
+    verify(ruleDao, times(2)).selectAll(dbSession, ORGANIZATION_UUID);
+  }
+
+  @Test
+  public void reload_rules_when_older_than_max_age() {
+    RuleCache.Snapshot snapshot = underTest.get(dbSession, ORGANIZATION_UUID);
+    system2.setNow(NOW + MAX_AGE_MS);
+
+    assertThat(underTest.get(dbSession, ORGANIZATION_UUID)).isNotSameAs(snapshot);
+  }
+
+  @Test
+  public void rules_are_cached_per_organization() {
+    underTest.get(dbSession, ORGANIZATION_UUID);
+    underTest.get(dbSession, "org-2");
+
+    verify(ruleDao).selectAll(dbSession, ORGANIZATION_UUID);
+    verify(ruleDao).selectAll(dbSession, "org-2");
+    assertThat(underTest.getOrganizationCount()).isEqualTo(2);
+  }
+
+  @Test
+  public void evict_least_recently_used_organization() {
+    for (int i = 0; i <= MAX_ORGANIZATIONS; i++) {
+      underTest.get(dbSession, "org-" + i);
+    }
+
+    assertThat(underTest.getOrganizationCount()).isEqualTo(MAX_ORGANIZATIONS);
+    underTest.get(dbSession, "org-0");
+    verify(ruleDao, times(2)).selectAll(any(DbSession.class), eq("org-0"));
+  }
+}
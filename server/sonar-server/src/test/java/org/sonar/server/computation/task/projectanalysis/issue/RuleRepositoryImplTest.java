@@ -27,6 +27,7 @@ import org.junit.rules.ExpectedException;
 import org.sonar.api.rule.RuleKey;
 import org.sonar.api.rule.RuleStatus;
 import org.sonar.api.rules.RuleType;
+import org.sonar.api.utils.System2;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.rule.RuleDao;
@@ -62,7 +63,7 @@ public class RuleRepositoryImplTest {
   private DbSession dbSession = mock(DbSession.class);
   private RuleDao ruleDao = mock(RuleDao.class);
 
-  RuleRepositoryImpl underTest = new RuleRepositoryImpl(dbClient, analysisMetadataHolder);
+  RuleRepositoryImpl underTest = new RuleRepositoryImpl(dbClient, analysisMetadataHolder, new RuleCache(dbClient, System2.INSTANCE));
 
   @Before
   public void setUp() throws Exception {
@@ -0,0 +1,66 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.memory;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.sonar.api.utils.log.LogTester;
+import org.sonar.api.utils.log.LoggerLevel;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HeapEstimatesLoggerTest {
+
+  @Rule
+  public LogTester logTester = new LogTester();
+
+  @Test
+  public void log_estimates_of_memory_consumers_when_stopped() {
+    HeapEstimatesLogger underTest = new HeapEstimatesLogger(new MemoryConsumer[] {new FakeConsumer(2_048L), new FakeConsumer(3_072L)});
+
+    underTest.start();
+    assertThat(logTester.logs()).isEmpty();
+    underTest.stop();
+
+    assertThat(logTester.logs(LoggerLevel.INFO)).containsExactly("Estimated heap usage | FakeConsumer=2KB | FakeConsumer=3KB");
+  }
+
+  @Test
+  public void log_without_memory_consumers() {
+    HeapEstimatesLogger underTest = new HeapEstimatesLogger();
+
+    underTest.stop();
+
+    assertThat(logTester.logs(LoggerLevel.INFO)).containsExactly("Estimated heap usage");
+  }
+
+  private static class FakeConsumer implements MemoryConsumer {
+    private final long bytes;
+
+    private FakeConsumer(long bytes) {
+      this.bytes = bytes;
+    }
+
+    @Override
+    public long getEstimatedHeapBytes() {
+      return bytes;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.metric;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.sonar.api.utils.System2;
+import org.sonar.api.utils.internal.TestSystem2;
+import org.sonar.db.DbSession;
+import org.sonar.db.DbTester;
+import org.sonar.db.metric.MetricDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.db.metric.MetricTesting.newMetricDto;
+import static org.sonar.server.computation.task.projectanalysis.metric.MetricCache.MAX_AGE_MS;
+
+public class MetricCacheTest {
+
+  private static final long NOW = 1_000_000_000L;
+
+  @Rule
+  public DbTester dbTester = DbTester.create(System2.INSTANCE);
+
+  private DbSession dbSession = dbTester.getSession();
+  private TestSystem2 system2 = new TestSystem2().setNow(NOW);
+  private MetricCache underTest = new MetricCache(dbTester.getDbClient(), system2);
+
+  @Test
+  public void load_enabled_metrics() {
+    MetricDto enabled = insertMetric(true);
+    insertMetric(false);
+
+    MetricCache.Snapshot snapshot = underTest.get(dbSession);
+
+    assertThat(snapshot.getMetricsByKey()).containsOnlyKeys(enabled.getKey());
+    assertThat(snapshot.getMetricsById()).containsOnlyKeys((long) enabled.getId());
+    assertThat(underTest.getMetricCount()).isEqualTo(1);
+    assertThat(underTest.getEstimatedSize()).isPositive();
+  }
+
+  @Test
+  public void keep_metrics_while_enabled_metrics_are_unchanged() {
+    insertMetric(true);
+    MetricCache.Snapshot snapshot = underTest.get(dbSession);
+    system2.setNow(NOW + MAX_AGE_MS - 1);
+
+    assertThat(underTest.get(dbSession)).isSameAs(snapshot);
+  }
+
+  @Test
+  public void reload_metrics_when_a_metric_is_created() {
+    insertMetric(true);
+    MetricCache.Snapshot snapshot = underTest.get(dbSession);
+
+    MetricDto created = insertMetric(true);
+
+    MetricCache.Snapshot reloaded = underTest.get(dbSession);
+    assertThat(reloaded).isNotSameAs(snapshot);
+    assertThat(reloaded.getMetricsByKey()).containsKey(created.getKey());
+  }
+
+  @Test
+  public void reload_metrics_when_a_metric_is_disabled() {
+    MetricDto metric = insertMetric(true);
+    underTest.get(dbSession);
+
+    dbTester.getDbClient().metricDao().disableCustomByKey(dbSession, metric.getKey());
+    dbSession.commit();
+
+    assertThat(underTest.get(dbSession).getMetricsByKey()).isEmpty();
+  }
+
+  @Test
+  public void reload_metrics_when_older_than_max_age() {
+    insertMetric(true);
+    MetricCache.Snapshot snapshot = underTest.get(dbSession);
+    system2.setNow(NOW + MAX_AGE_MS);
+
+    assertThat(underTest.get(dbSession)).isNotSameAs(snapshot);
+  }
+
+  private MetricDto insertMetric(boolean enabled) {
+    MetricDto metric = dbTester.getDbClient().metricDao().insert(dbSession, newMetricDto().setEnabled(enabled).setUserManaged(true).setValueType("INT"));
+    dbSession.commit();
+    return metric;
+  }
+}
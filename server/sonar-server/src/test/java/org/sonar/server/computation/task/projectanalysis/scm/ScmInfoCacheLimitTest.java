@@ -0,0 +1,110 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.scm;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.utils.log.LogTester;
+import org.sonar.api.utils.log.LoggerLevel;
+import org.sonar.ce.configuration.CeConfiguration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.sonar.server.computation.task.projectanalysis.scm.ScmInfoCacheLimit.LIMIT_PROPERTY;
+
+public class ScmInfoCacheLimitTest {
+
+  @Rule
+  public ExpectedException expectedException = ExpectedException.none();
+  @Rule
+  public LogTester logTester = new LogTester();
+
+  private MapSettings settings = new MapSettings();
+
+  @Test
+  public void limit_defaults_to_a_quarter_of_max_heap_when_single_worker() {
+    ScmInfoCacheLimit underTest = new ScmInfoCacheLimit(settings.asConfig(), 4_000L, 1);
+
+    assertThat(underTest.getMaxBytes()).isEqualTo(1_000L);
+  }
+
+  @Test
+  public void default_limit_is_shared_by_workers() {
+    ScmInfoCacheLimit underTest = new ScmInfoCacheLimit(settings.asConfig(), 4_000L, 4);
+
+    assertThat(underTest.getMaxBytes()).isEqualTo(250L);
+  }
+
+  @Test
+  public void default_limit_uses_worker_count_of_compute_engine() {
+    CeConfiguration ceConfiguration = mock(CeConfiguration.class);
+    when(ceConfiguration.getWorkerCount()).thenReturn(2);
+
+    ScmInfoCacheLimit underTest = new ScmInfoCacheLimit(settings.asConfig(), ceConfiguration);
+
+    assertThat(underTest.getMaxBytes()).isEqualTo(Runtime.getRuntime().maxMemory() / 4 / 2);
+  }
+
+  @Test
+  public void limit_is_defined_in_MB_by_property() {
+    settings.setProperty(LIMIT_PROPERTY, 10);
+
+    ScmInfoCacheLimit underTest = new ScmInfoCacheLimit(settings.asConfig(), 4_000L, 4);
+
+    assertThat(underTest.getMaxBytes()).isEqualTo(10L * 1024 * 1024);
+  }
+
+  @Test
+  public void fail_if_limit_is_negative() {
+    settings.setProperty(LIMIT_PROPERTY, -1);
+
+    expectedException.expect(IllegalArgumentException.class);
+    expectedException.expectMessage("Property sonar.ce.scmInfoCacheMaxMb must be positive or zero. Got -1");
+
+    new ScmInfoCacheLimit(settings.asConfig(), 4_000L, 1);
+  }
+
+  @Test
+  public void tryReserve_succeeds_until_limit_is_reached() {
+    ScmInfoCacheLimit underTest = new ScmInfoCacheLimit(settings.asConfig(), 400L, 1);
+
+    assertThat(underTest.tryReserve(60L)).isTrue();
+    assertThat(underTest.tryReserve(40L)).isTrue();
+    assertThat(underTest.isReached()).isFalse();
+    assertThat(underTest.tryReserve(1L)).isFalse();
+
+    assertThat(underTest.getReservedBytes()).isEqualTo(100L);
+    assertThat(underTest.isReached()).isTrue();
+  }
+
+  @Test
+  public void reaching_limit_is_logged_once() {
+    ScmInfoCacheLimit underTest = new ScmInfoCacheLimit(settings.asConfig(), 0L, 1);
+
+    underTest.tryReserve(1L);
+    underTest.tryReserve(1L);
+
+    assertThat(logTester.logs(LoggerLevel.INFO))
+      .containsExactly("Limit of 0MB of the SCM info cache is reached. SCM info is loaded on demand from now on.");
+  }
+}
@@ -31,6 +31,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.utils.System2;
 import org.sonar.api.utils.log.LogTester;
 import org.sonar.core.hash.SourceHashComputer;
@@ -50,6 +51,7 @@ import org.sonar.server.computation.task.projectanalysis.component.ViewsComponen
 import org.sonar.server.computation.task.projectanalysis.source.SourceHashRepository;
 import org.sonar.server.computation.task.projectanalysis.source.SourceHashRepositoryImpl;
 import org.sonar.server.computation.task.projectanalysis.source.SourceLinesRepositoryImpl;
+import org.sonar.server.computation.task.projectanalysis.source.UnchangedSourceLoader;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.guava.api.Assertions.assertThat;
@@ -85,8 +87,7 @@ public class ScmInfoRepositoryImplTest {
 
   DbClient dbClient = dbTester.getDbClient();
 
-  ScmInfoRepositoryImpl underTest = new ScmInfoRepositoryImpl(reportReader, analysisMetadataHolder, dbClient,
-    new SourceHashRepositoryImpl(new SourceLinesRepositoryImpl(reportReader)));
+  ScmInfoRepositoryImpl underTest = newScmInfoRepository(new MapSettings());
 
   @Test
   public void read_from_report() throws Exception {
@@ -210,7 +211,8 @@ public class ScmInfoRepositoryImplTest {
     AnalysisMetadataHolder analysisMetadataHolder = mock(AnalysisMetadataHolder.class);
     DbClient dbClient = mock(DbClient.class);
     SourceHashRepository sourceHashRepository = mock(SourceHashRepository.class);
-    ScmInfoRepositoryImpl underTest = new ScmInfoRepositoryImpl(batchReportReader, analysisMetadataHolder, dbClient, sourceHashRepository);
+    ScmInfoRepositoryImpl underTest = new ScmInfoRepositoryImpl(batchReportReader, analysisMetadataHolder, dbClient, sourceHashRepository,
+      new ScmInfoCacheLimit(new MapSettings().asConfig(), Runtime.getRuntime().maxMemory(), 1));
 
     assertThat(underTest.getScmInfo(component)).isAbsent();
 
@@ -231,6 +233,40 @@ public class ScmInfoRepositoryImplTest {
     assertThat(logTester.logs(TRACE)).isEmpty();
   }
 
+  @Test
+  public void estimate_heap_of_cached_scm_info() {
+    analysisMetadataHolder.setBaseAnalysis(baseProjectAnalysis);
+    addChangesetInReport("john", DATE_1, "rev-1");
+    assertThat(underTest.getEstimatedHeapBytes()).isEqualTo(0L);
+
+    underTest.getScmInfo(FILE);
+
+    assertThat(underTest.getEstimatedHeapBytes()).isGreaterThan(0L);
+  }
+
+  @Test
+  public void keep_only_last_scm_info_when_cache_limit_is_reached() {
+    MapSettings settings = new MapSettings();
+    settings.setProperty("sonar.ce.scmInfoCacheMaxMb", 0);
+    ScmInfoRepositoryImpl underTest = newScmInfoRepository(settings);
+    analysisMetadataHolder.setBaseAnalysis(baseProjectAnalysis);
+    addChangesetInReport("john", DATE_1, "rev-1");
+    Component otherFile = builder(Component.Type.FILE, FILE_REF + 1).setKey("OTHER_FILE_KEY").setUuid("OTHER_FILE_UUID").build();
+    addChangesetInReport(FILE_REF + 1, "jane", DATE_2, "rev-2");
+
+    assertThat(underTest.getScmInfo(FILE).get().getLatestChangeset().getAuthor()).isEqualTo("john");
+    assertThat(underTest.getScmInfo(FILE).get().getLatestChangeset().getAuthor()).isEqualTo("john");
+    assertThat(underTest.getScmInfo(otherFile).get().getLatestChangeset().getAuthor()).isEqualTo("jane");
+    assertThat(underTest.getScmInfo(otherFile).get().getLatestChangeset().getAuthor()).isEqualTo("jane");
+    assertThat(underTest.getScmInfo(FILE).get().getLatestChangeset().getAuthor()).isEqualTo("john");
+
+    assertThat(logTester.logs(TRACE)).containsExactly(
+      "Reading SCM info from report for file 'FILE_KEY'",
+      "Reading SCM info from report for file 'OTHER_FILE_KEY'",
+      "Reading SCM info from report for file 'FILE_KEY'");
+    assertThat(underTest.getEstimatedHeapBytes()).isGreaterThan(0L);
+  }
+
   @Test
   public void not_read_in_db_on_first_analysis_when_CopyFromPrevious_is_true() throws Exception {
     analysisMetadataHolder.setBaseAnalysis(null);
@@ -242,6 +278,12 @@ public class ScmInfoRepositoryImplTest {
     assertThat(logTester.logs(TRACE)).isEmpty();
   }
 
+  private ScmInfoRepositoryImpl newScmInfoRepository(MapSettings settings) {
+    return new ScmInfoRepositoryImpl(reportReader, analysisMetadataHolder, dbClient,
+      new SourceHashRepositoryImpl(new SourceLinesRepositoryImpl(reportReader, new UnchangedSourceLoader(dbClient))),
+      new ScmInfoCacheLimit(settings.asConfig(), Runtime.getRuntime().maxMemory(), 1));
+  }
+
   private void addFileSourceInDb(@Nullable String author, @Nullable Long date, @Nullable String revision, String srcHash) {
     DbFileSources.Data.Builder fileDataBuilder = DbFileSources.Data.newBuilder();
     DbFileSources.Line.Builder builder = fileDataBuilder.addLinesBuilder()
@@ -275,8 +317,16 @@ public class ScmInfoRepositoryImplTest {
   }
 
   private void addChangesetInReport(String author, Long date, String revision, boolean copyFromPrevious) {
+    addChangesetInReport(FILE_REF, author, date, revision, copyFromPrevious);
+  }
+
+  private void addChangesetInReport(int componentRef, String author, Long date, String revision) {
+    addChangesetInReport(componentRef, author, date, revision, false);
+  }
+
+  private void addChangesetInReport(int componentRef, String author, Long date, String revision, boolean copyFromPrevious) {
     reportReader.putChangesets(ScannerReport.Changesets.newBuilder()
-      .setComponentRef(FILE_REF)
+      .setComponentRef(componentRef)
       .setCopyFromPrevious(copyFromPrevious)
       .addChangeset(ScannerReport.Changesets.Changeset.newBuilder()
         .setAuthor(author)
@@ -34,6 +34,7 @@ import org.junit.runner.RunWith;
 import org.sonar.core.hash.SourceHashComputer;
 import org.sonar.core.util.CloseableIterator;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
+import org.sonar.server.computation.task.projectanalysis.component.FileAttributes;
 import org.sonar.server.computation.task.projectanalysis.component.ReportComponent;
 import org.sonar.server.computation.task.projectanalysis.component.ViewsComponent;
 
@@ -41,6 +42,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(DataProviderRunner.class)
@@ -111,6 +113,15 @@ public class SourceHashRepositoryImplTest {
 
   }
 
+  @Test
+  public void getRawSourceHash_returns_hash_sent_by_scanner_when_source_is_unchanged() {
+    Component file = ReportComponent.builder(Component.Type.FILE, FILE_REF).setKey(FILE_KEY)
+      .setFileAttributes(new FileAttributes(false, null, 1, "unchanged_hash")).build();
+
+    assertThat(mockedUnderTest.getRawSourceHash(file)).isEqualTo("unchanged_hash");
+    verifyZeroInteractions(mockedSourceLinesRepository);
+  }
+
   @Test
   public void getRawSourceHash_returns_hash_of_lines_from_SourceLinesRepository() {
     sourceLinesRepository.addLines(FILE_REF, SOME_LINES);
@@ -23,11 +23,15 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.sonar.core.util.CloseableIterator;
+import org.sonar.db.protobuf.DbFileSources;
 import org.sonar.server.computation.task.projectanalysis.batch.BatchReportReaderRule;
 import org.sonar.server.computation.task.projectanalysis.component.Component;
 import org.sonar.server.computation.task.projectanalysis.component.FileAttributes;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 import static org.sonar.server.computation.task.projectanalysis.component.ReportComponent.builder;
 
 public class SourceLinesRepositoryImplTest {
@@ -42,7 +46,9 @@ public class SourceLinesRepositoryImplTest {
   @Rule
   public BatchReportReaderRule reportReader = new BatchReportReaderRule();
 
-  SourceLinesRepositoryImpl underTest = new SourceLinesRepositoryImpl(reportReader);
+  UnchangedSourceLoader unchangedSourceLoader = mock(UnchangedSourceLoader.class);
+
+  SourceLinesRepositoryImpl underTest = new SourceLinesRepositoryImpl(reportReader, unchangedSourceLoader);
 
   @Test
   public void read_lines_from_report() throws Exception {
@@ -78,6 +84,20 @@ public class SourceLinesRepositoryImplTest {
     consume(underTest.readLines(createComponent(2)));
   }
 
+  @Test
+  public void read_lines_of_unchanged_file_from_db() throws Exception {
+    Component file = builder(Component.Type.FILE, FILE_REF)
+      .setKey(FILE_KEY)
+      .setUuid(FILE_UUID)
+      .setFileAttributes(new FileAttributes(false, null, 2, "hash"))
+      .build();
+    when(unchangedSourceLoader.loadLines(file)).thenReturn(asList(
+      DbFileSources.Line.newBuilder().setLine(1).setSource("line1").build(),
+      DbFileSources.Line.newBuilder().setLine(2).setSource("line2").build()));
+
+    assertThat(underTest.readLines(file)).containsOnly("line1", "line2");
+  }
+
   @Test
   public void fail_with_ISE_when_file_has_no_source() throws Exception {
     thrown.expect(IllegalStateException.class);
@@ -0,0 +1,58 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.projectanalysis.source;
+
+import org.junit.Test;
+import org.sonar.db.protobuf.DbFileSources;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UnchangedSourceLineReaderTest {
+
+  private UnchangedSourceLineReader underTest = new UnchangedSourceLineReader(asList(
+    DbFileSources.Line.newBuilder().setLine(1).setHighlighting("0,3,a").setLineHits(2).build(),
+    DbFileSources.Line.newBuilder().setLine(2).setSymbols("1,2,1").build()));
+
+  @Test
+  public void copy_highlighting_and_symbols_of_previous_lines() {
+    DbFileSources.Line.Builder line1 = DbFileSources.Data.newBuilder().addLinesBuilder().setLine(1);
+    DbFileSources.Line.Builder line2 = DbFileSources.Data.newBuilder().addLinesBuilder().setLine(2);
+
+    underTest.read(line1);
+    underTest.read(line2);
+
+    assertThat(line1.getHighlighting()).isEqualTo("0,3,a");
+    assertThat(line1.hasSymbols()).isFalse();
+    assertThat(line1.hasLineHits()).isFalse();
+    assertThat(line2.hasHighlighting()).isFalse();
+    assertThat(line2.getSymbols()).isEqualTo("1,2,1");
+  }
+
+  @Test
+  public void ignore_lines_unknown_in_previous_analysis() {
+    DbFileSources.Line.Builder line3 = DbFileSources.Data.newBuilder().addLinesBuilder().setLine(3);
+
+    underTest.read(line3);
+
+    assertThat(line3.hasHighlighting()).isFalse();
+    assertThat(line3.hasSymbols()).isFalse();
+  }
+}
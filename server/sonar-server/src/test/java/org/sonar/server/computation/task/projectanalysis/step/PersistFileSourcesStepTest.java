@@ -47,6 +47,7 @@ import org.sonar.server.computation.task.projectanalysis.duplication.TextBlock;
 import org.sonar.server.computation.task.projectanalysis.scm.Changeset;
 import org.sonar.server.computation.task.projectanalysis.scm.ScmInfoRepositoryRule;
 import org.sonar.server.computation.task.projectanalysis.source.SourceLinesRepositoryRule;
+import org.sonar.server.computation.task.projectanalysis.source.UnchangedSourceLoader;
 import org.sonar.server.computation.task.step.ComputationStep;
 
 import static com.google.common.collect.Lists.newArrayList;
@@ -88,7 +89,8 @@ public class PersistFileSourcesStepTest extends BaseStepTest {
   @Before
   public void setup() {
     when(system2.now()).thenReturn(NOW);
-    underTest = new PersistFileSourcesStep(dbClient, system2, treeRootHolder, reportReader, fileSourceRepository, scmInfoRepository, duplicationRepository);
+    underTest = new PersistFileSourcesStep(dbClient, system2, treeRootHolder, reportReader, fileSourceRepository, scmInfoRepository, duplicationRepository,
+      new UnchangedSourceLoader(dbClient));
   }
 
   @Override
@@ -456,6 +458,71 @@ public class PersistFileSourcesStepTest extends BaseStepTest {
     assertThat(fileSourceDto.getRevision()).isNull();
   }
 
+  @Test
+  public void copy_source_highlighting_and_symbols_of_unchanged_file_from_previous_analysis() {
+    long past = 150000L;
+    String srcHash = "ee5a58024a155466b43bc559d953e018";
+    dbClient.fileSourceDao().insert(dbTester.getSession(), new FileSourceDto()
+      .setProjectUuid(PROJECT_UUID)
+      .setFileUuid(FILE_UUID)
+      .setSrcHash(srcHash)
+      .setLineHashes("137f72c3708c6bd0de00a0e5a69c699b\ne6251bcf1a7dc3ba5e7933e325bbe605")
+      .setDataHash("6cad150e3d065976c230cddc5a09efaa")
+      .setSourceData(DbFileSources.Data.newBuilder()
+        .addLines(DbFileSources.Line.newBuilder().setLine(1).setSource("line1").setHighlighting("2,4,a").setLineHits(1).build())
+        .addLines(DbFileSources.Line.newBuilder().setLine(2).setSource("line2").setSymbols("1,2,1").build())
+        .build())
+      .setCreatedAt(past)
+      .setUpdatedAt(past));
+    dbTester.getSession().commit();
+
+    // source is neither in the report nor in the source lines repository
+    treeRootHolder.setRoot(ReportComponent.builder(Component.Type.PROJECT, 1).setUuid(PROJECT_UUID).setKey(PROJECT_KEY).addChildren(
+      ReportComponent.builder(Component.Type.FILE, FILE_REF).setUuid(FILE_UUID).setKey("PROJECT_KEY:src/Foo.java")
+        .setFileAttributes(new FileAttributes(false, null, 2, srcHash)).build())
+      .build());
+    reportReader.putCoverage(FILE_REF, newArrayList(ScannerReport.LineCoverage.newBuilder()
+      .setLine(2)
+      .setHits(true)
+      .build()));
+
+    underTest.execute();
+
+    FileSourceDto fileSourceDto = dbClient.fileSourceDao().selectSourceByFileUuid(session, FILE_UUID);
+    assertThat(fileSourceDto.getSrcHash()).isEqualTo(srcHash);
+    assertThat(fileSourceDto.getUpdatedAt()).isEqualTo(NOW);
+    DbFileSources.Data data = fileSourceDto.getSourceData();
+    assertThat(data.getLinesList()).extracting(DbFileSources.Line::getSource).containsExactly("line1", "line2");
+    assertThat(data.getLines(0).getHighlighting()).isEqualTo("2,4,a");
+    assertThat(data.getLines(1).getSymbols()).isEqualTo("1,2,1");
+    // coverage is not copied but read from the report
+    assertThat(data.getLines(0).hasLineHits()).isFalse();
+    assertThat(data.getLines(1).getLineHits()).isEqualTo(1);
+  }
+
+  @Test
+  public void fail_when_unchanged_file_does_not_match_the_source_of_previous_analysis() {
+    dbClient.fileSourceDao().insert(dbTester.getSession(), new FileSourceDto()
+      .setProjectUuid(PROJECT_UUID)
+      .setFileUuid(FILE_UUID)
+      .setSrcHash("other_hash")
+      .setSourceData(DbFileSources.Data.newBuilder()
+        .addLines(DbFileSources.Line.newBuilder().setLine(1).setSource("line1").build())
+        .build())
+      .setCreatedAt(150000L)
+      .setUpdatedAt(150000L));
+    dbTester.getSession().commit();
+    treeRootHolder.setRoot(ReportComponent.builder(Component.Type.PROJECT, 1).setUuid(PROJECT_UUID).setKey(PROJECT_KEY).addChildren(
+      ReportComponent.builder(Component.Type.FILE, FILE_REF).setUuid(FILE_UUID).setKey("PROJECT_KEY:src/Foo.java")
+        .setFileAttributes(new FileAttributes(false, null, 1, "137f72c3708c6bd0de00a0e5a69c699b")).build())
+      .build());
+
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("Source of file 'PROJECT_KEY:src/Foo.java' has not been sent by the scanner and does not match the source of the previous analysis");
+
+    underTest.execute();
+  }
+
   private void initBasicReport(int numberOfLines) {
     treeRootHolder.setRoot(ReportComponent.builder(Component.Type.PROJECT, 1).setUuid(PROJECT_UUID).setKey(PROJECT_KEY).addChildren(
       ReportComponent.builder(Component.Type.MODULE, 2).setUuid("MODULE").setKey("MODULE_KEY").addChildren(
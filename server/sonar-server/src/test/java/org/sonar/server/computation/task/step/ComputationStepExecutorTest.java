@@ -19,12 +19,18 @@
  */
 package org.sonar.server.computation.task.step;
 
+import com.google.common.collect.ImmutableSet;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.mockito.InOrder;
+import org.slf4j.MDC;
 import org.sonar.api.utils.log.LogTester;
 import org.sonar.api.utils.log.LoggerLevel;
 import org.sonar.server.computation.task.ChangeLogLevel;
@@ -32,9 +38,11 @@ import org.sonar.server.computation.task.ChangeLogLevel;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -45,6 +53,7 @@ public class ComputationStepExecutorTest {
   @Rule
   public ExpectedException expectedException = ExpectedException.none();
 
+  private final ComputationStepStatistics statistics = new ComputationStepStatistics();
   private final ComputationStepExecutor.Listener listener = mock(ComputationStepExecutor.Listener.class);
   private final ComputationStep computationStep1 = mockComputationStep("step1");
   private final ComputationStep computationStep2 = mockComputationStep("step2");
@@ -52,7 +61,7 @@ public class ComputationStepExecutorTest {
 
   @Test
   public void execute_call_execute_on_each_ComputationStep_in_order_returned_by_instances_method() {
-    new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2, computationStep3))
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2, computationStep3), statistics)
       .execute();
 
     InOrder inOrder = inOrder(computationStep1, computationStep2, computationStep3);
@@ -74,7 +83,7 @@ public class ComputationStepExecutorTest {
       .when(computationStep)
       .execute();
 
-    ComputationStepExecutor computationStepExecutor = new ComputationStepExecutor(mockComputationSteps(computationStep));
+    ComputationStepExecutor computationStepExecutor = new ComputationStepExecutor(mockComputationSteps(computationStep), statistics);
 
     expectedException.expect(RuntimeException.class);
     expectedException.expectMessage(message);
@@ -108,16 +117,33 @@ public class ComputationStepExecutorTest {
     try (ChangeLogLevel executor = new ChangeLogLevel(ComputationStepExecutor.class, level);
       ChangeLogLevel step1 = new ChangeLogLevel(computationStep1.getClass(), level);
       ChangeLogLevel step2 = new ChangeLogLevel(computationStep2.getClass(), level)) {
-      new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2))
+      new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), statistics)
         .execute();
 
       return logTester.logs(LoggerLevel.DEBUG);
     }
   }
 
+  @Test
+  public void execute_logs_cpu_and_allocated_memory_of_each_ComputationStep_when_level_is_DEBUG() {
+    List<String> debugLogs = execute_logs_end_timing_for_each_ComputationStep_called_when_(LoggerLevel.DEBUG);
+    assertThat(debugLogs).hasSize(2);
+    assertThat(debugLogs.get(0)).matches("step1 \\| time=\\d+ms( \\| cpu=\\d+ms)?( \\| allocated=\\d+KB)?");
+  }
+
+  @Test
+  public void execute_adds_each_ComputationStep_to_statistics() {
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), statistics).execute();
+    new ComputationStepExecutor(mockComputationSteps(computationStep1), statistics).execute();
+
+    assertThat(statistics.getAll()).containsOnlyKeys("step1", "step2");
+    assertThat(statistics.getAll().get("step1").getCount()).isEqualTo(2);
+    assertThat(statistics.getAll().get("step2").getCount()).isEqualTo(1);
+  }
+
   @Test
   public void execute_calls_listener_finished_method_with_all_step_runs() {
-    new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), listener)
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), statistics, listener)
       .execute();
 
     verify(listener).finished(true);
@@ -132,7 +158,7 @@ public class ComputationStepExecutorTest {
       .execute();
 
     try {
-      new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), listener)
+      new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), statistics, listener)
         .execute();
       fail("exception toBeThrown should have been raised");
     } catch (RuntimeException e) {
@@ -149,7 +175,119 @@ public class ComputationStepExecutorTest {
         .when(listener)
         .finished(anyBoolean());
 
-    new ComputationStepExecutor(mockComputationSteps(computationStep1), listener).execute();
+    new ComputationStepExecutor(mockComputationSteps(computationStep1), statistics, listener).execute();
+  }
+
+  @Test
+  public void execute_runs_independent_ConcurrentComputationSteps_concurrently() {
+    CountDownLatch bothStarted = new CountDownLatch(2);
+    Runnable awaitOtherStep = () -> {
+      bothStarted.countDown();
+      await(bothStarted);
+    };
+    ComputationStep first = new FirstConcurrentStep(awaitOtherStep);
+    ComputationStep second = new SecondConcurrentStep(awaitOtherStep);
+
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, first, second, computationStep2), statistics).execute();
+
+    assertThat(bothStarted.getCount()).isEqualTo(0);
+    assertThat(statistics.getAll()).containsOnlyKeys("step1", "first", "second", "step2");
+  }
+
+  @Test
+  public void execute_starts_ConcurrentComputationStep_when_its_dependencies_are_completed() {
+    List<String> events = new CopyOnWriteArrayList<>();
+    ComputationStep first = new FirstConcurrentStep(() -> {
+      sleep();
+      events.add("first");
+    });
+    ComputationStep second = new SecondConcurrentStep(() -> events.add("second"), FirstConcurrentStep.class);
+    doAnswer(invocation -> events.add("step2")).when(computationStep2).execute();
+
+    new ComputationStepExecutor(mockComputationSteps(first, second, computationStep2), statistics).execute();
+
+    assertThat(events).containsExactly("first", "second", "step2");
+  }
+
+  @Test
+  public void execute_waits_for_ConcurrentComputationSteps_before_executing_next_ComputationStep() {
+    List<String> events = new CopyOnWriteArrayList<>();
+    ComputationStep first = new FirstConcurrentStep(() -> {
+      sleep();
+      events.add("first");
+    });
+    doAnswer(invocation -> events.add("step1")).when(computationStep1).execute();
+
+    new ComputationStepExecutor(mockComputationSteps(first, computationStep1), statistics).execute();
+
+    assertThat(events).containsExactly("first", "step1");
+  }
+
+  @Test
+  public void execute_let_exception_thrown_by_ConcurrentComputationStep_go_up_as_is() {
+    RuntimeException toBeThrown = new RuntimeException("simulating failing concurrent step");
+    ComputationStep first = new FirstConcurrentStep(() -> {
+      throw toBeThrown;
+    });
+    ComputationStep second = new SecondConcurrentStep(() -> {
+    }, FirstConcurrentStep.class);
+
+    try {
+      new ComputationStepExecutor(mockComputationSteps(first, second, computationStep1), statistics, listener).execute();
+      fail("exception toBeThrown should have been raised");
+    } catch (RuntimeException e) {
+      assertThat(e).isSameAs(toBeThrown);
+      verify(computationStep1, never()).execute();
+      verify(listener).finished(false);
+    }
+    assertThat(statistics.getAll()).isEmpty();
+  }
+
+  @Test
+  public void execute_fails_if_ConcurrentComputationStep_depends_on_a_step_executed_after_it() {
+    ComputationStep first = new FirstConcurrentStep(() -> {
+    }, SecondConcurrentStep.class);
+    ComputationStep second = new SecondConcurrentStep(() -> {
+    });
+
+    expectedException.expect(IllegalStateException.class);
+    expectedException.expectMessage("Step 'first' depends on step 'second' which is executed after it");
+
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, first, second), statistics).execute();
+  }
+
+  @Test
+  public void execute_logs_critical_path_when_ConcurrentComputationSteps_are_executed() {
+    ComputationStep first = new FirstConcurrentStep(() -> {
+    });
+    ComputationStep second = new SecondConcurrentStep(ComputationStepExecutorTest::sleep, FirstConcurrentStep.class);
+
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, first, second, computationStep2), statistics).execute();
+
+    assertThat(logTester.logs(LoggerLevel.INFO)).hasSize(1);
+    assertThat(logTester.logs(LoggerLevel.INFO).get(0)).matches("Critical path of steps \\| time=\\d+ms \\| steps=step1 > first > second > step2");
+  }
+
+  @Test
+  public void execute_does_not_log_critical_path_when_all_steps_are_sequential() {
+    new ComputationStepExecutor(mockComputationSteps(computationStep1, computationStep2), statistics).execute();
+
+    assertThat(logTester.logs(LoggerLevel.INFO)).isEmpty();
+  }
+
+  @Test
+  public void execute_propagates_MDC_to_ConcurrentComputationSteps() {
+    List<String> values = new CopyOnWriteArrayList<>();
+    ComputationStep first = new FirstConcurrentStep(() -> values.add(MDC.get("ceTaskUuid")));
+
+    MDC.put("ceTaskUuid", "TASK_1");
+    try {
+      new ComputationStepExecutor(mockComputationSteps(first), statistics).execute();
+    } finally {
+      MDC.remove("ceTaskUuid");
+    }
+
+    assertThat(values).containsExactly("TASK_1");
   }
 
   private static ComputationSteps mockComputationSteps(ComputationStep... computationSteps) {
@@ -163,4 +301,64 @@ public class ComputationStepExecutorTest {
     when(mock.getDescription()).thenReturn(desc);
     return mock;
   }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      assertThat(latch.await(10, TimeUnit.SECONDS)).isTrue();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void sleep() {
+    try {
+      Thread.sleep(50L);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static class TestConcurrentStep implements ConcurrentComputationStep {
+    private final String description;
+    private final Runnable action;
+    private final Set<Class<? extends ComputationStep>> dependencies;
+
+    @SafeVarargs
+    private TestConcurrentStep(String description, Runnable action, Class<? extends ComputationStep>... dependencies) {
+      this.description = description;
+      this.action = action;
+      this.dependencies = ImmutableSet.copyOf(dependencies);
+    }
+
+    @Override
+    public void execute() {
+      action.run();
+    }
+
+    @Override
+    public Set<Class<? extends ComputationStep>> getDependencies() {
+      return dependencies;
+    }
+
+    @Override
+    public String getDescription() {
+      return description;
+    }
+  }
+
+  private static class FirstConcurrentStep extends TestConcurrentStep {
+    @SafeVarargs
+    private FirstConcurrentStep(Runnable action, Class<? extends ComputationStep>... dependencies) {
+      super("first", action, dependencies);
+    }
+  }
+
+  private static class SecondConcurrentStep extends TestConcurrentStep {
+    @SafeVarargs
+    private SecondConcurrentStep(Runnable action, Class<? extends ComputationStep>... dependencies) {
+      super("second", action, dependencies);
+    }
+  }
 }
@@ -0,0 +1,67 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.computation.task.step;
+
+import org.junit.Test;
+import org.sonar.server.computation.task.step.ComputationStepStatistics.StepStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ComputationStepStatisticsTest {
+
+  private ComputationStepStatistics underTest = new ComputationStepStatistics();
+
+  @Test
+  public void no_statistics_by_default() {
+    assertThat(underTest.getAll()).isEmpty();
+  }
+
+  @Test
+  public void aggregate_executions_of_same_step() {
+    underTest.add("step1", 50L, 40L, 1_024L);
+    underTest.add("step1", 2_000L, 1_500L, 2_048L);
+    underTest.add("step1", 120_000L, -1L, -1L);
+
+    StepStatistics statistics = underTest.getAll().get("step1");
+    assertThat(statistics.getCount()).isEqualTo(3);
+    assertThat(statistics.getTotalWallTimeMs()).isEqualTo(122_050L);
+    assertThat(statistics.getMaxWallTimeMs()).isEqualTo(120_000L);
+    assertThat(statistics.getTotalCpuTimeMs()).isEqualTo(1_540L);
+    assertThat(statistics.getTotalAllocatedBytes()).isEqualTo(3_072L);
+    assertThat(statistics.getWallTimeHistogram()).containsExactly(1L, 0L, 1L, 0L, 1L);
+  }
+
+  @Test
+  public void statistics_are_sorted_by_step() {
+    underTest.add("b", 1L, 1L, 1L);
+    underTest.add("a", 1L, 1L, 1L);
+    underTest.add("c", 1L, 1L, 1L);
+
+    assertThat(underTest.getAll().keySet()).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  public void test_toString() {
+    underTest.add("step1", 1_000L, 500L, 3L * 1024L * 1024L);
+
+    assertThat(underTest.getAll().get("step1").toString())
+      .isEqualTo("count=1 | time=1000ms | maxTime=1000ms | cpu=500ms | allocated=3MB | histogram=<100ms:0,<1000ms:1,<10000ms:0,<60000ms:0,>=60000ms:0");
+  }
+}
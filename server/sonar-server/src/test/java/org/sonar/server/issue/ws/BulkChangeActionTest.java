@@ -20,6 +20,7 @@
 package org.sonar.server.issue.ws;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -241,7 +242,6 @@ public class BulkChangeActionTest {
   public void send_notification() throws Exception {
     setUserProjectPermissions(USER);
     IssueDto issueDto = db.issues().insertIssue(newUnresolvedIssue().setType(BUG));
-    ArgumentCaptor<IssueChangeNotification> issueChangeNotificationCaptor = ArgumentCaptor.forClass(IssueChangeNotification.class);
 
     BulkChangeWsResponse response = call(BulkChangeRequest.builder()
       .setIssues(singletonList(issueDto.getKey()))
@@ -250,13 +250,15 @@ public class BulkChangeActionTest {
       .build());
 
     checkResponse(response, 1, 1, 0, 0);
-    verify(notificationManager).scheduleForSending(issueChangeNotificationCaptor.capture());
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("key")).isEqualTo(issueDto.getKey());
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("componentName")).isEqualTo(file.longName());
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("projectName")).isEqualTo(project.longName());
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("projectKey")).isEqualTo(project.key());
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("ruleName")).isEqualTo(rule.getName());
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("changeAuthor")).isEqualTo(user.getLogin());
+    List<IssueChangeNotification> notifications = captureNotifications();
+    assertThat(notifications).hasSize(1);
+    IssueChangeNotification notification = notifications.get(0);
+    assertThat(notification.getFieldValue("key")).isEqualTo(issueDto.getKey());
+    assertThat(notification.getFieldValue("componentName")).isEqualTo(file.longName());
+    assertThat(notification.getFieldValue("projectName")).isEqualTo(project.longName());
+    assertThat(notification.getFieldValue("projectKey")).isEqualTo(project.key());
+    assertThat(notification.getFieldValue("ruleName")).isEqualTo(rule.getName());
+    assertThat(notification.getFieldValue("changeAuthor")).isEqualTo(user.getLogin());
   }
 
   @Test
@@ -265,7 +267,6 @@ public class BulkChangeActionTest {
     IssueDto issue1 = db.issues().insertIssue(newUnresolvedIssue().setType(BUG));
     IssueDto issue2 = db.issues().insertIssue(newUnresolvedIssue().setType(BUG));
     IssueDto issue3 = db.issues().insertIssue(newUnresolvedIssue().setType(VULNERABILITY));
-    ArgumentCaptor<IssueChangeNotification> issueChangeNotificationCaptor = ArgumentCaptor.forClass(IssueChangeNotification.class);
 
     BulkChangeWsResponse response = call(BulkChangeRequest.builder()
       .setIssues(asList(issue1.getKey(), issue2.getKey(), issue3.getKey()))
@@ -274,9 +275,24 @@ public class BulkChangeActionTest {
       .build());
 
     checkResponse(response, 3, 1, 2, 0);
-    verify(notificationManager).scheduleForSending(issueChangeNotificationCaptor.capture());
-    assertThat(issueChangeNotificationCaptor.getAllValues()).hasSize(1);
-    assertThat(issueChangeNotificationCaptor.getValue().getFieldValue("key")).isEqualTo(issue3.getKey());
+    assertThat(captureNotifications()).extracting(notification -> notification.getFieldValue("key")).containsExactly(issue3.getKey());
+  }
+
+  @Test
+  public void send_all_notifications_at_once() throws Exception {
+    setUserProjectPermissions(USER, ISSUE_ADMIN);
+    IssueDto issue1 = db.issues().insertIssue(newUnresolvedIssue().setType(BUG));
+    IssueDto issue2 = db.issues().insertIssue(newUnresolvedIssue().setType(BUG));
+
+    BulkChangeWsResponse response = call(BulkChangeRequest.builder()
+      .setIssues(asList(issue1.getKey(), issue2.getKey()))
+      .setSetType(VULNERABILITY.name())
+      .setSendNotifications(true)
+      .build());
+
+    checkResponse(response, 2, 2, 0, 0);
+    assertThat(captureNotifications()).extracting(notification -> notification.getFieldValue("key"))
+      .containsExactlyInAnyOrder(issue1.getKey(), issue2.getKey());
   }
 
   @Test
@@ -491,6 +507,13 @@ public class BulkChangeActionTest {
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private List<IssueChangeNotification> captureNotifications() {
+    ArgumentCaptor<Collection> captor = ArgumentCaptor.forClass(Collection.class);
+    verify(notificationManager).scheduleForSending(captor.capture());
+    return new ArrayList<>((Collection<IssueChangeNotification>) captor.getValue());
+  }
+
   private void checkResponse(BulkChangeWsResponse response, long total, long success, long ignored, long failure) {
     assertThat(response)
       .extracting(BulkChangeWsResponse::getTotal, BulkChangeWsResponse::getSuccess, BulkChangeWsResponse::getIgnored, BulkChangeWsResponse::getFailures)
@@ -0,0 +1,126 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.issue.ws;
+
+import java.util.EnumSet;
+import org.junit.Rule;
+import org.junit.Test;
+import org.sonar.db.DbClient;
+import org.sonar.db.DbSession;
+import org.sonar.db.DbTester;
+import org.sonar.db.component.ComponentDao;
+import org.sonar.db.component.ComponentDto;
+import org.sonar.db.issue.IssueDto;
+import org.sonar.db.rule.RuleDefinitionDto;
+import org.sonar.server.issue.ActionFinder;
+import org.sonar.server.issue.TransitionService;
+import org.sonar.server.tester.UserSessionRule;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singleton;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.sonar.db.component.ComponentTesting.newFileDto;
+
+public class SearchResponseLoaderTest {
+
+  @Rule
+  public DbTester db = DbTester.create();
+  @Rule
+  public UserSessionRule userSession = UserSessionRule.standalone();
+
+  private ComponentDao componentDao = spy(db.getDbClient().componentDao());
+  private DbClient dbClient = spy(db.getDbClient());
+
+  private SearchResponseLoader underTest = new SearchResponseLoader(userSession, dbClient, mock(ActionFinder.class), mock(TransitionService.class));
+
+  @Test
+  public void load_components_and_projects_of_issues_in_a_single_query() {
+    ComponentDto project = db.components().insertPrivateProject();
+    ComponentDto file = db.components().insertComponent(newFileDto(project));
+    IssueDto issue = insertIssue(project, file);
+    doReturn(componentDao).when(dbClient).componentDao();
+
+    SearchResponseData result = underTest.load(newCollector(issue), null);
+
+    assertThat(result.getComponents()).extracting(ComponentDto::uuid).containsOnly(project.uuid(), file.uuid());
+    verify(componentDao, times(1)).selectByUuids(any(DbSession.class), anyCollectionOf(String.class));
+  }
+
+  @Test
+  public void load_project_once_when_issue_is_on_project() {
+    ComponentDto project = db.components().insertPrivateProject();
+    IssueDto issue = insertIssue(project, project);
+    doReturn(componentDao).when(dbClient).componentDao();
+
+    SearchResponseData result = underTest.load(newCollector(issue), null);
+
+    assertThat(result.getComponents()).extracting(ComponentDto::uuid).containsExactly(project.uuid());
+    verify(componentDao, times(1)).selectByUuids(any(DbSession.class), anyCollectionOf(String.class));
+  }
+
+  @Test
+  public void do_not_load_projects_already_in_preloaded_components() {
+    ComponentDto project = db.components().insertPrivateProject();
+    ComponentDto file = db.components().insertComponent(newFileDto(project));
+    IssueDto issue = insertIssue(project, file);
+    SearchResponseData preloaded = new SearchResponseData(issue);
+    preloaded.addComponents(asList(project, file));
+    doReturn(componentDao).when(dbClient).componentDao();
+
+    SearchResponseData result = underTest.load(preloaded, newCollector(issue), null);
+
+    assertThat(result.getComponents()).extracting(ComponentDto::uuid).containsOnly(project.uuid(), file.uuid());
+    verify(componentDao, never()).selectByUuids(any(DbSession.class), anyCollectionOf(String.class));
+  }
+
+  @Test
+  public void load_only_projects_missing_from_preloaded_components() {
+    ComponentDto project = db.components().insertPrivateProject();
+    ComponentDto file = db.components().insertComponent(newFileDto(project));
+    IssueDto issue = insertIssue(project, file);
+    SearchResponseData preloaded = new SearchResponseData(issue);
+    preloaded.addComponents(singletonList(file));
+    doReturn(componentDao).when(dbClient).componentDao();
+
+    SearchResponseData result = underTest.load(preloaded, newCollector(issue), null);
+
+    assertThat(result.getComponents()).extracting(ComponentDto::uuid).containsOnly(project.uuid(), file.uuid());
+    verify(componentDao, times(1)).selectByUuids(any(DbSession.class), eq(singleton(project.uuid())));
+  }
+
+  private IssueDto insertIssue(ComponentDto project, ComponentDto component) {
+    RuleDefinitionDto rule = db.rules().insert();
+    return db.issues().insert(rule, project, component);
+  }
+
+  private static SearchResponseLoader.Collector newCollector(IssueDto issue) {
+    return new SearchResponseLoader.Collector(EnumSet.noneOf(SearchAdditionalField.class), singletonList(issue.getKey()));
+  }
+}
@@ -22,6 +22,7 @@ package org.sonar.server.measure.ws;
 import com.google.common.base.Joiner;
 import java.util.List;
 import java.util.stream.IntStream;
+import org.apache.ibatis.session.ResultHandler;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -38,6 +39,9 @@ import org.sonar.db.component.ComponentDbTester;
 import org.sonar.db.component.ComponentDto;
 import org.sonar.db.component.ResourceTypesRule;
 import org.sonar.db.component.SnapshotDto;
+import org.sonar.db.measure.MeasureDao;
+import org.sonar.db.measure.MeasureQuery;
+import org.sonar.db.measure.MeasureTreeQuery;
 import org.sonar.db.metric.MetricDto;
 import org.sonar.db.metric.MetricTesting;
 import org.sonar.server.component.ComponentFinder;
@@ -52,6 +56,12 @@ import org.sonarqube.ws.WsMeasures;
 import org.sonarqube.ws.WsMeasures.ComponentTreeWsResponse;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
 import static org.sonar.api.measures.CoreMetrics.NEW_SECURITY_RATING_KEY;
 import static org.sonar.api.measures.Metric.ValueType.DISTRIB;
 import static org.sonar.api.measures.Metric.ValueType.FLOAT;
@@ -412,6 +422,157 @@ public class ComponentTreeActionTest {
       .doesNotContain("file-uuid-4");
   }
 
+  @Test
+  public void sort_by_metric_value_and_load_other_requested_metrics_of_page() {
+    ComponentDto project = newPrivateProjectDto(db.getDefaultOrganization(), "project-uuid");
+    SnapshotDto projectSnapshot = componentDb.insertProjectAndSnapshot(project);
+    ComponentDto file4 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-4"));
+    ComponentDto file3 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-3"));
+    ComponentDto file2 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-2"));
+    ComponentDto file1 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-1"));
+    MetricDto ncloc = insertNclocMetric();
+    MetricDto coverage = insertCoverageMetric();
+    dbClient.measureDao().insert(dbSession,
+      newMeasureDto(ncloc, file1, projectSnapshot).setValue(1.0d),
+      newMeasureDto(ncloc, file2, projectSnapshot).setValue(2.0d),
+      newMeasureDto(ncloc, file3, projectSnapshot).setValue(3.0d),
+      newMeasureDto(ncloc, file4, projectSnapshot).setValue(4.0d),
+      newMeasureDto(coverage, file1, projectSnapshot).setValue(10.5d),
+      newMeasureDto(coverage, file2, projectSnapshot).setValue(20.5d),
+      newMeasureDto(coverage, file3, projectSnapshot).setValue(30.5d),
+      newMeasureDto(coverage, file4, projectSnapshot).setValue(40.5d),
+      newMeasureDto(coverage, project, projectSnapshot).setValue(25.5d));
+    db.commit();
+
+    ComponentTreeWsResponse response = ws.newRequest()
+      .setParam(PARAM_BASE_COMPONENT_ID, project.uuid())
+      .setParam(Param.SORT, METRIC_SORT)
+      .setParam(PARAM_METRIC_SORT, "ncloc")
+      .setParam(PARAM_METRIC_KEYS, "ncloc,coverage")
+      .setParam(Param.PAGE, "2")
+      .setParam(Param.PAGE_SIZE, "2")
+      .executeProtobuf(ComponentTreeWsResponse.class);
+
+    assertThat(response.getComponentsList()).extracting("id").containsExactly(file3.uuid(), file4.uuid());
+    assertThat(response.getComponentsList().get(0).getMeasuresList()).extracting("metric", "value")
+      .containsOnly(tuple("ncloc", "3"), tuple("coverage", "30.5"));
+    assertThat(response.getComponentsList().get(1).getMeasuresList()).extracting("metric", "value")
+      .containsOnly(tuple("ncloc", "4"), tuple("coverage", "40.5"));
+    assertThat(response.getBaseComponent().getMeasuresList()).extracting("metric", "value").containsOnly(tuple("coverage", "25.5"));
+    assertThat(response.getPaging().getTotal()).isEqualTo(4);
+  }
+
+  @Test
+  public void sort_by_metric_period_and_paginate() {
+    ComponentDto project = newPrivateProjectDto(db.getDefaultOrganization(), "project-uuid");
+    SnapshotDto projectSnapshot = componentDb.insertProjectAndSnapshot(project);
+    ComponentDto file4 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-4"));
+    ComponentDto file3 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-3"));
+    ComponentDto file2 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-2"));
+    ComponentDto file1 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-1"));
+    MetricDto ncloc = insertNclocMetric();
+    MetricDto coverage = insertCoverageMetric();
+    dbClient.measureDao().insert(dbSession,
+      newMeasureDto(ncloc, file1, projectSnapshot).setVariation(4.0d),
+      newMeasureDto(ncloc, file2, projectSnapshot).setVariation(3.0d),
+      newMeasureDto(ncloc, file3, projectSnapshot).setVariation(2.0d),
+      newMeasureDto(ncloc, file4, projectSnapshot).setVariation(1.0d),
+      newMeasureDto(coverage, file3, projectSnapshot).setValue(30.5d),
+      newMeasureDto(coverage, file4, projectSnapshot).setValue(40.5d));
+    db.commit();
+
+    ComponentTreeWsResponse response = ws.newRequest()
+      .setParam(PARAM_BASE_COMPONENT_ID, project.uuid())
+      .setParam(Param.SORT, METRIC_PERIOD_SORT)
+      .setParam(PARAM_METRIC_SORT, "ncloc")
+      .setParam(PARAM_METRIC_KEYS, "ncloc,coverage")
+      .setParam(PARAM_METRIC_PERIOD_SORT, "1")
+      .setParam(Param.PAGE, "1")
+      .setParam(Param.PAGE_SIZE, "2")
+      .executeProtobuf(ComponentTreeWsResponse.class);
+
+    assertThat(response.getComponentsList()).extracting("id").containsExactly(file4.uuid(), file3.uuid());
+    assertThat(response.getComponentsList().get(0).getMeasuresList()).extracting("metric").containsOnly("ncloc", "coverage");
+    assertThat(response.getComponentsList().get(0).getMeasuresList()).extracting("value").contains("40.5");
+    assertThat(response.getComponentsList().get(1).getMeasuresList()).extracting("value").contains("30.5");
+    assertThat(response.getPaging().getTotal()).isEqualTo(4);
+  }
+
+  @Test
+  public void remove_components_without_measure_on_the_metric_sort_and_paginate() {
+    ComponentDto project = newPrivateProjectDto(db.getDefaultOrganization(), "project-uuid");
+    SnapshotDto projectSnapshot = componentDb.insertProjectAndSnapshot(project);
+    ComponentDto file5 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-5"));
+    ComponentDto file4 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-4"));
+    ComponentDto file3 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-3"));
+    ComponentDto file2 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-2"));
+    ComponentDto file1 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-1"));
+    MetricDto ncloc = insertNclocMetric();
+    MetricDto coverage = insertCoverageMetric();
+    dbClient.measureDao().insert(dbSession,
+      newMeasureDto(ncloc, file1, projectSnapshot).setValue(1.0d),
+      newMeasureDto(ncloc, file2, projectSnapshot).setValue(2.0d),
+      newMeasureDto(ncloc, file3, projectSnapshot).setValue(3.0d),
+      newMeasureDto(ncloc, file4, projectSnapshot).setValue(4.0d),
+      // file 5 has no measure on the metric sort
+      newMeasureDto(coverage, file4, projectSnapshot).setValue(40.5d),
+      newMeasureDto(coverage, file5, projectSnapshot).setValue(50.5d));
+    db.commit();
+
+    ComponentTreeWsResponse response = ws.newRequest()
+      .setParam(PARAM_BASE_COMPONENT_ID, project.uuid())
+      .setParam(Param.SORT, METRIC_SORT)
+      .setParam(PARAM_METRIC_SORT, "ncloc")
+      .setParam(PARAM_METRIC_KEYS, "ncloc,coverage")
+      .setParam(PARAM_METRIC_SORT_FILTER, WITH_MEASURES_ONLY_METRIC_SORT_FILTER)
+      .setParam(Param.PAGE, "2")
+      .setParam(Param.PAGE_SIZE, "3")
+      .executeProtobuf(ComponentTreeWsResponse.class);
+
+    assertThat(response.getComponentsList()).extracting("id")
+      .containsExactly(file4.uuid())
+      .doesNotContain(file5.uuid());
+    assertThat(response.getComponentsList().get(0).getMeasuresList()).extracting("metric", "value")
+      .containsOnly(tuple("ncloc", "4"), tuple("coverage", "40.5"));
+    assertThat(response.getPaging().getPageIndex()).isEqualTo(2);
+    assertThat(response.getPaging().getTotal()).isEqualTo(4);
+  }
+
+  @Test
+  public void sort_by_name_does_not_load_measures_of_whole_tree() {
+    MeasureDao measureDao = spy(dbClient.measureDao());
+    DbClient spiedDbClient = spy(dbClient);
+    doReturn(measureDao).when(spiedDbClient).measureDao();
+    WsActionTester underTest = new WsActionTester(
+      new ComponentTreeAction(
+        new ComponentTreeDataLoader(spiedDbClient, new ComponentFinder(spiedDbClient, resourceTypes), userSession, resourceTypes),
+        i18n, resourceTypes));
+    ComponentDto project = newPrivateProjectDto(db.getDefaultOrganization(), "project-uuid");
+    SnapshotDto projectSnapshot = componentDb.insertProjectAndSnapshot(project);
+    ComponentDto file1 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-1").setName("file-1"));
+    ComponentDto file2 = componentDb.insertComponent(newFileDto(project, null, "file-uuid-2").setName("file-2"));
+    componentDb.insertComponent(newFileDto(project, null, "file-uuid-3").setName("file-3"));
+    MetricDto ncloc = insertNclocMetric();
+    dbClient.measureDao().insert(dbSession,
+      newMeasureDto(ncloc, file1, projectSnapshot).setValue(1.0d),
+      newMeasureDto(ncloc, file2, projectSnapshot).setValue(2.0d));
+    db.commit();
+
+    ComponentTreeWsResponse response = underTest.newRequest()
+      .setParam(PARAM_BASE_COMPONENT_ID, project.uuid())
+      .setParam(Param.SORT, NAME_SORT)
+      .setParam(PARAM_METRIC_SORT, "ncloc")
+      .setParam(PARAM_METRIC_KEYS, "ncloc")
+      .setParam(Param.PAGE_SIZE, "2")
+      .executeProtobuf(ComponentTreeWsResponse.class);
+
+    assertThat(response.getComponentsList()).extracting("id").containsExactly(file1.uuid(), file2.uuid());
+    assertThat(response.getComponentsList().get(1).getMeasuresList()).extracting("metric", "value").containsOnly(tuple("ncloc", "2"));
+    assertThat(response.getPaging().getTotal()).isEqualTo(3);
+    verify(measureDao, never()).selectTreeByQuery(any(DbSession.class), any(ComponentDto.class), any(MeasureTreeQuery.class), any(ResultHandler.class));
+    verify(measureDao).selectByQuery(any(DbSession.class), any(MeasureQuery.class));
+  }
+
   @Test
   public void load_measures_when_no_leave_qualifier() {
     resourceTypes.setLeavesQualifiers();
@@ -24,10 +24,12 @@ import com.google.common.collect.Multimap;
 import java.io.InvalidClassException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
@@ -45,6 +47,7 @@ import static org.mockito.Mockito.only;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class DefaultNotificationManagerTest {
@@ -92,6 +95,22 @@ public class DefaultNotificationManagerTest {
     verify(notificationQueueDao, only()).insert(any(List.class));
   }
 
+  @Test
+  public void shouldPersistAllNotificationsAtOnce() {
+    manager.scheduleForSending(Arrays.asList(new Notification("test1"), new Notification("test2")));
+
+    ArgumentCaptor<List> dtos = ArgumentCaptor.forClass(List.class);
+    verify(notificationQueueDao, only()).insert(dtos.capture());
+    assertThat(dtos.getValue()).hasSize(2);
+  }
+
+  @Test
+  public void shouldNotPersistEmptyListOfNotifications() {
+    manager.scheduleForSending(Collections.emptyList());
+
+    verifyZeroInteractions(notificationQueueDao);
+  }
+
   @Test
   public void shouldGetFromQueueAndDelete() {
     Notification notification = new Notification("test");
@@ -55,6 +55,7 @@ import org.sonar.server.es.SearchOptions;
 import org.sonar.server.qualityprofile.BuiltInQProfile;
 import org.sonar.server.qualityprofile.BuiltInQProfileRepositoryRule;
 import org.sonar.server.qualityprofile.QProfileName;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.index.UserIndex;
 import org.sonar.server.user.index.UserIndexDefinition;
 import org.sonar.server.user.index.UserIndexer;
@@ -62,6 +63,7 @@ import org.sonar.server.user.index.UserQuery;
 import org.sonar.server.usergroups.DefaultGroupCreator;
 import org.sonar.server.usergroups.DefaultGroupCreatorImpl;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.fail;
 import static org.assertj.core.api.Assertions.tuple;
@@ -106,8 +108,9 @@ public class OrganizationCreationImplTest {
   private UserIndexer userIndexer = new UserIndexer(dbClient, es.client());
   private UserIndex userIndex = new UserIndex(es.client());
   private DefaultGroupCreator defaultGroupCreator = new DefaultGroupCreatorImpl(dbClient);
+  private UserPermissionCache permissionCache = new UserPermissionCache();
   private OrganizationCreationImpl underTest = new OrganizationCreationImpl(dbClient, system2, uuidFactory, organizationValidation, settings.asConfig(), userIndexer,
-    builtInQProfileRepositoryRule, defaultGroupCreator);
+    builtInQProfileRepositoryRule, defaultGroupCreator, permissionCache);
 
   private UserDto someUser;
 
@@ -220,6 +223,18 @@ public class OrganizationCreationImplTest {
     verifyMembersGroup(user, FULL_POPULATED_NEW_ORGANIZATION.getKey());
   }
 
+  @Test
+  public void create_drops_cached_groups_of_current_user() throws OrganizationCreation.KeyConflictException {
+    UserDto user = db.users().insertUser();
+    builtInQProfileRepositoryRule.initialize();
+    permissionCache.getGroups(user.getLogin(), Collections::emptyList);
+
+    underTest.create(dbSession, user, FULL_POPULATED_NEW_ORGANIZATION);
+
+    GroupDto reloaded = new GroupDto().setName("Owners");
+    assertThat(permissionCache.getGroups(user.getLogin(), () -> singletonList(reloaded))).containsOnly(reloaded);
+  }
+
   @Test
   public void create_does_not_require_description_url_and_avatar_to_be_non_null() throws OrganizationCreation.KeyConflictException {
     builtInQProfileRepositoryRule.initialize();
@@ -392,6 +407,20 @@ public class OrganizationCreationImplTest {
     verifyMembersGroup(user, SLUG_OF_A_LOGIN);
   }
 
+  @Test
+  public void createForUser_drops_cached_groups_of_user() {
+    UserDto user = db.users().insertUser(dto -> dto.setLogin(A_LOGIN).setName(A_NAME));
+    when(organizationValidation.generateKeyFrom(A_LOGIN)).thenReturn(SLUG_OF_A_LOGIN);
+    enableCreatePersonalOrg(true);
+    builtInQProfileRepositoryRule.initialize();
+    permissionCache.getGroups(user.getLogin(), Collections::emptyList);
+
+    underTest.createForUser(dbSession, user);
+
+    GroupDto reloaded = new GroupDto().setName("Owners");
+    assertThat(permissionCache.getGroups(user.getLogin(), () -> singletonList(reloaded))).containsOnly(reloaded);
+  }
+
   @Test
   public void createForUser_creates_default_template_for_new_organization() throws OrganizationCreation.KeyConflictException {
     UserDto user = db.users().insertUser(dto -> dto.setLogin(A_LOGIN).setName(A_NAME));
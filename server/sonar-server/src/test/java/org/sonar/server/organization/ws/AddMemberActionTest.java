@@ -20,6 +20,7 @@
 
 package org.sonar.server.organization.ws;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.IntStream;
 import javax.annotation.Nullable;
@@ -42,6 +43,7 @@ import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.exceptions.NotFoundException;
 import org.sonar.server.issue.ws.AvatarResolverImpl;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.index.UserDoc;
 import org.sonar.server.user.index.UserIndex;
 import org.sonar.server.user.index.UserIndexDefinition;
@@ -53,6 +55,7 @@ import org.sonar.server.ws.WsActionTester;
 import org.sonarqube.ws.Organizations.AddMemberWsResponse;
 
 import static java.lang.String.format;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.sonar.core.util.Protobuf.setNullable;
 import static org.sonar.db.permission.OrganizationPermission.ADMINISTER;
@@ -74,8 +77,9 @@ public class AddMemberActionTest {
   private DbClient dbClient = db.getDbClient();
   private DbSession dbSession = db.getSession();
 
+  private UserPermissionCache permissionCache = new UserPermissionCache();
   private WsActionTester ws = new WsActionTester(
-    new AddMemberAction(dbClient, userSession, new UserIndexer(dbClient, es.client()), new DefaultGroupFinder(dbClient), new AvatarResolverImpl()));
+    new AddMemberAction(dbClient, userSession, new UserIndexer(dbClient, es.client()), new DefaultGroupFinder(dbClient), new AvatarResolverImpl(), permissionCache));
 
   @Test
   public void add_member_in_db_and_user_index() {
@@ -91,6 +95,19 @@ public class AddMemberActionTest {
     assertThat(userDocs.get(0).organizationUuids()).containsOnly(organization.getUuid());
   }
 
+  @Test
+  public void drop_cached_groups_of_added_member() {
+    OrganizationDto organization = db.organizations().insert();
+    db.users().insertDefaultGroup(organization, "default");
+    UserDto user = db.users().insertUser();
+    permissionCache.getGroups(user.getLogin(), Collections::emptyList);
+
+    call(organization.getKey(), user.getLogin());
+
+    GroupDto reloaded = new GroupDto().setName("default");
+    assertThat(permissionCache.getGroups(user.getLogin(), () -> singletonList(reloaded))).containsOnly(reloaded);
+  }
+
   @Test
   public void user_can_be_member_of_two_organizations() {
     OrganizationDto organization = db.organizations().insert();
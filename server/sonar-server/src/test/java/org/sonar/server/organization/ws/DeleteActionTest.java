@@ -20,6 +20,8 @@
 
 package org.sonar.server.organization.ws;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
 import org.junit.Rule;
 import org.junit.Test;
@@ -51,6 +53,7 @@ import org.sonar.server.qualityprofile.QProfileFactory;
 import org.sonar.server.qualityprofile.QProfileFactoryImpl;
 import org.sonar.server.qualityprofile.index.ActiveRuleIndexer;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.index.UserIndex;
 import org.sonar.server.user.index.UserIndexDefinition;
 import org.sonar.server.user.index.UserIndexer;
@@ -86,7 +89,10 @@ public class DeleteActionTest {
   private UserIndex userIndex = new UserIndex(es.client());
   private UserIndexer userIndexer = new UserIndexer(dbClient, es.client());
 
-  private DeleteAction underTest = new DeleteAction(userSession, dbClient, defaultOrganizationProvider, componentCleanerService, organizationFlags, userIndexer, qProfileFactory);
+  private UserPermissionCache permissionCache = new UserPermissionCache();
+
+  private DeleteAction underTest = new DeleteAction(userSession, dbClient, defaultOrganizationProvider, componentCleanerService, organizationFlags, userIndexer, qProfileFactory,
+    permissionCache);
 
   private WsActionTester wsTester = new WsActionTester(underTest);
 
@@ -318,6 +324,19 @@ public class DeleteActionTest {
     assertThat(userIndex.search(UserQuery.builder().setOrganizationUuid(otherOrg.getUuid()).build(), new SearchOptions()).getTotal()).isEqualTo(1);
   }
 
+  @Test
+  public void request_drops_cached_permissions_of_members() {
+    OrganizationDto org = db.organizations().insert();
+    UserDto user = db.users().insertUser();
+    db.organizations().addMember(org, user);
+    permissionCache.getOrganizationPermissions(user.getId(), org.getUuid(), () -> EnumSet.of(ADMINISTER));
+    logInAsAdministrator(org);
+
+    sendRequest(org);
+
+    assertThat(permissionCache.getOrganizationPermissions(user.getId(), org.getUuid(), Collections::emptySet)).isEmpty();
+  }
+
   @Test
   public void request_also_deletes_quality_profiles_of_specified_organization() {
     OrganizationDto org = db.organizations().insert();
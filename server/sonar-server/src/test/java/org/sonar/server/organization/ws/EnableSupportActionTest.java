@@ -21,6 +21,7 @@ package org.sonar.server.organization.ws;
 
 import java.net.HttpURLConnection;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import org.junit.Rule;
@@ -40,6 +41,7 @@ import org.sonar.db.permission.template.PermissionTemplateGroupDto;
 import org.sonar.db.rule.RuleDefinitionDto;
 import org.sonar.db.user.GroupDto;
 import org.sonar.db.user.UserDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.es.EsTester;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.exceptions.UnauthorizedException;
@@ -50,11 +52,13 @@ import org.sonar.server.organization.TestDefaultOrganizationProvider;
 import org.sonar.server.rule.index.RuleIndexDefinition;
 import org.sonar.server.rule.index.RuleIndexer;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.usergroups.DefaultGroupCreatorImpl;
 import org.sonar.server.usergroups.DefaultGroupFinder;
 import org.sonar.server.ws.TestResponse;
 import org.sonar.server.ws.WsActionTester;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.Matchers.any;
@@ -76,8 +80,10 @@ public class EnableSupportActionTest {
   private DefaultOrganizationProvider defaultOrganizationProvider = TestDefaultOrganizationProvider.from(dbTester);
   private OrganizationFlags organizationFlags = new OrganizationFlagsImpl(dbTester.getDbClient());
   private RuleIndexer ruleIndexer = spy(new RuleIndexer(esTester.client(), dbTester.getDbClient()));
+  private UserPermissionCache permissionCache = new UserPermissionCache();
+  private AuthenticatedUserCache authenticatedUserCache = new AuthenticatedUserCache();
   private EnableSupportAction underTest = new EnableSupportAction(userSession, dbTester.getDbClient(), defaultOrganizationProvider, organizationFlags,
-    new DefaultGroupCreatorImpl(dbTester.getDbClient()), new DefaultGroupFinder(dbTester.getDbClient()), ruleIndexer);
+    new DefaultGroupCreatorImpl(dbTester.getDbClient()), new DefaultGroupFinder(dbTester.getDbClient()), ruleIndexer, permissionCache, authenticatedUserCache);
   private WsActionTester tester = new WsActionTester(underTest);
 
   @Test
@@ -97,6 +103,33 @@ public class EnableSupportActionTest {
     verifyRoot(otherUser, false);
   }
 
+  @Test
+  public void enabling_support_drops_cached_user_flagged_as_root() {
+    UserDto user = dbTester.users().insertUser();
+    dbTester.users().insertDefaultGroup(dbTester.getDefaultOrganization(), "sonar-users");
+    authenticatedUserCache.getActiveUser(user.getLogin(), login -> user);
+    logInAsSystemAdministrator(user.getLogin());
+
+    call();
+
+    UserDto cached = authenticatedUserCache.getActiveUser(user.getLogin(), login -> dbTester.getDbClient().userDao().selectByLogin(dbTester.getSession(), login)).get();
+    assertThat(cached.isRoot()).isTrue();
+  }
+
+  @Test
+  public void enabling_support_drops_cached_groups_of_members() {
+    UserDto user = dbTester.users().insertUser();
+    dbTester.users().insertDefaultGroup(dbTester.getDefaultOrganization(), "sonar-users");
+    dbTester.organizations().addMember(dbTester.getDefaultOrganization(), user);
+    permissionCache.getGroups(user.getLogin(), Collections::emptyList);
+    logInAsSystemAdministrator(user.getLogin());
+
+    call();
+
+    GroupDto reloaded = new GroupDto().setName("Members");
+    assertThat(permissionCache.getGroups(user.getLogin(), () -> singletonList(reloaded))).containsOnly(reloaded);
+  }
+
   @Test
   public void enabling_support_creates_default_members_group_and_associate_org_members() throws Exception {
     OrganizationDto defaultOrganization = dbTester.getDefaultOrganization();
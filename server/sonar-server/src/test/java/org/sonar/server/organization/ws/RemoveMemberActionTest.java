@@ -20,6 +20,8 @@
 
 package org.sonar.server.organization.ws;
 
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashSet;
 import javax.annotation.Nullable;
 import org.junit.Before;
@@ -46,6 +48,7 @@ import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.exceptions.NotFoundException;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.index.UserIndex;
 import org.sonar.server.user.index.UserIndexDefinition;
 import org.sonar.server.user.index.UserIndexer;
@@ -82,7 +85,8 @@ public class RemoveMemberActionTest {
   private UserIndex userIndex = new UserIndex(es.client());
   private UserIndexer userIndexer = new UserIndexer(dbClient, es.client());
 
-  private WsActionTester ws = new WsActionTester(new RemoveMemberAction(dbClient, userSession, userIndexer));
+  private UserPermissionCache permissionCache = new UserPermissionCache();
+  private WsActionTester ws = new WsActionTester(new RemoveMemberAction(dbClient, userSession, userIndexer, permissionCache));
 
   private OrganizationDto organization;
   private ComponentDto project;
@@ -136,6 +140,15 @@ public class RemoveMemberActionTest {
     assertNotAMember(organization.getUuid(), user);
   }
 
+  @Test
+  public void drop_cached_permissions_of_removed_member() {
+    permissionCache.getOrganizationPermissions(user.getId(), organization.getUuid(), () -> EnumSet.of(SCAN));
+
+    call(organization.getKey(), user.getLogin());
+
+    assertThat(permissionCache.getOrganizationPermissions(user.getId(), organization.getUuid(), Collections::emptySet)).isEmpty();
+  }
+
   @Test
   public void remove_organization_permissions() {
     UserDto anotherUser = db.users().insertUser();
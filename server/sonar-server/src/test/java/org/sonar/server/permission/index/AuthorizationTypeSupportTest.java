@@ -24,19 +24,30 @@ import org.elasticsearch.index.query.MatchAllQueryBuilder;
 import org.elasticsearch.index.query.QueryBuilder;
 import org.junit.Rule;
 import org.junit.Test;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.db.user.GroupDto;
 import org.sonar.db.user.GroupTesting;
+import org.sonar.server.es.EsTester;
+import org.sonar.server.es.ProjectIndexer;
 import org.sonar.server.tester.UserSessionRule;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.sonar.server.permission.index.AuthorizationTypeSupport.TERMS_FILTER_PROPERTY;
+import static org.sonar.server.permission.index.FooIndexDefinition.INDEX_TYPE_FOO;
 import static org.sonar.test.JsonAssert.assertJson;
 
 public class AuthorizationTypeSupportTest {
 
   @Rule
   public UserSessionRule userSession = UserSessionRule.standalone();
+  @Rule
+  public EsTester esTester = new EsTester(new FooIndexDefinition());
 
   private AuthorizationTypeSupport underTest = new AuthorizationTypeSupport(userSession);
+  private AuthorizedProjectsCache authorizedProjectsCache = new AuthorizedProjectsCache();
+  private FooIndexer fooIndexer = new FooIndexer(esTester.client());
+  private PermissionIndexer permissionIndexer = new PermissionIndexer(null, esTester.client(), authorizedProjectsCache, fooIndexer);
 
   @Test
   public void createQueryFilter_does_not_include_permission_filters_if_user_is_flagged_as_root() {
@@ -150,4 +161,65 @@ public class AuthorizationTypeSupportTest {
       "  }" +
       "}");
   }
+
+  @Test
+  public void createQueryFilter_on_index_type_joins_authorization_type_by_default() {
+    userSession.logIn().setUserId(1234);
+    AuthorizationTypeSupport underTest = newAuthorizationTypeSupport(false);
+
+    QueryBuilder filter = underTest.createQueryFilter(INDEX_TYPE_FOO);
+
+    assertThat(filter).isInstanceOf(HasParentQueryBuilder.class);
+  }
+
+  @Test
+  public void createQueryFilter_on_index_type_does_not_include_permission_filters_if_user_is_flagged_as_root() {
+    userSession.logIn().setRoot();
+    AuthorizationTypeSupport underTest = newAuthorizationTypeSupport(true);
+
+    QueryBuilder filter = underTest.createQueryFilter(INDEX_TYPE_FOO);
+
+    assertThat(filter).isInstanceOf(MatchAllQueryBuilder.class);
+  }
+
+  @Test
+  public void terms_filter_restricts_documents_to_authorized_projects() {
+    GroupDto group = GroupTesting.newGroupDto().setId(10);
+    userSession.logIn().setUserId(1234).setGroups(group);
+    PermissionIndexerDao.Dto publicProject = new PermissionIndexerDao.Dto("public", 0L, "TRK");
+    publicProject.allowAnyone();
+    indexProject("public", publicProject);
+    indexProject("byUser", new PermissionIndexerDao.Dto("byUser", 0L, "TRK").addUserId(1234));
+    indexProject("byGroup", new PermissionIndexerDao.Dto("byGroup", 0L, "TRK").addGroupId(10));
+    indexProject("other", new PermissionIndexerDao.Dto("other", 0L, "TRK").addUserId(5678).addGroupId(11));
+
+    FooIndex fooIndex = new FooIndex(esTester.client(), newAuthorizationTypeSupport(true));
+
+    assertThat(fooIndex.hasAccessToProject("public")).isTrue();
+    assertThat(fooIndex.hasAccessToProject("byUser")).isTrue();
+    assertThat(fooIndex.hasAccessToProject("byGroup")).isTrue();
+    assertThat(fooIndex.hasAccessToProject("other")).isFalse();
+  }
+
+  @Test
+  public void terms_filter_is_refreshed_when_authorizations_are_indexed() {
+    userSession.logIn().setUserId(1234);
+    indexProject("project", new PermissionIndexerDao.Dto("project", 0L, "TRK").addUserId(5678));
+    FooIndex fooIndex = new FooIndex(esTester.client(), newAuthorizationTypeSupport(true));
+    assertThat(fooIndex.hasAccessToProject("project")).isFalse();
+
+    permissionIndexer.index(singletonList(new PermissionIndexerDao.Dto("project", 0L, "TRK").addUserId(1234)));
+
+    assertThat(fooIndex.hasAccessToProject("project")).isTrue();
+  }
+
+  private void indexProject(String projectUuid, PermissionIndexerDao.Dto authorization) {
+    fooIndexer.indexProject(projectUuid, ProjectIndexer.Cause.PROJECT_CREATION);
+    permissionIndexer.index(singletonList(authorization));
+  }
+
+  private AuthorizationTypeSupport newAuthorizationTypeSupport(boolean termsFilterEnabled) {
+    MapSettings settings = new MapSettings().setProperty(TERMS_FILTER_PROPERTY, termsFilterEnabled);
+    return new AuthorizationTypeSupport(userSession, esTester.client(), authorizedProjectsCache, settings.asConfig());
+  }
 }
@@ -34,7 +34,7 @@ public class PermissionIndexerTester {
 
   public PermissionIndexerTester(EsTester esTester, NeedAuthorizationIndexer indexer, NeedAuthorizationIndexer... others) {
     NeedAuthorizationIndexer[] indexers = Stream.concat(Stream.of(indexer), Arrays.stream(others)).toArray(NeedAuthorizationIndexer[]::new);
-    this.permissionIndexer = new PermissionIndexer(null, esTester.client(), indexers);
+    this.permissionIndexer = new PermissionIndexer(null, esTester.client(), new AuthorizedProjectsCache(), indexers);
   }
 
   public PermissionIndexerTester allowOnlyAnyone(ComponentDto project) {
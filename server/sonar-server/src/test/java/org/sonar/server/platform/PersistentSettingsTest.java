@@ -24,9 +24,12 @@ import org.junit.Test;
 import org.sonar.api.config.Settings;
 import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.utils.System2;
+import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
+import org.sonar.server.setting.CachedSettingLoader;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 
@@ -35,7 +38,8 @@ public class PersistentSettingsTest {
   public DbTester dbTester = DbTester.create(System2.INSTANCE);
   private Settings delegate = new MapSettings();
   private SettingsChangeNotifier changeNotifier = mock(SettingsChangeNotifier.class);
-  private PersistentSettings underTest = new PersistentSettings(delegate, dbTester.getDbClient(), changeNotifier);
+  private CachedSettingLoader cachedSettingLoader = mock(CachedSettingLoader.class);
+  private PersistentSettings underTest = new PersistentSettings(delegate, dbTester.getDbClient(), changeNotifier, cachedSettingLoader);
 
   @Test
   public void insert_property_into_database_and_notify_extensions() {
@@ -46,6 +50,17 @@ public class PersistentSettingsTest {
     assertThat(underTest.getString("foo")).isEqualTo("bar");
     assertThat(dbTester.getDbClient().propertiesDao().selectGlobalProperty("foo").getValue()).isEqualTo("bar");
     verify(changeNotifier).onGlobalPropertyChange("foo", "bar");
+    verify(cachedSettingLoader).invalidate(any(DbSession.class));
+  }
+
+  @Test
+  public void invalidate_cache_of_settings_in_the_session_of_the_caller() {
+    DbSession dbSession = dbTester.getSession();
+
+    underTest.saveProperty(dbSession, "foo", "bar");
+
+    verify(cachedSettingLoader).invalidate(dbSession);
+    verify(changeNotifier).onGlobalPropertyChange("foo", "bar");
   }
 
   @Test
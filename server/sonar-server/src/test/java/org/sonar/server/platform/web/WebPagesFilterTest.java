@@ -25,6 +25,7 @@ import javax.servlet.FilterChain;
 import javax.servlet.FilterConfig;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletOutputStream;
+import javax.servlet.ServletResponse;
 import javax.servlet.WriteListener;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -32,10 +33,15 @@ import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -118,6 +124,60 @@ public class WebPagesFilterTest {
     underTest.init(filterConfig);
   }
 
+  @Test
+  public void cache_forever_assets_with_content_hash_in_name() throws Exception {
+    mockIndexFile();
+    underTest.init(filterConfig);
+
+    verifyAssetIsCachedForever("/js/app.a1b2c3d4.js");
+    verifyAssetIsCachedForever("/js/component-measures.0a1b2c3d.chunk.js");
+    verifyAssetIsCachedForever("/css/sonar.12345678.css");
+  }
+
+  @Test
+  public void do_not_cache_missing_assets_with_content_hash_in_name() throws Exception {
+    mockIndexFile();
+    underTest.init(filterConfig);
+    mockPath("/js/app.a1b2c3d4.js", "");
+    doAnswer(invocation -> {
+      ((HttpServletResponse) invocation.getArguments()[1]).sendError(404);
+      return null;
+    }).when(chain).doFilter(eq(request), any(ServletResponse.class));
+
+    underTest.doFilter(request, response, chain);
+
+    verify(response).sendError(404);
+    verify(response, never()).setHeader(eq("Cache-Control"), anyString());
+  }
+
+  @Test
+  public void do_not_cache_assets_with_content_hash_in_name_on_error_status() throws Exception {
+    mockIndexFile();
+    underTest.init(filterConfig);
+    mockPath("/css/sonar.12345678.css", "");
+    doAnswer(invocation -> {
+      HttpServletResponse wrapped = (HttpServletResponse) invocation.getArguments()[1];
+      wrapped.setStatus(500);
+      wrapped.getWriter();
+      return null;
+    }).when(chain).doFilter(eq(request), any(ServletResponse.class));
+
+    underTest.doFilter(request, response, chain);
+
+    verify(response, never()).setHeader(eq("Cache-Control"), anyString());
+  }
+
+  @Test
+  public void do_not_cache_assets_without_content_hash_in_name() throws Exception {
+    mockIndexFile();
+    underTest.init(filterConfig);
+
+    verifyPthIsIgnored("/js/app.js");
+    verifyPthIsIgnored("/js/app.chunk.js");
+    verifyPthIsIgnored("/css/sonar.css");
+    verifyPthIsIgnored("/images/logo.12345678.svg");
+  }
+
   private void mockIndexFile() throws MalformedURLException {
     when(servletContext.getResource("/index.html")).thenReturn(getClass().getResource("WebPagesFilterTest/index.html"));
   }
@@ -140,6 +200,21 @@ public class WebPagesFilterTest {
     when(response.getOutputStream()).thenReturn(outputStream);
   }
 
+  private void verifyAssetIsCachedForever(String path) throws Exception {
+    mockPath(path, "");
+
+    underTest.doFilter(request, response, chain);
+
+    ArgumentCaptor<ServletResponse> wrapped = ArgumentCaptor.forClass(ServletResponse.class);
+    verify(chain).doFilter(eq(request), wrapped.capture());
+    verifyZeroInteractions(response);
+    // the servlet writes the content of the asset
+    wrapped.getValue().getOutputStream();
+    verify(response).setHeader("Cache-Control", "public, max-age=31536000, immutable");
+    reset(response, chain);
+    when(response.getOutputStream()).thenReturn(outputStream);
+  }
+
   private void verifyPthIsIgnored(String path) throws Exception {
     mockPath(path, "");
     underTest.init(filterConfig);
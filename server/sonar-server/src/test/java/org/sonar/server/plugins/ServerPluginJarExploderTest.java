@@ -20,6 +20,7 @@
 package org.sonar.server.plugins;
 
 import java.io.File;
+import org.apache.commons.io.FileUtils;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
@@ -60,4 +61,36 @@ public class ServerPluginJarExploderTest {
       assertThat(lib.getCanonicalPath()).startsWith(pluginDeployDir.getCanonicalPath());
     }
   }
+
+  @Test
+  public void keep_directory_of_unchanged_plugin() throws Exception {
+    File deployDir = temp.newFolder();
+    when(fs.getDeployedPluginsDir()).thenReturn(deployDir);
+    PluginInfo info = PluginInfo.create(TestProjectUtils.jarOf("test-libs-plugin"));
+
+    ExplodedPlugin exploded1 = underTest.explode(info);
+    File lib = exploded1.getLibs().iterator().next();
+    assertThat(lib.delete()).isTrue();
+
+    // the directory is reused as-is, even if it has been altered
+    ExplodedPlugin exploded2 = underTest.explode(info);
+    assertThat(exploded2.getMain()).isEqualTo(exploded1.getMain());
+    assertThat(lib).doesNotExist();
+  }
+
+  @Test
+  public void explode_again_plugin_when_checksum_is_changed() throws Exception {
+    File deployDir = temp.newFolder();
+    when(fs.getDeployedPluginsDir()).thenReturn(deployDir);
+    PluginInfo info = PluginInfo.create(TestProjectUtils.jarOf("test-libs-plugin"));
+
+    ExplodedPlugin exploded = underTest.explode(info);
+    File lib = exploded.getLibs().iterator().next();
+    assertThat(lib.delete()).isTrue();
+    // checksum of a previous version of the JAR
+    FileUtils.write(new File(deployDir, "testlibs/plugin.md5"), "abcde");
+
+    underTest.explode(info);
+    assertThat(lib).exists();
+  }
 }
@@ -21,6 +21,7 @@ package org.sonar.server.plugins;
 
 import java.io.IOException;
 import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import org.apache.catalina.connector.ClientAbortException;
@@ -36,6 +37,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.anyInt;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -162,6 +164,51 @@ public class StaticResourcesServletTest {
     verify(response, times(0)).sendError(anyInt());
   }
 
+  @Test
+  public void set_etag_and_cache_control_headers() throws ServletException, IOException {
+    mockExistingResource("myplugin", "foo.txt");
+    when(response.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+
+    underTest.doGet(request, response);
+
+    verify(response).setHeader("ETag", "\"d41d8cd98f00b204e9800998ecf8427e\"");
+    verify(response).setHeader("Cache-Control", "no-cache");
+    verify(response, never()).setStatus(anyInt());
+  }
+
+  @Test
+  public void return_304_when_resource_is_not_modified() throws ServletException, IOException {
+    mockExistingResource("myplugin", "foo.txt");
+    when(request.getHeader("If-None-Match")).thenReturn("\"d41d8cd98f00b204e9800998ecf8427e\"");
+
+    underTest.doGet(request, response);
+    underTest.doGet(request, response);
+
+    verify(response, times(2)).setStatus(304);
+    verify(response, never()).getOutputStream();
+    // etag is computed only once
+    verify(pluginRepository, times(1)).getPluginInstance("myplugin");
+  }
+
+  @Test
+  public void return_resource_when_etag_does_not_match() throws ServletException, IOException {
+    mockExistingResource("myplugin", "foo.txt");
+    when(request.getHeader("If-None-Match")).thenReturn("\"outdated\"");
+    when(response.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+
+    underTest.doGet(request, response);
+
+    verify(response, never()).setStatus(anyInt());
+    verify(response).getOutputStream();
+  }
+
+  private void mockExistingResource(String pluginKey, String resource) {
+    mockRequest(pluginKey, resource);
+    when(pluginRepository.hasPlugin(pluginKey)).thenReturn(true);
+    when(pluginRepository.getPluginInstance(pluginKey)).thenReturn(new TestPluginA());
+    when(componentContainer.getComponentByType(PluginRepository.class)).thenReturn(pluginRepository);
+  }
+
   @Test
   public void does_not_fail_when_response_is_committed_after_other_error() throws ServletException, IOException {
     mockRequest("myplugin", "image.png");
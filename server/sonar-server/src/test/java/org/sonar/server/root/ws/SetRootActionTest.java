@@ -30,6 +30,7 @@ import org.sonar.db.DbTester;
 import org.sonar.db.user.UserDao;
 import org.sonar.db.user.UserDto;
 import org.sonar.db.user.UserTesting;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.exceptions.NotFoundException;
 import org.sonar.server.tester.UserSessionRule;
@@ -50,7 +51,7 @@ public class SetRootActionTest {
 
   private UserDao userDao = dbTester.getDbClient().userDao();
   private DbSession dbSession = dbTester.getSession();
-  private SetRootAction underTest = new SetRootAction(userSessionRule, dbTester.getDbClient());
+  private SetRootAction underTest = new SetRootAction(userSessionRule, dbTester.getDbClient(), new AuthenticatedUserCache());
   private WsActionTester wsTester = new WsActionTester(underTest);
 
   @Test
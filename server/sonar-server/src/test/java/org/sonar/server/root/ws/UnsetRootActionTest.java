@@ -29,6 +29,7 @@ import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
 import org.sonar.db.user.UserDao;
 import org.sonar.db.user.UserDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.exceptions.NotFoundException;
@@ -51,7 +52,7 @@ public class UnsetRootActionTest {
 
   private UserDao userDao = dbTester.getDbClient().userDao();
   private DbSession dbSession = dbTester.getSession();
-  private UnsetRootAction underTest = new UnsetRootAction(userSessionRule, dbTester.getDbClient());
+  private UnsetRootAction underTest = new UnsetRootAction(userSessionRule, dbTester.getDbClient(), new AuthenticatedUserCache());
   private WsActionTester wsTester = new WsActionTester(underTest);
 
   @Test
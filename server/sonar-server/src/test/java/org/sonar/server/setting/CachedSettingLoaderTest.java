@@ -0,0 +1,138 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.setting;
+
+import com.google.common.collect.ImmutableMap;
+import org.junit.Rule;
+import org.junit.Test;
+import org.sonar.api.utils.System2;
+import org.sonar.api.utils.internal.TestSystem2;
+import org.sonar.db.DbTester;
+import org.sonar.db.property.PropertyDto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.data.MapEntry.entry;
+import static org.sonar.server.setting.CachedSettingLoader.MAX_AGE_MS;
+import static org.sonar.server.setting.CachedSettingLoader.VERSION_CHECK_INTERVAL_MS;
+import static org.sonar.server.setting.CachedSettingLoader.VERSION_PROPERTY_KEY;
+
+public class CachedSettingLoaderTest {
+
+  private static final long NOW = 1_000_000_000L;
+
+  @Rule
+  public DbTester dbTester = DbTester.create(System2.INSTANCE);
+
+  private TestSystem2 system2 = new TestSystem2().setNow(NOW);
+  private CachedSettingLoader underTest = new CachedSettingLoader(dbTester.getDbClient(), new DatabaseSettingLoader(dbTester.getDbClient()), system2);
+
+  @Test
+  public void load_and_loadAll_are_served_from_snapshot() {
+    insertPropertyIntoDb("foo", "1");
+    insertPropertyIntoDb("bar", null);
+
+    assertThat(underTest.load("foo")).isEqualTo("1");
+    assertThat(underTest.load("bar")).isEqualTo("");
+    assertThat(underTest.load("missing")).isNull();
+    ImmutableMap.Builder<String, String> map = ImmutableMap.builder();
+    underTest.loadAll(map);
+    assertThat(map.build()).containsOnly(entry("foo", "1"), entry("bar", ""));
+  }
+
+  @Test
+  public void changes_in_db_are_not_visible_before_version_check() {
+    insertPropertyIntoDb("foo", "1");
+    assertThat(underTest.load("foo")).isEqualTo("1");
+
+    insertPropertyIntoDb("foo", "2");
+    bumpVersion("v2");
+
+    assertThat(underTest.load("foo")).isEqualTo("1");
+  }
+
+  @Test
+  public void reload_snapshot_when_version_is_changed_by_another_node() {
+    insertPropertyIntoDb("foo", "1");
+    assertThat(underTest.load("foo")).isEqualTo("1");
+
+    insertPropertyIntoDb("foo", "2");
+    bumpVersion("v2");
+    system2.setNow(NOW + VERSION_CHECK_INTERVAL_MS);
+
+    assertThat(underTest.load("foo")).isEqualTo("2");
+  }
+
+  @Test
+  public void keep_snapshot_when_version_is_unchanged() {
+    insertPropertyIntoDb("foo", "1");
+    assertThat(underTest.load("foo")).isEqualTo("1");
+
+    insertPropertyIntoDb("foo", "2");
+    system2.setNow(NOW + VERSION_CHECK_INTERVAL_MS);
+
+    assertThat(underTest.load("foo")).isEqualTo("1");
+  }
+
+  @Test
+  public void reload_snapshot_when_older_than_max_age() {
+    insertPropertyIntoDb("foo", "1");
+    assertThat(underTest.load("foo")).isEqualTo("1");
+
+    insertPropertyIntoDb("foo", "2");
+    system2.setNow(NOW + MAX_AGE_MS);
+
+    assertThat(underTest.load("foo")).isEqualTo("2");
+  }
+
+  @Test
+  public void invalidate_reloads_snapshot_and_publishes_new_version() {
+    insertPropertyIntoDb("foo", "1");
+    assertThat(underTest.load("foo")).isEqualTo("1");
+    assertThat(selectVersion()).isNull();
+
+    insertPropertyIntoDb("foo", "2");
+    underTest.invalidate(dbTester.getSession());
+    dbTester.commit();
+
+    assertThat(underTest.load("foo")).isEqualTo("2");
+    assertThat(selectVersion()).isNotEmpty();
+  }
+
+  @Test
+  public void invalidate_publishes_version_in_the_session_of_the_caller() {
+    underTest.invalidate(dbTester.getSession());
+    dbTester.getSession().rollback();
+
+    assertThat(selectVersion()).isNull();
+  }
+
+  private void insertPropertyIntoDb(String key, String value) {
+    dbTester.getDbClient().propertiesDao().saveProperty(new PropertyDto().setKey(key).setValue(value));
+  }
+
+  private void bumpVersion(String version) {
+    dbTester.getDbClient().internalPropertiesDao().save(dbTester.getSession(), VERSION_PROPERTY_KEY, version);
+    dbTester.commit();
+  }
+
+  private String selectVersion() {
+    return dbTester.getDbClient().internalPropertiesDao().selectByKey(dbTester.getSession(), VERSION_PROPERTY_KEY).orElse(null);
+  }
+}
@@ -23,7 +23,6 @@ import org.junit.After;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
-import org.sonar.server.setting.DatabaseSettingLoader;
 import org.sonar.server.setting.DatabaseSettingsEnabler;
 import org.sonar.server.setting.ThreadLocalSettings;
 
@@ -36,7 +35,7 @@ public class DatabaseSettingsEnablerTest {
   public ExpectedException expectedException = ExpectedException.none();
 
   private ThreadLocalSettings settings = mock(ThreadLocalSettings.class);
-  private DatabaseSettingLoader loader = mock(DatabaseSettingLoader.class);
+  private CachedSettingLoader loader = mock(CachedSettingLoader.class);
   private DatabaseSettingsEnabler underTest = new DatabaseSettingsEnabler(settings, loader);
 
   @After
@@ -44,6 +44,7 @@ import org.sonar.server.component.TestComponentFinder;
 import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.i18n.I18nRule;
+import org.sonar.server.setting.CachedSettingLoader;
 import org.sonar.server.tester.UserSessionRule;
 import org.sonar.server.ws.TestRequest;
 import org.sonar.server.ws.TestResponse;
@@ -52,6 +53,11 @@ import org.sonarqube.ws.MediaTypes;
 
 import static java.net.HttpURLConnection.HTTP_NO_CONTENT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.sonar.api.resources.Qualifiers.PROJECT;
 import static org.sonar.api.resources.Qualifiers.VIEW;
 import static org.sonar.api.web.UserRole.ADMIN;
@@ -78,8 +84,10 @@ public class ResetActionTest {
   private PropertyDefinitions definitions = new PropertyDefinitions();
   private SettingsUpdater settingsUpdater = new SettingsUpdater(dbClient, definitions);
   private SettingValidations settingValidations = new SettingValidations(definitions, dbClient, i18n);
+  private CachedSettingLoader cachedSettingLoader = mock(CachedSettingLoader.class);
   private ComponentDto project;
-  private ResetAction underTest = new ResetAction(dbClient, componentFinder, settingsUpdater, userSession, definitions, settingValidations);
+  private ResetAction underTest = new ResetAction(dbClient, componentFinder, settingsUpdater, userSession, definitions, settingValidations,
+    cachedSettingLoader);
   private WsActionTester ws = new WsActionTester(underTest);
 
   @Before
@@ -97,6 +105,19 @@ public class ResetActionTest {
     assertGlobalPropertyDoesNotExist("foo");
   }
 
+  @Test
+  public void invalidate_cache_of_global_settings_once_per_request() {
+    logInAsSystemAdministrator();
+    propertyDb.insertProperties(newGlobalPropertyDto().setKey("foo").setValue("one"));
+    propertyDb.insertProperties(newGlobalPropertyDto().setKey("bar").setValue("two"));
+
+    executeRequestOnGlobalSetting("foo,bar");
+
+    assertGlobalPropertyDoesNotExist("foo");
+    assertGlobalPropertyDoesNotExist("bar");
+    verify(cachedSettingLoader, times(1)).invalidate(any(DbSession.class));
+  }
+
   @Test
   public void remove_global_setting_even_if_not_defined() throws Exception {
     logInAsSystemAdministrator();
@@ -114,6 +135,7 @@ public class ResetActionTest {
 
     executeRequestOnProjectSetting("foo");
     assertProjectPropertyDoesNotExist("foo");
+    verifyZeroInteractions(cachedSettingLoader);
   }
 
   @Test
@@ -53,6 +53,7 @@ import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.i18n.I18nRule;
 import org.sonar.server.platform.SettingsChangeNotifier;
+import org.sonar.server.setting.CachedSettingLoader;
 import org.sonar.server.tester.UserSessionRule;
 import org.sonar.server.ws.TestRequest;
 import org.sonar.server.ws.TestResponse;
@@ -62,6 +63,10 @@ import static com.google.common.collect.Lists.newArrayList;
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.groups.Tuple.tuple;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.sonar.db.component.ComponentTesting.newView;
 import static org.sonar.db.metric.MetricTesting.newMetricDto;
 import static org.sonar.db.property.PropertyTesting.newComponentPropertyDto;
@@ -89,7 +94,9 @@ public class SetActionTest {
   private FakeSettingsNotifier settingsChangeNotifier = new FakeSettingsNotifier(dbClient);
   private SettingsUpdater settingsUpdater = new SettingsUpdater(dbClient, definitions);
   private SettingValidations validations = new SettingValidations(definitions, dbClient, i18n);
-  private SetAction underTest = new SetAction(definitions, dbClient, componentFinder, userSession, settingsUpdater, settingsChangeNotifier, validations);
+  private CachedSettingLoader cachedSettingLoader = mock(CachedSettingLoader.class);
+  private SetAction underTest = new SetAction(definitions, dbClient, componentFinder, userSession, settingsUpdater, settingsChangeNotifier, validations,
+    cachedSettingLoader);
 
   private WsActionTester ws = new WsActionTester(underTest);
 
@@ -116,6 +123,7 @@ public class SetActionTest {
 
     assertGlobalSetting("my.key", "my,value");
     assertThat(settingsChangeNotifier.wasCalled).isTrue();
+    verify(cachedSettingLoader).invalidate(any(DbSession.class));
   }
 
   @Test
@@ -140,6 +148,7 @@ public class SetActionTest {
     assertGlobalSetting("my.key", "my global value");
     assertComponentSetting("my.key", "my project value", project.getId());
     assertThat(settingsChangeNotifier.wasCalled).isFalse();
+    verifyZeroInteractions(cachedSettingLoader);
   }
 
   @Test
@@ -513,7 +513,7 @@ public class ServerUserSessionTest {
   }
 
   private ServerUserSession newUserSession(@Nullable UserDto userDto) {
-    return new ServerUserSession(dbClient, organizationFlags, defaultOrganizationProvider, userDto);
+    return new ServerUserSession(dbClient, organizationFlags, defaultOrganizationProvider, new UserPermissionCache(), userDto);
   }
 
   private ServerUserSession newAnonymousSession() {
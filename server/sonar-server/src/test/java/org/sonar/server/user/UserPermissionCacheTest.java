@@ -0,0 +1,109 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.server.user;
+
+import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.sonar.server.user.UserPermissionCache.EXPIRE_AFTER_WRITE_SECONDS;
+
+public class UserPermissionCacheTest {
+
+  private static final String PROJECT_UUID = "P1";
+
+  private FakeTicker ticker = new FakeTicker();
+  private AtomicInteger loads = new AtomicInteger();
+  private UserPermissionCache underTest = new UserPermissionCache(ticker);
+
+  @Test
+  public void project_permissions_are_loaded_once_per_user() {
+    assertThat(underTest.getProjectPermissions(1, PROJECT_UUID, this::load)).containsOnly("user");
+    assertThat(underTest.getProjectPermissions(1, PROJECT_UUID, this::load)).containsOnly("user");
+    assertThat(loads.get()).isEqualTo(1);
+
+    underTest.getProjectPermissions(2, PROJECT_UUID, this::load);
+    underTest.getProjectPermissions(null, PROJECT_UUID, this::load);
+    assertThat(loads.get()).isEqualTo(3);
+  }
+
+  @Test
+  public void entries_expire() {
+    underTest.getProjectPermissions(1, PROJECT_UUID, this::load);
+
+    ticker.advance(TimeUnit.SECONDS.toNanos(EXPIRE_AFTER_WRITE_SECONDS));
+    underTest.getProjectPermissions(1, PROJECT_UUID, this::load);
+
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void invalidateAll_drops_permissions() {
+    underTest.getProjectPermissions(1, PROJECT_UUID, this::load);
+
+    underTest.invalidateAll();
+    underTest.getProjectPermissions(1, PROJECT_UUID, this::load);
+
+    assertThat(loads.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void unknown_components_are_not_cached() {
+    assertThat(underTest.getProjectUuid("C1", uuid -> Optional.empty())).isEmpty();
+    assertThat(underTest.getProjectUuid("C1", uuid -> Optional.of(PROJECT_UUID))).contains(PROJECT_UUID);
+    assertThat(underTest.getProjectUuid("C1", uuid -> Optional.empty())).contains(PROJECT_UUID);
+  }
+
+  @Test
+  public void statistics_contain_hits_and_misses() {
+    underTest.getProjectPermissions(1, PROJECT_UUID, this::load);
+    underTest.getProjectPermissions(1, PROJECT_UUID, this::load);
+
+    assertThat(underTest.statistics()).contains(
+      entry("Project Permissions Size", 1L),
+      entry("Project Permissions Hit Count", 1L),
+      entry("Project Permissions Miss Count", 1L),
+      entry("Project Permissions Hit Rate", 0.5));
+  }
+
+  private Set<String> load() {
+    loads.incrementAndGet();
+    return ImmutableSet.of("user");
+  }
+
+  private static class FakeTicker extends Ticker {
+    private long nanos = 0L;
+
+    @Override
+    public long read() {
+      return nanos;
+    }
+
+    void advance(long duration) {
+      nanos += duration;
+    }
+  }
+}
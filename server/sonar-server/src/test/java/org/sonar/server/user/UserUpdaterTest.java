@@ -39,6 +39,7 @@ import org.sonar.db.user.GroupDto;
 import org.sonar.db.user.GroupTesting;
 import org.sonar.db.user.UserDto;
 import org.sonar.db.user.UserTesting;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.es.EsTester;
 import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.organization.DefaultOrganizationProvider;
@@ -88,8 +89,10 @@ public class UserUpdaterTest {
   private DefaultOrganizationProvider defaultOrganizationProvider = TestDefaultOrganizationProvider.from(db);
   private TestOrganizationFlags organizationFlags = TestOrganizationFlags.standalone();
   private MapSettings settings = new MapSettings();
+  private UserPermissionCache permissionCache = mock(UserPermissionCache.class);
+  private AuthenticatedUserCache authenticatedUserCache = new AuthenticatedUserCache();
   private UserUpdater underTest = new UserUpdater(newUserNotifier, dbClient, userIndexer, organizationFlags, defaultOrganizationProvider, organizationCreation,
-    new DefaultGroupFinder(dbClient), settings.asConfig());
+    new DefaultGroupFinder(dbClient), settings.asConfig(), authenticatedUserCache, permissionCache);
 
   @Test
   public void create_user() {
@@ -816,6 +819,53 @@ public class UserUpdaterTest {
         entry("email", "marius2@mail.com"));
   }
 
+  @Test
+  public void invalidate_permission_cache_after_creating_user() {
+    createDefaultGroup();
+
+    underTest.createAndCommit(db.getSession(), NewUser.builder()
+      .setLogin("user")
+      .setName("User")
+      .build(), u -> {
+      });
+
+    verify(permissionCache).invalidateAll();
+  }
+
+  @Test
+  public void invalidate_permission_cache_when_only_groups_are_changed_before_commit() {
+    UserDto user = db.users().insertUser(newLocalUser(DEFAULT_LOGIN, "Marius", "marius@email.com"));
+    GroupDto group = db.users().insertGroup(db.getDefaultOrganization(), "developers");
+
+    underTest.updateAndCommit(session, UpdateUser.create(DEFAULT_LOGIN), u -> db.users().insertMember(group, user));
+
+    assertThat(dbClient.groupMembershipDao().selectGroupIdsByUserId(session, user.getId())).containsOnly(group.getId());
+    verify(permissionCache).invalidateAll();
+  }
+
+  @Test
+  public void drop_authenticated_user_cached_before_commit_of_update() {
+    UserDto user = db.users().insertUser(newLocalUser(DEFAULT_LOGIN, "Marius", "marius@email.com"));
+
+    // a concurrent request caches the user while the update is not committed yet
+    underTest.updateAndCommit(session, UpdateUser.create(DEFAULT_LOGIN).setName("Marius2"), u -> authenticatedUserCache.getActiveUser(DEFAULT_LOGIN, login -> user));
+
+    assertThat(authenticatedUserCache.getActiveUser(DEFAULT_LOGIN, login -> dbClient.userDao().selectByLogin(session, login)).get().getName()).isEqualTo("Marius2");
+  }
+
+  @Test
+  public void drop_authenticated_user_cached_before_commit_of_reactivation() {
+    UserDto user = db.users().insertUser(newLocalUser(DEFAULT_LOGIN, "Marius", "marius@email.com").setActive(false));
+    createDefaultGroup();
+
+    underTest.createAndCommit(session, NewUser.builder()
+      .setLogin(DEFAULT_LOGIN)
+      .setName("Marius2")
+      .build(), u -> authenticatedUserCache.getActiveUser(DEFAULT_LOGIN, login -> user));
+
+    assertThat(authenticatedUserCache.getActiveUser(DEFAULT_LOGIN, login -> dbClient.userDao().selectByLogin(session, login)).get().getName()).isEqualTo("Marius2");
+  }
+
   @Test
   public void update_user_external_identity_when_user_was_not_local() {
     UserDto user = db.users().insertUser(UserTesting.newExternalUser(DEFAULT_LOGIN, "Marius", "marius@email.com"));
@@ -19,6 +19,7 @@
  */
 package org.sonar.server.user.ws;
 
+import java.util.Collections;
 import java.util.Optional;
 import org.junit.Rule;
 import org.junit.Test;
@@ -37,6 +38,7 @@ import org.sonar.db.property.PropertyDto;
 import org.sonar.db.property.PropertyQuery;
 import org.sonar.db.user.GroupDto;
 import org.sonar.db.user.UserDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.es.EsTester;
 import org.sonar.server.exceptions.BadRequestException;
 import org.sonar.server.exceptions.ForbiddenException;
@@ -45,6 +47,7 @@ import org.sonar.server.exceptions.UnauthorizedException;
 import org.sonar.server.organization.DefaultOrganizationProvider;
 import org.sonar.server.organization.TestDefaultOrganizationProvider;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.index.UserIndex;
 import org.sonar.server.user.index.UserIndexDefinition;
 import org.sonar.server.user.index.UserIndexer;
@@ -87,8 +90,9 @@ public class DeactivateActionTest {
   private UserIndexer userIndexer = new UserIndexer(dbClient, esTester.client());
   private DbSession dbSession = db.getSession();
 
+  private UserPermissionCache permissionCache = new UserPermissionCache();
   private WsActionTester ws = new WsActionTester(new DeactivateAction(
-    dbClient, userIndexer, userSession, new UserJsonWriter(userSession), defaultOrganizationProvider));
+    dbClient, userIndexer, userSession, new UserJsonWriter(userSession), defaultOrganizationProvider, new AuthenticatedUserCache(), permissionCache));
 
   @Test
   public void deactivate_user_and_delete_his_related_data() {
@@ -118,6 +122,18 @@ public class DeactivateActionTest {
     assertThat(db.getDbClient().groupMembershipDao().selectGroupIdsByUserId(dbSession, user.getId())).isEmpty();
   }
 
+  @Test
+  public void deactivate_user_drops_cached_groups_and_permissions() {
+    logInAsSystemAdministrator();
+    UserDto user = insertUser(newUserDto());
+    GroupDto group = db.users().insertGroup();
+    permissionCache.getGroups(user.getLogin(), () -> singletonList(group));
+
+    deactivate(user.getLogin()).getInput();
+
+    assertThat(permissionCache.getGroups(user.getLogin(), Collections::emptyList)).isEmpty();
+  }
+
   @Test
   public void deactivate_user_deletes_his_tokens() {
     logInAsSystemAdministrator();
@@ -19,6 +19,7 @@
  */
 package org.sonar.server.usergroups.ws;
 
+import java.util.Collections;
 import org.apache.commons.lang.StringUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -33,9 +34,11 @@ import org.sonar.server.exceptions.ServerException;
 import org.sonar.server.organization.DefaultOrganization;
 import org.sonar.server.organization.TestDefaultOrganizationProvider;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.usergroups.DefaultGroupFinder;
 import org.sonar.server.ws.WsTester;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.sonar.db.permission.OrganizationPermission.ADMINISTER;
 
@@ -49,11 +52,12 @@ public class CreateActionTest {
   public ExpectedException expectedException = ExpectedException.none();
 
   private TestDefaultOrganizationProvider defaultOrganizationProvider = TestDefaultOrganizationProvider.from(db);
+  private UserPermissionCache permissionCache = new UserPermissionCache();
   private WsTester ws;
 
   @Before
   public void setUp() {
-    ws = new WsTester(new UserGroupsWs(new CreateAction(db.getDbClient(), userSession, newGroupWsSupport())));
+    ws = new WsTester(new UserGroupsWs(new CreateAction(db.getDbClient(), userSession, newGroupWsSupport(), permissionCache)));
   }
 
   @Test
@@ -76,6 +80,18 @@ public class CreateActionTest {
     assertThat(db.users().selectGroup(db.getDefaultOrganization(), "some-product-bu")).isPresent();
   }
 
+  @Test
+  public void drop_cached_groups_and_permissions() throws Exception {
+    loginAsAdminOnDefaultOrganization();
+    permissionCache.getGroups("john", () -> singletonList(new GroupDto().setName("old-group")));
+
+    newRequest()
+      .setParam("name", "some-product-bu")
+      .execute();
+
+    assertThat(permissionCache.getGroups("john", Collections::emptyList)).isEmpty();
+  }
+
   @Test
   public void create_group_on_specific_organization() throws Exception {
     OrganizationDto org = db.organizations().insert();
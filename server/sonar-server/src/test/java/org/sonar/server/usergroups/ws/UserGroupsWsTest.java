@@ -25,6 +25,7 @@ import org.junit.Test;
 import org.sonar.api.server.ws.WebService;
 import org.sonar.db.DbClient;
 import org.sonar.server.tester.UserSessionRule;
+import org.sonar.server.user.UserPermissionCache;
 import org.sonar.server.user.UserSession;
 import org.sonar.server.usergroups.DefaultGroupFinder;
 import org.sonar.server.ws.WsTester;
@@ -44,7 +45,7 @@ public class UserGroupsWsTest {
     GroupWsSupport wsSupport = mock(GroupWsSupport.class);
     WsTester tester = new WsTester(new UserGroupsWs(
       new SearchAction(mock(DbClient.class), mock(UserSession.class), wsSupport, mock(DefaultGroupFinder.class)),
-      new CreateAction(mock(DbClient.class), mock(UserSession.class), wsSupport)));
+      new CreateAction(mock(DbClient.class), mock(UserSession.class), wsSupport, mock(UserPermissionCache.class))));
     controller = tester.controller("api/user_groups");
   }
 
@@ -32,6 +32,7 @@ import org.sonar.api.utils.System2;
 import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 
 public class UserTokenAuthenticatorTest {
   static final String GRACE_HOPPER = "grace.hopper";
@@ -46,7 +47,7 @@ public class UserTokenAuthenticatorTest {
   DbSession dbSession = db.getSession();
   TokenGenerator tokenGenerator = mock(TokenGenerator.class);
 
-  UserTokenAuthenticator underTest = new UserTokenAuthenticator(tokenGenerator, db.getDbClient());
+  UserTokenAuthenticator underTest = new UserTokenAuthenticator(tokenGenerator, db.getDbClient(), new AuthenticatedUserCache());
 
   @Test
   public void return_login_when_token_hash_found_in_db() {
@@ -29,6 +29,7 @@ import org.sonar.db.DbClient;
 import org.sonar.db.DbSession;
 import org.sonar.db.DbTester;
 import org.sonar.db.user.UserTokenDto;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.exceptions.ForbiddenException;
 import org.sonar.server.exceptions.UnauthorizedException;
 import org.sonar.server.tester.UserSessionRule;
@@ -60,7 +61,7 @@ public class RevokeActionTest {
   @Before
   public void setUp() {
     ws = new WsActionTester(
-      new RevokeAction(dbClient, userSession));
+      new RevokeAction(dbClient, userSession, new AuthenticatedUserCache()));
   }
 
   @Test
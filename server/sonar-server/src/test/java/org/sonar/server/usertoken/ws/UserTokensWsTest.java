@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.sonar.api.server.ws.WebService;
 import org.sonar.api.utils.System2;
 import org.sonar.db.DbClient;
+import org.sonar.server.authentication.AuthenticatedUserCache;
 import org.sonar.server.user.UserSession;
 import org.sonar.server.usertoken.TokenGenerator;
 import org.sonar.server.ws.WsTester;
@@ -45,7 +46,7 @@ public class UserTokensWsTest {
 
     ws = new WsTester(new UserTokensWs(
       new GenerateAction(dbClient, userSession, system, tokenGenerator),
-      new RevokeAction(dbClient, userSession),
+      new RevokeAction(dbClient, userSession, new AuthenticatedUserCache()),
       new SearchAction(dbClient, userSession)));
   }
 
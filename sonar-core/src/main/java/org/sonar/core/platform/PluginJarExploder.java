@@ -20,16 +20,24 @@
 package org.sonar.core.platform;
 
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.function.Predicate;
 import java.util.zip.ZipEntry;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.FileUtils;
+import org.sonar.api.utils.ZipUtils;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.apache.commons.io.FileUtils.listFiles;
 
 public abstract class PluginJarExploder {
 
   protected static final String LIB_RELATIVE_PATH_IN_JAR = "META-INF/lib";
+  private static final String CHECKSUM_FILENAME = "plugin.md5";
 
   public abstract ExplodedPlugin explode(PluginInfo info);
 
@@ -37,6 +45,33 @@ public abstract class PluginJarExploder {
     return ze -> ze.getName().startsWith(LIB_RELATIVE_PATH_IN_JAR);
   }
 
+  /**
+   * Copies the JAR of the plugin to the directory {@code toDir} and unzips its libraries. The directory is
+   * kept as-is if it already contains the result of a previous call for a JAR with the same MD5 checksum, so
+   * that plugins are not exploded again on each startup.
+   */
+  protected ExplodedPlugin explodeToDir(PluginInfo info, File toDir) throws IOException {
+    File jarSource = info.getNonNullJarFile();
+    File jarTarget = new File(toDir, jarSource.getName());
+    File checksumFile = new File(toDir, CHECKSUM_FILENAME);
+    String checksum = md5(jarSource);
+    if (!jarTarget.isFile() || !checksumFile.isFile() || !checksum.equals(FileUtils.readFileToString(checksumFile, UTF_8))) {
+      FileUtils.forceMkdir(toDir);
+      org.sonar.core.util.FileUtils.cleanDirectory(toDir);
+      FileUtils.copyFile(jarSource, jarTarget);
+      ZipUtils.unzip(jarSource, toDir, newLibFilter());
+      // written last, so that a directory which has been partially exploded is never reused
+      FileUtils.write(checksumFile, checksum, UTF_8);
+    }
+    return explodeFromUnzippedDir(info.getKey(), jarTarget, toDir);
+  }
+
+  private static String md5(File file) throws IOException {
+    try (InputStream input = new FileInputStream(file)) {
+      return DigestUtils.md5Hex(input);
+    }
+  }
+
   protected ExplodedPlugin explodeFromUnzippedDir(String pluginKey, File jarFile, File unzippedDir) {
     File libDir = new File(unzippedDir, PluginJarExploder.LIB_RELATIVE_PATH_IN_JAR);
     Collection<File> libs;
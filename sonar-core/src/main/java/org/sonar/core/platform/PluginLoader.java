@@ -29,10 +29,13 @@ import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang.SystemUtils;
 import org.sonar.api.Plugin;
+import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.log.Profiler;
 import org.sonar.updatecenter.common.Version;
 
 import static java.util.Arrays.asList;
+import static org.sonar.core.util.stream.MoreCollectors.uniqueIndex;
 
 /**
  * Loads the plugin JAR files by creating the appropriate classloaders and by instantiating
@@ -47,9 +50,14 @@ import static java.util.Arrays.asList;
  * Some plugins can extend a "base" plugin, sharing the same classloader.
  * <p/>
  * This class is stateless. It does not keep pointers to classloaders and {@link org.sonar.api.Plugin}.
+ * <p/>
+ * JAR files are exploded in parallel. Durations of exploding and instantiation of each plugin are logged
+ * in DEBUG level.
  */
 public class PluginLoader {
 
+  private static final Logger LOG = Loggers.get(PluginLoader.class);
+
   private static final String[] DEFAULT_SHARED_RESOURCES = {"org/sonar/plugins", "com/sonar/plugins", "com/sonarsource/plugins"};
   /**
    * Defines the base keys (defined by {@link #basePluginKey(PluginInfo, Map)}) of the plugins which are allowed to
@@ -80,6 +88,7 @@ public class PluginLoader {
   @VisibleForTesting
   Collection<PluginClassLoaderDef> defineClassloaders(Map<String, PluginInfo> infoByKeys) {
     Map<String, PluginClassLoaderDef> classloadersByBasePlugin = new HashMap<>();
+    Map<String, ExplodedPlugin> explodedPluginsByKey = explode(infoByKeys.values());
 
     for (PluginInfo info : infoByKeys.values()) {
       String baseKey = basePluginKey(info, infoByKeys);
@@ -88,7 +97,7 @@ public class PluginLoader {
         def = new PluginClassLoaderDef(baseKey);
         classloadersByBasePlugin.put(baseKey, def);
       }
-      ExplodedPlugin explodedPlugin = jarExploder.explode(info);
+      ExplodedPlugin explodedPlugin = explodedPluginsByKey.get(info.getKey());
       def.addFiles(asList(explodedPlugin.getMain()));
       def.addFiles(explodedPlugin.getLibs());
       def.addMainClass(info.getKey(), info.getMainClass());
@@ -106,7 +115,7 @@ public class PluginLoader {
         def.setCompatibilityMode(compatibilityMode);
         def.setPrivileged(isPrivileged(baseKey));
         if (compatibilityMode) {
-          Loggers.get(getClass()).debug("API compatibility mode is enabled on plugin {} [{}] " +
+          LOG.debug("API compatibility mode is enabled on plugin {} [{}] " +
             "(built with API lower than {})",
             info.getName(), info.getKey(), COMPATIBILITY_MODE_MAX_VERSION);
         }
@@ -115,6 +124,21 @@ public class PluginLoader {
     return classloadersByBasePlugin.values();
   }
 
+  /**
+   * Exploding is mostly I/O (copy and unzip of JAR files), so plugins are exploded concurrently.
+   */
+  private Map<String, ExplodedPlugin> explode(Collection<PluginInfo> infos) {
+    return infos.parallelStream()
+      .collect(uniqueIndex(PluginInfo::getKey, this::explodePlugin, infos.size()));
+  }
+
+  private ExplodedPlugin explodePlugin(PluginInfo info) {
+    Profiler profiler = Profiler.create(LOG).start();
+    ExplodedPlugin explodedPlugin = jarExploder.explode(info);
+    profiler.stopDebug(String.format("Plugin %s [%s] exploded", info.getName(), info.getKey()));
+    return explodedPlugin;
+  }
+
   private static boolean isPrivileged(String basePluginKey) {
     return PRIVILEGED_PLUGINS_BASE_KEYS.contains(basePluginKey);
   }
@@ -138,7 +162,9 @@ public class PluginLoader {
         String pluginKey = mainClassEntry.getKey();
         String mainClass = mainClassEntry.getValue();
         try {
+          Profiler profiler = Profiler.create(LOG).start();
           instancesByPluginKey.put(pluginKey, (Plugin) classLoader.loadClass(mainClass).newInstance());
+          profiler.stopDebug(String.format("Plugin [%s] instantiated", pluginKey));
         } catch (UnsupportedClassVersionError e) {
           throw new IllegalStateException(String.format("The plugin [%s] does not support Java %s",
             pluginKey, SystemUtils.JAVA_VERSION_TRIMMED), e);
@@ -158,7 +184,7 @@ public class PluginLoader {
         try {
           ((Closeable) classLoader).close();
         } catch (Exception e) {
-          Loggers.get(getClass()).error("Fail to close classloader " + classLoader.toString(), e);
+          LOG.error("Fail to close classloader " + classLoader.toString(), e);
         }
       }
     }
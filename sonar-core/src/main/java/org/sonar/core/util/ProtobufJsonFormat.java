@@ -24,8 +24,9 @@ import com.google.protobuf.MapEntry;
 import com.google.protobuf.Message;
 import java.io.StringWriter;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.CheckForNull;
 import org.sonar.api.utils.text.JsonWriter;
 
 /**
@@ -131,27 +132,53 @@ public class ProtobufJsonFormat {
     // only statics
   }
 
+  /**
+   * How to write the fields of a type of message. It is computed once per class, when the first message
+   * of this class is written, so that descriptors are not inspected again for each message.
+   * The cache is shared by the threads of web services.
+   */
   static class MessageType {
-    private static final Map<Class<? extends Message>, MessageType> TYPES_BY_CLASS = new HashMap<>();
+    private static final Map<Class<? extends Message>, MessageType> TYPES_BY_CLASS = new ConcurrentHashMap<>();
 
-    private final Descriptors.FieldDescriptor[] fieldDescriptors;
+    private final FieldWriter[] fieldWriters;
     private final boolean doesWrapRepeated;
+    @CheckForNull
+    private final FieldWriter wrappedRepeatedWriter;
 
     private MessageType(Descriptors.Descriptor descriptor) {
-      this.fieldDescriptors = descriptor.getFields().toArray(new Descriptors.FieldDescriptor[descriptor.getFields().size()]);
+      Descriptors.FieldDescriptor[] fieldDescriptors = descriptor.getFields().toArray(new Descriptors.FieldDescriptor[descriptor.getFields().size()]);
       this.doesWrapRepeated = fieldDescriptors.length == 1 && fieldDescriptors[0].isRepeated() && descriptor.getName().equalsIgnoreCase(fieldDescriptors[0].getName());
+      this.fieldWriters = new FieldWriter[fieldDescriptors.length];
+      for (int i = 0; i < fieldDescriptors.length; i++) {
+        fieldWriters[i] = fieldWriter(fieldDescriptors[i]);
+      }
+      this.wrappedRepeatedWriter = doesWrapRepeated ? repeatedWriter(fieldDescriptors[0]) : null;
     }
 
     static MessageType of(Message message) {
       MessageType type = TYPES_BY_CLASS.get(message.getClass());
       if (type == null) {
+        // concurrent threads may compute the same type, but only one instance is kept
         type = new MessageType(message.getDescriptorForType());
-        TYPES_BY_CLASS.put(message.getClass(), type);
+        MessageType previous = TYPES_BY_CLASS.putIfAbsent(message.getClass(), type);
+        if (previous != null) {
+          type = previous;
+        }
       }
       return type;
     }
   }
 
+  @FunctionalInterface
+  private interface FieldWriter {
+    void write(Message message, JsonWriter writer);
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(Object value, JsonWriter writer);
+  }
+
   public static void write(Message message, JsonWriter writer) {
     writer.setSerializeNulls(false).setSerializeEmptys(true);
     writer.beginObject();
@@ -168,79 +195,87 @@ public class ProtobufJsonFormat {
   }
 
   private static void writeMessage(Message message, JsonWriter writer) {
-    MessageType type = MessageType.of(message);
-    for (Descriptors.FieldDescriptor fieldDescriptor : type.fieldDescriptors) {
-      if (fieldDescriptor.isRepeated()) {
-        writer.name(fieldDescriptor.getName());
-        if (fieldDescriptor.isMapField()) {
-          writeMap((Collection<MapEntry>) message.getField(fieldDescriptor), writer);
-        } else {
-          writeArray(writer, fieldDescriptor, (Collection) message.getField(fieldDescriptor));
-        }
-      } else if (message.hasField(fieldDescriptor)) {
-        writer.name(fieldDescriptor.getName());
-        Object fieldValue = message.getField(fieldDescriptor);
-        writeFieldValue(fieldDescriptor, fieldValue, writer);
+    for (FieldWriter fieldWriter : MessageType.of(message).fieldWriters) {
+      fieldWriter.write(message, writer);
+    }
+  }
+
+  private static FieldWriter fieldWriter(Descriptors.FieldDescriptor fieldDescriptor) {
+    String name = fieldDescriptor.getName();
+    if (fieldDescriptor.isRepeated()) {
+      FieldWriter repeatedWriter = repeatedWriter(fieldDescriptor);
+      return (message, writer) -> {
+        writer.name(name);
+        repeatedWriter.write(message, writer);
+      };
+    }
+    ValueWriter valueWriter = valueWriter(fieldDescriptor);
+    return (message, writer) -> {
+      if (message.hasField(fieldDescriptor)) {
+        writer.name(name);
+        valueWriter.write(message.getField(fieldDescriptor), writer);
       }
+    };
+  }
+
+  /**
+   * Writes the JSON array or object of a repeated field, without its name.
+   */
+  private static FieldWriter repeatedWriter(Descriptors.FieldDescriptor fieldDescriptor) {
+    if (fieldDescriptor.isMapField()) {
+      ValueWriter valueWriter = valueWriter(fieldDescriptor.getMessageType().findFieldByName("value"));
+      return (message, writer) -> writeMap((Collection<MapEntry>) message.getField(fieldDescriptor), valueWriter, writer);
     }
+    ValueWriter valueWriter = valueWriter(fieldDescriptor);
+    return (message, writer) -> writeArray((Collection) message.getField(fieldDescriptor), valueWriter, writer);
   }
 
-  private static void writeArray(JsonWriter writer, Descriptors.FieldDescriptor fieldDescriptor, Collection array) {
+  private static void writeArray(Collection array, ValueWriter valueWriter, JsonWriter writer) {
     writer.beginArray();
     for (Object o : array) {
-      writeFieldValue(fieldDescriptor, o, writer);
+      valueWriter.write(o, writer);
     }
     writer.endArray();
   }
 
-  private static void writeMap(Collection<MapEntry> mapEntries, JsonWriter writer) {
+  private static void writeMap(Collection<MapEntry> mapEntries, ValueWriter valueWriter, JsonWriter writer) {
     writer.beginObject();
     for (MapEntry mapEntry : mapEntries) {
       // Key fields are always double-quoted in json
       writer.name(mapEntry.getKey().toString());
-      Descriptors.FieldDescriptor valueDescriptor = mapEntry.getDescriptorForType().findFieldByName("value");
-      writeFieldValue(valueDescriptor, mapEntry.getValue(), writer);
+      valueWriter.write(mapEntry.getValue(), writer);
     }
     writer.endObject();
   }
 
-  private static void writeFieldValue(Descriptors.FieldDescriptor fieldDescriptor, Object value, JsonWriter writer) {
+  private static ValueWriter valueWriter(Descriptors.FieldDescriptor fieldDescriptor) {
     switch (fieldDescriptor.getJavaType()) {
       case INT:
-        writer.value((Integer) value);
-        break;
+        return (value, writer) -> writer.value((Integer) value);
       case LONG:
-        writer.value((Long) value);
-        break;
+        return (value, writer) -> writer.value((Long) value);
       case DOUBLE:
-        writer.value((Double) value);
-        break;
+        return (value, writer) -> writer.value((Double) value);
       case BOOLEAN:
-        writer.value((Boolean) value);
-        break;
+        return (value, writer) -> writer.value((Boolean) value);
       case STRING:
-        writer.value((String) value);
-        break;
+        return (value, writer) -> writer.value((String) value);
       case ENUM:
-        writer.value(((Descriptors.EnumValueDescriptor) value).getName());
-        break;
+        return (value, writer) -> writer.value(((Descriptors.EnumValueDescriptor) value).getName());
       case MESSAGE:
-        writeMessageValue((Message) value, writer);
-        break;
+        return (value, writer) -> writeMessageValue((Message) value, writer);
       default:
-        throw new IllegalStateException(String.format("JSON format does not support type '%s' of field '%s'", fieldDescriptor.getJavaType(), fieldDescriptor.getName()));
+        // fails only if the field is present
+        return (value, writer) -> {
+          throw new IllegalStateException(String.format("JSON format does not support type '%s' of field '%s'", fieldDescriptor.getJavaType(), fieldDescriptor.getName()));
+        };
     }
   }
 
   private static void writeMessageValue(Message message, JsonWriter writer) {
     MessageType messageType = MessageType.of(message);
     if (messageType.doesWrapRepeated) {
-      Descriptors.FieldDescriptor repeatedDescriptor = messageType.fieldDescriptors[0];
-      if (repeatedDescriptor.isMapField()) {
-        writeMap((Collection<MapEntry>) message.getField(repeatedDescriptor), writer);
-      } else {
-        writeArray(writer, repeatedDescriptor, (Collection) message.getField(repeatedDescriptor));
-      }
+      messageType.wrappedRepeatedWriter.write(message, writer);
     } else {
       writer.beginObject();
       writeMessage(message, writer);
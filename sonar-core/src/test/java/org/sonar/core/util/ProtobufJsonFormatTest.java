@@ -21,6 +21,11 @@ package org.sonar.core.util;
 
 import com.google.protobuf.ByteString;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
@@ -210,6 +215,27 @@ public class ProtobufJsonFormatTest {
     assertThat(toJson(msg.build())).isEqualTo("{\"catalogs\":{\"numbers\":{\"one\":\"un\",\"two\":\"deux\"}}}");
   }
 
+  @Test
+  public void write_from_concurrent_threads() throws Exception {
+    TestMapOfArray.Builder builder = TestMapOfArray.newBuilder();
+    builder.getMutableMoneys().put("eur", Countries.newBuilder().addCountries(Country.newBuilder().setContinent("Europe").setName("France")).build());
+    TestMapOfArray msg = builder.build();
+    String expected = "{\"moneys\":{\"eur\":[{\"name\":\"France\",\"continent\":\"Europe\"}]}}";
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        results.add(executor.submit(() -> toJson(msg)));
+      }
+      for (Future<String> result : results) {
+        assertThat(result.get()).isEqualTo(expected);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Test
   public void constructor_is_private() throws Exception {
     assertThat(TestUtils.hasOnlyPrivateConstructors(ProtobufJsonFormat.class)).isTrue();
@@ -28,6 +28,9 @@ import javax.annotation.CheckForNull;
  * This class is responsible for managing Sonar batch file cache. You can put file into cache and
  * later try to retrieve them. MD5 is used to differentiate files (name is not secure as files may come
  * from different Sonar servers and have same name but be actually different, and same for SNAPSHOTs).
+ * <p>
+ * It is safe to call {@link #get(String, String, Downloader)} concurrently, from different threads or processes:
+ * each download is written to its own temp file and is moved to the cache only once its checksum is verified.
  */
 public class FileCache {
 
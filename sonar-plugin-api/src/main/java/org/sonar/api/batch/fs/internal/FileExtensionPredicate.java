@@ -39,6 +39,14 @@ public class FileExtensionPredicate extends AbstractFilePredicate {
     return extension.equals(getExtension(inputFile));
   }
 
+  /**
+   * Indexed, but less selective than the file name
+   */
+  @Override
+  public int priority() {
+    return USE_INDEX - 2;
+  }
+
   @Override
   public Iterable<InputFile> get(FileSystem.Index index) {
     return index.getFilesByExtension(extension);
@@ -42,6 +42,14 @@ public class FilenamePredicate extends AbstractFilePredicate {
     return index.getFilesByName(filename);
   }
 
+  /**
+   * Indexed and matches few files, so applied before the language and type predicates
+   */
+  @Override
+  public int priority() {
+    return USE_INDEX - 1;
+  }
+
   public static String getFilename(InputFile inputFile) {
     return inputFile.file().getName();
   }
@@ -44,6 +44,8 @@ public interface OptimizedFilePredicate extends FilePredicate, Comparable<Optimi
    * are applied first.
    * Assign a high priority when the predicate will likely highly reduce the set of InputFiles to filter. Also
    * {@link RelativePathPredicate} and AbsolutePathPredicate have a high priority since they are using cache index.
+   * File name and extension predicates are also using the index, followed by the language and type predicates
+   * which match many more files.
    */
   int priority();
 }
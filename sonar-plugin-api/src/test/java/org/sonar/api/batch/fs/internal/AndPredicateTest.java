@@ -21,10 +21,17 @@ package org.sonar.api.batch.fs.internal;
 
 import org.junit.Test;
 import org.sonar.api.batch.fs.FilePredicate;
+import org.sonar.api.batch.fs.FileSystem;
+import org.sonar.api.batch.fs.InputFile;
 
 import java.util.Arrays;
+import java.util.Collections;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 public class AndPredicateTest {
 
@@ -48,6 +55,31 @@ public class AndPredicateTest {
     assertThat(((AndPredicate) andPredicate).predicates()).containsExactly(relativePathPredicate, pathPatternPredicate1, pathPatternPredicate2);
   }
 
+  @Test
+  public void sortIndexedPredicatesByPriority() {
+    PathPatternPredicate pathPatternPredicate = new PathPatternPredicate(PathPattern.create("foo/**"));
+    TypePredicate typePredicate = new TypePredicate(InputFile.Type.MAIN);
+    LanguagePredicate languagePredicate = new LanguagePredicate("java");
+    FileExtensionPredicate extensionPredicate = new FileExtensionPredicate("java");
+    FilenamePredicate filenamePredicate = new FilenamePredicate("Foo.java");
+    RelativePathPredicate relativePathPredicate = new RelativePathPredicate("foo");
+    FilePredicate andPredicate = AndPredicate.create(Arrays.<FilePredicate>asList(pathPatternPredicate,
+      typePredicate, languagePredicate, extensionPredicate, filenamePredicate, relativePathPredicate));
+    assertThat(((AndPredicate) andPredicate).predicates()).containsExactly(relativePathPredicate, filenamePredicate, extensionPredicate,
+      languagePredicate, typePredicate, pathPatternPredicate);
+  }
+
+  @Test
+  public void useFilenameIndexRatherThanTypeIndex() {
+    InputFile pom = new TestInputFileBuilder("foo", "pom.xml").setType(InputFile.Type.MAIN).build();
+    FileSystem.Index index = mock(FileSystem.Index.class);
+    when(index.getFilesByName("pom.xml")).thenReturn(Collections.singletonList(pom));
+    FilePredicate andPredicate = AndPredicate.create(Arrays.<FilePredicate>asList(new TypePredicate(InputFile.Type.MAIN), new FilenamePredicate("pom.xml")));
+
+    assertThat(((OptimizedFilePredicate) andPredicate).get(index)).containsExactly(pom);
+    verify(index, never()).getFilesByType(InputFile.Type.MAIN);
+  }
+
   @Test
   public void simplifyAndExpressionsWhenEmpty() {
     FilePredicate andPredicate = AndPredicate.create(Arrays.<FilePredicate>asList());
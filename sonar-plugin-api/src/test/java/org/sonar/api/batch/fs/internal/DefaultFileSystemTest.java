@@ -24,6 +24,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
+import org.sonar.api.batch.fs.InputFile;
 
 import java.io.File;
 import java.nio.charset.Charset;
@@ -106,6 +107,9 @@ public class DefaultFileSystemTest {
     assertThat(fs.inputFiles(fs.predicates().hasLanguage("php"))).hasSize(1);
     assertThat(fs.inputFiles(fs.predicates().hasLanguage("java"))).hasSize(2);
     assertThat(fs.inputFiles(fs.predicates().hasLanguage("cobol"))).isEmpty();
+    assertThat(fs.inputFiles(fs.predicates().hasType(InputFile.Type.MAIN))).hasSize(4);
+    assertThat(fs.inputFiles(fs.predicates().hasType(InputFile.Type.TEST))).isEmpty();
+    assertThat(fs.inputFiles(fs.predicates().and(fs.predicates().hasType(InputFile.Type.MAIN), fs.predicates().hasLanguage("java")))).hasSize(2);
 
     assertThat(fs.languages()).containsOnly("java", "php");
   }
@@ -20,6 +20,7 @@
 package org.sonar.scanner.bootstrap;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -29,6 +30,10 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.CharUtils;
@@ -45,6 +50,7 @@ import org.sonarqube.ws.client.GetRequest;
 import org.sonarqube.ws.client.WsResponse;
 
 import static java.lang.String.format;
+import static org.sonar.core.util.stream.MoreCollectors.toList;
 
 /**
  * Downloads the plugins installed on server and stores them in a local user cache
@@ -54,6 +60,8 @@ public class ScannerPluginInstaller implements PluginInstaller {
 
   private static final Logger LOG = Loggers.get(ScannerPluginInstaller.class);
   private static final String PLUGINS_INDEX_URL = "/deploy/plugins/index.txt";
+  @VisibleForTesting
+  static final int MAX_DOWNLOAD_THREADS = 4;
 
   private final FileCache fileCache;
   private final ScannerPluginPredicate pluginPredicate;
@@ -70,16 +78,35 @@ public class ScannerPluginInstaller implements PluginInstaller {
     return loadPlugins(listRemotePlugins());
   }
 
+  /**
+   * Plugins missing from cache are downloaded concurrently, by a pool of at most {@link #MAX_DOWNLOAD_THREADS}
+   * threads. {@link FileCache} supports concurrent calls, so the checksum verification of a plugin
+   * overlaps the download of the others.
+   */
   private Map<String, PluginInfo> loadPlugins(List<RemotePlugin> remotePlugins) {
     Map<String, PluginInfo> infosByKey = new HashMap<>(remotePlugins.size());
 
     Profiler profiler = Profiler.create(LOG).startDebug("Load plugins");
 
-    for (RemotePlugin remotePlugin : remotePlugins) {
-      if (pluginPredicate.apply(remotePlugin.getKey())) {
-        File jarFile = download(remotePlugin);
-        PluginInfo info = PluginInfo.create(jarFile);
-        infosByKey.put(info.getKey(), info);
+    List<RemotePlugin> pluginsToLoad = remotePlugins.stream()
+      .filter(remotePlugin -> pluginPredicate.apply(remotePlugin.getKey()))
+      .collect(toList());
+    if (!pluginsToLoad.isEmpty()) {
+      int threads = Math.min(MAX_DOWNLOAD_THREADS, pluginsToLoad.size());
+      ExecutorService executorService = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder()
+        .setNameFormat("PluginDownloader-%d")
+        .setDaemon(true)
+        .build());
+      try {
+        List<Future<PluginInfo>> tasks = pluginsToLoad.stream()
+          .map(remotePlugin -> executorService.submit(() -> PluginInfo.create(download(remotePlugin))))
+          .collect(toList());
+        for (Future<PluginInfo> task : tasks) {
+          PluginInfo info = waitFor(task);
+          infosByKey.put(info.getKey(), info);
+        }
+      } finally {
+        executorService.shutdownNow();
       }
     }
 
@@ -87,6 +114,18 @@ public class ScannerPluginInstaller implements PluginInstaller {
     return infosByKey;
   }
 
+  private static PluginInfo waitFor(Future<PluginInfo> task) {
+    try {
+      return task.get();
+    } catch (ExecutionException e) {
+      // Unwrap ExecutionException
+      throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    }
+  }
+
   /**
    * Returns empty on purpose. This method is used only by tests.
    * @see org.sonar.scanner.mediumtest.ScannerMediumTester
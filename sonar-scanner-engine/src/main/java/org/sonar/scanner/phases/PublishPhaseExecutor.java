@@ -56,7 +56,10 @@ public final class PublishPhaseExecutor extends AbstractPhaseExecutor {
 
   @Override
   protected void afterSensors() {
+    String stepName = "SCM publisher";
+    eventBus.fireEvent(new BatchStepEvent(stepName, true));
     scm.publish();
+    eventBus.fireEvent(new BatchStepEvent(stepName, false));
   }
 
   private void computeDuplications() {
@@ -0,0 +1,223 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.scanner.profiling;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang.StringUtils;
+import org.sonar.api.CoreProperties;
+import org.sonar.api.batch.events.ProjectAnalysisHandler;
+import org.sonar.api.batch.events.SensorExecutionHandler;
+import org.sonar.api.batch.fs.internal.InputModuleHierarchy;
+import org.sonar.api.resources.Project;
+import org.sonar.api.utils.System2;
+import org.sonar.api.utils.log.Logger;
+import org.sonar.api.utils.log.Loggers;
+import org.sonar.api.utils.text.JsonWriter;
+import org.sonar.scanner.bootstrap.GlobalProperties;
+import org.sonar.scanner.events.BatchStepHandler;
+import org.sonar.scanner.report.ReportPublisher;
+
+/**
+ * Machine-readable profiling of the analysis, enabled by the property {@link #PROFILING_KEY}. It records
+ * the duration of each module, of the steps of the analysis (file indexing, SCM, duplications, generation,
+ * compression and upload of the report) and the duration, CPU time and memory allocated by each sensor.
+ * <p>
+ * The JSON file {@link #FILENAME} is:
+ * <ul>
+ *   <li>added to the analysis report at the end of its generation, so that it is uploaded with it. This version
+ *   includes the generation of the report, but not its compression and upload, nor the duration of the root module
+ *   which ends after the upload.</li>
+ *   <li>written in the directory "profiling" of the working directory at the end of the analysis</li>
+ * </ul>
+ * </p>
+ */
+public class AnalysisProfiler implements ProjectAnalysisHandler, SensorExecutionHandler, BatchStepHandler {
+
+  public static final String PROFILING_KEY = "sonar.scanner.jsonProfiling";
+  static final String FILENAME = "analysis-profiling.json";
+
+  private static final Logger LOG = Loggers.get(AnalysisProfiler.class);
+  private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+  private final System2 system;
+  private final InputModuleHierarchy moduleHierarchy;
+  private final File out;
+  private final List<Entry> modules = new ArrayList<>();
+  private final List<Entry> steps = new ArrayList<>();
+  private final List<Entry> sensors = new ArrayList<>();
+  private final Map<String, Long> stepStartedAt = new HashMap<>();
+
+  private long analysisStartedAt = -1L;
+  private String currentModule;
+  private long moduleStartedAt;
+  private long sensorStartedAt;
+  private long sensorCpuTimeNs;
+  private long sensorAllocatedBytes;
+
+  public AnalysisProfiler(System2 system, GlobalProperties bootstrapProps, InputModuleHierarchy moduleHierarchy) {
+    String workingDirPath = StringUtils.defaultIfBlank(bootstrapProps.property(CoreProperties.WORKING_DIRECTORY), CoreProperties.WORKING_DIRECTORY_DEFAULT_VALUE);
+    this.out = new File(new File(workingDirPath).getAbsoluteFile(), "profiling");
+    this.system = system;
+    this.moduleHierarchy = moduleHierarchy;
+  }
+
+  @Override
+  public void onProjectAnalysis(ProjectAnalysisEvent event) {
+    Project module = event.getProject();
+    if (event.isStart()) {
+      currentModule = module.getKey();
+      moduleStartedAt = system.now();
+      if (analysisStartedAt < 0) {
+        analysisStartedAt = moduleStartedAt;
+      }
+    } else {
+      modules.add(new Entry(module.getKey(), module.getName(), system.now() - moduleStartedAt));
+      if (module.getParent() == null) {
+        dumpToFile();
+      }
+    }
+  }
+
+  @Override
+  public void onSensorExecution(SensorExecutionEvent event) {
+    if (event.isStart()) {
+      sensorStartedAt = system.now();
+      sensorCpuTimeNs = currentCpuTimeNs();
+      sensorAllocatedBytes = currentAllocatedBytes();
+    } else {
+      Entry entry = new Entry(currentModule, PhaseProfiling.toStringOrSimpleName(event.getSensor()), system.now() - sensorStartedAt);
+      long cpuTimeNs = delta(sensorCpuTimeNs, currentCpuTimeNs());
+      entry.cpuTimeMs = cpuTimeNs < 0 ? -1L : (cpuTimeNs / 1_000_000L);
+      entry.allocatedBytes = delta(sensorAllocatedBytes, currentAllocatedBytes());
+      sensors.add(entry);
+    }
+  }
+
+  @Override
+  public void onBatchStep(BatchStepEvent event) {
+    if (event.isStart()) {
+      stepStartedAt.put(event.stepName(), system.now());
+    } else {
+      Long startedAt = stepStartedAt.remove(event.stepName());
+      if (startedAt != null) {
+        steps.add(new Entry(currentModule, event.stepName(), system.now() - startedAt));
+      }
+      if (ReportPublisher.GENERATE_STEP.equals(event.stepName())) {
+        // all the publishers have been executed, but the report is not compressed yet
+        write(new File(new File(moduleHierarchy.root().getWorkDir(), ReportPublisher.REPORT_DIR_NAME), FILENAME));
+      }
+    }
+  }
+
+  private void dumpToFile() {
+    File file = new File(out, FILENAME);
+    write(file);
+    LOG.info("Profiling data stored in {}", file.getAbsolutePath());
+  }
+
+  private void write(File file) {
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+      try (Writer writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+        writeJson(writer);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to store profiler output: " + file, e);
+    }
+  }
+
+  @VisibleForTesting
+  void writeJson(Writer writer) {
+    JsonWriter json = JsonWriter.of(writer);
+    json.beginObject()
+      .prop("timeMs", analysisStartedAt < 0 ? 0L : (system.now() - analysisStartedAt));
+    writeEntries(json, "modules", modules);
+    writeEntries(json, "steps", steps);
+    writeEntries(json, "sensors", sensors);
+    json.endObject().close();
+  }
+
+  private static void writeEntries(JsonWriter json, String name, List<Entry> entries) {
+    json.name(name).beginArray();
+    for (Entry entry : entries) {
+      json.beginObject()
+        .prop("module", entry.module)
+        .prop("name", entry.name)
+        .prop("timeMs", entry.timeMs);
+      if (entry.cpuTimeMs >= 0) {
+        json.prop("cpuTimeMs", entry.cpuTimeMs);
+      }
+      if (entry.allocatedBytes >= 0) {
+        json.prop("allocatedBytes", entry.allocatedBytes);
+      }
+      json.endObject();
+    }
+    json.endArray();
+  }
+
+  private static long delta(long start, long end) {
+    if (start < 0 || end < 0) {
+      return -1L;
+    }
+    return end - start;
+  }
+
+  private static long currentCpuTimeNs() {
+    if (THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled()) {
+      return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+    return -1L;
+  }
+
+  private static long currentAllocatedBytes() {
+    if (THREAD_MX_BEAN instanceof com.sun.management.ThreadMXBean) {
+      com.sun.management.ThreadMXBean sunThreadMXBean = (com.sun.management.ThreadMXBean) THREAD_MX_BEAN;
+      if (sunThreadMXBean.isThreadAllocatedMemorySupported() && sunThreadMXBean.isThreadAllocatedMemoryEnabled()) {
+        return sunThreadMXBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+      }
+    }
+    return -1L;
+  }
+
+  private static final class Entry {
+    private final String module;
+    private final String name;
+    private final long timeMs;
+    private long cpuTimeMs = -1L;
+    private long allocatedBytes = -1L;
+
+    private Entry(String module, String name, long timeMs) {
+      this.module = module;
+      this.name = name;
+      this.timeMs = timeMs;
+    }
+  }
+}
@@ -52,12 +52,14 @@ public class ComponentsPublisher implements ReportPublisherStep {
 
   private InputComponentTree componentTree;
   private InputModuleHierarchy moduleHierarchy;
+  private UnchangedSources unchangedSources;
   private ScannerReportReader reader;
   private ScannerReportWriter writer;
 
-  public ComponentsPublisher(InputModuleHierarchy moduleHierarchy, InputComponentTree inputComponentTree) {
+  public ComponentsPublisher(InputModuleHierarchy moduleHierarchy, InputComponentTree inputComponentTree, UnchangedSources unchangedSources) {
     this.moduleHierarchy = moduleHierarchy;
     this.componentTree = inputComponentTree;
+    this.unchangedSources = unchangedSources;
   }
 
   @Override
@@ -114,6 +116,10 @@ public class ComponentsPublisher implements ReportPublisherStep {
       if (lang != null) {
         builder.setLanguage(lang);
       }
+      if (unchangedSources.isUnchanged(file)) {
+        builder.setCopySourceFromPrevious(true);
+        builder.setSourceHash(file.hash());
+      }
     }
 
     String path = getPath(component);
@@ -48,6 +48,8 @@ import org.sonar.api.utils.log.Logger;
 import org.sonar.api.utils.log.Loggers;
 import org.sonar.scanner.analysis.DefaultAnalysisMode;
 import org.sonar.scanner.bootstrap.ScannerWsClient;
+import org.sonar.scanner.events.BatchStepEvent;
+import org.sonar.scanner.events.EventBus;
 import org.sonar.scanner.protocol.output.ScannerReportWriter;
 import org.sonarqube.ws.MediaTypes;
 import org.sonarqube.ws.WsCe;
@@ -68,6 +70,10 @@ public class ReportPublisher implements Startable {
   public static final String KEEP_REPORT_PROP_KEY = "sonar.batch.keepReport";
   public static final String VERBOSE_KEY = "sonar.verbose";
   public static final String METADATA_DUMP_FILENAME = "report-task.txt";
+  public static final String REPORT_DIR_NAME = "batch-report";
+  public static final String GENERATE_STEP = "Generate report";
+  private static final String COMPRESS_STEP = "Compress report";
+  private static final String UPLOAD_STEP = "Upload report";
 
   private final Configuration settings;
   private final ScannerWsClient wsClient;
@@ -77,12 +83,13 @@ public class ReportPublisher implements Startable {
   private final TempFolder temp;
   private final ReportPublisherStep[] publishers;
   private final Server server;
+  private final EventBus eventBus;
 
   private File reportDir;
   private ScannerReportWriter writer;
 
   public ReportPublisher(Configuration settings, ScannerWsClient wsClient, Server server, AnalysisContextReportPublisher contextPublisher,
-    InputModuleHierarchy moduleHierarchy, DefaultAnalysisMode analysisMode, TempFolder temp, ReportPublisherStep[] publishers) {
+    InputModuleHierarchy moduleHierarchy, DefaultAnalysisMode analysisMode, TempFolder temp, ReportPublisherStep[] publishers, EventBus eventBus) {
     this.settings = settings;
     this.wsClient = wsClient;
     this.server = server;
@@ -91,11 +98,12 @@ public class ReportPublisher implements Startable {
     this.analysisMode = analysisMode;
     this.temp = temp;
     this.publishers = publishers;
+    this.eventBus = eventBus;
   }
 
   @Override
   public void start() {
-    reportDir = new File(moduleHierarchy.root().getWorkDir(), "batch-report");
+    reportDir = new File(moduleHierarchy.root().getWorkDir(), REPORT_DIR_NAME);
     writer = new ScannerReportWriter(reportDir);
     contextPublisher.init(writer);
 
@@ -143,17 +151,21 @@ public class ReportPublisher implements Startable {
 
   private File generateReportFile() {
     try {
+      eventBus.fireEvent(new BatchStepEvent(GENERATE_STEP, true));
       long startTime = System.currentTimeMillis();
       for (ReportPublisherStep publisher : publishers) {
         publisher.publish(writer);
       }
       long stopTime = System.currentTimeMillis();
+      eventBus.fireEvent(new BatchStepEvent(GENERATE_STEP, false));
       LOG.info("Analysis report generated in {}ms, dir size={}", stopTime - startTime, FileUtils.byteCountToDisplaySize(FileUtils.sizeOfDirectory(reportDir)));
 
+      eventBus.fireEvent(new BatchStepEvent(COMPRESS_STEP, true));
       startTime = System.currentTimeMillis();
       File reportZip = temp.newFile("batch-report", ".zip");
       ZipUtils.zipDir(reportDir, reportZip);
       stopTime = System.currentTimeMillis();
+      eventBus.fireEvent(new BatchStepEvent(COMPRESS_STEP, false));
       LOG.info("Analysis reports compressed in {}ms, zip size={}", stopTime - startTime, FileUtils.byteCountToDisplaySize(FileUtils.sizeOf(reportZip)));
       return reportZip;
     } catch (IOException e) {
@@ -167,6 +179,7 @@ public class ReportPublisher implements Startable {
   @VisibleForTesting
   String upload(File report) {
     LOG.debug("Upload report");
+    eventBus.fireEvent(new BatchStepEvent(UPLOAD_STEP, true));
     long startTime = System.currentTimeMillis();
     PostRequest.Part filePart = new PostRequest.Part(MediaTypes.ZIP, report);
     PostRequest post = new PostRequest("api/ce/submit")
@@ -191,6 +204,7 @@ public class ReportPublisher implements Startable {
     } finally {
       long stopTime = System.currentTimeMillis();
       LOG.info("Analysis report uploaded in " + (stopTime - startTime) + "ms");
+      eventBus.fireEvent(new BatchStepEvent(UPLOAD_STEP, false));
     }
   }
 
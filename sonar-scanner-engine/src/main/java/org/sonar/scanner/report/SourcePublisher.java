@@ -19,51 +19,144 @@
  */
 package org.sonar.scanner.report;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
-import org.apache.commons.io.IOUtils;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.scanner.protocol.output.ScannerReportWriter;
 import org.sonar.scanner.scan.filesystem.InputComponentStore;
 
+/**
+ * Writes the source of the files into the report, in UTF-8 and with LF line ends. Files are written concurrently.
+ * Sources which are already encoded in UTF-8 are copied without being decoded, only their line ends are normalized.
+ */
 public class SourcePublisher implements ReportPublisherStep {
 
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final byte LINE_FEED = '\n';
+  private static final byte CARRIAGE_RETURN = '\r';
+
   private final InputComponentStore componentCache;
+  private final UnchangedSources unchangedSources;
 
-  public SourcePublisher(InputComponentStore componentStore) {
+  public SourcePublisher(InputComponentStore componentStore, UnchangedSources unchangedSources) {
     this.componentCache = componentStore;
+    this.unchangedSources = unchangedSources;
   }
 
   @Override
   public void publish(ScannerReportWriter writer) {
-    for (final DefaultInputFile inputFile : componentCache.allFilesToPublish()) {
-      File iofile = writer.getSourceFile(inputFile.batchId());
+    List<DefaultInputFile> inputFiles = new ArrayList<>();
+    for (DefaultInputFile inputFile : componentCache.allFilesToPublish()) {
+      // unchanged sources are copied from the previous analysis by the compute engine
+      if (!unchangedSources.isUnchanged(inputFile)) {
+        inputFiles.add(inputFile);
+      }
+    }
+    if (inputFiles.isEmpty()) {
+      return;
+    }
+
+    int threads = Math.min(inputFiles.size(), Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    ExecutorService executorService = Executors.newFixedThreadPool(threads, new ThreadFactoryBuilder().setNameFormat("SourcePublisher-%d").build());
+    try {
+      List<Future<Void>> tasks = new ArrayList<>(inputFiles.size());
+      for (DefaultInputFile inputFile : inputFiles) {
+        // metadata is lazily computed and its generation is not thread-safe
+        Charset charset = inputFile.charset();
+        int lines = inputFile.lines();
+        tasks.add(executorService.submit(() -> {
+          writeSource(writer, inputFile, charset, lines);
+          return null;
+        }));
+      }
+      waitForTasksToComplete(tasks);
+    } finally {
+      executorService.shutdownNow();
+    }
+  }
+
+  private static void waitForTasksToComplete(List<Future<Void>> tasks) {
+    for (Future<Void> task : tasks) {
+      try {
+        task.get();
+      } catch (ExecutionException e) {
+        // Unwrap ExecutionException
+        throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : new IllegalStateException(e.getCause());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  private static void writeSource(ScannerReportWriter writer, DefaultInputFile inputFile, Charset charset, int lines) {
+    File iofile = writer.getSourceFile(inputFile.batchId());
+    try (OutputStream output = new BufferedOutputStream(new FileOutputStream(iofile), BUFFER_SIZE);
+      InputStream in = inputFile.inputStream()) {
+      if (StandardCharsets.UTF_8.equals(charset)) {
+        copyWithLineFeeds(in, output);
+      } else {
+        transcode(new BufferedReader(new InputStreamReader(in, charset), BUFFER_SIZE), output, lines);
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Unable to store file source in the report", e);
+    }
+  }
 
-      try (FileOutputStream output = new FileOutputStream(iofile);
-        InputStream in = inputFile.inputStream();
-        BufferedReader reader = new BufferedReader(new InputStreamReader(in, inputFile.charset()))) {
-        writeSource(reader, output, inputFile.lines());
-      } catch (IOException e) {
-        throw new IllegalStateException("Unable to store file source in the report", e);
+  /**
+   * Copies UTF-8 bytes as-is, except CR and CRLF which are replaced by LF. These bytes can not be part of
+   * a multi-byte UTF-8 character, so the source does not need to be decoded.
+   */
+  private static void copyWithLineFeeds(InputStream in, OutputStream output) throws IOException {
+    byte[] buffer = new byte[BUFFER_SIZE];
+    boolean afterCarriageReturn = false;
+    int read;
+    while ((read = in.read(buffer)) != -1) {
+      int start = 0;
+      for (int i = 0; i < read; i++) {
+        byte b = buffer[i];
+        if (b == CARRIAGE_RETURN || (b == LINE_FEED && afterCarriageReturn)) {
+          output.write(buffer, start, i - start);
+          if (b == CARRIAGE_RETURN) {
+            output.write(LINE_FEED);
+          }
+          start = i + 1;
+        }
+        afterCarriageReturn = b == CARRIAGE_RETURN;
       }
+      output.write(buffer, start, read - start);
     }
   }
 
-  private static void writeSource(BufferedReader reader, FileOutputStream output, int lines) throws IOException {
+  private static void transcode(BufferedReader reader, OutputStream output, int lines) throws IOException {
+    Writer utf8Writer = new OutputStreamWriter(output, StandardCharsets.UTF_8);
     int line = 0;
     String lineStr = reader.readLine();
     while (lineStr != null) {
-      IOUtils.write(lineStr, output, StandardCharsets.UTF_8);
+      utf8Writer.write(lineStr);
       line++;
       if (line < lines) {
-        IOUtils.write("\n", output, StandardCharsets.UTF_8);
+        utf8Writer.write(LINE_FEED);
       }
       lineStr = reader.readLine();
     }
+    utf8Writer.flush();
   }
 }
@@ -0,0 +1,45 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.scanner.report;
+
+import org.apache.commons.lang.StringUtils;
+import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
+import org.sonar.api.config.Configuration;
+
+/**
+ * Files whose source, syntax highlighting and symbols are not written to the report, because their
+ * content is the same as in the previous analysis (status {@link InputFile.Status#SAME}, computed by comparing
+ * hashes with the ones sent by the server). The compute engine copies these data from the previous analysis.
+ */
+public class UnchangedSources {
+
+  public static final String FORCE_RELOAD_KEY = "sonar.scanner.forceReloadSources";
+
+  private final boolean forceReload;
+
+  public UnchangedSources(Configuration settings) {
+    this.forceReload = settings.getBoolean(FORCE_RELOAD_KEY).orElse(false);
+  }
+
+  public boolean isUnchanged(DefaultInputFile inputFile) {
+    return !forceReload && inputFile.status() == InputFile.Status.SAME && StringUtils.isNotEmpty(inputFile.hash());
+  }
+}
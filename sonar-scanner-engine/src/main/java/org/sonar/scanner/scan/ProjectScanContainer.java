@@ -57,6 +57,7 @@ import org.sonar.scanner.issue.tracking.ServerIssueRepository;
 import org.sonar.scanner.issue.tracking.ServerLineHashesLoader;
 import org.sonar.scanner.mediumtest.ScanTaskObservers;
 import org.sonar.scanner.phases.PhasesTimeProfiler;
+import org.sonar.scanner.profiling.AnalysisProfiler;
 import org.sonar.scanner.profiling.PhasesSumUpTimeProfiler;
 import org.sonar.scanner.report.ActiveRulesPublisher;
 import org.sonar.scanner.report.AnalysisContextReportPublisher;
@@ -68,6 +69,7 @@ import org.sonar.scanner.report.MetadataPublisher;
 import org.sonar.scanner.report.ReportPublisher;
 import org.sonar.scanner.report.SourcePublisher;
 import org.sonar.scanner.report.TestExecutionAndCoveragePublisher;
+import org.sonar.scanner.report.UnchangedSources;
 import org.sonar.scanner.repository.ContextPropertiesCache;
 import org.sonar.scanner.repository.DefaultProjectRepositoriesLoader;
 import org.sonar.scanner.repository.DefaultQualityProfileLoader;
@@ -116,6 +118,9 @@ public class ProjectScanContainer extends ComponentContainer {
     if (settings != null && settings.getBoolean(CoreProperties.PROFILING_LOG_PROPERTY)) {
       add(PhasesSumUpTimeProfiler.class);
     }
+    if (settings != null && settings.getBoolean(AnalysisProfiler.PROFILING_KEY)) {
+      add(AnalysisProfiler.class);
+    }
     if (isTherePreviousAnalysis()) {
       addIssueTrackingComponents();
     }
@@ -194,6 +199,7 @@ public class ProjectScanContainer extends ComponentContainer {
       MeasuresPublisher.class,
       CoveragePublisher.class,
       SourcePublisher.class,
+      UnchangedSources.class,
       TestExecutionAndCoveragePublisher.class,
 
       // Cpd
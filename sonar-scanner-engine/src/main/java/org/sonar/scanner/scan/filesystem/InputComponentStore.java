@@ -20,16 +20,21 @@
 package org.sonar.scanner.scan.filesystem;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.Iterables;
 import com.google.common.collect.LinkedHashMultimap;
+import com.google.common.collect.MultimapBuilder;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Table;
 import com.google.common.collect.TreeBasedTable;
 import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.SortedSet;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import javax.annotation.CheckForNull;
 import org.sonar.api.batch.ScannerSide;
@@ -63,6 +68,9 @@ public class InputComponentStore {
   private final Map<String, InputComponent> inputComponents = new HashMap<>();
   private final SetMultimap<String, InputFile> filesByNameCache = LinkedHashMultimap.create();
   private final SetMultimap<String, InputFile> filesByExtensionCache = LinkedHashMultimap.create();
+  // indexed by module key. Files are sorted by module and relative path, as in inputFileCache.
+  private final SortedMap<String, SetMultimap<String, InputFile>> filesByLanguageCache = new TreeMap<>();
+  private final SortedMap<String, SetMultimap<InputFile.Type, InputFile>> filesByTypeCache = new TreeMap<>();
   private final InputModule root;
 
   public InputComponentStore(PathResolver pathResolver, DefaultInputModule root) {
@@ -108,12 +116,22 @@ public class InputComponentStore {
   public InputComponentStore removeModule(String moduleKey) {
     inputFileCache.row(moduleKey).clear();
     inputDirCache.row(moduleKey).clear();
+    filesByLanguageCache.remove(moduleKey);
+    filesByTypeCache.remove(moduleKey);
     return this;
   }
 
   public InputComponentStore remove(InputFile inputFile) {
     DefaultInputFile file = (DefaultInputFile) inputFile;
     inputFileCache.remove(file.moduleKey(), inputFile.relativePath());
+    SetMultimap<String, InputFile> filesByLanguage = filesByLanguageCache.get(file.moduleKey());
+    if (filesByLanguage != null && file.language() != null) {
+      filesByLanguage.remove(file.language(), inputFile);
+    }
+    SetMultimap<InputFile.Type, InputFile> filesByType = filesByTypeCache.get(file.moduleKey());
+    if (filesByType != null) {
+      filesByType.remove(file.type(), inputFile);
+    }
     return this;
   }
 
@@ -131,6 +149,7 @@ public class InputComponentStore {
     inputComponents.put(inputFile.key(), inputFile);
     filesByNameCache.put(FilenamePredicate.getFilename(inputFile), inputFile);
     filesByExtensionCache.put(FileExtensionPredicate.getExtension(inputFile), inputFile);
+    filesByTypeCache.computeIfAbsent(file.moduleKey(), k -> newSortedFileMultimap()).put(file.type(), inputFile);
     return this;
   }
 
@@ -139,9 +158,14 @@ public class InputComponentStore {
     if (language != null) {
       globalLanguagesCache.add(language);
       languagesCache.computeIfAbsent(inputFile.moduleKey(), k -> new TreeSet<>()).add(language);
+      filesByLanguageCache.computeIfAbsent(inputFile.moduleKey(), k -> newSortedFileMultimap()).put(language, inputFile);
     }
   }
 
+  private static <K> SetMultimap<K, InputFile> newSortedFileMultimap() {
+    return MultimapBuilder.hashKeys().treeSetValues(Comparator.comparing(InputFile::relativePath)).build();
+  }
+
   public InputComponentStore put(InputDir inputDir) {
     DefaultInputDir dir = (DefaultInputDir) inputDir;
     inputDirCache.put(dir.moduleKey(), inputDir.relativePath(), inputDir);
@@ -205,6 +229,24 @@ public class InputComponentStore {
     return filesByExtensionCache.get(extension);
   }
 
+  public Iterable<InputFile> getFilesByLanguage(String language) {
+    return Iterables.concat(Iterables.transform(filesByLanguageCache.values(), files -> files.get(language)));
+  }
+
+  public Iterable<InputFile> getFilesByLanguage(String moduleKey, String language) {
+    SetMultimap<String, InputFile> files = filesByLanguageCache.get(moduleKey);
+    return files == null ? Collections.emptySet() : files.get(language);
+  }
+
+  public Iterable<InputFile> getFilesByType(InputFile.Type type) {
+    return Iterables.concat(Iterables.transform(filesByTypeCache.values(), files -> files.get(type)));
+  }
+
+  public Iterable<InputFile> getFilesByType(String moduleKey, InputFile.Type type) {
+    SetMultimap<InputFile.Type, InputFile> files = filesByTypeCache.get(moduleKey);
+    return files == null ? Collections.emptySet() : files.get(type);
+  }
+
   public SortedSet<String> getLanguages() {
     return globalLanguagesCache;
   }
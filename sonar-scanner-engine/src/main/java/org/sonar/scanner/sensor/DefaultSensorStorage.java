@@ -108,6 +108,7 @@ import org.sonar.scanner.protocol.output.ScannerReport;
 import org.sonar.scanner.protocol.output.ScannerReportWriter;
 import org.sonar.scanner.report.ReportPublisher;
 import org.sonar.scanner.report.ScannerReportUtils;
+import org.sonar.scanner.report.UnchangedSources;
 import org.sonar.scanner.repository.ContextPropertiesCache;
 import org.sonar.scanner.scan.measure.MeasureCache;
 import org.sonar.scanner.sensor.coverage.CoverageExclusions;
@@ -150,6 +151,7 @@ public class DefaultSensorStorage implements SensorStorage {
   private final ContextPropertiesCache contextPropertiesCache;
   private final Configuration settings;
   private final ScannerMetrics scannerMetrics;
+  private final UnchangedSources unchangedSources;
   private final Map<Metric<?>, Metric<?>> deprecatedCoverageMetricMapping = new HashMap<>();
   private final Set<Metric<?>> coverageMetrics = new HashSet<>();
   private final Set<Metric<?>> byLineMetrics = new HashSet<>();
@@ -157,7 +159,7 @@ public class DefaultSensorStorage implements SensorStorage {
 
   public DefaultSensorStorage(MetricFinder metricFinder, ModuleIssues moduleIssues, Configuration settings, CoverageExclusions coverageExclusions,
     ReportPublisher reportPublisher, MeasureCache measureCache, SonarCpdBlockIndex index,
-    ContextPropertiesCache contextPropertiesCache, ScannerMetrics scannerMetrics) {
+    ContextPropertiesCache contextPropertiesCache, ScannerMetrics scannerMetrics, UnchangedSources unchangedSources) {
     this.metricFinder = metricFinder;
     this.moduleIssues = moduleIssues;
     this.settings = settings;
@@ -167,6 +169,7 @@ public class DefaultSensorStorage implements SensorStorage {
     this.index = index;
     this.contextPropertiesCache = contextPropertiesCache;
     this.scannerMetrics = scannerMetrics;
+    this.unchangedSources = unchangedSources;
 
     coverageMetrics.add(UNCOVERED_LINES);
     coverageMetrics.add(LINES_TO_COVER);
@@ -371,6 +374,10 @@ public class DefaultSensorStorage implements SensorStorage {
     if (writer.hasComponentData(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS, componentRef)) {
       throw new UnsupportedOperationException("Trying to save highlighting twice for the same file is not supported: " + inputFile.absolutePath());
     }
+    if (unchangedSources.isUnchanged(inputFile)) {
+      // copied from the previous analysis by the compute engine
+      return;
+    }
     final ScannerReport.SyntaxHighlightingRule.Builder builder = ScannerReport.SyntaxHighlightingRule.newBuilder();
     final ScannerReport.TextRange.Builder rangeBuilder = ScannerReport.TextRange.newBuilder();
 
@@ -396,6 +403,10 @@ public class DefaultSensorStorage implements SensorStorage {
     if (writer.hasComponentData(FileStructure.Domain.SYMBOLS, componentRef)) {
       throw new UnsupportedOperationException("Trying to save symbol table twice for the same file is not supported: " + symbolTable.inputFile().absolutePath());
     }
+    if (unchangedSources.isUnchanged(inputFile)) {
+      // copied from the previous analysis by the compute engine
+      return;
+    }
     final ScannerReport.Symbol.Builder builder = ScannerReport.Symbol.newBuilder();
     final ScannerReport.TextRange.Builder rangeBuilder = ScannerReport.TextRange.newBuilder();
     writer.writeComponentSymbols(componentRef,
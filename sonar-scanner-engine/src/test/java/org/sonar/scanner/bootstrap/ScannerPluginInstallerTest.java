@@ -33,8 +33,10 @@ import org.sonar.scanner.WsTestUtil;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 public class ScannerPluginInstallerTest {
@@ -76,6 +78,31 @@ public class ScannerPluginInstallerTest {
     assertThat(file).isEqualTo(pluginJar);
   }
 
+  @Test
+  public void download_only_plugins_accepted_by_predicate() {
+    WsTestUtil.mockReader(wsClient, "/deploy/plugins/index.txt",
+      new StringReader("checkstyle,true,checkstyle-plugin.jar|fakemd5_1\nsqale,true,sqale-plugin.jar|fakemd5_2"));
+    when(pluginPredicate.apply("checkstyle")).thenReturn(false);
+    when(pluginPredicate.apply("sqale")).thenReturn(false);
+
+    assertThat(new ScannerPluginInstaller(wsClient, fileCache, pluginPredicate).installRemotes()).isEmpty();
+
+    verifyZeroInteractions(fileCache);
+  }
+
+  @Test
+  public void fail_if_a_plugin_can_not_be_downloaded() {
+    WsTestUtil.mockReader(wsClient, "/deploy/plugins/index.txt",
+      new StringReader("checkstyle,true,checkstyle-plugin.jar|fakemd5_1\nsqale,true,sqale-plugin.jar|fakemd5_2"));
+    when(pluginPredicate.apply(anyString())).thenReturn(true);
+    when(fileCache.get(anyString(), anyString(), any(FileCache.Downloader.class))).thenThrow(new IllegalStateException("INVALID HASH"));
+
+    thrown.expect(IllegalStateException.class);
+    thrown.expectMessage("Fail to download plugin: checkstyle");
+
+    new ScannerPluginInstaller(wsClient, fileCache, pluginPredicate).installRemotes();
+  }
+
   @Test
   public void should_fail_to_get_plugin_index() {
     WsTestUtil.mockException(wsClient, "/deploy/plugins/index.txt", new IllegalStateException());
@@ -0,0 +1,217 @@
+/*
+ * SonarQube
+ * Copyright (C) 2009-2017 SonarSource SA
+ * mailto:info AT sonarsource DOT com
+ *
+ * This program is free software; you can redistribute it and/or
+ * modify it under the terms of the GNU Lesser General Public
+ * License as published by the Free Software Foundation; either
+ * version 3 of the License, or (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program; if not, write to the Free Software Foundation,
+ * Inc., 51 Franklin Street, Fifth Floor, Boston, MA  02110-1301, USA.
+ */
+package org.sonar.scanner.profiling;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sonar.api.CoreProperties;
+import org.sonar.api.batch.Sensor;
+import org.sonar.api.batch.SensorContext;
+import org.sonar.api.batch.bootstrap.ProjectDefinition;
+import org.sonar.api.batch.events.EventHandler;
+import org.sonar.api.batch.events.ProjectAnalysisHandler;
+import org.sonar.api.batch.events.SensorExecutionHandler;
+import org.sonar.api.batch.fs.internal.DefaultInputModule;
+import org.sonar.api.batch.fs.internal.InputModuleHierarchy;
+import org.sonar.api.config.internal.MapSettings;
+import org.sonar.api.platform.Server;
+import org.sonar.api.resources.Project;
+import org.sonar.api.utils.System2;
+import org.sonar.api.utils.TempFolder;
+import org.sonar.scanner.analysis.DefaultAnalysisMode;
+import org.sonar.scanner.bootstrap.GlobalProperties;
+import org.sonar.scanner.bootstrap.ScannerWsClient;
+import org.sonar.scanner.events.BatchStepEvent;
+import org.sonar.scanner.events.EventBus;
+import org.sonar.scanner.report.AnalysisContextReportPublisher;
+import org.sonar.scanner.report.ReportPublisher;
+import org.sonar.scanner.report.ReportPublisherStep;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AnalysisProfilerTest {
+
+  @Rule
+  public TemporaryFolder temp = new TemporaryFolder();
+
+  private MockedSystem clock = new MockedSystem();
+  private File workingDir;
+  private File moduleWorkDir;
+  private InputModuleHierarchy moduleHierarchy = mock(InputModuleHierarchy.class);
+  private AnalysisProfiler underTest;
+
+  @Before
+  public void prepare() throws Exception {
+    workingDir = temp.newFolder();
+    Map<String, String> props = new HashMap<>();
+    props.put(CoreProperties.WORKING_DIRECTORY, workingDir.getAbsolutePath());
+    moduleWorkDir = temp.newFolder();
+    when(moduleHierarchy.root()).thenReturn(new DefaultInputModule(ProjectDefinition.create().setKey("root").setWorkDir(moduleWorkDir)));
+    underTest = new AnalysisProfiler(clock, new GlobalProperties(props), moduleHierarchy);
+  }
+
+  @Test
+  public void write_profiling_in_working_directory_at_the_end_of_the_analysis() throws IOException {
+    Project root = new Project(ProjectDefinition.create().setKey("root").setName("Root"));
+    Project module = new Project(ProjectDefinition.create().setKey("module").setName("Module"));
+    root.definition().addSubProject(module.definition());
+
+    analyseModule(module);
+    File dump = new File(workingDir, "profiling/" + AnalysisProfiler.FILENAME);
+    assertThat(dump).doesNotExist();
+
+    analyseModule(root);
+    assertThat(dump).exists();
+    String json = FileUtils.readFileToString(dump, UTF_8);
+    assertThat(json).startsWith("{\"timeMs\":40,\"modules\":[{\"module\":\"module\",\"name\":\"Module\",\"timeMs\":20},"
+      + "{\"module\":\"root\",\"name\":\"Root\",\"timeMs\":20}],\"steps\":[{\"module\":\"module\",\"name\":\"SCM publisher\",\"timeMs\":5},"
+      + "{\"module\":\"root\",\"name\":\"SCM publisher\",\"timeMs\":5}],\"sensors\":[{\"module\":\"module\",\"name\":\"FakeSensor\",\"timeMs\":15");
+  }
+
+  @Test
+  public void add_profiling_to_analysis_report_once_generated() throws IOException {
+    Project root = new Project(ProjectDefinition.create().setKey("root").setName("Root"));
+    underTest.onProjectAnalysis(projectEvent(root, true));
+    sensor();
+    File zip = temp.newFile();
+    TempFolder tempFolder = mock(TempFolder.class);
+    when(tempFolder.newFile("batch-report", ".zip")).thenReturn(zip);
+    DefaultAnalysisMode mode = mock(DefaultAnalysisMode.class);
+    when(mode.isMediumTest()).thenReturn(true);
+    ReportPublisherStep slowPublisher = writer -> clock.sleep(10);
+    ReportPublisher reportPublisher = new ReportPublisher(new MapSettings().asConfig(), mock(ScannerWsClient.class), mock(Server.class),
+      mock(AnalysisContextReportPublisher.class), moduleHierarchy, mode, tempFolder, new ReportPublisherStep[] {slowPublisher},
+      new EventBus(new EventHandler[] {underTest}));
+    reportPublisher.start();
+
+    reportPublisher.execute();
+
+    try (ZipFile report = new ZipFile(zip)) {
+      ZipEntry entry = report.getEntry(AnalysisProfiler.FILENAME);
+      assertThat(entry).isNotNull();
+      assertThat(IOUtils.toString(report.getInputStream(entry), UTF_8))
+        .startsWith("{\"timeMs\":25,\"modules\":[],\"steps\":[{\"module\":\"root\",\"name\":\"Generate report\",\"timeMs\":10}],"
+          + "\"sensors\":[{\"module\":\"root\",\"name\":\"FakeSensor\",\"timeMs\":15")
+        .doesNotContain("Compress report");
+    }
+  }
+
+  @Test
+  public void ignore_end_of_step_which_has_not_started() {
+    underTest.onBatchStep(new BatchStepEvent("Upload report", false));
+
+    StringWriter json = new StringWriter();
+    underTest.writeJson(json);
+
+    assertThat(json.toString()).isEqualTo("{\"timeMs\":0,\"modules\":[],\"steps\":[],\"sensors\":[]}");
+  }
+
+  private void analyseModule(Project module) {
+    underTest.onProjectAnalysis(projectEvent(module, true));
+    sensor();
+    underTest.onBatchStep(new BatchStepEvent("SCM publisher", true));
+    clock.sleep(5);
+    underTest.onBatchStep(new BatchStepEvent("SCM publisher", false));
+    underTest.onProjectAnalysis(projectEvent(module, false));
+  }
+
+  private void sensor() {
+    Sensor sensor = new FakeSensor();
+    underTest.onSensorExecution(sensorEvent(sensor, true));
+    clock.sleep(15);
+    underTest.onSensorExecution(sensorEvent(sensor, false));
+  }
+
+  private static ProjectAnalysisHandler.ProjectAnalysisEvent projectEvent(final Project project, final boolean start) {
+    return new ProjectAnalysisHandler.ProjectAnalysisEvent() {
+      @Override
+      public boolean isStart() {
+        return start;
+      }
+
+      @Override
+      public boolean isEnd() {
+        return !start;
+      }
+
+      @Override
+      public Project getProject() {
+        return project;
+      }
+    };
+  }
+
+  private static SensorExecutionHandler.SensorExecutionEvent sensorEvent(final Sensor sensor, final boolean start) {
+    return new SensorExecutionHandler.SensorExecutionEvent() {
+      @Override
+      public boolean isStart() {
+        return start;
+      }
+
+      @Override
+      public boolean isEnd() {
+        return !start;
+      }
+
+      @Override
+      public Sensor getSensor() {
+        return sensor;
+      }
+    };
+  }
+
+  private static class MockedSystem extends System2 {
+    private long now = 0;
+
+    @Override
+    public long now() {
+      return now;
+    }
+
+    void sleep(long duration) {
+      now += duration;
+    }
+  }
+
+  private static class FakeSensor implements Sensor {
+    @Override
+    public void analyse(Project project, SensorContext context) {
+    }
+
+    @Override
+    public boolean shouldExecuteOnProject(Project project) {
+      return true;
+    }
+  }
+}
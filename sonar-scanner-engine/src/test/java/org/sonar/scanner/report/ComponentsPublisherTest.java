@@ -28,12 +28,14 @@ import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 import org.sonar.api.CoreProperties;
 import org.sonar.api.batch.bootstrap.ProjectDefinition;
+import org.sonar.api.batch.fs.InputFile;
 import org.sonar.api.batch.fs.InputFile.Type;
 import org.sonar.api.batch.fs.internal.DefaultInputDir;
 import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputModule;
 import org.sonar.api.batch.fs.internal.InputModuleHierarchy;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
+import org.sonar.api.config.internal.MapSettings;
 import org.sonar.api.utils.DateUtils;
 import org.sonar.scanner.ProjectAnalysisInfo;
 import org.sonar.scanner.protocol.output.FileStructure;
@@ -57,6 +59,9 @@ public class ComponentsPublisherTest {
   private File outputDir;
   private ScannerReportWriter writer;
 
+  private MapSettings settings = new MapSettings();
+  private UnchangedSources unchangedSources = new UnchangedSources(settings.asConfig());
+
   @Before
   public void setUp() throws IOException {
     tree = new DefaultComponentTree();
@@ -108,7 +113,7 @@ public class ComponentsPublisherTest {
     DefaultInputFile testFile = new TestInputFileBuilder("module1", "test/FooTest.java", 7).setType(Type.TEST).setLines(4).build();
     tree.index(testFile, dir);
 
-    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree);
+    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree, unchangedSources);
     publisher.publish(writer);
 
     assertThat(writer.hasComponentData(FileStructure.Domain.COMPONENT, 1)).isTrue();
@@ -174,7 +179,7 @@ public class ComponentsPublisherTest {
     DefaultInputFile file3 = new TestInputFileBuilder("module1", "src2/Foo3.java", 7).setPublish(false).setLines(2).build();
     tree.index(file3, dir3);
 
-    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree);
+    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree, unchangedSources);
     publisher.publish(writer);
 
     assertThat(writer.hasComponentData(FileStructure.Domain.COMPONENT, 1)).isTrue();
@@ -222,7 +227,7 @@ public class ComponentsPublisherTest {
     DefaultInputFile testFile = new TestInputFileBuilder("module1", "test/FooTest.java", 6).setType(Type.TEST).setLines(4).build();
     tree.index(testFile, dir);
 
-    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree);
+    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree, unchangedSources);
     publisher.publish(writer);
 
     assertThat(writer.hasComponentData(FileStructure.Domain.COMPONENT, 1)).isTrue();
@@ -283,7 +288,7 @@ public class ComponentsPublisherTest {
     DefaultInputFile file = new TestInputFileBuilder("module1", "src/Foo.java", 4).setLines(2).build();
     tree.index(file, dir);
 
-    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree);
+    ComponentsPublisher publisher = new ComponentsPublisher(moduleHierarchy, tree, unchangedSources);
     publisher.publish(writer);
 
     ScannerReportReader reader = new ScannerReportReader(outputDir);
@@ -299,4 +304,27 @@ public class ComponentsPublisherTest {
     assertThat(module1Protobuf.getLink(0).getType()).isEqualTo(ComponentLinkType.CI);
     assertThat(module1Protobuf.getLink(0).getHref()).isEqualTo("http://ci");
   }
+
+  @Test
+  public void ask_to_copy_source_of_unchanged_files_from_previous_analysis() throws IOException {
+    DefaultInputModule root = new DefaultInputModule(ProjectDefinition.create().setKey("foo"), 1);
+    moduleHierarchy = mock(InputModuleHierarchy.class);
+    when(moduleHierarchy.root()).thenReturn(root);
+    DefaultInputDir dir = new DefaultInputDir("foo", "src", 2);
+    tree.index(dir, root);
+    DefaultInputFile unchangedFile = new TestInputFileBuilder("foo", "src/Foo.java", 3).setLines(2).setStatus(InputFile.Status.SAME).setHash("abc").build();
+    tree.index(unchangedFile, dir);
+    DefaultInputFile changedFile = new TestInputFileBuilder("foo", "src/Bar.java", 4).setLines(2).setStatus(InputFile.Status.CHANGED).setHash("def").build();
+    tree.index(changedFile, dir);
+
+    new ComponentsPublisher(moduleHierarchy, tree, unchangedSources).publish(writer);
+
+    ScannerReportReader reader = new ScannerReportReader(outputDir);
+    Component unchanged = reader.readComponent(3);
+    assertThat(unchanged.getCopySourceFromPrevious()).isTrue();
+    assertThat(unchanged.getSourceHash()).isEqualTo("abc");
+    Component changed = reader.readComponent(4);
+    assertThat(changed.getCopySourceFromPrevious()).isFalse();
+    assertThat(changed.getSourceHash()).isEmpty();
+  }
 }
@@ -21,7 +21,10 @@ package org.sonar.scanner.report;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import org.apache.commons.io.FileUtils;
 import org.junit.Before;
 import org.junit.Rule;
@@ -35,6 +38,8 @@ import org.sonar.scanner.protocol.output.ScannerReportWriter;
 import org.sonar.scanner.scan.filesystem.InputComponentStore;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class SourcePublisherTest {
 
@@ -44,10 +49,13 @@ public class SourcePublisherTest {
   private File sourceFile;
   private ScannerReportWriter writer;
   private DefaultInputFile inputFile;
+  private File baseDir;
+  private InputComponentStore componentStore;
+  private UnchangedSources unchangedSources = mock(UnchangedSources.class);
 
   @Before
   public void prepare() throws IOException {
-    File baseDir = temp.newFolder();
+    baseDir = temp.newFolder();
     sourceFile = new File(baseDir, "src/Foo.php");
     String moduleKey = "foo";
     inputFile = new TestInputFileBuilder(moduleKey, "src/Foo.php")
@@ -57,10 +65,10 @@ public class SourcePublisherTest {
       .build();
 
     DefaultInputModule rootModule = TestInputFileBuilder.newDefaultInputModule(moduleKey, baseDir);
-    InputComponentStore componentStore = new InputComponentStore(new PathResolver(), rootModule);
+    componentStore = new InputComponentStore(new PathResolver(), rootModule);
     componentStore.put(inputFile);
 
-    publisher = new SourcePublisher(componentStore);
+    publisher = new SourcePublisher(componentStore, unchangedSources);
     File outputDir = temp.newFolder();
     writer = new ScannerReportWriter(outputDir);
   }
@@ -115,4 +123,66 @@ public class SourcePublisherTest {
     File out = writer.getSourceFile(inputFile.batchId());
     assertThat(FileUtils.readFileToString(out, StandardCharsets.UTF_8)).isEqualTo("\n2\n3\n4\n5");
   }
+
+  @Test
+  public void do_not_publish_source_of_unchanged_file() throws Exception {
+    FileUtils.write(sourceFile, "1\n2\n3\n4\n5", StandardCharsets.ISO_8859_1);
+    when(unchangedSources.isUnchanged(inputFile)).thenReturn(true);
+
+    publisher.publish(writer);
+
+    assertThat(writer.getSourceFile(inputFile.batchId())).doesNotExist();
+  }
+
+  @Test
+  public void copy_utf8_source_and_clean_line_ends() throws Exception {
+    DefaultInputFile utf8File = addFile("src/Bar.php", StandardCharsets.UTF_8, 5);
+    FileUtils.write(utf8File.file(), "\né\r\nà\nü\rö", StandardCharsets.UTF_8);
+    FileUtils.write(sourceFile, "1", StandardCharsets.ISO_8859_1);
+
+    publisher.publish(writer);
+
+    File out = writer.getSourceFile(utf8File.batchId());
+    assertThat(FileUtils.readFileToString(out, StandardCharsets.UTF_8)).isEqualTo("\né\nà\nü\nö");
+  }
+
+  @Test
+  public void copy_utf8_source_without_BOM() throws Exception {
+    DefaultInputFile utf8File = addFile("src/Bar.php", StandardCharsets.UTF_8, 2);
+    FileUtils.write(utf8File.file(), "\uFEFFé\r\n", StandardCharsets.UTF_8);
+    FileUtils.write(sourceFile, "1", StandardCharsets.ISO_8859_1);
+
+    publisher.publish(writer);
+
+    File out = writer.getSourceFile(utf8File.batchId());
+    assertThat(FileUtils.readFileToString(out, StandardCharsets.UTF_8)).isEqualTo("é\n");
+  }
+
+  @Test
+  public void publish_sources_of_many_files() throws Exception {
+    FileUtils.write(sourceFile, "1", StandardCharsets.ISO_8859_1);
+    List<DefaultInputFile> files = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      DefaultInputFile file = addFile("src/File" + i + ".php", StandardCharsets.UTF_8, 2);
+      FileUtils.write(file.file(), "file " + i + "\r\n", StandardCharsets.UTF_8);
+      files.add(file);
+    }
+
+    publisher.publish(writer);
+
+    for (int i = 0; i < files.size(); i++) {
+      File out = writer.getSourceFile(files.get(i).batchId());
+      assertThat(FileUtils.readFileToString(out, StandardCharsets.UTF_8)).isEqualTo("file " + i + "\n");
+    }
+  }
+
+  private DefaultInputFile addFile(String relativePath, Charset charset, int lines) {
+    DefaultInputFile file = new TestInputFileBuilder("foo", relativePath)
+      .setLines(lines)
+      .setModuleBaseDir(baseDir.toPath())
+      .setCharset(charset)
+      .build();
+    componentStore.put(file);
+    return file;
+  }
 }
@@ -106,8 +106,13 @@ public class InputComponentStoreTest {
     }
 
     InputFile addFile(String moduleKey, String relpath, String language) {
+      return addFile(moduleKey, relpath, language, Type.MAIN);
+    }
+
+    InputFile addFile(String moduleKey, String relpath, String language, Type type) {
       DefaultInputFile file = new TestInputFileBuilder(moduleKey, relpath)
         .setLanguage(language)
+        .setType(type)
         .build();
       put(file);
       return file;
@@ -143,4 +148,29 @@ public class InputComponentStoreTest {
     assertThat(tester.filesByModule(mod2Key)).containsExactly(mod2File);
     assertThat(tester.allFiles()).containsExactlyInAnyOrder(mod1File, mod2File);
   }
+
+  @Test
+  public void should_index_files_by_language_and_type_per_module_and_globally() throws IOException {
+    InputComponentStoreTester tester = new InputComponentStoreTester();
+
+    String mod1Key = "mod1";
+    InputFile mod1File = tester.addFile(mod1Key, "src/main/java/Foo.java", "java");
+    InputFile mod1Test = tester.addFile(mod1Key, "src/test/java/FooTest.java", "java", Type.TEST);
+
+    String mod2Key = "mod2";
+    InputFile mod2File = tester.addFile(mod2Key, "src/main/groovy/Foo.groovy", "groovy");
+
+    assertThat(tester.getFilesByLanguage(mod1Key, "java")).containsExactly(mod1File, mod1Test);
+    assertThat(tester.getFilesByLanguage(mod2Key, "java")).isEmpty();
+    assertThat(tester.getFilesByLanguage("groovy")).containsExactly(mod2File);
+    assertThat(tester.getFilesByType(mod1Key, Type.TEST)).containsExactly(mod1Test);
+    assertThat(tester.getFilesByType(Type.MAIN)).containsExactly(mod1File, mod2File);
+
+    tester.remove(mod1Test);
+    tester.removeModule(mod2Key);
+
+    assertThat(tester.getFilesByLanguage("java")).containsExactly(mod1File);
+    assertThat(tester.getFilesByType(Type.TEST)).isEmpty();
+    assertThat(tester.getFilesByType(Type.MAIN)).containsExactly(mod1File);
+  }
 }
@@ -28,6 +28,7 @@ import org.junit.rules.ExpectedException;
 import org.junit.rules.TemporaryFolder;
 import org.mockito.ArgumentCaptor;
 import org.sonar.api.batch.fs.InputFile;
+import org.sonar.api.batch.fs.internal.DefaultInputFile;
 import org.sonar.api.batch.fs.internal.DefaultInputModule;
 import org.sonar.api.batch.fs.internal.TestInputFileBuilder;
 import org.sonar.api.batch.measure.MetricFinder;
@@ -40,8 +41,10 @@ import org.sonar.api.utils.KeyValueFormat;
 import org.sonar.core.metric.ScannerMetrics;
 import org.sonar.scanner.cpd.index.SonarCpdBlockIndex;
 import org.sonar.scanner.issue.ModuleIssues;
+import org.sonar.scanner.protocol.output.FileStructure;
 import org.sonar.scanner.protocol.output.ScannerReportWriter;
 import org.sonar.scanner.report.ReportPublisher;
+import org.sonar.scanner.report.UnchangedSources;
 import org.sonar.scanner.repository.ContextPropertiesCache;
 import org.sonar.scanner.scan.measure.MeasureCache;
 import org.sonar.scanner.sensor.coverage.CoverageExclusions;
@@ -66,6 +69,7 @@ public class DefaultSensorStorageTest {
   private ModuleIssues moduleIssues;
   private MeasureCache measureCache;
   private ContextPropertiesCache contextPropertiesCache = new ContextPropertiesCache();
+  private ReportPublisher reportPublisher;
 
   @Before
   public void prepare() throws Exception {
@@ -77,11 +81,11 @@ public class DefaultSensorStorageTest {
     measureCache = mock(MeasureCache.class);
     CoverageExclusions coverageExclusions = mock(CoverageExclusions.class);
     when(coverageExclusions.isExcluded(any(InputFile.class))).thenReturn(false);
-    ReportPublisher reportPublisher = mock(ReportPublisher.class);
+    reportPublisher = mock(ReportPublisher.class);
     when(reportPublisher.getWriter()).thenReturn(new ScannerReportWriter(temp.newFolder()));
     underTest = new DefaultSensorStorage(metricFinder,
       moduleIssues, settings.asConfig(), coverageExclusions, reportPublisher, measureCache,
-      mock(SonarCpdBlockIndex.class), contextPropertiesCache, new ScannerMetrics());
+      mock(SonarCpdBlockIndex.class), contextPropertiesCache, new ScannerMetrics(), new UnchangedSources(settings.asConfig()));
   }
 
   @Test
@@ -151,6 +155,21 @@ public class DefaultSensorStorageTest {
     underTest.store(st);
   }
 
+  @Test
+  public void do_not_write_highlighting_and_symbols_of_unchanged_file() throws Exception {
+    InputFile inputFile = new TestInputFileBuilder("foo", "src/Foo.java")
+      .setModuleBaseDir(temp.newFolder().toPath()).setStatus(InputFile.Status.SAME).setHash("abc").build();
+
+    underTest.store(new DefaultHighlighting(null).onFile(inputFile));
+    underTest.store(new DefaultSymbolTable(null).onFile(inputFile));
+
+    ScannerReportWriter writer = reportPublisher.getWriter();
+    int ref = ((DefaultInputFile) inputFile).batchId();
+    assertThat(writer.hasComponentData(FileStructure.Domain.SYNTAX_HIGHLIGHTINGS, ref)).isFalse();
+    assertThat(writer.hasComponentData(FileStructure.Domain.SYMBOLS, ref)).isFalse();
+    assertThat(((DefaultInputFile) inputFile).publish()).isTrue();
+  }
+
   @Test
   public void shouldStoreContextProperty() {
     underTest.storeProperty("foo", "bar");